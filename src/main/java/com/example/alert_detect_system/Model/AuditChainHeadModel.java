@@ -0,0 +1,42 @@
+package com.example.alert_detect_system.Model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+/**
+ * The last link of one audit hash chain. Writers lock this row (SELECT ... FOR UPDATE) for the
+ * rest of their transaction before chaining onto it, so appends to a chain serialize across
+ * transactions and nodes, and a rolled-back append rolls the head back with it.
+ */
+@Entity
+@Table(name = "audit_chain_heads")
+public class AuditChainHeadModel {
+
+    @Id
+    @Column(length = 100)
+    private String chainKey;
+
+    @Column(nullable = false)
+    private long sequence;
+
+    @Column(length = 64, nullable = false)
+    private String hash;
+
+    public AuditChainHeadModel() {
+    }
+
+    public AuditChainHeadModel(String chainKey, long sequence, String hash) {
+        this.chainKey = chainKey;
+        this.sequence = sequence;
+        this.hash = hash;
+    }
+
+    public String getChainKey() { return chainKey; }
+    public void setChainKey(String chainKey) { this.chainKey = chainKey; }
+    public long getSequence() { return sequence; }
+    public void setSequence(long sequence) { this.sequence = sequence; }
+    public String getHash() { return hash; }
+    public void setHash(String hash) { this.hash = hash; }
+}
@@ -3,22 +3,29 @@ package com.example.alert_detect_system.Model;
 import java.time.LocalDateTime;
 import java.util.UUID;
 
+import com.example.alert_detect_system.db.TimeOrderedUuid;
+
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 
 @Entity
-@Table(name = "Audit_log")
+@Table(name = "Audit_log", indexes = {
+    @Index(name = "idx_audit_case_timestamp", columnList = "caseId, timestamp"),
+    @Index(name = "idx_audit_timestamp", columnList = "timestamp")
+}, uniqueConstraints = {
+    @UniqueConstraint(name = "uk_audit_chain_sequence", columnNames = {"chainKey", "sequence"})
+})
 public class AuditLogModel {
    
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @TimeOrderedUuid
     private UUID id;
 
-    @Column(nullable = false)
+    // Null for task-level records of tasks without a case
     private UUID caseId;
 
     @Column(nullable = false)
@@ -39,6 +46,18 @@ public class AuditLogModel {
     // Optional: Task-level audit (for assignment/reassignment)
     private String taskId;
 
+    // Tamper-evidence: position in the per-case chain and SHA-256 links (see AuditHashChain)
+    @Column(length = 100)
+    private String chainKey;
+
+    private Long sequence;
+
+    @Column(length = 64)
+    private String prevHash;
+
+    @Column(length = 64)
+    private String hash;
+
     // Constructors
     public AuditLogModel() {
         this.timestamp = LocalDateTime.now();
@@ -79,4 +98,16 @@ public class AuditLogModel {
 
     public String getTaskId() { return taskId; }
     public void setTaskId(String taskId) { this.taskId = taskId; }
+
+    public String getChainKey() { return chainKey; }
+    public void setChainKey(String chainKey) { this.chainKey = chainKey; }
+
+    public Long getSequence() { return sequence; }
+    public void setSequence(Long sequence) { this.sequence = sequence; }
+
+    public String getPrevHash() { return prevHash; }
+    public void setPrevHash(String prevHash) { this.prevHash = prevHash; }
+
+    public String getHash() { return hash; }
+    public void setHash(String hash) { this.hash = hash; }
 }
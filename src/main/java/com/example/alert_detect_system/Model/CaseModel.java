@@ -3,17 +3,18 @@ package com.example.alert_detect_system.Model;
 import java.time.LocalDateTime;
 import java.util.UUID;
 
+import com.example.alert_detect_system.db.TimeOrderedUuid;
+
 import jakarta.persistence.Entity;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 
 @Entity
 @Table(name = "cases")
 public class CaseModel {
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @TimeOrderedUuid
     private UUID id;
     
     private String caseNumber;
@@ -41,6 +42,10 @@ public class CaseModel {
     
     private LocalDateTime updatedAt;
     private String processInstanceId;
+
+    // Optimistic concurrency: bumped on every update, including conditional status transitions
+    @Version
+    private Long version;
     
     // Constructors
     public CaseModel() {
@@ -93,4 +98,7 @@ public class CaseModel {
     
     public String getProcessInstanceId() { return processInstanceId; }
     public void setProcessInstanceId(String processInstanceId) { this.processInstanceId = processInstanceId; }
+
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
 }
@@ -0,0 +1,45 @@
+package com.example.alert_detect_system.Model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+/**
+ * A named lease shared by all application nodes. The owner holds the lock until lockedUntil
+ * (epoch millis); after that any node may take it over, which bumps the fencing token.
+ */
+@Entity
+@Table(name = "cluster_locks")
+public class ClusterLockModel {
+
+    @Id
+    @Column(length = 100)
+    private String name;
+
+    @Column(length = 100)
+    private String owner;
+
+    @Column(nullable = false)
+    private long lockedUntil;
+
+    // Incremented on every change of owner, so a stale holder can be told apart from the current one
+    @Column(nullable = false)
+    private long token;
+
+    public ClusterLockModel() {
+    }
+
+    public ClusterLockModel(String name) {
+        this.name = name;
+    }
+
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+    public String getOwner() { return owner; }
+    public void setOwner(String owner) { this.owner = owner; }
+    public long getLockedUntil() { return lockedUntil; }
+    public void setLockedUntil(long lockedUntil) { this.lockedUntil = lockedUntil; }
+    public long getToken() { return token; }
+    public void setToken(long token) { this.token = token; }
+}
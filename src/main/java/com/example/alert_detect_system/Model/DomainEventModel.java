@@ -0,0 +1,87 @@
+package com.example.alert_detect_system.Model;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import com.example.alert_detect_system.db.TimeOrderedUuid;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+
+/**
+ * One change to a case or task, appended in the same transaction as the change itself and never
+ * updated afterwards. {@code data} holds only the fields that changed, as a JSON object; folding
+ * an aggregate's events in sequence order yields its state.
+ */
+@Entity
+@Table(name = "domain_events", indexes = {
+    @Index(name = "idx_domain_events_shard", columnList = "aggregateType, shard, aggregateId"),
+    // Other nodes poll for recent events (ChangeFeedService)
+    @Index(name = "idx_domain_events_occurred_at", columnList = "occurredAt")
+}, uniqueConstraints = {
+    // Two writers appending the same sequence means one of them worked from a stale state
+    @UniqueConstraint(name = "uk_domain_events_sequence", columnNames = {"aggregateType", "aggregateId", "sequence"})
+})
+public class DomainEventModel {
+
+    @Id
+    @TimeOrderedUuid
+    private UUID id;
+
+    @Column(nullable = false, length = 20)
+    private String aggregateType;
+
+    @Column(nullable = false)
+    private UUID aggregateId;
+
+    @Column(nullable = false)
+    private long sequence;
+
+    // Hash of the aggregate id; projection rebuilds fan out over shards
+    @Column(nullable = false)
+    private int shard;
+
+    @Column(nullable = false, length = 30)
+    private String eventType;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String data;
+
+    @Column(nullable = false)
+    private LocalDateTime occurredAt;
+
+    public DomainEventModel() {
+    }
+
+    public DomainEventModel(String aggregateType, UUID aggregateId, long sequence, int shard, String eventType,
+                            String data, LocalDateTime occurredAt) {
+        this.aggregateType = aggregateType;
+        this.aggregateId = aggregateId;
+        this.sequence = sequence;
+        this.shard = shard;
+        this.eventType = eventType;
+        this.data = data;
+        this.occurredAt = occurredAt;
+    }
+
+    public UUID getId() { return id; }
+    public void setId(UUID id) { this.id = id; }
+    public String getAggregateType() { return aggregateType; }
+    public void setAggregateType(String aggregateType) { this.aggregateType = aggregateType; }
+    public UUID getAggregateId() { return aggregateId; }
+    public void setAggregateId(UUID aggregateId) { this.aggregateId = aggregateId; }
+    public long getSequence() { return sequence; }
+    public void setSequence(long sequence) { this.sequence = sequence; }
+    public int getShard() { return shard; }
+    public void setShard(int shard) { this.shard = shard; }
+    public String getEventType() { return eventType; }
+    public void setEventType(String eventType) { this.eventType = eventType; }
+    public String getData() { return data; }
+    public void setData(String data) { this.data = data; }
+    public LocalDateTime getOccurredAt() { return occurredAt; }
+    public void setOccurredAt(LocalDateTime occurredAt) { this.occurredAt = occurredAt; }
+}
@@ -0,0 +1,70 @@
+package com.example.alert_detect_system.Model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+/**
+ * Persisted copy of the in-memory entity risk aggregates, written behind by EntityRiskService.
+ * The open risk scores are kept as count, sum and the highest few, so the avg and max can be
+ * restored without scanning cases and the row stays small however many cases the entity has.
+ */
+@Entity
+@Table(name = "entity_risk_profiles", indexes = {
+    @Index(name = "idx_entity_risk_updated_at", columnList = "updatedAt")
+})
+public class EntityRiskProfileModel {
+
+    // Normalized (trimmed, upper-case) entity name
+    @Id
+    private String entity;
+
+    private int openCases;
+
+    private int totalCases;
+
+    private double averageOpenRiskScore;
+
+    private double maxOpenRiskScore;
+
+    // "TYPOLOGY=count,..." histogram over all cases of the entity
+    @Column(columnDefinition = "TEXT")
+    private String typologyCounts;
+
+    // Open cases with a risk score, and the sum of those scores
+    private int scoredOpenCases;
+
+    private double openRiskSum;
+
+    // Comma-separated highest risk scores of the open cases, at most EntityRiskTable.DEFAULT_TOP_RISKS
+    @Column(length = 1024)
+    private String topOpenRiskScores;
+
+    // Other nodes refresh their tables from the rows changed since they last looked
+    private LocalDateTime updatedAt;
+
+    public String getEntity() { return entity; }
+    public void setEntity(String entity) { this.entity = entity; }
+    public int getOpenCases() { return openCases; }
+    public void setOpenCases(int openCases) { this.openCases = openCases; }
+    public int getTotalCases() { return totalCases; }
+    public void setTotalCases(int totalCases) { this.totalCases = totalCases; }
+    public double getAverageOpenRiskScore() { return averageOpenRiskScore; }
+    public void setAverageOpenRiskScore(double averageOpenRiskScore) { this.averageOpenRiskScore = averageOpenRiskScore; }
+    public double getMaxOpenRiskScore() { return maxOpenRiskScore; }
+    public void setMaxOpenRiskScore(double maxOpenRiskScore) { this.maxOpenRiskScore = maxOpenRiskScore; }
+    public String getTypologyCounts() { return typologyCounts; }
+    public void setTypologyCounts(String typologyCounts) { this.typologyCounts = typologyCounts; }
+    public int getScoredOpenCases() { return scoredOpenCases; }
+    public void setScoredOpenCases(int scoredOpenCases) { this.scoredOpenCases = scoredOpenCases; }
+    public double getOpenRiskSum() { return openRiskSum; }
+    public void setOpenRiskSum(double openRiskSum) { this.openRiskSum = openRiskSum; }
+    public String getTopOpenRiskScores() { return topOpenRiskScores; }
+    public void setTopOpenRiskScores(String topOpenRiskScores) { this.topOpenRiskScores = topOpenRiskScores; }
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+}
@@ -0,0 +1,68 @@
+package com.example.alert_detect_system.Model;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import com.example.alert_detect_system.db.TimeOrderedUuid;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+
+/**
+ * Full state of an aggregate as of one of its events, written every few events so that a replay
+ * starts from the nearest snapshot instead of the first event.
+ */
+@Entity
+@Table(name = "event_snapshots", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_event_snapshots_sequence", columnNames = {"aggregateType", "aggregateId", "sequence"})
+})
+public class EventSnapshotModel {
+
+    @Id
+    @TimeOrderedUuid
+    private UUID id;
+
+    @Column(nullable = false, length = 20)
+    private String aggregateType;
+
+    @Column(nullable = false)
+    private UUID aggregateId;
+
+    @Column(nullable = false)
+    private long sequence;
+
+    // Null state: the aggregate was deleted by this event
+    @Column(columnDefinition = "TEXT")
+    private String state;
+
+    // occurredAt of the event the snapshot was taken at
+    @Column(nullable = false)
+    private LocalDateTime takenAt;
+
+    public EventSnapshotModel() {
+    }
+
+    public EventSnapshotModel(String aggregateType, UUID aggregateId, long sequence, String state, LocalDateTime takenAt) {
+        this.aggregateType = aggregateType;
+        this.aggregateId = aggregateId;
+        this.sequence = sequence;
+        this.state = state;
+        this.takenAt = takenAt;
+    }
+
+    public UUID getId() { return id; }
+    public void setId(UUID id) { this.id = id; }
+    public String getAggregateType() { return aggregateType; }
+    public void setAggregateType(String aggregateType) { this.aggregateType = aggregateType; }
+    public UUID getAggregateId() { return aggregateId; }
+    public void setAggregateId(UUID aggregateId) { this.aggregateId = aggregateId; }
+    public long getSequence() { return sequence; }
+    public void setSequence(long sequence) { this.sequence = sequence; }
+    public String getState() { return state; }
+    public void setState(String state) { this.state = state; }
+    public LocalDateTime getTakenAt() { return takenAt; }
+    public void setTakenAt(LocalDateTime takenAt) { this.takenAt = takenAt; }
+}
@@ -0,0 +1,81 @@
+package com.example.alert_detect_system.Model;
+
+import java.time.LocalDateTime;
+
+import org.springframework.data.domain.Persistable;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+/**
+ * Durable copy of an idempotency key and the response it produced, shared by all nodes and
+ * surviving restarts. A row without a status is a claim: some node is executing the request.
+ */
+@Entity
+@Table(name = "idempotency_keys", indexes = {
+    @Index(name = "idx_idempotency_keys_expires_at", columnList = "expiresAt")
+})
+public class IdempotencyKeyModel implements Persistable<String> {
+
+    // SHA-256 of caller, method, path and the client's key
+    @Id
+    @Column(length = 64)
+    private String keyHash;
+
+    // SHA-256 of the request body, to catch a key reused for a different request
+    @Column(nullable = false, length = 64)
+    private String requestHash;
+
+    private Integer status;
+
+    private String contentType;
+
+    @Column(length = 500)
+    private String location;
+
+    @Column(columnDefinition = "TEXT")
+    private String body;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+
+    public IdempotencyKeyModel() {
+    }
+
+    public IdempotencyKeyModel(String keyHash, String requestHash, LocalDateTime createdAt, LocalDateTime expiresAt) {
+        this.keyHash = keyHash;
+        this.requestHash = requestHash;
+        this.createdAt = createdAt;
+        this.expiresAt = expiresAt;
+    }
+
+    // Rows are only ever inserted through save(); a plain INSERT makes a concurrent claim fail on the key
+    @Override
+    public String getId() { return keyHash; }
+
+    @Override
+    public boolean isNew() { return true; }
+
+    public String getKeyHash() { return keyHash; }
+    public void setKeyHash(String keyHash) { this.keyHash = keyHash; }
+    public String getRequestHash() { return requestHash; }
+    public void setRequestHash(String requestHash) { this.requestHash = requestHash; }
+    public Integer getStatus() { return status; }
+    public void setStatus(Integer status) { this.status = status; }
+    public String getContentType() { return contentType; }
+    public void setContentType(String contentType) { this.contentType = contentType; }
+    public String getLocation() { return location; }
+    public void setLocation(String location) { this.location = location; }
+    public String getBody() { return body; }
+    public void setBody(String body) { this.body = body; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+    public LocalDateTime getExpiresAt() { return expiresAt; }
+    public void setExpiresAt(LocalDateTime expiresAt) { this.expiresAt = expiresAt; }
+}
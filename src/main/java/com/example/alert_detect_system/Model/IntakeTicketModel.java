@@ -0,0 +1,84 @@
+package com.example.alert_detect_system.Model;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import org.springframework.data.domain.Persistable;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+/**
+ * Shared copy of a case intake ticket, so any node can answer a status poll. Written when the
+ * ticket is accepted and again when it completes or fails; the stages in between are only visible
+ * on the node running them.
+ */
+@Entity
+@Table(name = "intake_tickets", indexes = {
+    @Index(name = "idx_intake_tickets_expires_at", columnList = "expiresAt")
+})
+public class IntakeTicketModel implements Persistable<UUID> {
+
+    @Id
+    private UUID id;
+
+    @Column(nullable = false, length = 20)
+    private String status;
+
+    @Column(nullable = false)
+    private String createdBy;
+
+    private UUID caseId;
+
+    @Column(length = 20)
+    private String failedStage;
+
+    @Column(columnDefinition = "TEXT")
+    private String error;
+
+    @Column(nullable = false)
+    private LocalDateTime receivedAt;
+
+    private LocalDateTime finishedAt;
+
+    // Unfinished tickets expire too, in case the node running them died
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+
+    public IntakeTicketModel() {
+    }
+
+    public IntakeTicketModel(UUID id, String status, String createdBy, LocalDateTime receivedAt, LocalDateTime expiresAt) {
+        this.id = id;
+        this.status = status;
+        this.createdBy = createdBy;
+        this.receivedAt = receivedAt;
+        this.expiresAt = expiresAt;
+    }
+
+    // Inserted once through save(); later changes go through IntakeTicketRepository.finish
+    @Override
+    public boolean isNew() { return true; }
+
+    public UUID getId() { return id; }
+    public void setId(UUID id) { this.id = id; }
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+    public String getCreatedBy() { return createdBy; }
+    public void setCreatedBy(String createdBy) { this.createdBy = createdBy; }
+    public UUID getCaseId() { return caseId; }
+    public void setCaseId(UUID caseId) { this.caseId = caseId; }
+    public String getFailedStage() { return failedStage; }
+    public void setFailedStage(String failedStage) { this.failedStage = failedStage; }
+    public String getError() { return error; }
+    public void setError(String error) { this.error = error; }
+    public LocalDateTime getReceivedAt() { return receivedAt; }
+    public void setReceivedAt(LocalDateTime receivedAt) { this.receivedAt = receivedAt; }
+    public LocalDateTime getFinishedAt() { return finishedAt; }
+    public void setFinishedAt(LocalDateTime finishedAt) { this.finishedAt = finishedAt; }
+    public LocalDateTime getExpiresAt() { return expiresAt; }
+    public void setExpiresAt(LocalDateTime expiresAt) { this.expiresAt = expiresAt; }
+}
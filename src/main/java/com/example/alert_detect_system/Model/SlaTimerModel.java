@@ -0,0 +1,63 @@
+package com.example.alert_detect_system.Model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+/**
+ * A pending SLA deadline. One row per open task with a due date; the row is deleted when the
+ * task completes or its breach has been escalated, so the table only ever holds live timers.
+ */
+@Entity
+@Table(name = "sla_timers", indexes = {
+    @Index(name = "idx_sla_timers_due_at", columnList = "dueAt")
+})
+public class SlaTimerModel {
+
+    public static final String SOURCE_TASK = "TASK";
+    public static final String SOURCE_FLOWABLE = "FLOWABLE";
+
+    // "task:<TaskModel id>" or "flowable:<Flowable task id>"
+    @Id
+    @Column(length = 100)
+    private String timerKey;
+
+    @Column(nullable = false)
+    private String taskId;
+
+    @Column(nullable = false, length = 20)
+    private String source;
+
+    @Column(nullable = false)
+    private LocalDateTime dueAt;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    public SlaTimerModel() {
+        this.createdAt = LocalDateTime.now();
+    }
+
+    public SlaTimerModel(String timerKey, String taskId, String source, LocalDateTime dueAt) {
+        this();
+        this.timerKey = timerKey;
+        this.taskId = taskId;
+        this.source = source;
+        this.dueAt = dueAt;
+    }
+
+    public String getTimerKey() { return timerKey; }
+    public void setTimerKey(String timerKey) { this.timerKey = timerKey; }
+    public String getTaskId() { return taskId; }
+    public void setTaskId(String taskId) { this.taskId = taskId; }
+    public String getSource() { return source; }
+    public void setSource(String source) { this.source = source; }
+    public LocalDateTime getDueAt() { return dueAt; }
+    public void setDueAt(LocalDateTime dueAt) { this.dueAt = dueAt; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+}
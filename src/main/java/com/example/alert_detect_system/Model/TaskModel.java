@@ -3,12 +3,13 @@ package com.example.alert_detect_system.Model;
 import java.time.LocalDateTime;
 import java.util.UUID;
 
+import com.example.alert_detect_system.db.TimeOrderedUuid;
+
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -19,7 +20,7 @@ import lombok.Setter;
 public class TaskModel {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @TimeOrderedUuid
     private UUID id;
     
     @Column(nullable = false)
@@ -133,6 +134,12 @@ public class TaskModel {
     private String completedBy;
     
     private LocalDateTime completedAt;
+
+    // Set when an SLA breach was escalated; a due date after this re-arms the timer
+    private LocalDateTime escalatedAt;
+
+    @Version
+    private Long version;
     
     // Constructors
     public TaskModel() {
@@ -188,4 +195,20 @@ public class TaskModel {
     public void setId(UUID id) {
         this.id = id;
     }
+
+    public LocalDateTime getEscalatedAt() {
+        return escalatedAt;
+    }
+
+    public void setEscalatedAt(LocalDateTime escalatedAt) {
+        this.escalatedAt = escalatedAt;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,215 @@
+package com.example.alert_detect_system.audit;
+
+import java.io.BufferedWriter;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.example.alert_detect_system.Model.AuditLogModel;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Cold storage for aged audit rows.
+ *
+ * Layout: {@code <dir>/<yyyy-MM>/segment-<n>.seg} plus a {@code .idx} sidecar. A segment is a
+ * sequence of independently gzipped blocks, one per case, so a case's history can be read by
+ * seeking to its block without inflating the rest of the file. Segments are written once and
+ * never modified; the index is published last, so a half-written segment is simply ignored.
+ * With several nodes the directory is shared storage; segments the leader writes are picked up
+ * by the other nodes every {@code audit.archive.refresh-interval-ms}.
+ */
+@Component
+public class AuditArchiveStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuditArchiveStore.class);
+
+    // Task-level audit rows have no case; they are archived under the nil UUID
+    public static final UUID NO_CASE = new UUID(0L, 0L);
+
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final String INDEX_SUFFIX = ".idx";
+
+    @Value("${audit.archive.dir:data/audit-archive}")
+    private String archiveDir;
+
+    private Path root;
+    private long segmentCounter;
+    private final Map<UUID, List<BlockRef>> caseIndex = new ConcurrentHashMap<>();
+    private final Set<Path> loadedIndexes = ConcurrentHashMap.newKeySet();
+
+    @PostConstruct
+    public void load() throws IOException {
+        root = Paths.get(archiveDir);
+        Files.createDirectories(root);
+        int segments = loadNewIndexes();
+        logger.info("Audit archive loaded from {}: {} segments, {} cases", root.toAbsolutePath(), segments, caseIndex.size());
+    }
+
+    /**
+     * Loads segments written since the last look, e.g. by the leader on another node.
+     */
+    @Scheduled(fixedDelayString = "${audit.archive.refresh-interval-ms:60000}", initialDelayString = "${audit.archive.refresh-interval-ms:60000}")
+    public void refresh() {
+        try {
+            int segments = loadNewIndexes();
+            if (segments > 0) {
+                logger.debug("Loaded {} audit segments written elsewhere", segments);
+            }
+        } catch (IOException e) {
+            logger.warn("Could not scan audit archive {}", root, e);
+        }
+    }
+
+    private synchronized int loadNewIndexes() throws IOException {
+        int segments = 0;
+        try (Stream<Path> files = Files.walk(root, 2)) {
+            for (Path indexFile : files.filter(p -> p.toString().endsWith(INDEX_SUFFIX)).toList()) {
+                if (loadedIndexes.add(indexFile)) {
+                    loadIndex(indexFile);
+                    segments++;
+                }
+            }
+        }
+        return segments;
+    }
+
+    /**
+     * Writes one new segment in the given monthly partition. Records are grouped by case.
+     */
+    public synchronized Path writeSegment(YearMonth partition, Map<UUID, List<AuditLogModel>> recordsByCase) {
+        try {
+            Path partitionDir = root.resolve(partition.toString());
+            Files.createDirectories(partitionDir);
+            String baseName = "segment-" + System.currentTimeMillis() + "-" + (++segmentCounter);
+            Path segment = partitionDir.resolve(baseName + SEGMENT_SUFFIX);
+            Path index = partitionDir.resolve(baseName + INDEX_SUFFIX);
+
+            List<String> indexLines = new ArrayList<>(recordsByCase.size());
+            List<BlockRef> refs = new ArrayList<>(recordsByCase.size());
+            try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+                long offset = 0;
+                for (Map.Entry<UUID, List<AuditLogModel>> entry : recordsByCase.entrySet()) {
+                    byte[] block = compress(entry.getValue());
+                    ByteBuffer buffer = ByteBuffer.wrap(block);
+                    while (buffer.hasRemaining()) {
+                        channel.write(buffer);
+                    }
+                    UUID caseKey = entry.getKey() != null ? entry.getKey() : NO_CASE;
+                    indexLines.add(caseKey + "," + offset + "," + block.length);
+                    refs.add(new BlockRef(caseKey, segment, offset, block.length));
+                    offset += block.length;
+                }
+                channel.force(true);
+            }
+
+            Path tmpIndex = partitionDir.resolve(baseName + INDEX_SUFFIX + ".tmp");
+            try (BufferedWriter writer = Files.newBufferedWriter(tmpIndex, StandardCharsets.UTF_8)) {
+                for (String line : indexLines) {
+                    writer.write(line);
+                    writer.newLine();
+                }
+            }
+            Files.move(tmpIndex, index, StandardCopyOption.ATOMIC_MOVE);
+            loadedIndexes.add(index);
+
+            for (BlockRef ref : refs) {
+                caseIndex.computeIfAbsent(ref.caseId(), k -> new CopyOnWriteArrayList<>()).add(ref);
+            }
+            return segment;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write audit segment for partition " + partition, e);
+        }
+    }
+
+    /**
+     * All archived records for a case, in no particular order.
+     */
+    public List<AuditLogModel> read(UUID caseId) {
+        List<BlockRef> refs = caseIndex.get(caseId != null ? caseId : NO_CASE);
+        if (refs == null || refs.isEmpty()) {
+            return List.of();
+        }
+        List<AuditLogModel> records = new ArrayList<>();
+        for (BlockRef ref : refs) {
+            try {
+                records.addAll(readBlock(ref));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to read audit segment " + ref.segment(), e);
+            }
+        }
+        return records;
+    }
+
+    public boolean hasArchivedRecords(UUID caseId) {
+        List<BlockRef> refs = caseIndex.get(caseId != null ? caseId : NO_CASE);
+        return refs != null && !refs.isEmpty();
+    }
+
+    private void loadIndex(Path indexFile) throws IOException {
+        String name = indexFile.getFileName().toString();
+        Path segment = indexFile.resolveSibling(name.substring(0, name.length() - INDEX_SUFFIX.length()) + SEGMENT_SUFFIX);
+        for (String line : Files.readAllLines(indexFile, StandardCharsets.UTF_8)) {
+            if (line.isBlank()) continue;
+            String[] parts = line.split(",");
+            UUID caseId = UUID.fromString(parts[0]);
+            BlockRef ref = new BlockRef(caseId, segment, Long.parseLong(parts[1]), Integer.parseInt(parts[2]));
+            caseIndex.computeIfAbsent(caseId, k -> new CopyOnWriteArrayList<>()).add(ref);
+        }
+    }
+
+    private static byte[] compress(List<AuditLogModel> records) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(new GZIPOutputStream(bytes))) {
+            AuditRecordCodec.writeBlock(out, records);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static List<AuditLogModel> readBlock(BlockRef ref) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(ref.length());
+        try (FileChannel channel = FileChannel.open(ref.segment(), StandardOpenOption.READ)) {
+            long position = ref.offset();
+            while (buffer.hasRemaining()) {
+                int read = channel.read(buffer, position);
+                if (read < 0) {
+                    throw new IOException("Truncated audit segment " + ref.segment());
+                }
+                position += read;
+            }
+        }
+        try (DataInputStream in = new DataInputStream(new GZIPInputStream(new ByteArrayInputStream(buffer.array())))) {
+            return AuditRecordCodec.readBlock(in);
+        }
+    }
+
+    private record BlockRef(UUID caseId, Path segment, long offset, int length) {}
+}
@@ -0,0 +1,99 @@
+package com.example.alert_detect_system.audit;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.format.DateTimeFormatter;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.UUID;
+
+import com.example.alert_detect_system.Model.AuditLogModel;
+
+/**
+ * SHA-256 hash chain over audit records. Each record's hash covers its predecessor's hash,
+ * its position in the chain and every business field, so editing, deleting or reordering
+ * any record breaks every hash after it.
+ */
+public final class AuditHashChain {
+
+    public static final String GENESIS_HASH = "0".repeat(64);
+
+    private static final byte[] NULL_MARKER = {-1, -1, -1, -1};
+    private static final HexFormat HEX = HexFormat.of();
+    private static final ThreadLocal<MessageDigest> DIGEST = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    });
+
+    private AuditHashChain() {}
+
+    /**
+     * One chain per case; task-level records without a case are chained per task.
+     */
+    public static String chainKey(UUID caseId, String taskId) {
+        return caseId != null ? caseId.toString() : "task:" + taskId;
+    }
+
+    public static String computeHash(AuditLogModel record) {
+        MessageDigest digest = DIGEST.get();
+        digest.reset();
+        update(digest, record.getPrevHash());
+        update(digest, record.getChainKey());
+        update(digest, Long.toString(record.getSequence()));
+        update(digest, record.getCaseId() != null ? record.getCaseId().toString() : null);
+        update(digest, record.getTaskId());
+        update(digest, record.getAction());
+        update(digest, record.getPerformedBy());
+        update(digest, record.getDetails());
+        update(digest, record.getOldValue());
+        update(digest, record.getNewValue());
+        update(digest, record.getTimestamp().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
+        return HEX.formatHex(digest.digest());
+    }
+
+    /**
+     * Checks a single chain sorted by sequence. Returns null when intact, otherwise a description
+     * of the first broken link.
+     */
+    public static String verify(List<AuditLogModel> chain) {
+        String expectedPrev = GENESIS_HASH;
+        long expectedSequence = 1;
+        for (AuditLogModel record : chain) {
+            if (record.getSequence() == null || record.getSequence() != expectedSequence) {
+                return describe(record, "expected sequence " + expectedSequence);
+            }
+            if (!expectedPrev.equals(record.getPrevHash())) {
+                return describe(record, "previous hash does not match");
+            }
+            if (!computeHash(record).equals(record.getHash())) {
+                return describe(record, "record content does not match its hash");
+            }
+            expectedPrev = record.getHash();
+            expectedSequence++;
+        }
+        return null;
+    }
+
+    private static String describe(AuditLogModel record, String problem) {
+        return "chain " + record.getChainKey() + " sequence " + record.getSequence() + " (id " + record.getId() + "): " + problem;
+    }
+
+    // Length-prefixed so field boundaries cannot be shifted between adjacent fields
+    private static void update(MessageDigest digest, String value) {
+        if (value == null) {
+            digest.update(NULL_MARKER);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        int length = bytes.length;
+        digest.update((byte) (length >>> 24));
+        digest.update((byte) (length >>> 16));
+        digest.update((byte) (length >>> 8));
+        digest.update((byte) length);
+        digest.update(bytes);
+    }
+}
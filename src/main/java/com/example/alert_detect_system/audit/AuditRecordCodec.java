@@ -0,0 +1,111 @@
+package com.example.alert_detect_system.audit;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import com.example.alert_detect_system.Model.AuditLogModel;
+
+/**
+ * Binary encoding of audit rows inside archive segment blocks.
+ * A block is {@code version, count, record*}; strings are length-prefixed UTF-8 with -1 for null.
+ * Version 2 appends the hash-chain fields; version 1 blocks are still readable.
+ */
+final class AuditRecordCodec {
+
+    static final byte FORMAT_VERSION = 2;
+    private static final byte FORMAT_VERSION_UNCHAINED = 1;
+
+    private AuditRecordCodec() {}
+
+    static void writeBlock(DataOutputStream out, List<AuditLogModel> records) throws IOException {
+        out.writeByte(FORMAT_VERSION);
+        out.writeInt(records.size());
+        for (AuditLogModel record : records) {
+            writeUuid(out, record.getId());
+            writeUuid(out, record.getCaseId());
+            writeString(out, record.getAction());
+            writeString(out, record.getPerformedBy());
+            writeString(out, record.getDetails());
+            out.writeLong(record.getTimestamp().toEpochSecond(ZoneOffset.UTC));
+            out.writeInt(record.getTimestamp().getNano());
+            writeString(out, record.getOldValue());
+            writeString(out, record.getNewValue());
+            writeString(out, record.getTaskId());
+            writeString(out, record.getChainKey());
+            out.writeLong(record.getSequence() != null ? record.getSequence() : -1L);
+            writeString(out, record.getPrevHash());
+            writeString(out, record.getHash());
+        }
+    }
+
+    static List<AuditLogModel> readBlock(DataInputStream in) throws IOException {
+        byte version = in.readByte();
+        if (version != FORMAT_VERSION && version != FORMAT_VERSION_UNCHAINED) {
+            throw new IOException("Unsupported audit segment format version: " + version);
+        }
+        int count = in.readInt();
+        List<AuditLogModel> records = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            AuditLogModel record = new AuditLogModel();
+            record.setId(readUuid(in));
+            record.setCaseId(readUuid(in));
+            record.setAction(readString(in));
+            record.setPerformedBy(readString(in));
+            record.setDetails(readString(in));
+            long epochSecond = in.readLong();
+            int nano = in.readInt();
+            record.setTimestamp(LocalDateTime.ofEpochSecond(epochSecond, nano, ZoneOffset.UTC));
+            record.setOldValue(readString(in));
+            record.setNewValue(readString(in));
+            record.setTaskId(readString(in));
+            if (version >= FORMAT_VERSION) {
+                record.setChainKey(readString(in));
+                long sequence = in.readLong();
+                record.setSequence(sequence >= 0 ? sequence : null);
+                record.setPrevHash(readString(in));
+                record.setHash(readString(in));
+            }
+            records.add(record);
+        }
+        return records;
+    }
+
+    private static void writeUuid(DataOutputStream out, UUID uuid) throws IOException {
+        out.writeBoolean(uuid != null);
+        if (uuid != null) {
+            out.writeLong(uuid.getMostSignificantBits());
+            out.writeLong(uuid.getLeastSignificantBits());
+        }
+    }
+
+    private static UUID readUuid(DataInputStream in) throws IOException {
+        return in.readBoolean() ? new UUID(in.readLong(), in.readLong()) : null;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.alert_detect_system.cache;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.example.alert_detect_system.db.ReplicaRoutingDataSource;
+import com.example.alert_detect_system.service.CaseChangedEvent;
+import com.example.alert_detect_system.service.RemoteChangesEvent;
+import com.example.alert_detect_system.service.TaskChangedEvent;
+
+/**
+ * One counter per collection, bumped after every committed write to it. List endpoints derive a
+ * weak ETag from the counters of the collections they read, so an unchanged list is answered with
+ * 304 before touching the database.
+ *
+ * Counters live in this JVM: every write path publishes an event here, and writes made by other
+ * instances arrive through the change feed within a poll interval. Writes made directly in the
+ * database are not seen.
+ */
+@Component
+public class CollectionVersions {
+
+    public enum Collection {
+        CASES,
+        TASKS,
+        WORKFLOW_TASKS
+    }
+
+    private final AtomicLongArray versions = new AtomicLongArray(Collection.values().length);
+    // Changes every start so tags handed out by a previous run never match
+    private final long epoch = ThreadLocalRandom.current().nextLong();
+
+    public long version(Collection collection) {
+        return versions.get(collection.ordinal());
+    }
+
+    public void bump(Collection collection) {
+        versions.incrementAndGet(collection.ordinal());
+    }
+
+    /**
+     * Stamp over the given collections and the request key (path, query); equal stamps mean the
+     * response cannot have changed. Read it before querying so a concurrent write can only make
+     * the tag older than the data, never newer. The counters move when the primary commits, so the
+     * rest of the request reads from the primary rather than a replica that may not have the write.
+     */
+    public long stamp(String requestKey, Collection... collections) {
+        ReplicaRoutingDataSource.pinRequestToPrimary();
+        long hash = mix(epoch, requestKey != null ? requestKey.hashCode() : 0);
+        for (Collection collection : collections) {
+            hash = mix(mix(hash, collection.ordinal()), version(collection));
+        }
+        return hash;
+    }
+
+    // After commit, so a reader can never pair the new version with uncommitted (old) rows
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCaseChanged(CaseChangedEvent event) {
+        bump(Collection.CASES);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskChanged(TaskChangedEvent event) {
+        bump(Collection.TASKS);
+    }
+
+    @EventListener
+    public void onRemoteChanges(RemoteChangesEvent event) {
+        if (event.casesChanged()) {
+            bump(Collection.CASES);
+        }
+        if (event.tasksChanged()) {
+            bump(Collection.TASKS);
+        }
+        if (event.workflowTasksChanged()) {
+            bump(Collection.WORKFLOW_TASKS);
+        }
+    }
+
+    private static long mix(long hash, long value) {
+        hash = (hash ^ value) * 0x9E3779B97F4A7C15L;
+        return hash ^ (hash >>> 31);
+    }
+}
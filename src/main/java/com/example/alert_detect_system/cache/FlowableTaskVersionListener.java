@@ -0,0 +1,43 @@
+package com.example.alert_detect_system.cache;
+
+import org.flowable.common.engine.api.delegate.event.FlowableEntityEvent;
+import org.flowable.common.engine.api.delegate.event.FlowableEvent;
+import org.flowable.common.engine.api.delegate.event.FlowableEventListener;
+import org.flowable.common.engine.impl.cfg.TransactionState;
+import org.flowable.task.api.Task;
+import org.springframework.beans.factory.ObjectProvider;
+
+/**
+ * Bumps {@link CollectionVersions.Collection#WORKFLOW_TASKS} whenever the engine commits a change
+ * to a user task (created, assigned, completed, updated or deleted).
+ */
+public class FlowableTaskVersionListener implements FlowableEventListener {
+
+    private final ObjectProvider<CollectionVersions> collectionVersions;
+
+    public FlowableTaskVersionListener(ObjectProvider<CollectionVersions> collectionVersions) {
+        this.collectionVersions = collectionVersions;
+    }
+
+    @Override
+    public void onEvent(FlowableEvent event) {
+        if (event instanceof FlowableEntityEvent entityEvent && entityEvent.getEntity() instanceof Task) {
+            collectionVersions.getObject().bump(CollectionVersions.Collection.WORKFLOW_TASKS);
+        }
+    }
+
+    @Override
+    public boolean isFailOnException() {
+        return false;
+    }
+
+    @Override
+    public boolean isFireOnTransactionLifecycleEvent() {
+        return true;
+    }
+
+    @Override
+    public String getOnTransaction() {
+        return TransactionState.COMMITTED.name();
+    }
+}
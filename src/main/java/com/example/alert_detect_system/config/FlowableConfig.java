@@ -1,9 +1,28 @@
 package com.example.alert_detect_system.config;
 
+import java.util.List;
+
+import org.flowable.spring.SpringProcessEngineConfiguration;
+import org.flowable.spring.boot.EngineConfigurationConfigurer;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import com.example.alert_detect_system.cache.CollectionVersions;
+import com.example.alert_detect_system.cache.FlowableTaskVersionListener;
+import com.example.alert_detect_system.service.SlaTimerService;
+import com.example.alert_detect_system.sla.FlowableTaskSlaListener;
+
 @Configuration
 public class FlowableConfig {
     // Let Flowable's auto-configuration handle all beans
     // No manual bean definitions needed with Spring Boot starter
-}
\ No newline at end of file
+
+    // Track due dates of workflow user tasks for SLA escalation, and task changes for list ETags
+    @Bean
+    public EngineConfigurationConfigurer<SpringProcessEngineConfiguration> slaEventListenerConfigurer(
+            ObjectProvider<SlaTimerService> slaTimerService, ObjectProvider<CollectionVersions> collectionVersions) {
+        return engineConfiguration -> engineConfiguration.setEventListeners(List.of(
+            new FlowableTaskSlaListener(slaTimerService), new FlowableTaskVersionListener(collectionVersions)));
+    }
+}
@@ -1,32 +1,102 @@
 package com.example.alert_detect_system.config;
 
+import java.time.Duration;
+
 import org.flowable.engine.RepositoryService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.stereotype.Component;
 
+import com.example.alert_detect_system.service.ClusterLockService;
+
 @Component
 public class FlowableProcessDeployment implements CommandLineRunner {
 
+    private static final Logger logger = LoggerFactory.getLogger(FlowableProcessDeployment.class);
+    private static final String PROCESS_KEY = "caseInvestigationProcess";
+    private static final String DEPLOY_LOCK = "deploy:" + PROCESS_KEY;
+    private static final Duration DEPLOY_LEASE = Duration.ofMinutes(1);
+    private static final long WAIT_TIMEOUT_MS = 120_000;
+
     @Autowired
     private RepositoryService repositoryService;
 
+    @Autowired
+    private ClusterLockService clusterLockService;
+
+    // Fast-start mode: check on the first workflow start instead of during startup
+    @Value("${workflow.deployment.deferred:false}")
+    private boolean deferred;
+
+    private volatile boolean deployed;
+
     @Override
     public void run(String... args) throws Exception {
-        // Check if the process is already deployed
-        long count = repositoryService.createProcessDefinitionQuery()
-                .processDefinitionKey("caseInvestigationProcess")
-                .count();
-
-        if (count == 0) {
-            // Deploy the BPMN process
-            repositoryService.createDeployment()
-                    .addClasspathResource("case-process.bpmn20.xml")
-                    .deploy();
-            
-            System.out.println("✅ Successfully deployed caseInvestigationProcess BPMN definition");
-        } else {
-            System.out.println("✅ caseInvestigationProcess already deployed");
+        if (deferred) {
+            logger.info("{} deployment check deferred to first use", PROCESS_KEY);
+            return;
+        }
+        deployIfMissing();
+        deployed = true;
+    }
+
+    /**
+     * Makes sure the process definition exists; only the first call after startup hits the database.
+     */
+    public void ensureDeployed() {
+        if (deployed) {
+            return;
+        }
+        synchronized (this) {
+            if (!deployed) {
+                try {
+                    deployIfMissing();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted while waiting for " + PROCESS_KEY + " deployment", e);
+                }
+                deployed = true;
+            }
+        }
+    }
+
+    private void deployIfMissing() throws InterruptedException {
+        // Nodes starting together race on the check-then-deploy; only the lock holder deploys,
+        // the others wait until the definition shows up
+        long deadline = System.currentTimeMillis() + WAIT_TIMEOUT_MS;
+        while (!isDeployed()) {
+            if (clusterLockService.tryLock(DEPLOY_LOCK, DEPLOY_LEASE)) {
+                try {
+                    if (!isDeployed()) {
+                        deploy();
+                        return;
+                    }
+                } finally {
+                    clusterLockService.release(DEPLOY_LOCK);
+                }
+                break;
+            }
+            if (System.currentTimeMillis() > deadline) {
+                throw new IllegalStateException("Timed out waiting for another node to deploy " + PROCESS_KEY);
+            }
+            Thread.sleep(500);
         }
+        logger.info("{} already deployed", PROCESS_KEY);
+    }
+
+    public boolean isDeployed() {
+        return repositoryService.createProcessDefinitionQuery()
+                .processDefinitionKey(PROCESS_KEY)
+                .count() > 0;
+    }
+
+    private void deploy() {
+        repositoryService.createDeployment()
+                .addClasspathResource("case-process.bpmn20.xml")
+                .deploy();
+        logger.info("Deployed {} BPMN definition", PROCESS_KEY);
     }
 }
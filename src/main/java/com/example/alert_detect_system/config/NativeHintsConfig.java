@@ -0,0 +1,112 @@
+package com.example.alert_detect_system.config;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+
+import javax.sql.DataSource;
+
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+
+import com.example.alert_detect_system.dto.TaskDto;
+import com.example.alert_detect_system.risk.EntityRiskProfile;
+import com.example.alert_detect_system.rules.RuleDefinition;
+import com.example.alert_detect_system.rules.RuleDecision;
+
+/**
+ * Reachability hints for the native image (mvn -Pnative native:compile). Spring's AOT pass covers
+ * beans, controllers and JPA entities; these cover what it cannot see: files loaded by name,
+ * Flowable's MyBatis mappings and the classes MyBatis instantiates reflectively, and types that are
+ * only serialized behind ResponseEntity&lt;?&gt; or parsed from JSON files.
+ */
+@Configuration
+@ImportRuntimeHints(NativeHintsConfig.Hints.class)
+public class NativeHintsConfig {
+
+    static class Hints implements RuntimeHintsRegistrar {
+
+        private static final String[] RESOURCES = {
+            "case-process.bpmn20.xml",
+            "rules/*.json",
+            // Flowable MyBatis mappings, schema scripts, BPMN/DI schemas and engine properties
+            "org/flowable/**/*.xml",
+            "org/flowable/**/*.sql",
+            "org/flowable/**/*.xsd",
+            "org/flowable/**/*.properties",
+            // Lucene codecs and analyzers are looked up through ServiceLoader
+            "META-INF/services/org.apache.lucene.*",
+        };
+
+        // Created by MyBatis from result maps and type handler / alias registrations
+        private static final String[] REFLECTIVE_CLASSES = {
+            "classpath*:org/flowable/**/*EntityImpl.class",
+            "classpath*:org/flowable/**/*TypeHandler.class",
+            "classpath*:org/flowable/**/*QueryImpl.class",
+            "classpath*:org/flowable/common/engine/impl/db/*.class",
+            "classpath*:org/apache/ibatis/logging/**/*Impl.class",
+            "classpath*:org/apache/ibatis/cache/**/*.class",
+            "classpath*:org/apache/ibatis/scripting/**/*Driver.class",
+            "classpath*:org/apache/ibatis/type/*TypeHandler.class",
+        };
+
+        private static final Class<?>[] JSON_TYPES = {
+            EntityRiskProfile.class, RuleDefinition.RuleSet.class, RuleDecision.class, TaskDto.class,
+        };
+
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            for (String pattern : RESOURCES) {
+                hints.resources().registerPattern(pattern);
+            }
+            PathMatchingResourcePatternResolver resolver = new PathMatchingResourcePatternResolver(classLoader);
+            for (String pattern : REFLECTIVE_CLASSES) {
+                try {
+                    for (Resource resource : resolver.getResources(pattern)) {
+                        String className = className(resource);
+                        if (className != null) {
+                            hints.reflection().registerType(TypeReference.of(className), MemberCategory.values());
+                        }
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            // Request tracing wraps the DataSource, its connections and statements in JDK proxies
+            hints.proxies().registerJdkProxy(DataSource.class);
+            hints.proxies().registerJdkProxy(Connection.class);
+            hints.proxies().registerJdkProxy(Statement.class);
+            hints.proxies().registerJdkProxy(PreparedStatement.class);
+            hints.proxies().registerJdkProxy(CallableStatement.class);
+            BindingReflectionHintsRegistrar bindings = new BindingReflectionHintsRegistrar();
+            for (Class<?> type : JSON_TYPES) {
+                bindings.registerReflectionHints(hints.reflection(), type);
+            }
+        }
+
+        // Binary class name of a class file in a jar or directory; null for package-info and module-info
+        private static String className(Resource resource) throws IOException {
+            String url = resource.getURL().toString();
+            int root = url.lastIndexOf("!/");
+            String path = root >= 0 ? url.substring(root + 2) : null;
+            if (path == null) {
+                int start = url.indexOf("/org/");
+                path = start >= 0 ? url.substring(start + 1) : null;
+            }
+            if (path == null || !path.endsWith(".class") || path.contains("-")) {
+                return null;
+            }
+            return path.substring(0, path.length() - ".class".length()).replace('/', '.');
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.alert_detect_system.config;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Logs time to ready and time to the first served request, both measured from JVM start, and
+ * publishes the latter as application.first.request.time next to Spring Boot's
+ * application.started.time and application.ready.time.
+ */
+@Component
+public class StartupTimings extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(StartupTimings.class);
+
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+    private volatile boolean firstRequestSeen;
+
+    public StartupTimings(ObjectProvider<MeterRegistry> meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        logger.info("Ready {} ms after JVM start", ManagementFactory.getRuntimeMXBean().getUptime());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        chain.doFilter(request, response);
+        if (!firstRequestSeen) {
+            recordFirstRequest(request);
+        }
+    }
+
+    private synchronized void recordFirstRequest(HttpServletRequest request) {
+        if (firstRequestSeen) {
+            return;
+        }
+        firstRequestSeen = true;
+        long uptime = ManagementFactory.getRuntimeMXBean().getUptime();
+        logger.info("First request ({} {}) served {} ms after JVM start", request.getMethod(), request.getRequestURI(), uptime);
+        meterRegistry.ifAvailable(registry -> Gauge.builder("application.first.request.time", () -> uptime / 1000.0)
+            .baseUnit("seconds")
+            .description("Time from JVM start until the first HTTP request was served")
+            .register(registry));
+    }
+}
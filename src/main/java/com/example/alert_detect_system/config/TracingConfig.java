@@ -0,0 +1,71 @@
+package com.example.alert_detect_system.config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.flowable.common.engine.impl.interceptor.CommandInterceptor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.flowable.spring.SpringProcessEngineConfiguration;
+import org.flowable.spring.boot.EngineConfigurationConfigurer;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.example.alert_detect_system.tracing.FlowableTracingInterceptor;
+import com.example.alert_detect_system.tracing.TracingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.util.DriverDataSource;
+
+/**
+ * Hooks request tracing (see RequestTraceFilter) into the connection pool everything shares and
+ * into the Flowable command stack.
+ */
+@Configuration
+@ConditionalOnProperty(name = "tracing.enabled", matchIfMissing = true)
+public class TracingConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(TracingConfig.class);
+
+    // Static: post-processors are created before the beans they process
+    @Bean
+    static BeanPostProcessor tracingDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource hikari) {
+                    traceBelowPool(hikari, beanName);
+                }
+                return bean;
+            }
+        };
+    }
+
+    // Traced connections go under the pool, which then wraps them as usual: the bean stays the
+    // HikariDataSource it was (with its metrics and MXBeans) and with a replica both pools are traced
+    private static void traceBelowPool(HikariDataSource hikari, String beanName) {
+        if (hikari.isRunning() || hikari.getDataSourceClassName() != null) {
+            logger.warn("Request tracing cannot wrap connections of DataSource {}; its queries are not counted", beanName);
+            return;
+        }
+        DataSource physical = hikari.getDataSource() != null ? hikari.getDataSource()
+            : new DriverDataSource(hikari.getJdbcUrl(), hikari.getDriverClassName(), hikari.getDataSourceProperties(),
+                hikari.getUsername(), hikari.getPassword());
+        hikari.setDataSource(TracingDataSource.wrap(physical));
+    }
+
+    @Bean
+    public EngineConfigurationConfigurer<SpringProcessEngineConfiguration> flowableTracingConfigurer() {
+        return engineConfiguration -> {
+            List<CommandInterceptor> interceptors = new ArrayList<>();
+            if (engineConfiguration.getCustomPreCommandInterceptors() != null) {
+                interceptors.addAll(engineConfiguration.getCustomPreCommandInterceptors());
+            }
+            interceptors.add(new FlowableTracingInterceptor());
+            engineConfiguration.setCustomPreCommandInterceptors(interceptors);
+        };
+    }
+}
@@ -1,9 +1,12 @@
 package com.example.alert_detect_system.config;
 
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
     
@@ -15,4 +18,10 @@ public class WebConfig implements WebMvcConfigurer {
                 .allowedHeaders("*")
                 .allowCredentials(true);
     }
+
+    // Picked up by Spring Boot's HttpMessageConverters ahead of the default Jackson converter
+    @Bean
+    public JsonBodyHttpMessageConverter jsonBodyHttpMessageConverter(ObjectMapper objectMapper) {
+        return new JsonBodyHttpMessageConverter(objectMapper);
+    }
 }
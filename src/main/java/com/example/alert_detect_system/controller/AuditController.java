@@ -0,0 +1,28 @@
+package com.example.alert_detect_system.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.alert_detect_system.service.AuditChainVerifier;
+
+@RestController
+@RequestMapping("/api/audit")
+@CrossOrigin(origins = {"http://localhost:5173", "http://localhost:5174"})
+public class AuditController {
+
+    @Autowired
+    private AuditChainVerifier chainVerifier;
+
+    /**
+     * Verify the tamper-evident hash chains of the whole audit trail.
+     * GET /api/audit/verify
+     */
+    @GetMapping("/verify")
+    public ResponseEntity<AuditChainVerifier.VerificationReport> verify() {
+        return ResponseEntity.ok(chainVerifier.verifyAll());
+    }
+}
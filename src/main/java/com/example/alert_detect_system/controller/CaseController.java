@@ -1,14 +1,21 @@
 package com.example.alert_detect_system.controller;
 
+import java.net.URI;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
+import jakarta.servlet.http.HttpServletRequest;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -17,16 +24,27 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.example.alert_detect_system.Model.AuditLogModel;
 import com.example.alert_detect_system.Model.CaseModel;
 import com.example.alert_detect_system.Model.CaseStatus;
+import com.example.alert_detect_system.Model.TaskModel;
+import com.example.alert_detect_system.cache.CollectionVersions;
+import com.example.alert_detect_system.dto.CaseJson;
 import com.example.alert_detect_system.dto.CaseRequestDto;
+import com.example.alert_detect_system.intake.IntakeTicket;
 import com.example.alert_detect_system.service.AuditService;
+import com.example.alert_detect_system.service.BulkCaseStatusService;
+import com.example.alert_detect_system.service.CaseIntakeService;
 import com.example.alert_detect_system.service.CaseService;
+import com.example.alert_detect_system.service.DirectoryService;
 import com.example.alert_detect_system.service.TaskService;
+import com.example.alert_detect_system.workflow.CaseStateMachine;
+import com.example.alert_detect_system.workflow.CaseTransitionException;
 
 @RestController
 @RequestMapping("/api/cases")
@@ -40,6 +58,16 @@ public class CaseController {
     private TaskService taskService;
     @Autowired
     private AuditService auditService;
+    @Autowired
+    private CaseStateMachine caseStateMachine;
+    @Autowired
+    private CollectionVersions collectionVersions;
+    @Autowired
+    private CaseIntakeService caseIntakeService;
+    @Autowired
+    private DirectoryService directoryService;
+    @Autowired
+    private BulkCaseStatusService bulkCaseStatusService;
     
     /**
      * 1. CREATE CASE - Single endpoint for all case creation
@@ -54,15 +82,80 @@ public class CaseController {
         return ResponseEntity.ok(createdCase);
     }
     
+    /**
+     * Queue a case for creation; 202 with the status resource in Location, 429 while the intake queues are full.
+     * POST /api/cases/intake
+     */
+    @PostMapping("/intake")
+    public ResponseEntity<?> submitCase(@RequestBody CaseRequestDto caseRequest) {
+        String createdBy = caseRequest.getCreatedBy() != null ? caseRequest.getCreatedBy() : "user";
+        caseRequest.setAssignee("admin1");
+        Optional<IntakeTicket> ticket = caseIntakeService.submit(caseRequest, createdBy);
+        if (ticket.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(Map.of("error", "Case intake is at capacity, retry later"));
+        }
+        return ResponseEntity.accepted()
+            .location(URI.create("/api/cases/intake/" + ticket.get().getId()))
+            .body(intakeStatus(ticket.get()));
+    }
+
+    /**
+     * Progress of a queued case creation.
+     * GET /api/cases/intake/{ticketId}
+     */
+    @GetMapping("/intake/{ticketId}")
+    public ResponseEntity<?> getIntakeStatus(@PathVariable UUID ticketId) {
+        return caseIntakeService.ticket(ticketId)
+            .<ResponseEntity<?>>map(ticket -> ResponseEntity.ok(intakeStatus(ticket)))
+            .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .body(Map.of("error", "Unknown or expired intake ticket: " + ticketId)));
+    }
+
+    private Map<String, Object> intakeStatus(IntakeTicket ticket) {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("ticketId", ticket.getId());
+        status.put("status", ticket.getStatus());
+        status.put("receivedAt", ticket.getReceivedAt());
+        if (ticket.getCaseModel() != null) {
+            status.put("caseId", ticket.getCaseModel().getId());
+            status.put("caseNumber", ticket.getCaseModel().getCaseNumber());
+        }
+        if (ticket.getStatus() == IntakeTicket.Status.FAILED) {
+            status.put("failedStage", ticket.getFailedStage());
+            status.put("error", ticket.getError());
+        }
+        if (ticket.getFinishedAt() != null) {
+            status.put("finishedAt", ticket.getFinishedAt());
+        }
+        return status;
+    }
+
     /**
      * 2. GET CASES - Single endpoint with optional filtering
-     * GET /api/cases?status=DRAFT&creator=analyst&pendingApproval=true
+     * GET /api/cases?status=DRAFT&creator=analyst&pendingApproval=true&fields=id,caseNumber,status
      */
     @GetMapping
-    public ResponseEntity<List<Map<String, Object>>> getCases(
+    public ResponseEntity<?> getCases(
             @RequestParam(required = false) String status,
             @RequestParam(required = false) String creator,
-            @RequestParam(required = false, defaultValue = "false") boolean pendingApproval) {
+            @RequestParam(required = false, defaultValue = "false") boolean pendingApproval,
+            @RequestParam(required = false) String fields,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            HttpServletRequest request) {
+        long selected;
+        try {
+            selected = CaseJson.FIELDS.select(fields);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+        // Cases plus their approval task ids: both collections feed the tag
+        String etag = JsonResponses.etag(collectionVersions.stamp(JsonResponses.requestKey(request),
+            CollectionVersions.Collection.CASES, CollectionVersions.Collection.TASKS));
+        if (JsonResponses.etagMatches(ifNoneMatch, etag)) {
+            return JsonResponses.notModified(etag);
+        }
         List<CaseModel> cases;
         if (pendingApproval) {
             cases = caseService.getCasesByStatus(CaseStatus.PENDING_CASE_CREATION_APPROVAL);
@@ -78,31 +171,50 @@ public class CaseController {
         } else {
             cases = caseService.getAllCases();
         }
-        List<Map<String, Object>> result = new java.util.ArrayList<>();
-        for (CaseModel c : cases) {
-            Map<String, Object> map = new HashMap<>();
-            map.put("case", c);
-            // Find the active approval task for this case
-            var approvalTask = taskService.getPendingApprovalTasks().stream()
-                .filter(t -> t.getCaseId().equals(c.getId()))
-                .findFirst().orElse(null);
-            if (approvalTask != null) {
-                map.put("taskId", approvalTask.getId().toString());
-            }
-            result.add(map);
+        // Active approval task per case, looked up once instead of once per case
+        Map<UUID, UUID> approvalTasks = new HashMap<>();
+        for (TaskModel task : taskService.getPendingApprovalTasks()) {
+            approvalTasks.putIfAbsent(task.getCaseId(), task.getId());
         }
-        return ResponseEntity.ok(result);
+        return JsonResponses.stream(etag, null, gen -> {
+            gen.writeStartArray();
+            for (CaseModel c : cases) {
+                gen.writeStartObject();
+                gen.writeFieldName("case");
+                CaseJson.FIELDS.write(gen, c, selected);
+                UUID taskId = approvalTasks.get(c.getId());
+                if (taskId != null) {
+                    gen.writeStringField("taskId", taskId.toString());
+                }
+                gen.writeEndObject();
+            }
+            gen.writeEndArray();
+        });
     }
     
     /**
      * 3. GET CASE BY ID
-     * GET /api/cases/{caseId}
+     * GET /api/cases/{caseId}?fields=id,status
      */
     @GetMapping("/{caseId}")
-    public ResponseEntity<CaseModel> getCaseById(@PathVariable UUID caseId) {
-        return caseService.getCaseById(caseId)
-            .map(ResponseEntity::ok)
-            .orElse(ResponseEntity.notFound().build());
+    public ResponseEntity<?> getCaseById(
+            @PathVariable UUID caseId,
+            @RequestParam(required = false) String fields,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        long selected;
+        try {
+            selected = CaseJson.FIELDS.select(fields);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+        Optional<CaseModel> found = caseService.getCaseById(caseId);
+        if (found.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        CaseModel caseModel = found.get();
+        long hash = JsonResponses.mix(JsonResponses.mix(JsonResponses.mix(0, selected), caseModel.getId()), caseModel.getVersion());
+        return JsonResponses.stream(JsonResponses.etag(hash), ifNoneMatch,
+            gen -> CaseJson.FIELDS.write(gen, caseModel, selected));
     }
     
     /**
@@ -146,23 +258,21 @@ public class CaseController {
                     String comments = (String) requestBody.getOrDefault("comments", "");
                     Map<String, Object> approvalParams = Map.of("approved", approved, "comments", comments);
                     CaseModel caseToApprove = existingCase.get();
-                    // Debug log: show current status and input
-                    System.out.println("[DEBUG] Approve action: caseId=" + caseId + ", currentStatus=" + caseToApprove.getStatus() + ", approved=" + approved + ", updatedBy=" + updatedBy);
-                    // Only allow approval/rejection if case is in PENDING_CASE_CREATION_APPROVAL
-                    if (caseToApprove.getStatus() != CaseStatus.PENDING_CASE_CREATION_APPROVAL) {
+                    logger.debug("[API] Approve action: caseId={}, currentStatus={}, approved={}, updatedBy={}", caseId, caseToApprove.getStatus(), approved, updatedBy);
+                    // Only allow approval/rejection if the case can be decided (PENDING_CASE_CREATION_APPROVAL)
+                    if (!caseStateMachine.canTransition(caseToApprove.getStatus(), approved ? CaseStatus.READY_FOR_ASSIGNMENT : CaseStatus.REJECTED)) {
                         auditService.logCaseAction(caseId, "UNAUTHORIZED_APPROVAL_ATTEMPT", updatedBy, "Tried to approve/reject case not in PENDING_CASE_CREATION_APPROVAL");
-                        System.out.println("[DEBUG] Approval blocked: status is not PENDING_CASE_CREATION_APPROVAL");
+                        logger.debug("[API] Approval blocked for caseId {}: status is not PENDING_CASE_CREATION_APPROVAL", caseId);
                         return ResponseEntity.status(403).body("Case is not pending approval");
                     }
-                    // Admin-only approval check
-                    if (!"admin1".equalsIgnoreCase(updatedBy)) {
+                    // Only members of the approver group may decide
+                    if (!directoryService.canApprove(updatedBy)) {
                         auditService.logCaseAction(caseId, "UNAUTHORIZED_APPROVAL_ATTEMPT", updatedBy, "Non-admin tried to approve/reject case");
-                        System.out.println("[DEBUG] Approval blocked: user is not admin1");
+                        logger.debug("[API] Approval blocked for caseId {}: {} is not in the approver group", caseId, updatedBy);
                         return ResponseEntity.status(403).body("Only admin can approve or reject cases");
                     }
                     CaseModel approvedCase = caseService.performCaseAction(caseId, "approve", null, updatedBy, approvalParams);
-                    // Debug log: show new status
-                    System.out.println("[DEBUG] Approval processed: newStatus=" + approvedCase.getStatus());
+                    logger.debug("[API] Approval processed for caseId {}: newStatus={}", caseId, approvedCase.getStatus());
                     // Log approval/rejection event
                     auditService.logCaseAction(caseId, approved ? "CASE_APPROVED" : "CASE_REJECTED", updatedBy, comments);
                     Map<String, Object> response = new HashMap<>();
@@ -196,6 +306,15 @@ public class CaseController {
                 }
             }
             
+        } catch (CaseTransitionException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.status(e.isForbidden() ? 403 : 400).body(error);
+        } catch (OptimisticLockingFailureException e) {
+            // Another user changed the case first; the client should reload and retry
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.status(409).body(error);
         } catch (Exception e) {
             Map<String, String> error = new HashMap<>();
             error.put("error", e.getMessage());
@@ -205,13 +324,26 @@ public class CaseController {
     
     /**
      * 5. GET RECENT CASES - For dashboard display
-     * GET /api/cases/recent?limit=10&user=analyst
+     * GET /api/cases/recent?limit=10&user=analyst&fields=id,caseNumber,status
      */
     @GetMapping("/recent")
-    public ResponseEntity<List<CaseModel>> getRecentCases(
+    public ResponseEntity<?> getRecentCases(
             @RequestParam(required = false, defaultValue = "10") int limit,
-            @RequestParam(required = false) String user) {
-        
+            @RequestParam(required = false) String user,
+            @RequestParam(required = false) String fields,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            HttpServletRequest request) {
+        long selected;
+        try {
+            selected = CaseJson.FIELDS.select(fields);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+        String etag = JsonResponses.etag(collectionVersions.stamp(JsonResponses.requestKey(request),
+            CollectionVersions.Collection.CASES));
+        if (JsonResponses.etagMatches(ifNoneMatch, etag)) {
+            return JsonResponses.notModified(etag);
+        }
         try {
             List<CaseModel> recentCases;
             if (user != null && !user.trim().isEmpty()) {
@@ -221,13 +353,28 @@ public class CaseController {
                 // Get recent cases for all users (admin view)
                 recentCases = caseService.getRecentCases(limit);
             }
-            return ResponseEntity.ok(recentCases);
+            return JsonResponses.stream(etag, null, gen -> {
+                gen.writeStartArray();
+                for (CaseModel c : recentCases) {
+                    CaseJson.FIELDS.write(gen, c, selected);
+                }
+                gen.writeEndArray();
+            });
         } catch (Exception e) {
             // Return empty list on error to match return type
             return ResponseEntity.status(500).body(List.of());
         }
     }
     
+    /**
+     * GET CASE AUDIT TRAIL - includes archived entries
+     * GET /api/cases/{caseId}/audit
+     */
+    @GetMapping("/{caseId}/audit")
+    public ResponseEntity<List<AuditLogModel>> getCaseAuditLogs(@PathVariable UUID caseId) {
+        return ResponseEntity.ok(auditService.getCaseAuditLogs(caseId));
+    }
+
     /**
      * 6. DELETE CASE
      * DELETE /api/cases/{caseId}?deletedBy=user
@@ -270,22 +417,19 @@ public class CaseController {
             if (caseOpt.isEmpty()) {
                 return ResponseEntity.notFound().build();
             }
-            CaseModel caseModel = caseOpt.get();
-            if (caseModel.getStatus() != CaseStatus.DRAFT) {
-                return ResponseEntity.badRequest().body("Case must be in DRAFT status to abandon.");
-            }
-            if (!abandonedBy.equals(caseModel.getCreatedBy())) {
-                return ResponseEntity.status(403).body("Only the creator can abandon this draft case.");
-            }
-            // Update status to ABANDONED
+            // Update status to ABANDONED; the state machine only allows this from DRAFT and for the
+            // creator, and its ABANDONED hook closes the associated draft task (Complete New Case)
             caseService.updateCaseStatus(caseId, CaseStatus.ABANDONED, abandonedBy);
-            // Close associated draft task (Complete New Case)
-            taskService.closeDraftTaskForCase(caseId);
             // Log audit event
             auditService.logCaseAction(caseId, "CASE_ABANDONED", abandonedBy, "Reason: " + reason);
             Map<String, String> response = new HashMap<>();
             response.put("message", "Case abandoned successfully");
             return ResponseEntity.ok(response);
+        } catch (CaseTransitionException e) {
+            if (e.isForbidden()) {
+                return ResponseEntity.status(403).body(e.getMessage());
+            }
+            return ResponseEntity.badRequest().body("Case must be in DRAFT status to abandon.");
         } catch (Exception e) {
             Map<String, String> error = new HashMap<>();
             error.put("error", "Error abandoning case: " + e.getMessage());
@@ -293,6 +437,27 @@ public class CaseController {
         }
     }
 
+    /**
+     * Move many cases to CLOSED or ABANDONED at once; returns the outcome per case.
+     * POST /api/cases/bulk-status
+     * Body: { "caseIds": ["..."], "status": "CLOSED", "updatedBy": "username" }
+     */
+    @PostMapping("/bulk-status")
+    public ResponseEntity<?> bulkUpdateStatus(@RequestBody Map<String, Object> requestBody) {
+        try {
+            String updatedBy = (String) requestBody.getOrDefault("updatedBy", "user");
+            Object statusObj = requestBody.get("status");
+            if (!(statusObj instanceof String statusStr) || !(requestBody.get("caseIds") instanceof List<?> rawIds)) {
+                return ResponseEntity.badRequest().body(Map.of("error", "caseIds and status are required"));
+            }
+            CaseStatus newStatus = CaseStatus.valueOf(statusStr.toUpperCase());
+            List<UUID> caseIds = rawIds.stream().map(id -> UUID.fromString(String.valueOf(id))).toList();
+            return ResponseEntity.ok(bulkCaseStatusService.transition(caseIds, newStatus, updatedBy));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
     // Helper method to convert Map to DTO
     private CaseRequestDto mapToDto(Map<String, Object> requestBody) {
         CaseRequestDto dto = new CaseRequestDto();
@@ -310,6 +475,7 @@ public class CaseController {
         }
         if (requestBody.get("createdBy") != null) dto.setCreatedBy((String) requestBody.get("createdBy"));
         if (requestBody.get("assignee") != null) dto.setAssignee((String) requestBody.get("assignee"));
+        if (requestBody.get("version") instanceof Number version) dto.setVersion(version.longValue());
         return dto;
     }
 }
\ No newline at end of file
@@ -0,0 +1,138 @@
+package com.example.alert_detect_system.controller;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.alert_detect_system.directory.DirectorySnapshot;
+import com.example.alert_detect_system.ratelimit.RateLimitFilter;
+import com.example.alert_detect_system.service.AuditService;
+import com.example.alert_detect_system.service.DirectoryService;
+
+@RestController
+@RequestMapping("/api/directory")
+@CrossOrigin(origins = {"http://localhost:5173", "http://localhost:5174"})
+public class DirectoryController {
+
+    @Autowired
+    private DirectoryService directoryService;
+
+    @Autowired
+    private AuditService auditService;
+
+    /**
+     * A user with their effective groups and roles.
+     * GET /api/directory/users/{userId}
+     */
+    @GetMapping("/users/{userId}")
+    public ResponseEntity<?> getUser(@PathVariable String userId) {
+        DirectorySnapshot directory = directoryService.snapshot();
+        return directory.user(userId)
+            .<ResponseEntity<?>>map(user -> {
+                Map<String, Object> json = new LinkedHashMap<>();
+                json.put("id", user.id());
+                json.put("firstName", user.firstName());
+                json.put("lastName", user.lastName());
+                json.put("email", user.email());
+                json.put("groups", directory.groupsOf(userId));
+                json.put("roles", directory.rolesOf(userId));
+                json.put("canApprove", directoryService.canApprove(userId));
+                return ResponseEntity.ok(json);
+            })
+            .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "Unknown user: " + userId)));
+    }
+
+    /**
+     * Members of a group, including members of groups nested in it.
+     * GET /api/directory/groups/{groupId}/members
+     */
+    @GetMapping("/groups/{groupId}/members")
+    public ResponseEntity<?> getMembers(@PathVariable String groupId) {
+        DirectorySnapshot directory = directoryService.snapshot();
+        if (!directory.hasGroup(groupId)) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "Unknown group: " + groupId));
+        }
+        return ResponseEntity.ok(Map.of("group", groupId, "members", directory.membersOf(groupId)));
+    }
+
+    /**
+     * Add a user to a group. The acting user (performedBy, else X-User-Id) must hold the admin
+     * role or be an approver.
+     * PUT /api/directory/groups/{groupId}/members/{userId}?performedBy=admin1
+     */
+    @PutMapping("/groups/{groupId}/members/{userId}")
+    public ResponseEntity<?> addMember(@PathVariable String groupId, @PathVariable String userId,
+            @RequestParam(required = false) String performedBy,
+            @RequestHeader(value = RateLimitFilter.USER_HEADER, required = false) String userHeader) {
+        String actor = performedBy != null ? performedBy : userHeader;
+        ResponseEntity<?> refused = checkMembershipChange(groupId, userId, actor);
+        if (refused != null) {
+            return refused;
+        }
+        try {
+            directoryService.addMembership(userId, groupId);
+            auditService.logGroupAction(groupId, "GROUP_MEMBER_ADDED", actor, userId + " added to " + groupId);
+            return ResponseEntity.ok(Map.of("message", userId + " is a member of " + groupId));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * Remove a user from a group; same permission as adding one.
+     * DELETE /api/directory/groups/{groupId}/members/{userId}?performedBy=admin1
+     */
+    @DeleteMapping("/groups/{groupId}/members/{userId}")
+    public ResponseEntity<?> removeMember(@PathVariable String groupId, @PathVariable String userId,
+            @RequestParam(required = false) String performedBy,
+            @RequestHeader(value = RateLimitFilter.USER_HEADER, required = false) String userHeader) {
+        String actor = performedBy != null ? performedBy : userHeader;
+        ResponseEntity<?> refused = checkMembershipChange(groupId, userId, actor);
+        if (refused != null) {
+            return refused;
+        }
+        try {
+            directoryService.removeMembership(userId, groupId);
+            auditService.logGroupAction(groupId, "GROUP_MEMBER_REMOVED", actor, userId + " removed from " + groupId);
+            return ResponseEntity.ok(Map.of("message", userId + " is no longer a member of " + groupId));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // Null when the actor may change the membership; refused attempts are audited too
+    private ResponseEntity<?> checkMembershipChange(String groupId, String userId, String actor) {
+        if (actor == null || actor.isBlank()) {
+            return ResponseEntity.badRequest().body(Map.of("error", "performedBy or " + RateLimitFilter.USER_HEADER + " is required"));
+        }
+        if (!directoryService.canManageMembership(actor)) {
+            auditService.logGroupAction(groupId, "UNAUTHORIZED_MEMBERSHIP_CHANGE", actor, "Tried to change membership of " + userId);
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of("error", "Only admins and approvers can change group memberships"));
+        }
+        return null;
+    }
+
+    /**
+     * Re-read the directory from Flowable IDM now instead of at the next poll.
+     * POST /api/directory/refresh
+     */
+    @PostMapping("/refresh")
+    public ResponseEntity<?> refresh() {
+        directoryService.reload();
+        DirectorySnapshot directory = directoryService.snapshot();
+        return ResponseEntity.ok(Map.of("users", directory.userCount(), "groups", directory.groupCount()));
+    }
+}
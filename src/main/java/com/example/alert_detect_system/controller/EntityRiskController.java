@@ -0,0 +1,48 @@
+package com.example.alert_detect_system.controller;
+
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.alert_detect_system.risk.EntityRiskProfile;
+import com.example.alert_detect_system.service.EntityRiskService;
+
+@RestController
+@RequestMapping("/api/entities")
+@CrossOrigin(origins = {"http://localhost:5173", "http://localhost:5174"})
+public class EntityRiskController {
+
+    @Autowired
+    private EntityRiskService entityRiskService;
+
+    /**
+     * Aggregated risk of one entity across all its cases.
+     * GET /api/entities/{entity}/risk
+     */
+    @GetMapping("/{entity}/risk")
+    public ResponseEntity<?> getRisk(@PathVariable String entity) {
+        EntityRiskProfile profile = entityRiskService.profile(entity);
+        if (profile == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "No cases recorded for entity " + entity));
+        }
+        return ResponseEntity.ok(profile);
+    }
+
+    /**
+     * Recompute all entity profiles from the cases table.
+     * POST /api/entities/risk/rebuild
+     */
+    @PostMapping("/risk/rebuild")
+    public ResponseEntity<Map<String, Object>> rebuild() {
+        int entities = entityRiskService.rebuild();
+        return ResponseEntity.ok(Map.of("message", "Entity risk profiles rebuilt", "entities", entities));
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.alert_detect_system.controller;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.alert_detect_system.Model.DomainEventModel;
+import com.example.alert_detect_system.eventstore.AggregateState;
+import com.example.alert_detect_system.eventstore.AggregateType;
+import com.example.alert_detect_system.service.EventStoreService;
+import com.example.alert_detect_system.service.ProjectionRebuildService;
+
+@RestController
+@RequestMapping("/api/events")
+@CrossOrigin(origins = {"http://localhost:5173", "http://localhost:5174"})
+public class EventStoreController {
+
+    @Autowired
+    private EventStoreService eventStoreService;
+
+    @Autowired
+    private ProjectionRebuildService projectionRebuildService;
+
+    /**
+     * All recorded changes of a case or task, oldest first.
+     * GET /api/events/{case|task}/{id}
+     */
+    @GetMapping("/{type}/{id}")
+    public ResponseEntity<?> getHistory(@PathVariable String type, @PathVariable UUID id) {
+        try {
+            List<Map<String, Object>> events = eventStoreService.history(AggregateType.fromPath(type), id).stream()
+                .map(this::toJson)
+                .toList();
+            return ResponseEntity.ok(events);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * A case or task as it was at the given time.
+     * GET /api/events/{case|task}/{id}/as-of?at=2025-01-31T17:00:00
+     */
+    @GetMapping("/{type}/{id}/as-of")
+    public ResponseEntity<?> getStateAt(@PathVariable String type, @PathVariable UUID id,
+                                        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime at) {
+        try {
+            return eventStoreService.stateAt(AggregateType.fromPath(type), id, at)
+                .<ResponseEntity<?>>map(state -> ResponseEntity.ok(toJson(state, at)))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(Map.of("error", "No recorded history for " + type + " " + id + " at " + at)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * Rewrite the cases or tasks table from the event store.
+     * POST /api/events/{case|task}/rebuild
+     */
+    @PostMapping("/{type}/rebuild")
+    public ResponseEntity<?> rebuild(@PathVariable String type) {
+        try {
+            return ResponseEntity.ok(projectionRebuildService.rebuild(AggregateType.fromPath(type)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * Record the current row of every case or task that has no history yet.
+     * POST /api/events/{case|task}/baseline
+     */
+    @PostMapping("/{type}/baseline")
+    public ResponseEntity<?> baseline(@PathVariable String type) {
+        try {
+            int seeded = projectionRebuildService.baseline(AggregateType.fromPath(type));
+            return ResponseEntity.ok(Map.of("message", "Event store seeded from existing rows", "seeded", seeded));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    private Map<String, Object> toJson(DomainEventModel event) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("sequence", event.getSequence());
+        json.put("eventType", event.getEventType());
+        json.put("occurredAt", event.getOccurredAt());
+        json.put("changes", eventStoreService.read(event.getData()));
+        return json;
+    }
+
+    private Map<String, Object> toJson(AggregateState state, LocalDateTime at) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("type", state.type());
+        json.put("id", state.id());
+        json.put("at", at);
+        json.put("sequence", state.sequence());
+        json.put("changedAt", state.changedAt());
+        json.put("snapshotSequence", state.snapshotSequence());
+        json.put("eventsReplayed", state.eventsReplayed());
+        json.put("deleted", state.deleted());
+        json.put("state", state.state());
+        return json;
+    }
+}
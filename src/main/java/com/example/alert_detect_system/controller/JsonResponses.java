@@ -0,0 +1,75 @@
+package com.example.alert_detect_system.controller;
+
+import java.util.UUID;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import com.example.alert_detect_system.dto.JsonBody;
+
+/**
+ * Streamed JSON responses with a weak ETag and conditional GET. The ETag is computed by the caller
+ * from what determines the representation (collection versions, ids, selected fields), so a 304
+ * costs no serialization at all. Tags are weak because gzip changes the bytes, not the meaning.
+ */
+final class JsonResponses {
+
+    private JsonResponses() {
+    }
+
+    static ResponseEntity<?> stream(String etag, String ifNoneMatch, JsonBody body) {
+        if (etagMatches(ifNoneMatch, etag)) {
+            return notModified(etag);
+        }
+        return ResponseEntity.ok().eTag(etag).contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    static <T> ResponseEntity<T> notModified(String etag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+    }
+
+    static String etag(long hash) {
+        return "W/\"" + Long.toHexString(hash) + "\"";
+    }
+
+    // Path plus query: the same collection versions give different lists for different filters
+    static String requestKey(HttpServletRequest request) {
+        String query = request.getQueryString();
+        return query != null ? request.getRequestURI() + "?" + query : request.getRequestURI();
+    }
+
+    static long mix(long hash, long value) {
+        hash = (hash ^ value) * 0x9E3779B97F4A7C15L;
+        return hash ^ (hash >>> 31);
+    }
+
+    static long mix(long hash, UUID value) {
+        return value == null ? mix(hash, 0L) : mix(mix(hash, value.getMostSignificantBits()), value.getLeastSignificantBits());
+    }
+
+    static long mix(long hash, Long value) {
+        return mix(hash, value == null ? -1L : value);
+    }
+
+    // If-None-Match may list several tags or be "*"; it uses weak comparison (RFC 9110 13.1.2)
+    static boolean etagMatches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        String opaque = opaqueTag(etag);
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = opaqueTag(candidate.trim());
+            if (tag.equals("*") || tag.equals(opaque)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String opaqueTag(String tag) {
+        return tag.startsWith("W/") ? tag.substring(2) : tag;
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.alert_detect_system.controller;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.alert_detect_system.service.ProfilingService;
+
+import jdk.jfr.Recording;
+
+@RestController
+@RequestMapping("/api/profiling/recordings")
+@CrossOrigin(origins = {"http://localhost:5173", "http://localhost:5174"})
+public class ProfilingController {
+
+    @Autowired
+    private ProfilingService profilingService;
+
+    /**
+     * All JFR recordings in this instance.
+     * GET /api/profiling/recordings
+     */
+    @GetMapping
+    public ResponseEntity<List<Map<String, Object>>> getRecordings() {
+        return ResponseEntity.ok(profilingService.recordings().stream().map(this::toJson).toList());
+    }
+
+    /**
+     * Start a recording.
+     * POST /api/profiling/recordings?name=spike&settings=default&maxAgeMinutes=30
+     */
+    @PostMapping
+    public ResponseEntity<?> startRecording(@RequestParam(defaultValue = "on-demand") String name,
+                                            @RequestParam(defaultValue = "default") String settings,
+                                            @RequestParam(defaultValue = "30") long maxAgeMinutes) {
+        try {
+            return ResponseEntity.ok(toJson(profilingService.start(name, settings, Duration.ofMinutes(maxAgeMinutes))));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * Download what a recording holds so far (a .jfr file for JDK Mission Control or the jfr tool).
+     * The dump file is deleted once it has been sent.
+     * GET /api/profiling/recordings/{id}/dump
+     */
+    @GetMapping("/{id}/dump")
+    public ResponseEntity<?> dumpRecording(@PathVariable long id) {
+        try {
+            Path file = profilingService.dump(id);
+            return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + file.getFileName() + "\"")
+                .body(new FileSystemResource(file) {
+                    @Override
+                    public InputStream getInputStream() throws IOException {
+                        return Files.newInputStream(file, StandardOpenOption.DELETE_ON_CLOSE);
+                    }
+                });
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", e.getMessage()));
+        } catch (IOException e) {
+            return ResponseEntity.internalServerError().body(Map.of("error", "Could not write recording: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Stop a recording; its data can still be dumped until it is deleted.
+     * POST /api/profiling/recordings/{id}/stop
+     */
+    @PostMapping("/{id}/stop")
+    public ResponseEntity<?> stopRecording(@PathVariable long id) {
+        try {
+            return ResponseEntity.ok(toJson(profilingService.stop(id)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * Close a recording and discard its data.
+     * DELETE /api/profiling/recordings/{id}
+     */
+    @DeleteMapping("/{id}")
+    public ResponseEntity<?> deleteRecording(@PathVariable long id) {
+        try {
+            profilingService.close(id);
+            return ResponseEntity.ok(Map.of("message", "Recording " + id + " closed"));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    private Map<String, Object> toJson(Recording recording) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("id", recording.getId());
+        json.put("name", recording.getName());
+        json.put("state", recording.getState());
+        json.put("startTime", recording.getStartTime());
+        json.put("maxAge", recording.getMaxAge());
+        json.put("size", recording.getSize());
+        return json;
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.alert_detect_system.controller;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.alert_detect_system.search.CaseSearchIndex;
+import com.example.alert_detect_system.service.SearchService;
+
+@RestController
+@RequestMapping("/api/search")
+@CrossOrigin(origins = {"http://localhost:5173", "http://localhost:5174"})
+public class SearchController {
+
+    private static final int MAX_PAGE_SIZE = 100;
+
+    @Autowired
+    private SearchService searchService;
+
+    /**
+     * Free-text search over case description/entity/alertId and audit details.
+     * GET /api/search?q=Customer123&type=case&page=0&size=20
+     */
+    @GetMapping
+    public ResponseEntity<?> search(
+            @RequestParam String q,
+            @RequestParam(required = false) String type,
+            @RequestParam(required = false, defaultValue = "0") int page,
+            @RequestParam(required = false, defaultValue = "20") int size) {
+        if (q.trim().isEmpty() || page < 0 || size < 1 || size > MAX_PAGE_SIZE) {
+            return ResponseEntity.badRequest().body(Map.of("error", "q is required, page >= 0 and 1 <= size <= " + MAX_PAGE_SIZE));
+        }
+        if (type != null && !CaseSearchIndex.TYPE_CASE.equals(type) && !CaseSearchIndex.TYPE_AUDIT.equals(type)) {
+            return ResponseEntity.badRequest().body(Map.of("error", "type must be 'case' or 'audit'"));
+        }
+        try {
+            long start = System.nanoTime();
+            CaseSearchIndex.SearchPage result = searchService.search(q, type, page, size);
+            Map<String, Object> response = new HashMap<>();
+            response.put("query", q);
+            response.put("total", result.total());
+            response.put("page", result.page());
+            response.put("size", result.size());
+            response.put("hits", result.hits());
+            response.put("tookMs", (System.nanoTime() - start) / 1_000_000);
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * Rebuild the search index from the database.
+     * POST /api/search/rebuild
+     */
+    @PostMapping("/rebuild")
+    public ResponseEntity<Map<String, Object>> rebuild() {
+        long indexed = searchService.rebuildIndex();
+        return ResponseEntity.ok(Map.of("message", "Search index rebuilt", "indexed", indexed));
+    }
+}
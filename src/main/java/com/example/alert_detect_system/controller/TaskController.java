@@ -4,24 +4,38 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.function.Supplier;
+
+import jakarta.servlet.http.HttpServletRequest;
 
 import org.flowable.task.api.Task;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.example.alert_detect_system.Model.CaseStatus;
 import com.example.alert_detect_system.Model.TaskModel;
+import com.example.alert_detect_system.cache.CollectionVersions;
 import com.example.alert_detect_system.dto.TaskAssignDto;
+import com.example.alert_detect_system.dto.TaskDto;
+import com.example.alert_detect_system.dto.TaskJson;
+import com.example.alert_detect_system.inbox.InboxEntry;
 import com.example.alert_detect_system.service.AuditService;
 import com.example.alert_detect_system.service.CaseService;
+import com.example.alert_detect_system.service.DirectoryService;
+import com.example.alert_detect_system.service.TaskInboxService;
 import com.example.alert_detect_system.service.TaskService;
 
 @RestController
@@ -37,14 +51,27 @@ public class TaskController {
     
     @Autowired
     private AuditService auditService;
+
+    @Autowired
+    private TaskInboxService taskInboxService;
+
+    @Autowired
+    private DirectoryService directoryService;
+
+    @Autowired
+    private CollectionVersions collectionVersions;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
     
     /**
      * Get all tasks assigned to a specific user (assignee).
      * GET /api/tasks/my/{assignee}
      */
     @GetMapping("/my/{assignee}")
-    public ResponseEntity<List<Task>> getMyTasks(@PathVariable String assignee) {
-        return ResponseEntity.ok(taskService.getMyTasks(assignee));
+    public ResponseEntity<List<TaskDto>> getMyTasks(@PathVariable String assignee) {
+        return ResponseEntity.ok(taskService.getMyTasks(assignee).stream().map(TaskDto::from).toList());
     }
     
     /**
@@ -52,27 +79,84 @@ public class TaskController {
      * GET /api/tasks/group/{groupId}
      */
     @GetMapping("/group/{groupId}")
-    public ResponseEntity<List<Task>> getGroupTasks(@PathVariable String groupId) {
-        return ResponseEntity.ok(taskService.getGroupTasks(groupId));
+    public ResponseEntity<List<TaskDto>> getGroupTasks(
+            @PathVariable String groupId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            HttpServletRequest request) {
+        String etag = JsonResponses.etag(collectionVersions.stamp(JsonResponses.requestKey(request),
+            CollectionVersions.Collection.WORKFLOW_TASKS));
+        if (JsonResponses.etagMatches(ifNoneMatch, etag)) {
+            return JsonResponses.notModified(etag);
+        }
+        return ResponseEntity.ok().eTag(etag)
+            .body(taskService.getGroupTasks(groupId).stream().map(TaskDto::from).toList());
     }
     
+    /**
+     * Unclaimed tasks of a group, highest risk first (then priority, SLA due date, age).
+     * GET /api/tasks/inbox/{group}?limit=20
+     */
+    @GetMapping("/inbox/{group}")
+    public ResponseEntity<?> getInbox(@PathVariable String group, @RequestParam(defaultValue = "20") int limit) {
+        if (limit < 1 || limit > 500) {
+            return ResponseEntity.badRequest().body(Map.of("error", "limit must be between 1 and 500"));
+        }
+        List<InboxEntry> tasks = taskInboxService.next(group, limit);
+        Map<String, Object> response = new HashMap<>();
+        response.put("group", group);
+        response.put("queued", taskInboxService.size(group));
+        response.put("tasks", tasks);
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Atomically claim the given task, or the top task of the group if no taskId is sent.
+     * POST /api/tasks/inbox/{group}/claim
+     */
+    @PostMapping("/inbox/{group}/claim")
+    public ResponseEntity<?> claimFromInbox(@PathVariable String group, @RequestBody Map<String, String> request) {
+        String assignee = request.get("assignee");
+        if (assignee == null || assignee.trim().isEmpty()) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Assignee is required"));
+        }
+        if (!taskService.isValidAssignee(assignee)) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Invalid target user"));
+        }
+        if (!directoryService.isMember(assignee, group)) {
+            return ResponseEntity.status(403).body(Map.of("error", assignee + " is not a member of " + group));
+        }
+        try {
+            UUID taskId = request.get("taskId") != null ? UUID.fromString(request.get("taskId")) : null;
+            return taskInboxService.claim(group, taskId, assignee)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(409).body(Map.of("error",
+                    taskId != null ? "Task is no longer available" : "No unclaimed tasks in " + group)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Invalid taskId"));
+        }
+    }
+
     /**
      * Get a specific task by its ID.
      * GET /api/tasks/{taskId}
      */
     @GetMapping("/{taskId}")
-    public ResponseEntity<Task> getTaskById(@PathVariable String taskId) {
+    public ResponseEntity<TaskDto> getTaskById(@PathVariable String taskId) {
         Task task = taskService.getTaskById(taskId);
-        return task != null ? ResponseEntity.ok(task) : ResponseEntity.notFound().build();
+        return task != null ? ResponseEntity.ok(TaskDto.from(task)) : ResponseEntity.notFound().build();
     }
     
     /**
      * Get all tasks for a specific case by case ID.
-     * GET /api/tasks/by-case/{caseId}
+     * GET /api/tasks/by-case/{caseId}?fields=id,taskName,status
      */
     @GetMapping("/by-case/{caseId}")
-    public ResponseEntity<List<TaskModel>> getTasksByCaseId(@PathVariable UUID caseId) {
-        return ResponseEntity.ok(taskService.getTasksByCaseId(caseId));
+    public ResponseEntity<?> getTasksByCaseId(
+            @PathVariable UUID caseId,
+            @RequestParam(required = false) String fields,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            HttpServletRequest request) {
+        return streamTasks(() -> taskService.getTasksByCaseId(caseId), fields, ifNoneMatch, request);
     }
     
     /**
@@ -199,6 +283,9 @@ public class TaskController {
             if (approvedBy == null || approvedBy.trim().isEmpty()) {
                 return ResponseEntity.badRequest().body(Map.of("error", "Approved by is required"));
             }
+            if (!directoryService.canApprove(approvedBy)) {
+                return ResponseEntity.status(403).body(Map.of("error", "Only members of " + directoryService.approverGroup() + " can approve cases"));
+            }
             // Get the task to validate it exists
             Task task = taskService.getTaskById(taskId);
             if (task == null) {
@@ -207,53 +294,65 @@ public class TaskController {
             // Get case ID - simple approach
             UUID caseId = UUID.fromString(task.getProcessVariables().get("caseId").toString());
             Map<String, Object> response = new HashMap<>();
-            String originalCreator = null;
-            if (task.getProcessVariables().containsKey("originalCreator")) {
-                originalCreator = task.getProcessVariables().get("originalCreator").toString();
-            }
-            if (request.isApproved()) {
-                // APPROVAL FLOW - Simple and straightforward
-                // 1. Complete the approval task
-                Map<String, Object> variables = new HashMap<>();
-                variables.put("approved", true);
-                variables.put("comments", request.getComments());
-                taskService.completeTask(taskId, variables);
-                // 2. Update case status to READY_FOR_ASSIGNMENT
-                caseService.updateCaseStatus(caseId, CaseStatus.READY_FOR_ASSIGNMENT, approvedBy);
-                // 3. Create "Investigate Case" task for investigations group
-                taskService.createInvestigateTask(caseId, "investigations");
-                // 4. Log the approval action for the analyst
-                if (originalCreator != null) {
-                    auditService.logCaseAction(caseId, "CASE_APPROVED", approvedBy, "Case approved and assigned to investigations. Notified analyst: " + originalCreator);
-                } else {
-                    auditService.logCaseAction(caseId, "CASE_APPROVED", approvedBy, "Case approved and assigned to investigations.");
+            Object creatorVariable = task.getProcessVariables().get("originalCreator");
+            String originalCreator = creatorVariable != null ? creatorVariable.toString() : null;
+            // Decide the case first with a conditional UPDATE: of several concurrent approvers exactly
+            // one wins, and only the winner completes the workflow task and creates follow-up tasks.
+            // All of it is one transaction, so a failure after the decision does not strand the case
+            // in its new status without its follow-up task.
+            CaseStatus decidedStatus = request.isApproved() ? CaseStatus.READY_FOR_ASSIGNMENT : CaseStatus.DRAFT;
+            boolean decided = Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+                if (caseService.transitionStatus(caseId, CaseStatus.PENDING_CASE_CREATION_APPROVAL, decidedStatus, approvedBy).isEmpty()) {
+                    return false;
                 }
-                response.put("message", "Case approved successfully and assigned to investigations team");
-                response.put("status", "APPROVED");
-            } else {
-                // REJECTION FLOW - Simple and straightforward  
-                // 1. Complete the approval task
-                Map<String, Object> variables = new HashMap<>();
-                variables.put("approved", false);
-                variables.put("comments", request.getComments());
-                taskService.completeTask(taskId, variables);
-                // 2. Update case status back to DRAFT
-                caseService.updateCaseStatus(caseId, CaseStatus.DRAFT, approvedBy);
-                // 3. Create "Complete Case Creation" task for original creator
-                if (originalCreator != null) {
-                    taskService.createCompleteTaskForUser(caseId, originalCreator);
-                    auditService.logCaseAction(caseId, "CASE_REJECTED", approvedBy, "Case rejected and returned to analyst: " + originalCreator);
+                if (request.isApproved()) {
+                    // APPROVAL FLOW - Simple and straightforward
+                    // 1. Complete the approval task
+                    Map<String, Object> variables = new HashMap<>();
+                    variables.put("approved", true);
+                    variables.put("comments", request.getComments());
+                    taskService.completeTask(taskId, variables);
+                    // 2. Case status already moved to READY_FOR_ASSIGNMENT above
+                    // 3. Create "Investigate Case" task for investigations group
+                    taskService.createInvestigateTask(caseId, "investigations");
+                    // 4. Log the approval action for the analyst
+                    if (originalCreator != null) {
+                        auditService.logCaseAction(caseId, "CASE_APPROVED", approvedBy, "Case approved and assigned to investigations. Notified analyst: " + originalCreator);
+                    } else {
+                        auditService.logCaseAction(caseId, "CASE_APPROVED", approvedBy, "Case approved and assigned to investigations.");
+                    }
+                    response.put("message", "Case approved successfully and assigned to investigations team");
+                    response.put("status", "APPROVED");
                 } else {
-                    auditService.logCaseAction(caseId, "CASE_REJECTED", approvedBy, "Case rejected and returned to analyst.");
+                    // REJECTION FLOW - Simple and straightforward  
+                    // 1. Complete the approval task
+                    Map<String, Object> variables = new HashMap<>();
+                    variables.put("approved", false);
+                    variables.put("comments", request.getComments());
+                    taskService.completeTask(taskId, variables);
+                    // 2. Case status already moved back to DRAFT above
+                    // 3. Create "Complete Case Creation" task for original creator
+                    if (originalCreator != null) {
+                        taskService.createCompleteTaskForUser(caseId, originalCreator);
+                        auditService.logCaseAction(caseId, "CASE_REJECTED", approvedBy, "Case rejected and returned to analyst: " + originalCreator);
+                    } else {
+                        auditService.logCaseAction(caseId, "CASE_REJECTED", approvedBy, "Case rejected and returned to analyst.");
+                    }
+                    response.put("message", "Case rejected and returned to creator for completion");
+                    response.put("status", "REJECTED");
                 }
-                response.put("message", "Case rejected and returned to creator for completion");
-                response.put("status", "REJECTED");
+                return true;
+            }));
+            if (!decided) {
+                return ResponseEntity.status(409).body(Map.of("error", "Case is no longer pending approval", "caseId", caseId.toString()));
             }
             // Add audit info
             response.put("approvedBy", approvedBy);
             response.put("comments", request.getComments());
             response.put("caseId", caseId.toString());
             return ResponseEntity.ok(response);
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(409).body(Map.of("error", "Error processing approval: " + e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(Map.of("error", "Error processing approval: " + e.getMessage()));
         }
@@ -261,11 +360,38 @@ public class TaskController {
 
     /**
      * Get all DB tasks by assignee (from TaskModel).
-     * GET /api/tasks/by-assignee/{assignee}
+     * GET /api/tasks/by-assignee/{assignee}?fields=id,taskName,status
      */
     @GetMapping("/by-assignee/{assignee}")
-    public ResponseEntity<List<TaskModel>> getTasksByAssignee(@PathVariable String assignee) {
-        return ResponseEntity.ok(taskService.getTasksByAssignee(assignee));
+    public ResponseEntity<?> getTasksByAssignee(
+            @PathVariable String assignee,
+            @RequestParam(required = false) String fields,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            HttpServletRequest request) {
+        return streamTasks(() -> taskService.getTasksByAssignee(assignee), fields, ifNoneMatch, request);
+    }
+
+    private ResponseEntity<?> streamTasks(Supplier<List<TaskModel>> loader, String fields, String ifNoneMatch,
+                                          HttpServletRequest request) {
+        long selected;
+        try {
+            selected = TaskJson.FIELDS.select(fields);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+        String etag = JsonResponses.etag(collectionVersions.stamp(JsonResponses.requestKey(request),
+            CollectionVersions.Collection.TASKS));
+        if (JsonResponses.etagMatches(ifNoneMatch, etag)) {
+            return JsonResponses.notModified(etag);
+        }
+        List<TaskModel> tasks = loader.get();
+        return JsonResponses.stream(etag, null, gen -> {
+            gen.writeStartArray();
+            for (TaskModel task : tasks) {
+                TaskJson.FIELDS.write(gen, task, selected);
+            }
+            gen.writeEndArray();
+        });
     }
 
     /**
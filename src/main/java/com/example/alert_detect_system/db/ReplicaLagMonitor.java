@@ -0,0 +1,84 @@
+package com.example.alert_detect_system.db;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * Measures replica staleness with a heartbeat row: the primary's replica_heartbeat row is stamped
+ * with the current time on every probe, and the lag is how far the replica's copy of that row
+ * trails it. Works with any replication that ships the table; a replica that cannot be read, or
+ * has never seen a heartbeat, counts as infinitely stale.
+ */
+public class ReplicaLagMonitor {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+    private static final int HEARTBEAT_ID = 1;
+
+    private final JdbcTemplate primary;
+    private final JdbcTemplate replica;
+    private final long maxLagMillis;
+    private final long probeIntervalMillis;
+    private volatile long lagMillis = Long.MAX_VALUE;
+    private volatile boolean withinTolerance;
+    // Created by the first probe that reaches the primary, not on every probe
+    private volatile boolean heartbeatTableCreated;
+
+    public ReplicaLagMonitor(DataSource primary, DataSource replica, long maxLagMillis, long probeIntervalMillis) {
+        this.primary = new JdbcTemplate(primary);
+        this.replica = new JdbcTemplate(replica);
+        this.maxLagMillis = maxLagMillis;
+        this.probeIntervalMillis = probeIntervalMillis;
+    }
+
+    public long maxLagMillis() {
+        return maxLagMillis;
+    }
+
+    public long probeIntervalMillis() {
+        return probeIntervalMillis;
+    }
+
+    public long lagMillis() {
+        return lagMillis;
+    }
+
+    public boolean isWithinTolerance() {
+        return withinTolerance;
+    }
+
+    @Scheduled(fixedDelayString = "${datasource.replica.probe-interval-ms:1000}")
+    public void probe() {
+        long now = System.currentTimeMillis();
+        try {
+            if (!heartbeatTableCreated) {
+                primary.execute("CREATE TABLE IF NOT EXISTS replica_heartbeat (id INT PRIMARY KEY, beat_at BIGINT NOT NULL)");
+                heartbeatTableCreated = true;
+            }
+            if (primary.update("UPDATE replica_heartbeat SET beat_at = ? WHERE id = ?", now, HEARTBEAT_ID) == 0) {
+                primary.update("INSERT INTO replica_heartbeat (id, beat_at) VALUES (?, ?)", HEARTBEAT_ID, now);
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Could not write replica heartbeat on the primary: {}", e.getMessage());
+        }
+        long lag;
+        try {
+            Long beatAt = replica.query("SELECT beat_at FROM replica_heartbeat WHERE id = ?",
+                rs -> rs.next() ? rs.getLong(1) : null, HEARTBEAT_ID);
+            lag = beatAt != null ? Math.max(0, now - beatAt) : Long.MAX_VALUE;
+        } catch (RuntimeException e) {
+            logger.debug("Replica heartbeat unreadable: {}", e.getMessage());
+            lag = Long.MAX_VALUE;
+        }
+        boolean fresh = lag <= maxLagMillis;
+        if (fresh != withinTolerance) {
+            logger.info(fresh ? "Replica caught up (lag {} ms), serving read-only queries from it"
+                : "Replica lag {} ms exceeds tolerance, serving reads from the primary", lag == Long.MAX_VALUE ? "unknown" : lag);
+        }
+        lagMillis = lag;
+        withinTolerance = fresh;
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.alert_detect_system.db;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+/**
+ * Sends connections for read-only transactions declared by application code
+ * ({@code @Transactional(readOnly = true)} on a service method) to the replica, everything else to
+ * the primary. The read-only transactions Spring Data opens around bare repository calls stay on
+ * the primary, so code that reads and then writes without a transaction keeps its current behaviour.
+ *
+ * A read also goes to the primary when the replica lags more than the tolerated staleness, or
+ * when the same request (or, outside requests, the same thread within the staleness window) has
+ * written: clients always read their own writes. Requests that hand out a list ETag are pinned
+ * to the primary too ({@link #pinRequestToPrimary}), since the tag follows the primary's commits.
+ *
+ * Must sit behind a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}:
+ * the read-only flag is only known once the transaction has started, after the transaction
+ * manager asked for a connection.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Target {
+        PRIMARY,
+        REPLICA
+    }
+
+    private static final String WROTE_ATTRIBUTE = ReplicaRoutingDataSource.class.getName() + ".wrote";
+    private static final String PINNED_ATTRIBUTE = ReplicaRoutingDataSource.class.getName() + ".pinned";
+    private static final String REPOSITORY_TRANSACTION_PREFIX = "org.springframework.data.";
+
+    private final ReplicaLagMonitor lagMonitor;
+    private final long stickyNanos;
+    // nanoTime of this thread's last write, 0 if none
+    private final ThreadLocal<long[]> lastWrite = ThreadLocal.withInitial(() -> new long[1]);
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, ReplicaLagMonitor lagMonitor) {
+        this.lagMonitor = lagMonitor;
+        // A write older than the worst lag we accept, plus one probe interval, is on the replica
+        this.stickyNanos = TimeUnit.MILLISECONDS.toNanos(lagMonitor.maxLagMillis() + lagMonitor.probeIntervalMillis());
+        setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return route();
+    }
+
+    public Target route() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                recordWrite();
+            }
+            return Target.PRIMARY;
+        }
+        String name = TransactionSynchronizationManager.getCurrentTransactionName();
+        if (name == null || name.startsWith(REPOSITORY_TRANSACTION_PREFIX)) {
+            return Target.PRIMARY;
+        }
+        if (hasRecentWrite() || !lagMonitor.isWithinTolerance()) {
+            return Target.PRIMARY;
+        }
+        return Target.REPLICA;
+    }
+
+    /**
+     * Sends the rest of the current request's reads to the primary. A no-op outside requests and
+     * when no replica is configured.
+     */
+    public static void pinRequestToPrimary() {
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        if (request != null) {
+            request.setAttribute(PINNED_ATTRIBUTE, Boolean.TRUE, RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+
+    private void recordWrite() {
+        lastWrite.get()[0] = System.nanoTime();
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        if (request != null) {
+            request.setAttribute(WROTE_ATTRIBUTE, Boolean.TRUE, RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+
+    private boolean hasRecentWrite() {
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        if (request != null && (request.getAttribute(WROTE_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) != null
+                || request.getAttribute(PINNED_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) != null)) {
+            return true;
+        }
+        long last = lastWrite.get()[0];
+        return last != 0 && System.nanoTime() - last <= stickyNanos;
+    }
+}
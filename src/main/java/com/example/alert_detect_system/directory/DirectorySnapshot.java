@@ -0,0 +1,233 @@
+package com.example.alert_detect_system.directory;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Immutable view of the user directory with memberships as bitsets: bit g of a user's set is the
+ * group with index g, bit u of a group's set is the user with index u. Memberships are effective
+ * ones, so a member of a group nested in another group is a member of both. A change produces a
+ * new snapshot that shares everything the change did not touch.
+ */
+public final class DirectorySnapshot {
+
+    /** Group type Flowable IDM uses for roles; other groups are work groups. */
+    public static final String ROLE_TYPE = "security-role";
+
+    public record DirectoryUser(String id, String firstName, String lastName, String email) {
+    }
+
+    public record DirectoryGroup(String id, String name, String type) {
+    }
+
+    private final Map<String, Integer> userIndex;
+    private final DirectoryUser[] users;
+    private final Map<String, Integer> groupIndex;
+    private final DirectoryGroup[] groups;
+    // Per group: itself and every group it is nested in
+    private final BitSet[] ancestors;
+    private final BitSet[] directGroups;
+    private final BitSet[] userGroups;
+    private final BitSet[] groupMembers;
+
+    private DirectorySnapshot(Map<String, Integer> userIndex, DirectoryUser[] users, Map<String, Integer> groupIndex,
+                              DirectoryGroup[] groups, BitSet[] ancestors, BitSet[] directGroups, BitSet[] userGroups,
+                              BitSet[] groupMembers) {
+        this.userIndex = userIndex;
+        this.users = users;
+        this.groupIndex = groupIndex;
+        this.groups = groups;
+        this.ancestors = ancestors;
+        this.directGroups = directGroups;
+        this.userGroups = userGroups;
+        this.groupMembers = groupMembers;
+    }
+
+    public static DirectorySnapshot empty() {
+        return of(List.of(), List.of(), Map.of(), Map.of());
+    }
+
+    /**
+     * @param memberships direct group ids per user id; unknown users and groups are skipped
+     * @param parents parent group id per nested group id
+     */
+    public static DirectorySnapshot of(List<DirectoryUser> users, List<DirectoryGroup> groups,
+                                       Map<String, ? extends Collection<String>> memberships, Map<String, String> parents) {
+        Map<String, Integer> groupIndex = new HashMap<>();
+        for (DirectoryGroup group : groups) {
+            groupIndex.put(group.id(), groupIndex.size());
+        }
+        BitSet[] ancestors = new BitSet[groups.size()];
+        for (int g = 0; g < groups.size(); g++) {
+            ancestors[g] = new BitSet();
+            String id = groups.get(g).id();
+            while (id != null && groupIndex.containsKey(id)) {
+                int index = groupIndex.get(id);
+                if (ancestors[g].get(index)) {
+                    throw new IllegalArgumentException("Group nesting has a cycle through " + id);
+                }
+                ancestors[g].set(index);
+                id = parents.get(id);
+            }
+        }
+
+        Map<String, Integer> userIndex = new HashMap<>();
+        BitSet[] direct = new BitSet[users.size()];
+        BitSet[] effective = new BitSet[users.size()];
+        BitSet[] members = new BitSet[groups.size()];
+        for (int g = 0; g < members.length; g++) {
+            members[g] = new BitSet();
+        }
+        for (int u = 0; u < users.size(); u++) {
+            userIndex.put(users.get(u).id(), u);
+            direct[u] = new BitSet();
+            Collection<String> groupIds = memberships.get(users.get(u).id());
+            for (String groupId : groupIds == null ? List.<String>of() : groupIds) {
+                Integer g = groupIndex.get(groupId);
+                if (g != null) {
+                    direct[u].set(g);
+                }
+            }
+            effective[u] = expand(direct[u], ancestors);
+            for (int g = effective[u].nextSetBit(0); g >= 0; g = effective[u].nextSetBit(g + 1)) {
+                members[g].set(u);
+            }
+        }
+        return new DirectorySnapshot(userIndex, users.toArray(DirectoryUser[]::new), groupIndex,
+            groups.toArray(DirectoryGroup[]::new), ancestors, direct, effective, members);
+    }
+
+    public boolean hasUser(String userId) {
+        return userId != null && userIndex.containsKey(userId);
+    }
+
+    public boolean hasGroup(String groupId) {
+        return groupId != null && groupIndex.containsKey(groupId);
+    }
+
+    public boolean isMember(String userId, String groupId) {
+        Integer u = userId == null ? null : userIndex.get(userId);
+        Integer g = groupId == null ? null : groupIndex.get(groupId);
+        return u != null && g != null && userGroups[u].get(g);
+    }
+
+    public boolean hasRole(String userId, String role) {
+        Integer g = role == null ? null : groupIndex.get(role);
+        return g != null && ROLE_TYPE.equals(groups[g].type()) && isMember(userId, role);
+    }
+
+    /**
+     * Bitset of the given groups, for repeated {@link #isMemberOfAny} checks; unknown ids are ignored.
+     */
+    public BitSet groupMask(Collection<String> groupIds) {
+        BitSet mask = new BitSet();
+        for (String groupId : groupIds) {
+            Integer g = groupIndex.get(groupId);
+            if (g != null) {
+                mask.set(g);
+            }
+        }
+        return mask;
+    }
+
+    public boolean isMemberOfAny(String userId, BitSet groupMask) {
+        Integer u = userId == null ? null : userIndex.get(userId);
+        return u != null && userGroups[u].intersects(groupMask);
+    }
+
+    public Optional<DirectoryUser> user(String userId) {
+        Integer u = userId == null ? null : userIndex.get(userId);
+        return u == null ? Optional.empty() : Optional.of(users[u]);
+    }
+
+    public List<String> groupsOf(String userId) {
+        Integer u = userId == null ? null : userIndex.get(userId);
+        return u == null ? List.of() : groupIds(userGroups[u], null);
+    }
+
+    public List<String> directGroupsOf(String userId) {
+        Integer u = userId == null ? null : userIndex.get(userId);
+        return u == null ? List.of() : groupIds(directGroups[u], null);
+    }
+
+    public List<String> rolesOf(String userId) {
+        Integer u = userId == null ? null : userIndex.get(userId);
+        return u == null ? List.of() : groupIds(userGroups[u], ROLE_TYPE);
+    }
+
+    public List<String> membersOf(String groupId) {
+        Integer g = groupId == null ? null : groupIndex.get(groupId);
+        if (g == null) {
+            return List.of();
+        }
+        List<String> ids = new ArrayList<>(groupMembers[g].cardinality());
+        for (int u = groupMembers[g].nextSetBit(0); u >= 0; u = groupMembers[g].nextSetBit(u + 1)) {
+            ids.add(users[u].id());
+        }
+        return ids;
+    }
+
+    public int userCount() {
+        return users.length;
+    }
+
+    public int groupCount() {
+        return groups.length;
+    }
+
+    /**
+     * Replaces the direct memberships of one user; only the bitsets of groups gained or lost are copied.
+     */
+    public DirectorySnapshot withMemberships(String userId, Set<String> groupIds) {
+        Integer u = userIndex.get(userId);
+        if (u == null) {
+            throw new IllegalArgumentException("Unknown user: " + userId);
+        }
+        BitSet direct = new BitSet();
+        for (String groupId : groupIds) {
+            Integer g = groupIndex.get(groupId);
+            if (g == null) {
+                throw new IllegalArgumentException("Unknown group: " + groupId);
+            }
+            direct.set(g);
+        }
+        BitSet effective = expand(direct, ancestors);
+        BitSet changed = (BitSet) effective.clone();
+        changed.xor(userGroups[u]);
+
+        BitSet[] members = groupMembers.clone();
+        for (int g = changed.nextSetBit(0); g >= 0; g = changed.nextSetBit(g + 1)) {
+            members[g] = (BitSet) members[g].clone();
+            members[g].set(u, effective.get(g));
+        }
+        BitSet[] directs = directGroups.clone();
+        directs[u] = direct;
+        BitSet[] effectives = userGroups.clone();
+        effectives[u] = effective;
+        return new DirectorySnapshot(userIndex, users, groupIndex, groups, ancestors, directs, effectives, members);
+    }
+
+    private List<String> groupIds(BitSet bits, String type) {
+        List<String> ids = new ArrayList<>(bits.cardinality());
+        for (int g = bits.nextSetBit(0); g >= 0; g = bits.nextSetBit(g + 1)) {
+            if (type == null || type.equals(groups[g].type())) {
+                ids.add(groups[g].id());
+            }
+        }
+        return ids;
+    }
+
+    private static BitSet expand(BitSet direct, BitSet[] ancestors) {
+        BitSet effective = new BitSet();
+        for (int g = direct.nextSetBit(0); g >= 0; g = direct.nextSetBit(g + 1)) {
+            effective.or(ancestors[g]);
+        }
+        return effective;
+    }
+}
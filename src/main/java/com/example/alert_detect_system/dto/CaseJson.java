@@ -0,0 +1,32 @@
+package com.example.alert_detect_system.dto;
+
+import com.example.alert_detect_system.Model.CaseModel;
+
+/**
+ * JSON shape of a case in API responses: the same fields and formats the entity used to be
+ * serialized with, selectable through {@code fields=}.
+ */
+public final class CaseJson {
+
+    public static final JsonProjection<CaseModel> FIELDS = JsonProjection.<CaseModel>builder()
+        .text("id", CaseModel::getId)
+        .text("caseNumber", CaseModel::getCaseNumber)
+        .text("caseType", CaseModel::getCaseType)
+        .text("priority", CaseModel::getPriority)
+        .text("entity", CaseModel::getEntity)
+        .text("alertId", CaseModel::getAlertId)
+        .text("status", CaseModel::getStatus)
+        .text("description", CaseModel::getDescription)
+        .number("riskScore", CaseModel::getRiskScore)
+        .text("typology", CaseModel::getTypology)
+        .text("createdBy", CaseModel::getCreatedBy)
+        .text("updatedBy", CaseModel::getUpdatedBy)
+        .dateTime("createdAt", CaseModel::getCreatedAt)
+        .dateTime("updatedAt", CaseModel::getUpdatedAt)
+        .text("processInstanceId", CaseModel::getProcessInstanceId)
+        .number("version", CaseModel::getVersion)
+        .build();
+
+    private CaseJson() {
+    }
+}
@@ -18,6 +18,8 @@ public class CaseRequestDto {
     private String typology;
     private String createdBy;
     private String assignee;
+    // Version the client last read; when present, updates fail if the case changed since
+    private Long version;
     
     // Constructors
     public CaseRequestDto() {}
@@ -49,4 +51,7 @@ public class CaseRequestDto {
     
     public String getAssignee() { return assignee; }
     public void setAssignee(String assignee) { this.assignee = assignee; }
+
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
 }
\ No newline at end of file
@@ -0,0 +1,15 @@
+package com.example.alert_detect_system.dto;
+
+import java.io.IOException;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+
+/**
+ * Response body that writes itself to the response stream; see
+ * {@link com.example.alert_detect_system.config.JsonBodyHttpMessageConverter}.
+ */
+@FunctionalInterface
+public interface JsonBody {
+
+    void writeTo(JsonGenerator gen) throws IOException;
+}
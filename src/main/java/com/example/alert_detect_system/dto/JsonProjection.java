@@ -0,0 +1,187 @@
+package com.example.alert_detect_system.dto;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+
+/**
+ * Writes a fixed, ordered set of an object's fields straight to a {@link JsonGenerator}, without
+ * going through bean introspection or intermediate maps. A sparse fieldset ({@code fields=id,status})
+ * is resolved once per request into a bit mask; field names are pre-encoded.
+ */
+public final class JsonProjection<T> {
+
+    public static final int MAX_FIELDS = Long.SIZE;
+
+    @FunctionalInterface
+    public interface FieldWriter<T> {
+        void write(JsonGenerator gen, T value) throws IOException;
+    }
+
+    private final List<String> names;
+    private final SerializedString[] serializedNames;
+    private final FieldWriter<T>[] writers;
+    private final Map<String, Integer> index;
+    private final long allFields;
+
+    private JsonProjection(List<String> names, List<FieldWriter<T>> writers) {
+        this.names = List.copyOf(names);
+        this.serializedNames = names.stream().map(SerializedString::new).toArray(SerializedString[]::new);
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        FieldWriter<T>[] array = writers.toArray(new FieldWriter[0]);
+        this.writers = array;
+        this.index = new HashMap<>();
+        for (int i = 0; i < names.size(); i++) {
+            index.put(names.get(i), i);
+        }
+        this.allFields = names.size() == MAX_FIELDS ? -1L : (1L << names.size()) - 1;
+    }
+
+    public static <T> Builder<T> builder() {
+        return new Builder<>();
+    }
+
+    public List<String> fieldNames() {
+        return names;
+    }
+
+    /**
+     * Mask for a comma-separated field list; null or blank selects every field.
+     * Throws IllegalArgumentException naming the first unknown field.
+     */
+    public long select(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return allFields;
+        }
+        long mask = 0;
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            Integer position = index.get(name);
+            if (position == null) {
+                throw new IllegalArgumentException("Unknown field '" + name + "', expected any of " + names);
+            }
+            mask |= 1L << position;
+        }
+        return mask != 0 ? mask : allFields;
+    }
+
+    public void write(JsonGenerator gen, T value, long selected) throws IOException {
+        gen.writeStartObject();
+        for (long bits = selected & allFields; bits != 0; bits &= bits - 1) {
+            int field = Long.numberOfTrailingZeros(bits);
+            gen.writeFieldName(serializedNames[field]);
+            writers[field].write(gen, value);
+        }
+        gen.writeEndObject();
+    }
+
+    /**
+     * Hand-rolled {@link DateTimeFormatter#ISO_LOCAL_DATE_TIME}: seconds always, fraction only when
+     * non-zero and without trailing zeros. The formatter is the expensive part of writing a case.
+     */
+    static void writeIsoDateTime(JsonGenerator gen, LocalDateTime v) throws IOException {
+        int year = v.getYear();
+        if (year < 0 || year > 9999) {
+            gen.writeString(DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(v));
+            return;
+        }
+        char[] buf = new char[29];
+        digits(buf, 0, year, 4);
+        buf[4] = '-';
+        digits(buf, 5, v.getMonthValue(), 2);
+        buf[7] = '-';
+        digits(buf, 8, v.getDayOfMonth(), 2);
+        buf[10] = 'T';
+        digits(buf, 11, v.getHour(), 2);
+        buf[13] = ':';
+        digits(buf, 14, v.getMinute(), 2);
+        buf[16] = ':';
+        digits(buf, 17, v.getSecond(), 2);
+        int length = 19;
+        int nano = v.getNano();
+        if (nano != 0) {
+            buf[19] = '.';
+            digits(buf, 20, nano, 9);
+            length = 29;
+            while (buf[length - 1] == '0') {
+                length--;
+            }
+        }
+        gen.writeString(buf, 0, length);
+    }
+
+    private static void digits(char[] buf, int offset, int value, int width) {
+        for (int i = offset + width - 1; i >= offset; i--) {
+            buf[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+
+    public static final class Builder<T> {
+        private final List<String> names = new ArrayList<>();
+        private final List<FieldWriter<T>> writers = new ArrayList<>();
+
+        public Builder<T> field(String name, FieldWriter<T> writer) {
+            if (names.size() == MAX_FIELDS) {
+                throw new IllegalArgumentException("At most " + MAX_FIELDS + " fields are supported");
+            }
+            names.add(name);
+            writers.add(writer);
+            return this;
+        }
+
+        /**
+         * Strings, and anything written as its toString() (UUIDs, enums); null stays null.
+         */
+        public Builder<T> text(String name, Function<T, ?> getter) {
+            return field(name, (gen, value) -> {
+                Object v = getter.apply(value);
+                if (v == null) {
+                    gen.writeNull();
+                } else {
+                    gen.writeString(v.toString());
+                }
+            });
+        }
+
+        public Builder<T> number(String name, Function<T, ? extends Number> getter) {
+            return field(name, (gen, value) -> {
+                Number v = getter.apply(value);
+                if (v == null) {
+                    gen.writeNull();
+                } else if (v instanceof Double d) {
+                    gen.writeNumber(d);
+                } else {
+                    gen.writeNumber(v.longValue());
+                }
+            });
+        }
+
+        // Same ISO-8601 text Jackson's JavaTimeModule produces for LocalDateTime
+        public Builder<T> dateTime(String name, Function<T, LocalDateTime> getter) {
+            return field(name, (gen, value) -> {
+                LocalDateTime v = getter.apply(value);
+                if (v == null) {
+                    gen.writeNull();
+                } else {
+                    writeIsoDateTime(gen, v);
+                }
+            });
+        }
+
+        public JsonProjection<T> build() {
+            return new JsonProjection<>(names, writers);
+        }
+    }
+}
@@ -2,6 +2,8 @@ package com.example.alert_detect_system.dto;
 
 import java.util.Date;
 
+import org.flowable.task.api.Task;
+
 public class TaskDto {
     private String id;
     private String name;
@@ -23,6 +25,12 @@ public class TaskDto {
         this.description = description;
     }
 
+    // Serializing Flowable's TaskEntity walks lazily loaded variables and identity links
+    public static TaskDto from(Task task) {
+        return new TaskDto(task.getId(), task.getName(), task.getAssignee(), task.getCreateTime(),
+            task.getProcessInstanceId(), task.getProcessDefinitionId(), task.getDescription());
+    }
+
     public String getId() { return id; }
     public void setId(String id) { this.id = id; }
 
@@ -0,0 +1,32 @@
+package com.example.alert_detect_system.dto;
+
+import com.example.alert_detect_system.Model.TaskModel;
+
+/**
+ * JSON shape of a database task in API responses, selectable through {@code fields=}.
+ */
+public final class TaskJson {
+
+    public static final JsonProjection<TaskModel> FIELDS = JsonProjection.<TaskModel>builder()
+        .text("id", TaskModel::getId)
+        .text("caseId", TaskModel::getCaseId)
+        .text("taskName", TaskModel::getTaskName)
+        .text("assignee", TaskModel::getAssignee)
+        .text("candidateGroup", TaskModel::getCandidateGroup)
+        .text("status", TaskModel::getStatus)
+        .dateTime("createdAt", TaskModel::getCreatedAt)
+        .dateTime("dueDate", TaskModel::getDueDate)
+        .text("processInstanceId", TaskModel::getProcessInstanceId)
+        .text("taskDefinitionKey", TaskModel::getTaskDefinitionKey)
+        .text("description", TaskModel::getDescription)
+        .text("title", TaskModel::getTitle)
+        .text("priority", TaskModel::getPriority)
+        .text("completedBy", TaskModel::getCompletedBy)
+        .dateTime("completedAt", TaskModel::getCompletedAt)
+        .dateTime("escalatedAt", TaskModel::getEscalatedAt)
+        .number("version", TaskModel::getVersion)
+        .build();
+
+    private TaskJson() {
+    }
+}
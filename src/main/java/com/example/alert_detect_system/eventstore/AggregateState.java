@@ -0,0 +1,19 @@
+package com.example.alert_detect_system.eventstore;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * An aggregate as of one of its events. {@code state} is null once the aggregate was deleted.
+ * {@code snapshotSequence} and {@code eventsReplayed} tell how the state was reconstructed:
+ * from the snapshot taken at that sequence (0 for none) plus that many events.
+ */
+public record AggregateState(AggregateType type, UUID id, long sequence, long snapshotSequence, int eventsReplayed,
+                             LocalDateTime changedAt, ObjectNode state) {
+
+    public boolean deleted() {
+        return state == null;
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.alert_detect_system.eventstore;
+
+import java.util.Locale;
+
+import com.example.alert_detect_system.Model.CaseModel;
+import com.example.alert_detect_system.Model.TaskModel;
+
+/**
+ * The entities whose changes are recorded in the event store, and the tables they project to.
+ */
+public enum AggregateType {
+    CASE(CaseModel.class),
+    TASK(TaskModel.class);
+
+    private final Class<?> entityClass;
+
+    AggregateType(Class<?> entityClass) {
+        this.entityClass = entityClass;
+    }
+
+    public Class<?> entityClass() {
+        return entityClass;
+    }
+
+    // "case" or "task", as used in request paths
+    public static AggregateType fromPath(String value) {
+        try {
+            return valueOf(value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown aggregate type: " + value + " (expected case or task)");
+        }
+    }
+}
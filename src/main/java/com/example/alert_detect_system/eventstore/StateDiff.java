@@ -0,0 +1,51 @@
+package com.example.alert_detect_system.eventstore;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * Field-level deltas between two flat JSON states. An event stores {@code diff(before, after)};
+ * replay rebuilds {@code after} as {@code apply(before, delta)}. A field that was cleared is kept
+ * in the delta as an explicit null.
+ */
+public final class StateDiff {
+
+    private StateDiff() {
+    }
+
+    public static ObjectNode diff(ObjectNode before, ObjectNode after) {
+        ObjectNode delta = JsonNodeFactory.instance.objectNode();
+        for (Map.Entry<String, JsonNode> field : after.properties()) {
+            JsonNode previous = before == null ? null : before.get(field.getKey());
+            if (!Objects.equals(normalize(previous), normalize(field.getValue()))) {
+                delta.set(field.getKey(), field.getValue());
+            }
+        }
+        if (before != null) {
+            Iterator<String> names = before.fieldNames();
+            while (names.hasNext()) {
+                String name = names.next();
+                if (!after.has(name) && normalize(before.get(name)) != null) {
+                    delta.putNull(name);
+                }
+            }
+        }
+        return delta;
+    }
+
+    // Returns a new node; neither argument is modified
+    public static ObjectNode apply(ObjectNode state, ObjectNode delta) {
+        ObjectNode next = state == null ? JsonNodeFactory.instance.objectNode() : state.deepCopy();
+        next.setAll(delta);
+        return next;
+    }
+
+    private static JsonNode normalize(JsonNode value) {
+        return value == null || value.isNull() ? null : value;
+    }
+}
@@ -0,0 +1,222 @@
+package com.example.alert_detect_system.idempotency;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import com.example.alert_detect_system.ratelimit.RateLimitFilter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Makes API mutations carrying an {@code Idempotency-Key} header safe to retry: the first request
+ * with a key runs and its response is stored; repeats by the same caller (see
+ * {@link RateLimitFilter#callerOf}) from the same client address, with the same method, path and
+ * body, get that response back (marked {@code Idempotent-Replayed: true}) without running again.
+ * Reusing a key for a different body is rejected with 422. Server errors, 409 and 429 are not
+ * stored, so a retry after one of those runs the request again.
+ */
+@Component
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    private static final Set<String> METHODS = Set.of("POST", "PUT", "PATCH", "DELETE");
+    private static final int MAX_KEY_LENGTH = 255;
+    private static final int MAX_ATTEMPTS = 3;
+
+    @Autowired
+    private IdempotencyStore store;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // How long a duplicate waits for the original request to finish
+    @Value("${idempotency.wait-timeout-ms:10000}")
+    private long waitTimeoutMillis;
+
+    // Bodies are held in memory to be hashed, so they are capped
+    @Value("${idempotency.max-body-bytes:1048576}")
+    private int maxBodyBytes;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !METHODS.contains(request.getMethod())
+            || request.getHeader(HEADER) == null
+            || !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String key = request.getHeader(HEADER).trim();
+        if (key.isEmpty() || key.length() > MAX_KEY_LENGTH) {
+            writeError(response, HttpStatus.BAD_REQUEST, HEADER + " must be 1 to " + MAX_KEY_LENGTH + " characters");
+            return;
+        }
+        byte[] body = request.getInputStream().readNBytes(maxBodyBytes + 1);
+        if (body.length > maxBodyBytes) {
+            writeError(response, HttpStatus.PAYLOAD_TOO_LARGE, "Requests with " + HEADER + " may have at most " + maxBodyBytes + " bytes of body");
+            return;
+        }
+        CachedBodyRequest cachedRequest = new CachedBodyRequest(request, body);
+        // Keys are chosen by clients, so two callers may pick the same one; X-User-Id can be set by
+        // anyone, so the address is part of the scope and a forged header cannot replay another's response
+        String scopedKey = RateLimitFilter.addressOf(request) + " " + RateLimitFilter.callerOf(request) + " "
+            + request.getMethod() + " " + request.getRequestURI() + " " + key;
+        String requestHash = IdempotencyStore.sha256(cachedRequest.body);
+
+        for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+            IdempotencyStore.Claim claim = store.claim(scopedKey, requestHash);
+            if (claim.owner()) {
+                execute(cachedRequest, response, chain, scopedKey);
+                return;
+            }
+            try {
+                replay(response, claim.response().get(waitTimeoutMillis, TimeUnit.MILLISECONDS));
+                return;
+            } catch (CancellationException e) {
+                // The original attempt failed and gave the key back; run it here instead
+            } catch (ExecutionException e) {
+                HttpStatus status = e.getCause() instanceof IllegalArgumentException ? HttpStatus.UNPROCESSABLE_ENTITY : HttpStatus.CONFLICT;
+                writeError(response, status, e.getCause().getMessage());
+                return;
+            } catch (TimeoutException e) {
+                writeError(response, HttpStatus.CONFLICT, IdempotencyStore.IN_PROGRESS);
+                return;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                writeError(response, HttpStatus.CONFLICT, IdempotencyStore.IN_PROGRESS);
+                return;
+            }
+        }
+        writeError(response, HttpStatus.CONFLICT, IdempotencyStore.IN_PROGRESS);
+    }
+
+    private void execute(HttpServletRequest request, HttpServletResponse response, FilterChain chain, String scopedKey)
+            throws ServletException, IOException {
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        boolean stored = false;
+        try {
+            chain.doFilter(request, wrapper);
+            int status = wrapper.getStatus();
+            if (isFinal(status)) {
+                store.complete(scopedKey, new StoredResponse(status, wrapper.getContentType(),
+                    wrapper.getHeader(HttpHeaders.LOCATION), wrapper.getContentAsByteArray()));
+                stored = true;
+            }
+        } finally {
+            if (!stored) {
+                store.release(scopedKey);
+            }
+            wrapper.copyBodyToResponse();
+        }
+    }
+
+    private static boolean isFinal(int status) {
+        return status < 500 && status != HttpStatus.CONFLICT.value() && status != HttpStatus.TOO_MANY_REQUESTS.value()
+            && status != HttpStatus.REQUEST_TIMEOUT.value();
+    }
+
+    private void replay(HttpServletResponse response, StoredResponse stored) throws IOException {
+        response.setStatus(stored.status());
+        if (stored.contentType() != null) {
+            response.setContentType(stored.contentType());
+        }
+        if (stored.location() != null) {
+            response.setHeader(HttpHeaders.LOCATION, stored.location());
+        }
+        response.setHeader(REPLAYED_HEADER, "true");
+        response.setContentLength(stored.body().length);
+        response.getOutputStream().write(stored.body());
+    }
+
+    private void writeError(HttpServletResponse response, HttpStatus status, String message) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), Map.of("error", message));
+    }
+
+    // The body is hashed before the controller reads it, so it is read once and served from memory
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) {
+                    return in.read(buffer, offset, length);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                // The whole body is already in memory, so it is available at once and the end follows
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    try {
+                        if (!isFinished()) {
+                            listener.onDataAvailable();
+                        }
+                        if (isFinished()) {
+                            listener.onAllDataRead();
+                        }
+                    } catch (IOException e) {
+                        listener.onError(e);
+                    }
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            return new BufferedReader(new InputStreamReader(getInputStream(),
+                encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8));
+        }
+    }
+}
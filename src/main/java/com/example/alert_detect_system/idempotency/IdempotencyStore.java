@@ -0,0 +1,227 @@
+package com.example.alert_detect_system.idempotency;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.alert_detect_system.Model.IdempotencyKeyModel;
+import com.example.alert_detect_system.repo.IdempotencyKeyRepository;
+
+/**
+ * Idempotency keys and their responses. Every key seen by this node sits in a map together with a
+ * future for its response, so a repeat is answered from memory and a concurrent duplicate waits
+ * on the first request's future instead of running again. The first sighting of a key on a node
+ * claims it in idempotency_keys as well, which makes keys hold across nodes and restarts.
+ */
+@Component
+public class IdempotencyStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdempotencyStore.class);
+    static final String KEY_REUSED = "Idempotency-Key was already used for a different request";
+    static final String IN_PROGRESS = "A request with this Idempotency-Key is still being processed";
+    private static final int MAX_CLAIM_ATTEMPTS = 3;
+
+    @Autowired
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${idempotency.ttl-ms:86400000}")
+    private long ttlMillis;
+
+    // A claim older than this belongs to a request that died with its node
+    @Value("${idempotency.pending-timeout-ms:60000}")
+    private long pendingTimeoutMillis;
+
+    @Value("${idempotency.persistent:true}")
+    private boolean persistent;
+
+    @Value("${idempotency.max-entries:100000}")
+    private int maxEntries;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private volatile boolean overCapacityReported;
+
+    private static final class Entry {
+        final String requestHash;
+        final long expiresAt;
+        final CompletableFuture<StoredResponse> response = new CompletableFuture<>();
+
+        Entry(String requestHash, long expiresAt) {
+            this.requestHash = requestHash;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    /**
+     * The outcome of presenting a key. The owner executes the request and then calls
+     * {@link #complete} or {@link #release}; everyone else waits on {@code response}, which
+     * fails with IllegalArgumentException for a reused key, IllegalStateException while another
+     * node runs the request, and is cancelled if the owner released it (retry the claim).
+     */
+    public record Claim(boolean owner, CompletableFuture<StoredResponse> response) {
+    }
+
+    public Claim claim(String key, String requestHash) {
+        long now = System.currentTimeMillis();
+        Entry entry = new Entry(requestHash, now + ttlMillis);
+        Entry existing;
+        while ((existing = entries.putIfAbsent(key, entry)) != null) {
+            if (existing.expiresAt > now && !existing.response.isCancelled()) {
+                if (!existing.requestHash.equals(requestHash)) {
+                    return new Claim(false, CompletableFuture.failedFuture(new IllegalArgumentException(KEY_REUSED)));
+                }
+                return new Claim(false, existing.response);
+            }
+            entries.remove(key, existing);
+        }
+        if (entries.size() > maxEntries) {
+            if (persistent) {
+                evictCompleted();
+            } else if (!overCapacityReported) {
+                // Nothing to reload an evicted key from, so entries stay until they expire
+                overCapacityReported = true;
+                logger.warn("More than {} idempotency keys held; without idempotency.persistent they are kept until they expire", maxEntries);
+            }
+        }
+        if (!persistent) {
+            return new Claim(true, entry.response);
+        }
+        try {
+            return claimRow(key, entry);
+        } catch (RuntimeException e) {
+            entries.remove(key, entry);
+            entry.response.cancel(false);
+            throw e;
+        }
+    }
+
+    public void complete(String key, StoredResponse response) {
+        if (persistent) {
+            String body = new String(response.body(), StandardCharsets.UTF_8);
+            transactionTemplate.executeWithoutResult(status -> idempotencyKeyRepository.complete(
+                sha256(key), response.status(), response.contentType(), response.location(), body));
+        }
+        Entry entry = entries.get(key);
+        if (entry != null) {
+            entry.response.complete(response);
+        }
+    }
+
+    // The request failed in a way a retry may fix: forget the key so the next attempt runs again
+    public void release(String key) {
+        try {
+            if (persistent) {
+                transactionTemplate.executeWithoutResult(status -> idempotencyKeyRepository.release(sha256(key)));
+            }
+        } finally {
+            Entry entry = entries.remove(key);
+            if (entry != null) {
+                entry.response.cancel(false);
+            }
+        }
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    @Scheduled(fixedDelayString = "${idempotency.sweep-interval-ms:60000}")
+    public void sweep() {
+        long now = System.currentTimeMillis();
+        entries.values().removeIf(entry -> entry.expiresAt <= now);
+        if (persistent) {
+            Integer deleted = transactionTemplate.execute(status -> idempotencyKeyRepository.deleteExpired(LocalDateTime.now()));
+            if (deleted != null && deleted > 0) {
+                logger.debug("Deleted {} expired idempotency keys", deleted);
+            }
+        }
+    }
+
+    private Claim claimRow(String key, Entry entry) {
+        String keyHash = sha256(key);
+        for (int attempt = 0; attempt < MAX_CLAIM_ATTEMPTS; attempt++) {
+            LocalDateTime now = LocalDateTime.now();
+            LocalDateTime expiresAt = now.plus(Duration.ofMillis(ttlMillis));
+            Optional<IdempotencyKeyModel> row = idempotencyKeyRepository.findById(keyHash);
+            if (row.isEmpty()) {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> idempotencyKeyRepository.saveAndFlush(
+                        new IdempotencyKeyModel(keyHash, entry.requestHash, now, expiresAt)));
+                    return new Claim(true, entry.response);
+                } catch (DataIntegrityViolationException e) {
+                    continue;
+                }
+            }
+            IdempotencyKeyModel existing = row.get();
+            boolean stale = existing.getExpiresAt().isBefore(now)
+                || (existing.getStatus() == null && existing.getCreatedAt().isBefore(now.minus(Duration.ofMillis(pendingTimeoutMillis))));
+            if (stale) {
+                Integer taken = transactionTemplate.execute(status -> idempotencyKeyRepository.takeOver(keyHash, entry.requestHash,
+                    now, expiresAt, now.minus(Duration.ofMillis(pendingTimeoutMillis))));
+                if (taken != null && taken == 1) {
+                    return new Claim(true, entry.response);
+                }
+                continue;
+            }
+            if (!existing.getRequestHash().equals(entry.requestHash)) {
+                return fail(key, entry, new IllegalArgumentException(KEY_REUSED));
+            }
+            if (existing.getStatus() == null) {
+                return fail(key, entry, new IllegalStateException(IN_PROGRESS));
+            }
+            byte[] body = existing.getBody() == null ? new byte[0] : existing.getBody().getBytes(StandardCharsets.UTF_8);
+            entry.response.complete(new StoredResponse(existing.getStatus(), existing.getContentType(), existing.getLocation(), body));
+            return new Claim(false, entry.response);
+        }
+        return fail(key, entry, new IllegalStateException(IN_PROGRESS));
+    }
+
+    // Not cached: the answer may be different the next time the key is presented
+    private Claim fail(String key, Entry entry, RuntimeException reason) {
+        entries.remove(key, entry);
+        entry.response.completeExceptionally(reason);
+        return new Claim(false, entry.response);
+    }
+
+    // Finished entries can be dropped early since a later repeat reloads them from the table
+    private void evictCompleted() {
+        Iterator<Entry> it = entries.values().iterator();
+        int excess = entries.size() - maxEntries * 9 / 10;
+        while (it.hasNext() && excess > 0) {
+            if (it.next().response.isDone()) {
+                it.remove();
+                excess--;
+            }
+        }
+    }
+
+    static String sha256(String value) {
+        return sha256(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static String sha256(byte[] value) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(value));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
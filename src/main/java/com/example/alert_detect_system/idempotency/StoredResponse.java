@@ -0,0 +1,7 @@
+package com.example.alert_detect_system.idempotency;
+
+/**
+ * What a request produced, kept so a retry with the same idempotency key gets it back verbatim.
+ */
+public record StoredResponse(int status, String contentType, String location, byte[] body) {
+}
@@ -0,0 +1,54 @@
+package com.example.alert_detect_system.inbox;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Comparator;
+import java.util.UUID;
+
+import com.example.alert_detect_system.Model.CaseModel;
+import com.example.alert_detect_system.Model.TaskModel;
+
+/**
+ * Immutable sort key of a queued task. Higher risk first, then higher priority, then the
+ * earliest SLA due date, then the oldest task.
+ */
+public record InboxEntry(UUID taskId, UUID caseId, String taskName, String candidateGroup,
+                         double riskScore, int priorityRank, long dueAtMillis, long createdAtMillis) {
+
+    static final Comparator<InboxEntry> ORDER = Comparator
+        .comparingDouble((InboxEntry e) -> e.riskScore()).reversed()
+        .thenComparing(Comparator.comparingInt((InboxEntry e) -> e.priorityRank()).reversed())
+        .thenComparingLong(InboxEntry::dueAtMillis)
+        .thenComparingLong(InboxEntry::createdAtMillis)
+        .thenComparing(InboxEntry::taskId);
+
+    private static final long NO_DUE_DATE = Long.MAX_VALUE;
+
+    /**
+     * Builds the key from the task, its case and the case's risk score as ranked by the rules.
+     * The case may be null if it could not be loaded. The task's own priority wins over the case
+     * priority when both are set.
+     */
+    public static InboxEntry of(TaskModel task, CaseModel caseModel, double risk) {
+        String priority = task.getPriority() != null ? task.getPriority() : caseModel != null ? caseModel.getPriority() : null;
+        return new InboxEntry(task.getId(), task.getCaseId(), task.getTaskName(), task.getCandidateGroup(),
+            risk, priorityRank(priority), millis(task.getDueDate(), NO_DUE_DATE), millis(task.getCreatedAt(), 0L));
+    }
+
+    public static int priorityRank(String priority) {
+        if (priority == null) {
+            return 0;
+        }
+        return switch (priority.toUpperCase()) {
+            case "CRITICAL" -> 4;
+            case "HIGH" -> 3;
+            case "MEDIUM" -> 2;
+            case "LOW" -> 1;
+            default -> 0;
+        };
+    }
+
+    private static long millis(LocalDateTime time, long fallback) {
+        return time != null ? time.toInstant(ZoneOffset.UTC).toEpochMilli() : fallback;
+    }
+}
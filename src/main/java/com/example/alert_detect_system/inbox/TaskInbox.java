@@ -0,0 +1,147 @@
+package com.example.alert_detect_system.inbox;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.stereotype.Component;
+
+import com.example.alert_detect_system.Model.CaseModel;
+import com.example.alert_detect_system.Model.TaskModel;
+
+/**
+ * In-memory priority inbox: one {@link TaskPriorityHeap} per candidate group holding the tasks
+ * nobody has picked up yet. The database stays the source of truth; this is an index over it that
+ * {@link com.example.alert_detect_system.service.TaskInboxService} keeps current from task and case events.
+ */
+@Component
+public class TaskInbox {
+
+    private static final Set<String> NOT_QUEUED_STATUSES = Set.of("COMPLETED", "ASSIGNED");
+
+    private final Map<String, TaskPriorityHeap> heaps = new ConcurrentHashMap<>();
+    // Where each queued task lives, so it can be moved or removed without knowing its group
+    private final Map<UUID, String> groupByTask = new ConcurrentHashMap<>();
+    private final Map<UUID, Set<UUID>> tasksByCase = new ConcurrentHashMap<>();
+
+    /**
+     * A task is queued while it belongs to a group, has no assignee and is still open.
+     */
+    public static boolean isQueued(TaskModel task) {
+        return task.getId() != null
+            && task.getCandidateGroup() != null
+            && task.getAssignee() == null
+            && (task.getStatus() == null || !NOT_QUEUED_STATUSES.contains(task.getStatus().toUpperCase()));
+    }
+
+    /**
+     * Adds, re-keys or removes the task depending on its current state.
+     */
+    public void update(TaskModel task, CaseModel caseModel, double riskScore) {
+        if (!isQueued(task)) {
+            remove(task.getId());
+            return;
+        }
+        InboxEntry entry = InboxEntry.of(task, caseModel, riskScore);
+        String previousGroup = groupByTask.get(task.getId());
+        if (previousGroup != null && !previousGroup.equals(entry.candidateGroup())) {
+            remove(task.getId());
+        }
+        add(entry);
+    }
+
+    public void add(InboxEntry entry) {
+        TaskPriorityHeap heap = heaps.computeIfAbsent(entry.candidateGroup(), g -> new TaskPriorityHeap());
+        synchronized (heap) {
+            heap.upsert(entry);
+            groupByTask.put(entry.taskId(), entry.candidateGroup());
+            if (entry.caseId() != null) {
+                tasksByCase.computeIfAbsent(entry.caseId(), c -> ConcurrentHashMap.newKeySet()).add(entry.taskId());
+            }
+        }
+    }
+
+    public InboxEntry remove(UUID taskId) {
+        if (taskId == null) {
+            return null;
+        }
+        String group = groupByTask.get(taskId);
+        TaskPriorityHeap heap = group != null ? heaps.get(group) : null;
+        if (heap == null) {
+            return null;
+        }
+        synchronized (heap) {
+            InboxEntry removed = heap.remove(taskId);
+            if (removed != null) {
+                groupByTask.remove(taskId);
+                forgetCase(removed);
+            }
+            return removed;
+        }
+    }
+
+    /**
+     * The best {@code limit} tasks of a group, best first. Does not reserve them.
+     */
+    public List<InboxEntry> peek(String group, int limit) {
+        TaskPriorityHeap heap = heaps.get(group);
+        if (heap == null) {
+            return List.of();
+        }
+        synchronized (heap) {
+            return heap.peek(limit);
+        }
+    }
+
+    /**
+     * Removes and returns the best task of a group. The caller owns it from here: it either claims
+     * it in the database or puts it back with {@link #add}.
+     */
+    public InboxEntry pollBest(String group) {
+        TaskPriorityHeap heap = heaps.get(group);
+        if (heap == null) {
+            return null;
+        }
+        synchronized (heap) {
+            InboxEntry best = heap.poll();
+            if (best != null) {
+                groupByTask.remove(best.taskId());
+                forgetCase(best);
+            }
+            return best;
+        }
+    }
+
+    public int size(String group) {
+        TaskPriorityHeap heap = heaps.get(group);
+        if (heap == null) {
+            return 0;
+        }
+        synchronized (heap) {
+            return heap.size();
+        }
+    }
+
+    public Set<UUID> queuedTasksForCase(UUID caseId) {
+        Set<UUID> tasks = tasksByCase.get(caseId);
+        return tasks != null ? Set.copyOf(tasks) : Set.of();
+    }
+
+    public void clear() {
+        heaps.clear();
+        groupByTask.clear();
+        tasksByCase.clear();
+    }
+
+    private void forgetCase(InboxEntry entry) {
+        if (entry.caseId() == null) {
+            return;
+        }
+        tasksByCase.computeIfPresent(entry.caseId(), (caseId, tasks) -> {
+            tasks.remove(entry.taskId());
+            return tasks.isEmpty() ? null : tasks;
+        });
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.alert_detect_system.inbox;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.UUID;
+
+/**
+ * Indexed binary max-heap of inbox entries keyed by task ID.
+ *
+ * The position map makes update and remove of an arbitrary task O(log n) instead of a linear scan.
+ * Not thread-safe; {@link TaskInbox} guards each heap with its own lock.
+ */
+final class TaskPriorityHeap {
+
+    private InboxEntry[] heap = new InboxEntry[16];
+    private int size;
+    private final Map<UUID, Integer> positions = new HashMap<>();
+
+    int size() {
+        return size;
+    }
+
+    boolean contains(UUID taskId) {
+        return positions.containsKey(taskId);
+    }
+
+    /**
+     * Inserts the entry, or re-keys it if the task is already queued.
+     */
+    void upsert(InboxEntry entry) {
+        Integer index = positions.get(entry.taskId());
+        if (index == null) {
+            if (size == heap.length) {
+                heap = Arrays.copyOf(heap, size * 2);
+            }
+            heap[size] = entry;
+            positions.put(entry.taskId(), size);
+            siftUp(size++);
+            return;
+        }
+        InboxEntry old = heap[index];
+        heap[index] = entry;
+        if (InboxEntry.ORDER.compare(entry, old) < 0) {
+            siftUp(index);
+        } else {
+            siftDown(index);
+        }
+    }
+
+    InboxEntry remove(UUID taskId) {
+        Integer index = positions.remove(taskId);
+        if (index == null) {
+            return null;
+        }
+        InboxEntry removed = heap[index];
+        int last = --size;
+        if (index != last) {
+            InboxEntry moved = heap[last];
+            heap[index] = moved;
+            positions.put(moved.taskId(), index);
+            heap[last] = null;
+            siftDown(index);
+            if (heap[index] == moved) {
+                siftUp(index);
+            }
+        } else {
+            heap[last] = null;
+        }
+        return removed;
+    }
+
+    InboxEntry poll() {
+        return size == 0 ? null : remove(heap[0].taskId());
+    }
+
+    /**
+     * The best {@code limit} entries in order without modifying the heap. Walks the heap
+     * best-first with a frontier of child indices, so it costs O(limit log limit) regardless of size.
+     */
+    List<InboxEntry> peek(int limit) {
+        List<InboxEntry> result = new ArrayList<>(Math.min(limit, size));
+        if (size == 0 || limit <= 0) {
+            return result;
+        }
+        PriorityQueue<Integer> frontier = new PriorityQueue<>(Comparator.comparing((Integer i) -> heap[i], InboxEntry.ORDER));
+        frontier.add(0);
+        while (!frontier.isEmpty() && result.size() < limit) {
+            int index = frontier.poll();
+            result.add(heap[index]);
+            int child = 2 * index + 1;
+            if (child < size) frontier.add(child);
+            if (child + 1 < size) frontier.add(child + 1);
+        }
+        return result;
+    }
+
+    private void siftUp(int index) {
+        InboxEntry entry = heap[index];
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (InboxEntry.ORDER.compare(entry, heap[parent]) >= 0) {
+                break;
+            }
+            place(heap[parent], index);
+            index = parent;
+        }
+        place(entry, index);
+    }
+
+    private void siftDown(int index) {
+        InboxEntry entry = heap[index];
+        int half = size >>> 1;
+        while (index < half) {
+            int child = 2 * index + 1;
+            int right = child + 1;
+            if (right < size && InboxEntry.ORDER.compare(heap[right], heap[child]) < 0) {
+                child = right;
+            }
+            if (InboxEntry.ORDER.compare(entry, heap[child]) <= 0) {
+                break;
+            }
+            place(heap[child], index);
+            index = child;
+        }
+        place(entry, index);
+    }
+
+    private void place(InboxEntry entry, int index) {
+        heap[index] = entry;
+        positions.put(entry.taskId(), index);
+    }
+}
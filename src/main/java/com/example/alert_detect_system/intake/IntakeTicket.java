@@ -0,0 +1,88 @@
+package com.example.alert_detect_system.intake;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import com.example.alert_detect_system.Model.CaseModel;
+import com.example.alert_detect_system.Model.IntakeTicketModel;
+import com.example.alert_detect_system.dto.CaseRequestDto;
+
+/**
+ * A case creation request travelling through the intake pipeline, and the status clients poll.
+ * Each stage advances it; a failing stage records where and why it stopped. Tickets read back from
+ * intake_tickets on another node carry no request.
+ */
+public class IntakeTicket {
+
+    public enum Status {
+        QUEUED,
+        VALIDATED,
+        PERSISTED,
+        AUDITED,
+        COMPLETED,
+        FAILED
+    }
+
+    private final UUID id;
+    private final CaseRequestDto request;
+    private final String createdBy;
+    private final LocalDateTime receivedAt;
+
+    private volatile Status status = Status.QUEUED;
+    private volatile CaseModel caseModel;
+    private volatile String failedStage;
+    private volatile String error;
+    private volatile LocalDateTime finishedAt;
+
+    public IntakeTicket(CaseRequestDto request, String createdBy) {
+        this.id = UUID.randomUUID();
+        this.request = request;
+        this.createdBy = createdBy;
+        this.receivedAt = LocalDateTime.now();
+    }
+
+    public IntakeTicket(IntakeTicketModel stored, CaseModel caseModel) {
+        this.id = stored.getId();
+        this.request = null;
+        this.createdBy = stored.getCreatedBy();
+        this.receivedAt = stored.getReceivedAt();
+        this.status = Status.valueOf(stored.getStatus());
+        this.caseModel = caseModel;
+        this.failedStage = stored.getFailedStage();
+        this.error = stored.getError();
+        this.finishedAt = stored.getFinishedAt();
+    }
+
+    public void advance(Status next) {
+        this.status = next;
+        if (next == Status.COMPLETED) {
+            this.finishedAt = LocalDateTime.now();
+        }
+    }
+
+    public void persisted(CaseModel created) {
+        this.caseModel = created;
+        advance(Status.PERSISTED);
+    }
+
+    public void fail(String stage, String message) {
+        this.failedStage = stage;
+        this.error = message;
+        this.status = Status.FAILED;
+        this.finishedAt = LocalDateTime.now();
+    }
+
+    public boolean isFinished() {
+        return status == Status.COMPLETED || status == Status.FAILED;
+    }
+
+    public UUID getId() { return id; }
+    public CaseRequestDto getRequest() { return request; }
+    public String getCreatedBy() { return createdBy; }
+    public LocalDateTime getReceivedAt() { return receivedAt; }
+    public Status getStatus() { return status; }
+    public CaseModel getCaseModel() { return caseModel; }
+    public String getFailedStage() { return failedStage; }
+    public String getError() { return error; }
+    public LocalDateTime getFinishedAt() { return finishedAt; }
+}
@@ -0,0 +1,102 @@
+package com.example.alert_detect_system.intake;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * One step of a staged pipeline: a bounded queue drained by a fixed number of worker threads.
+ * Workers hand finished items on with a blocking put, so a slow stage fills the queues in front of
+ * it and, eventually, makes {@link #offer} at the head of the pipeline refuse new work.
+ * A handler that throws drops the item from the pipeline and reports it to the failure callback.
+ */
+public class PipelineStage<T> {
+
+    private final String name;
+    private final BlockingQueue<T> queue;
+    private final int threads;
+    private final Consumer<T> handler;
+    private final BiConsumer<T, RuntimeException> onFailure;
+    private final AtomicInteger busy = new AtomicInteger();
+    private final List<Thread> workers = new ArrayList<>();
+    private volatile PipelineStage<T> next;
+
+    public PipelineStage(String name, int capacity, int threads, Consumer<T> handler, BiConsumer<T, RuntimeException> onFailure) {
+        if (capacity < 1 || threads < 1) {
+            throw new IllegalArgumentException("Stage " + name + " needs a capacity and thread count of at least 1");
+        }
+        this.name = name;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.threads = threads;
+        this.handler = handler;
+        this.onFailure = onFailure;
+    }
+
+    // Returns next, so stages can be chained in one expression
+    public PipelineStage<T> then(PipelineStage<T> next) {
+        this.next = next;
+        return next;
+    }
+
+    // Non-blocking admission; false when the queue is full
+    public boolean offer(T item) {
+        return queue.offer(item);
+    }
+
+    public synchronized void start() {
+        for (int i = 0; i < threads; i++) {
+            Thread worker = new Thread(this::work, "pipeline-" + name + "-" + i);
+            worker.setDaemon(true);
+            worker.start();
+            workers.add(worker);
+        }
+    }
+
+    public synchronized void stop() {
+        workers.forEach(Thread::interrupt);
+        workers.clear();
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public int depth() {
+        return queue.size();
+    }
+
+    // Queued plus currently being handled
+    public int inFlight() {
+        return queue.size() + busy.get();
+    }
+
+    private void work() {
+        while (!Thread.currentThread().isInterrupted()) {
+            T item;
+            try {
+                item = queue.take();
+            } catch (InterruptedException e) {
+                return;
+            }
+            busy.incrementAndGet();
+            PipelineStage<T> downstream = next;
+            try {
+                handler.accept(item);
+                if (downstream != null) {
+                    downstream.queue.put(item);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                onFailure.accept(item, new IllegalStateException("Stopped before " + downstream.name + " could take the item"));
+            } catch (RuntimeException e) {
+                onFailure.accept(item, e);
+            } finally {
+                busy.decrementAndGet();
+            }
+        }
+    }
+}
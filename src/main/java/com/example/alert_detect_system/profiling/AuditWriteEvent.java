@@ -0,0 +1,43 @@
+package com.example.alert_detect_system.profiling;
+
+import java.util.UUID;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+@Name("alertdetect.AuditWrite")
+@Label("Audit Write")
+@Category({"Alert Detect System", "Audit"})
+@Description("An audit record appended to its hash chain, including the wait for the chain's stripe lock")
+@StackTrace(false)
+public class AuditWriteEvent extends Event {
+
+    @Label("Case ID")
+    public String caseId;
+
+    @Label("Task ID")
+    public String taskId;
+
+    @Label("Action")
+    public String action;
+
+    @Label("Lock Wait")
+    @Timespan(Timespan.NANOSECONDS)
+    public long lockWait;
+
+    public void finish(UUID caseId, String taskId, String action, long lockWaitNanos) {
+        end();
+        if (shouldCommit()) {
+            this.caseId = caseId != null ? caseId.toString() : null;
+            this.taskId = taskId;
+            this.action = action;
+            this.lockWait = lockWaitNanos;
+            commit();
+        }
+    }
+}
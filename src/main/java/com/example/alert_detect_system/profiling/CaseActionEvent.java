@@ -0,0 +1,42 @@
+package com.example.alert_detect_system.profiling;
+
+import java.util.UUID;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("alertdetect.CaseAction")
+@Label("Case Action")
+@Category({"Alert Detect System", "Cases"})
+@Description("A case action (update, complete, approve, status) run through CaseService.performCaseAction")
+@StackTrace(false)
+public class CaseActionEvent extends Event {
+
+    @Label("Case ID")
+    public String caseId;
+
+    @Label("Action")
+    public String action;
+
+    @Label("Performed By")
+    public String performedBy;
+
+    @Label("Succeeded")
+    public boolean succeeded;
+
+    /** Ends the event and commits it if a recording wants it; the fields are only filled then. */
+    public void finish(UUID caseId, String action, String performedBy, boolean succeeded) {
+        end();
+        if (shouldCommit()) {
+            this.caseId = String.valueOf(caseId);
+            this.action = action;
+            this.performedBy = performedBy;
+            this.succeeded = succeeded;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.alert_detect_system.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("alertdetect.TaskComplete")
+@Label("Task Complete")
+@Category({"Alert Detect System", "Workflow"})
+@Description("Completion of a workflow task, including the process steps it triggers")
+@StackTrace(false)
+public class TaskCompleteEvent extends Event {
+
+    @Label("Task ID")
+    public String taskId;
+
+    @Label("Case ID")
+    public String caseId;
+
+    @Label("Succeeded")
+    public boolean succeeded;
+
+    public void finish(String taskId, Object caseId, boolean succeeded) {
+        end();
+        if (shouldCommit()) {
+            this.taskId = taskId;
+            this.caseId = caseId != null ? caseId.toString() : null;
+            this.succeeded = succeeded;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.alert_detect_system.profiling;
+
+import java.util.UUID;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("alertdetect.WorkflowStart")
+@Label("Workflow Start")
+@Category({"Alert Detect System", "Workflow"})
+@Description("Start of a case investigation process, including the rule evaluation that feeds its variables")
+@StackTrace(false)
+public class WorkflowStartEvent extends Event {
+
+    @Label("Case ID")
+    public String caseId;
+
+    @Label("Case Number")
+    public String caseNumber;
+
+    @Label("Process Instance ID")
+    public String processInstanceId;
+
+    // processInstanceId stays null when the start failed
+    public void finish(UUID caseId, String caseNumber, String processInstanceId) {
+        end();
+        if (shouldCommit()) {
+            this.caseId = String.valueOf(caseId);
+            this.caseNumber = caseNumber;
+            this.processInstanceId = processInstanceId;
+            commit();
+        }
+    }
+}
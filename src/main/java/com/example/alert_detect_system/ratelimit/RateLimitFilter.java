@@ -0,0 +1,123 @@
+package com.example.alert_detect_system.ratelimit;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Rate limits /api/** per user and endpoint (see {@link TokenBucketLimiter}). The user is the
+ * {@code X-User-Id} header, which the frontend sets to the same identity it sends as
+ * createdBy/performedBy, or the client address without it. Nothing authenticates the header, so
+ * every request is also charged to a bucket of its client address, with room for the users
+ * behind one proxy; changing the header does not get past that. Refused requests get 429 with
+ * Retry-After. Limits are per node.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 100)
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(RateLimitFilter.class);
+    public static final String USER_HEADER = "X-User-Id";
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${ratelimit.enabled:true}")
+    private boolean enabled;
+
+    @Value("${ratelimit.capacity:100}")
+    private int capacity;
+
+    @Value("${ratelimit.refill-per-second:50}")
+    private double refillPerSecond;
+
+    @Value("${ratelimit.costs:}")
+    private String costs;
+
+    @Value("${ratelimit.address-capacity:500}")
+    private int addressCapacity;
+
+    @Value("${ratelimit.address-refill-per-second:250}")
+    private double addressRefillPerSecond;
+
+    @Value("${ratelimit.max-tracked:50000}")
+    private int maxTracked;
+
+    private TokenBucketLimiter limiter;
+    private TokenBucketLimiter addressLimiter;
+
+    @PostConstruct
+    void init() {
+        List<TokenBucketLimiter.Rule> rules = TokenBucketLimiter.parseRules(costs);
+        limiter = new TokenBucketLimiter(capacity, refillPerSecond, rules, maxTracked, System::nanoTime);
+        addressLimiter = new TokenBucketLimiter(addressCapacity, addressRefillPerSecond, rules, maxTracked, System::nanoTime);
+    }
+
+    /**
+     * The caller a request is accounted to: the X-User-Id header, else the client address.
+     */
+    public static String callerOf(HttpServletRequest request) {
+        String user = request.getHeader(USER_HEADER);
+        return user == null || user.isEmpty() ? addressOf(request) : user;
+    }
+
+    public static String addressOf(HttpServletRequest request) {
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || !request.getRequestURI().startsWith("/api/") || "OPTIONS".equals(request.getMethod());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String user = callerOf(request);
+        long waitNanos = limiter.tryAcquire(user, request.getMethod(), request.getRequestURI());
+        if (waitNanos == 0) {
+            waitNanos = addressLimiter.tryAcquire(addressOf(request), request.getMethod(), request.getRequestURI());
+        }
+        if (waitNanos == 0) {
+            chain.doFilter(request, response);
+            return;
+        }
+        logger.debug("Rate limited {} {} for {}", request.getMethod(), request.getRequestURI(), user);
+        long retryAfterSeconds = Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), Map.of("error", "Rate limit exceeded, retry in " + retryAfterSeconds + " s"));
+    }
+
+    @Scheduled(fixedDelayString = "${ratelimit.sweep-interval-ms:60000}")
+    public void sweep() {
+        int removed = limiter.sweep() + addressLimiter.sweep();
+        if (removed > 0) {
+            logger.debug("Dropped idle rate limit buckets of {} users and addresses, {} and {} still tracked", removed,
+                limiter.trackedUsers(), addressLimiter.trackedUsers());
+        }
+    }
+}
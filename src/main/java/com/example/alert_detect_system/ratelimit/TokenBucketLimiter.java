@@ -0,0 +1,160 @@
+package com.example.alert_detect_system.ratelimit;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+
+import org.springframework.http.server.PathContainer;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+/**
+ * Token buckets per user and endpoint, without locks. A bucket is one slot of an AtomicLong array
+ * holding the time at which it will be full again (GCRA's theoretical arrival time): taking n
+ * tokens moves that time n refill intervals forward, and a request is refused if that would put
+ * it more than capacity intervals ahead of now. That is one compare-and-set per request and
+ * no refill work in the background.
+ * <p>
+ * Every listed endpoint rule has its own bucket per user, charged the rule's cost per request;
+ * all other endpoints share one bucket at cost 1. At most {@code maxUsers} users are tracked;
+ * users arriving beyond that share one set of buckets until a sweep makes room.
+ */
+public class TokenBucketLimiter {
+
+    public record Rule(String method, PathPattern pattern, String literalPrefix, int cost) {
+
+        boolean matches(String requestMethod, String path) {
+            return method.equals(requestMethod)
+                && path.startsWith(literalPrefix)
+                && pattern.matches(PathContainer.parsePath(path));
+        }
+    }
+
+    static final String OVERFLOW = "*";
+
+    private final List<Rule> rules;
+    private final int[] costs;
+    private final long intervalNanos;
+    private final long toleranceNanos;
+    private final LongSupplier clock;
+    private final long origin;
+    private final int maxUsers;
+    private final Map<String, AtomicLongArray> buckets = new ConcurrentHashMap<>();
+
+    public TokenBucketLimiter(int capacity, double refillPerSecond, List<Rule> rules, LongSupplier nanoClock) {
+        this(capacity, refillPerSecond, rules, Integer.MAX_VALUE, nanoClock);
+    }
+
+    public TokenBucketLimiter(int capacity, double refillPerSecond, List<Rule> rules, int maxUsers, LongSupplier nanoClock) {
+        if (capacity < 1 || refillPerSecond <= 0 || maxUsers < 1) {
+            throw new IllegalArgumentException("Rate limit capacity, refill rate and user limit must be positive");
+        }
+        for (Rule rule : rules) {
+            if (rule.cost() > capacity) {
+                throw new IllegalArgumentException("Cost " + rule.cost() + " of " + rule.method() + " " + rule.pattern()
+                    + " exceeds the bucket capacity " + capacity);
+            }
+        }
+        this.rules = List.copyOf(rules);
+        this.costs = new int[rules.size() + 1];
+        for (int i = 0; i < rules.size(); i++) {
+            costs[i] = rules.get(i).cost();
+        }
+        costs[rules.size()] = 1;
+        this.intervalNanos = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / refillPerSecond));
+        this.toleranceNanos = capacity * intervalNanos;
+        this.clock = nanoClock;
+        this.maxUsers = maxUsers;
+        // Slots start at 0, which must read as "full"
+        this.origin = nanoClock.getAsLong() - toleranceNanos;
+    }
+
+    /**
+     * Parses "GET /api/cases=10,POST /api/events/{type}/rebuild=100" into rules.
+     */
+    public static List<Rule> parseRules(String spec) {
+        List<Rule> rules = new ArrayList<>();
+        if (spec == null || spec.isBlank()) {
+            return rules;
+        }
+        for (String entry : spec.split(",")) {
+            String[] endpointAndCost = entry.trim().split("=");
+            String[] methodAndPath = endpointAndCost[0].trim().split("\\s+");
+            if (endpointAndCost.length != 2 || methodAndPath.length != 2) {
+                throw new IllegalArgumentException("Expected \"METHOD /path=cost\" but got \"" + entry.trim() + "\"");
+            }
+            String path = methodAndPath[1];
+            int wildcard = path.length();
+            for (char marker : new char[] {'*', '{'}) {
+                int at = path.indexOf(marker);
+                if (at >= 0) {
+                    wildcard = Math.min(wildcard, at);
+                }
+            }
+            rules.add(new Rule(methodAndPath[0].toUpperCase(), PathPatternParser.defaultInstance.parse(path),
+                path.substring(0, wildcard), Integer.parseInt(endpointAndCost[1].trim())));
+        }
+        return rules;
+    }
+
+    /**
+     * Takes the endpoint's cost from the user's bucket. Returns 0 if the request may proceed,
+     * otherwise the nanoseconds until it would be allowed.
+     */
+    public long tryAcquire(String user, String method, String path) {
+        int slot = slotOf(method, path);
+        AtomicLongArray userBuckets = buckets.get(user);
+        if (userBuckets == null) {
+            // The size check races with other new users, so the map may overshoot by a few entries
+            String key = buckets.size() < maxUsers ? user : OVERFLOW;
+            userBuckets = buckets.computeIfAbsent(key, k -> new AtomicLongArray(costs.length));
+        }
+        long increment = costs[slot] * intervalNanos;
+        while (true) {
+            long now = clock.getAsLong() - origin;
+            long fullAt = userBuckets.get(slot);
+            long next = Math.max(fullAt, now) + increment;
+            if (next - now > toleranceNanos) {
+                return next - now - toleranceNanos;
+            }
+            if (userBuckets.compareAndSet(slot, fullAt, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Drops users whose buckets are all full again; a dropped user starts over with full buckets,
+     * which is the same thing. Returns the number of users removed.
+     */
+    public int sweep() {
+        long now = clock.getAsLong() - origin;
+        int before = buckets.size();
+        buckets.values().removeIf(userBuckets -> {
+            for (int i = 0; i < userBuckets.length(); i++) {
+                if (userBuckets.get(i) > now) {
+                    return false;
+                }
+            }
+            return true;
+        });
+        return before - buckets.size();
+    }
+
+    public int trackedUsers() {
+        return buckets.size();
+    }
+
+    private int slotOf(String method, String path) {
+        for (int i = 0; i < rules.size(); i++) {
+            if (rules.get(i).matches(method, path)) {
+                return i;
+            }
+        }
+        return rules.size();
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.alert_detect_system.repo;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+
+import com.example.alert_detect_system.Model.AuditChainHeadModel;
+
+import jakarta.persistence.LockModeType;
+
+public interface AuditChainHeadRepo extends JpaRepository<AuditChainHeadModel, String> {
+
+    // Held until the caller's transaction ends; the next writer of the chain waits here
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT h FROM AuditChainHeadModel h WHERE h.chainKey = :chainKey")
+    Optional<AuditChainHeadModel> findForUpdate(String chainKey);
+
+    // Heads of a batch, locked in key order so concurrent batches cannot deadlock
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT h FROM AuditChainHeadModel h WHERE h.chainKey IN :chainKeys ORDER BY h.chainKey")
+    List<AuditChainHeadModel> findAllForUpdate(Collection<String> chainKeys);
+
+    // Heads whose chain has no rows left in Audit_log: archived in full, or deleted; keyset-paginated
+    @Query("SELECT h FROM AuditChainHeadModel h WHERE h.chainKey > :after AND NOT EXISTS "
+         + "(SELECT a.id FROM AuditLogModel a WHERE a.chainKey = h.chainKey) ORDER BY h.chainKey")
+    List<AuditChainHeadModel> findWithoutRecordsAfter(String after, Pageable pageable);
+}
@@ -0,0 +1,38 @@
+package com.example.alert_detect_system.repo;
+
+import com.example.alert_detect_system.Model.AuditLogModel;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+public interface AuditLogRepo extends JpaRepository<AuditLogModel, UUID> {
+    List<AuditLogModel> findByCaseIdOrderByTimestampDesc(UUID caseId);
+    
+    List<AuditLogModel> findByPerformedBy(String performedBy);
+
+    // Oldest rows first, for archival in bounded batches
+    List<AuditLogModel> findByTimestampBeforeOrderByTimestampAsc(LocalDateTime cutoff, Pageable pageable);
+
+    // Rows written at or after a point in time, oldest first, for the change feed
+    List<AuditLogModel> findByTimestampGreaterThanEqualOrderByTimestampAscIdAsc(LocalDateTime from, Pageable pageable);
+
+    // Heads of several chains in one query; chains without rows are absent
+    @Query("SELECT a FROM AuditLogModel a WHERE a.chainKey IN :chainKeys AND a.sequence = "
+         + "(SELECT MAX(b.sequence) FROM AuditLogModel b WHERE b.chainKey = a.chainKey)")
+    List<AuditLogModel> findChainHeads(Collection<String> chainKeys);
+
+    // Keyset pagination over all chained rows in (chainKey, sequence) order, for verification
+    @Query("SELECT a FROM AuditLogModel a WHERE a.chainKey IS NOT NULL AND "
+         + "(a.chainKey > :chainKey OR (a.chainKey = :chainKey AND a.sequence > :sequence)) "
+         + "ORDER BY a.chainKey, a.sequence")
+    List<AuditLogModel> findChainedAfter(String chainKey, long sequence, Pageable pageable);
+
+    @Query("SELECT COUNT(a) FROM AuditLogModel a WHERE a.chainKey IS NULL")
+    long countUnchained();
+
+}
@@ -1,15 +1,23 @@
 package com.example.alert_detect_system.repo;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import com.example.alert_detect_system.Model.CaseModel;
 import com.example.alert_detect_system.Model.CaseStatus;
+
+import jakarta.persistence.LockModeType;
+
 @Repository
 public interface CaseRepository extends JpaRepository<CaseModel, UUID> {
     Optional<CaseModel> findByCaseNumber(String caseNumber);
@@ -29,4 +37,27 @@ public interface CaseRepository extends JpaRepository<CaseModel, UUID> {
     @Query("SELECT COUNT(c) FROM CaseModel c WHERE c.status = :status")
     long countByStatus(CaseStatus status); 
 
+    // Highest risk scores of an entity's open cases, matching on the normalized (trimmed, upper-case) name
+    @Query("SELECT c.riskScore FROM CaseModel c WHERE UPPER(TRIM(c.entity)) = :entity AND c.riskScore IS NOT NULL "
+        + "AND c.status NOT IN :closedStatuses ORDER BY c.riskScore DESC")
+    List<Double> findTopOpenRiskScores(String entity, Collection<CaseStatus> closedStatuses, Pageable pageable);
+
+    // Compare-and-set status change; returns 0 when the case is no longer in expectedStatus
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE CaseModel c SET c.status = :newStatus, c.updatedBy = :updatedBy, c.updatedAt = :updatedAt, "
+         + "c.version = COALESCE(c.version, 0) + 1 WHERE c.id = :caseId AND c.status = :expectedStatus")
+    int transitionStatus(UUID caseId, CaseStatus expectedStatus, CaseStatus newStatus, String updatedBy, LocalDateTime updatedAt);
+
+    // Rows of a bulk transition, locked in id order so concurrent bulk requests cannot deadlock
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM CaseModel c WHERE c.id IN :caseIds ORDER BY c.id")
+    List<CaseModel> findAllForUpdate(Collection<UUID> caseIds);
+
+    // Set-based compare-and-set; only rows still in one of expectedStatuses change
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE CaseModel c SET c.status = :newStatus, c.updatedBy = :updatedBy, c.updatedAt = :updatedAt, "
+         + "c.version = COALESCE(c.version, 0) + 1 WHERE c.id IN :caseIds AND c.status IN :expectedStatuses")
+    int transitionStatuses(Collection<UUID> caseIds, Collection<CaseStatus> expectedStatuses, CaseStatus newStatus,
+                           String updatedBy, LocalDateTime updatedAt);
+
 }
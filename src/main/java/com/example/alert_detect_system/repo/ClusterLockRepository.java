@@ -0,0 +1,28 @@
+package com.example.alert_detect_system.repo;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import com.example.alert_detect_system.Model.ClusterLockModel;
+
+@Repository
+public interface ClusterLockRepository extends JpaRepository<ClusterLockModel, String> {
+
+    // Extends a lease the caller still holds; 0 when it expired or another node took it over
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE ClusterLockModel l SET l.lockedUntil = :until "
+         + "WHERE l.name = :name AND l.owner = :owner AND l.lockedUntil >= :now")
+    int renew(String name, String owner, long now, long until);
+
+    // Takes over a free or expired lease; the row lock makes concurrent takeovers serialize
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE ClusterLockModel l SET l.owner = :owner, l.lockedUntil = :until, l.token = l.token + 1 "
+         + "WHERE l.name = :name AND l.lockedUntil < :now")
+    int takeOver(String name, String owner, long now, long until);
+
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE ClusterLockModel l SET l.lockedUntil = 0 WHERE l.name = :name AND l.owner = :owner")
+    int release(String name, String owner);
+}
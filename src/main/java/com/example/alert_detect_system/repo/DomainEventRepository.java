@@ -0,0 +1,39 @@
+package com.example.alert_detect_system.repo;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import com.example.alert_detect_system.Model.DomainEventModel;
+
+@Repository
+public interface DomainEventRepository extends JpaRepository<DomainEventModel, UUID> {
+
+    Optional<DomainEventModel> findFirstByAggregateTypeAndAggregateIdOrderBySequenceDesc(String aggregateType, UUID aggregateId);
+
+    // Last event at or before a point in time, i.e. the version a time-travel read has to rebuild
+    Optional<DomainEventModel> findFirstByAggregateTypeAndAggregateIdAndOccurredAtLessThanEqualOrderBySequenceDesc(
+        String aggregateType, UUID aggregateId, LocalDateTime occurredAt);
+
+    List<DomainEventModel> findByAggregateTypeAndAggregateIdOrderBySequence(String aggregateType, UUID aggregateId);
+
+    // The events a replay applies on top of a snapshot
+    @Query("SELECT e FROM DomainEventModel e WHERE e.aggregateType = :aggregateType AND e.aggregateId = :aggregateId "
+         + "AND e.sequence > :afterSequence AND e.sequence <= :upToSequence ORDER BY e.sequence")
+    List<DomainEventModel> findRange(String aggregateType, UUID aggregateId, long afterSequence, long upToSequence);
+
+    // The change feed: events recorded at or after a point in time, oldest first
+    List<DomainEventModel> findByOccurredAtGreaterThanEqualOrderByOccurredAtAscIdAsc(LocalDateTime from, Pageable pageable);
+
+    @Query("SELECT DISTINCT e.shard FROM DomainEventModel e WHERE e.aggregateType = :aggregateType")
+    List<Integer> findShards(String aggregateType);
+
+    @Query("SELECT DISTINCT e.aggregateId FROM DomainEventModel e WHERE e.aggregateType = :aggregateType AND e.shard = :shard")
+    List<UUID> findAggregateIds(String aggregateType, int shard);
+}
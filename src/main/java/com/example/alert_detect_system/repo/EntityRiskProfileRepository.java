@@ -0,0 +1,28 @@
+package com.example.alert_detect_system.repo;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import com.example.alert_detect_system.Model.EntityRiskProfileModel;
+
+import jakarta.persistence.LockModeType;
+
+@Repository
+public interface EntityRiskProfileRepository extends JpaRepository<EntityRiskProfileModel, String> {
+
+    // Profiles a flush merges into, locked in name order so concurrent flushes cannot deadlock
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM EntityRiskProfileModel p WHERE p.entity IN :entities ORDER BY p.entity")
+    List<EntityRiskProfileModel> findAllForUpdate(Collection<String> entities);
+
+    List<EntityRiskProfileModel> findByUpdatedAtGreaterThanEqual(LocalDateTime since);
+
+    // Rows written before scores were summarized carry a max but no scored count
+    boolean existsByScoredOpenCasesAndMaxOpenRiskScoreGreaterThan(int scoredOpenCases, double maxOpenRiskScore);
+}
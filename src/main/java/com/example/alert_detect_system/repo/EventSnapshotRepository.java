@@ -0,0 +1,17 @@
+package com.example.alert_detect_system.repo;
+
+import java.util.Optional;
+import java.util.UUID;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.example.alert_detect_system.Model.EventSnapshotModel;
+
+@Repository
+public interface EventSnapshotRepository extends JpaRepository<EventSnapshotModel, UUID> {
+
+    // Nearest snapshot a replay up to the given sequence can start from
+    Optional<EventSnapshotModel> findFirstByAggregateTypeAndAggregateIdAndSequenceLessThanEqualOrderBySequenceDesc(
+        String aggregateType, UUID aggregateId, long sequence);
+}
@@ -0,0 +1,34 @@
+package com.example.alert_detect_system.repo;
+
+import java.time.LocalDateTime;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import com.example.alert_detect_system.Model.IdempotencyKeyModel;
+
+@Repository
+public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKeyModel, String> {
+
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE IdempotencyKeyModel k SET k.status = :status, k.contentType = :contentType, k.location = :location, "
+         + "k.body = :body WHERE k.keyHash = :keyHash AND k.status IS NULL")
+    int complete(String keyHash, int status, String contentType, String location, String body);
+
+    // Claims of a node that died mid-request, or of expired keys, can be taken over; 0 when someone else did
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE IdempotencyKeyModel k SET k.requestHash = :requestHash, k.status = NULL, k.body = NULL, "
+         + "k.createdAt = :now, k.expiresAt = :expiresAt "
+         + "WHERE k.keyHash = :keyHash AND ((k.status IS NULL AND k.createdAt < :staleBefore) OR k.expiresAt < :now)")
+    int takeOver(String keyHash, String requestHash, LocalDateTime now, LocalDateTime expiresAt, LocalDateTime staleBefore);
+
+    @Modifying(clearAutomatically = true)
+    @Query("DELETE FROM IdempotencyKeyModel k WHERE k.keyHash = :keyHash AND k.status IS NULL")
+    int release(String keyHash);
+
+    @Modifying
+    @Query("DELETE FROM IdempotencyKeyModel k WHERE k.expiresAt < :now")
+    int deleteExpired(LocalDateTime now);
+}
@@ -0,0 +1,25 @@
+package com.example.alert_detect_system.repo;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import com.example.alert_detect_system.Model.IntakeTicketModel;
+
+@Repository
+public interface IntakeTicketRepository extends JpaRepository<IntakeTicketModel, UUID> {
+
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE IntakeTicketModel t SET t.status = :status, t.caseId = :caseId, t.failedStage = :failedStage, "
+         + "t.error = :error, t.finishedAt = :finishedAt, t.expiresAt = :expiresAt WHERE t.id = :id")
+    int finish(UUID id, String status, UUID caseId, String failedStage, String error, LocalDateTime finishedAt,
+               LocalDateTime expiresAt);
+
+    @Modifying
+    @Query("DELETE FROM IntakeTicketModel t WHERE t.expiresAt < :now")
+    int deleteExpired(LocalDateTime now);
+}
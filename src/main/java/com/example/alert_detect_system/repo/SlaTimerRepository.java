@@ -0,0 +1,32 @@
+package com.example.alert_detect_system.repo;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.alert_detect_system.Model.SlaTimerModel;
+
+@Repository
+public interface SlaTimerRepository extends JpaRepository<SlaTimerModel, String> {
+
+    // Keyset pagination for reloading the timing wheel at startup
+    @Query("SELECT t FROM SlaTimerModel t WHERE t.timerKey > :afterKey ORDER BY t.timerKey")
+    List<SlaTimerModel> findPageAfter(String afterKey, Pageable pageable);
+
+    // Claims a due timer for firing; 0 when another node fired it first or its due date moved
+    @Modifying
+    @Query("DELETE FROM SlaTimerModel t WHERE t.timerKey = :timerKey AND t.dueAt = :dueAt")
+    int claim(String timerKey, LocalDateTime dueAt);
+
+    // Single DELETE without loading the row first; 0 when there was no timer
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM SlaTimerModel t WHERE t.timerKey = :timerKey")
+    int deleteByTimerKey(String timerKey);
+}
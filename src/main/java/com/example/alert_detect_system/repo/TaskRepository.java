@@ -1,9 +1,11 @@
 package com.example.alert_detect_system.repo;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
@@ -27,6 +29,10 @@ public interface TaskRepository extends JpaRepository<TaskModel, UUID> {
     // Find active tasks (not completed)
     @Query("SELECT t FROM TaskModel t WHERE t.status != 'COMPLETED'")
     List<TaskModel> findActiveTasks();
+
+    // Tasks of the given cases that are not completed yet
+    @Query("SELECT t FROM TaskModel t WHERE t.caseId IN :caseIds AND (t.status IS NULL OR t.status <> 'COMPLETED')")
+    List<TaskModel> findOpenByCaseIdIn(Collection<UUID> caseIds);
     
     // Find tasks by process instance ID
     List<TaskModel> findByProcessInstanceId(String processInstanceId);
@@ -39,4 +45,11 @@ public interface TaskRepository extends JpaRepository<TaskModel, UUID> {
     
     // Find tasks by name only
     List<TaskModel> findByTaskName(String taskName);
-}
\ No newline at end of file
+
+    // Claim only if nobody else has and the task is offered to the group: of several concurrent
+    // claimers exactly one gets 1 back
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE TaskModel t SET t.assignee = :assignee, t.status = 'ASSIGNED', t.version = COALESCE(t.version, 0) + 1 "
+         + "WHERE t.id = :taskId AND t.candidateGroup = :group AND t.assignee IS NULL AND t.status NOT IN ('COMPLETED', 'ASSIGNED')")
+    int claimIfUnassigned(UUID taskId, String group, String assignee);
+}
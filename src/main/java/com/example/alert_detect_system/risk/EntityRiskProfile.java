@@ -0,0 +1,14 @@
+package com.example.alert_detect_system.risk;
+
+import java.util.Map;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+/**
+ * Point-in-time copy of one entity's aggregates. Risk figures cover open cases only; the typology
+ * histogram and totalCases cover every case recorded against the entity. The open risk scores are
+ * kept as their count, sum and highest values (see {@link EntityRiskTable}).
+ */
+public record EntityRiskProfile(String entity, int openCases, int totalCases, double averageOpenRiskScore,
+                                double maxOpenRiskScore, Map<String, Integer> typologies, @JsonIgnore int scoredOpenCases,
+                                @JsonIgnore double openRiskSum, @JsonIgnore double[] topOpenRiskScores) {}
@@ -0,0 +1,344 @@
+package com.example.alert_detect_system.risk;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Per-entity risk aggregates in an open-addressing hash table over primitive arrays: one slot per
+ * entity, linear probing on a 64-bit hash of the normalized name, no per-entry objects apart from
+ * the name and the highest open risk scores. A lookup is a hash and usually a single probe.
+ *
+ * Aggregates are maintained by deltas: {@link #add} and {@link #remove} a case's contribution.
+ * Open risk scores are summarized as count, sum and the {@code topRisks} highest scores, which
+ * are always the true top of all of them; removing the held ones can empty that list while lower
+ * scores remain, and then the max is unknown until {@link #refillTopRisks} (see
+ * {@link #needsTopRisks}).
+ * Not thread-safe; {@link com.example.alert_detect_system.service.EntityRiskService} guards it.
+ */
+public final class EntityRiskTable {
+
+    public static final List<String> TYPOLOGIES = List.of(
+        "MONEY_LAUNDERING", "TERRORIST_FINANCING", "FRAUD", "SANCTIONS_VIOLATION");
+    public static final String OTHER_TYPOLOGY = "OTHER";
+    private static final int TYPOLOGY_SLOTS = TYPOLOGIES.size() + 1;
+    private static final double[] NO_RISKS = new double[0];
+    public static final int DEFAULT_TOP_RISKS = 32;
+
+    private final int topRisks;
+
+    private long[] hashes;
+    private String[] names;
+    private int[] openCases;
+    private int[] totalCases;
+    private double[] openRiskSum;
+    // Open cases with a risk score
+    private int[] openRiskCount;
+    // Highest scores, sorted ascending, first topRiskCount[slot] entries valid; the last one is the max
+    private double[][] openRisks;
+    private int[] topRiskCount;
+    private int[] typologyCounts;
+    private int size;
+
+    public EntityRiskTable() {
+        this(DEFAULT_TOP_RISKS);
+    }
+
+    public EntityRiskTable(int topRisks) {
+        if (topRisks < 1) {
+            throw new IllegalArgumentException("At least one top risk score must be kept");
+        }
+        this.topRisks = topRisks;
+        allocate(64);
+    }
+
+    /**
+     * Entities are matched case-insensitively and ignoring surrounding whitespace.
+     */
+    public static String normalize(String entity) {
+        if (entity == null || entity.isBlank()) {
+            return null;
+        }
+        // Lookups mostly pass names that are already normalized; skip the copies for those
+        boolean normalized = !Character.isWhitespace(entity.charAt(0))
+            && !Character.isWhitespace(entity.charAt(entity.length() - 1));
+        for (int i = 0; normalized && i < entity.length(); i++) {
+            normalized = !Character.isLowerCase(entity.charAt(i));
+        }
+        return normalized ? entity : entity.trim().toUpperCase(Locale.ROOT);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void add(String entity, boolean open, Double riskScore, String typology) {
+        apply(entity, open, riskScore, typology, 1);
+    }
+
+    public void remove(String entity, boolean open, Double riskScore, String typology) {
+        apply(entity, open, riskScore, typology, -1);
+    }
+
+    public int openCases(String entity) {
+        int slot = find(normalize(entity));
+        return slot < 0 ? 0 : openCases[slot];
+    }
+
+    public double maxOpenRiskScore(String entity) {
+        int slot = find(normalize(entity));
+        return slot < 0 ? 0.0 : maxAt(slot);
+    }
+
+    /**
+     * Whether the entity has scored open cases but none of their scores held, so its max is only
+     * approximated by the average.
+     */
+    public boolean needsTopRisks(String entity) {
+        int slot = find(normalize(entity));
+        return slot >= 0 && topRiskCount[slot] == 0 && openRiskCount[slot] > 0;
+    }
+
+    /**
+     * Replaces the held scores with the entity's highest open risk scores, read from the cases.
+     */
+    public void refillTopRisks(String entity, double[] highest) {
+        int slot = find(normalize(entity));
+        if (slot >= 0) {
+            setTopRisks(slot, highest);
+        }
+    }
+
+    public EntityRiskProfile profile(String entity) {
+        int slot = find(normalize(entity));
+        return slot < 0 ? null : profileAt(slot);
+    }
+
+    public void forEach(Consumer<EntityRiskProfile> consumer) {
+        for (int slot = 0; slot < names.length; slot++) {
+            if (names[slot] != null) {
+                consumer.accept(profileAt(slot));
+            }
+        }
+    }
+
+    /**
+     * Restores a persisted profile, replacing whatever the table holds for that entity.
+     */
+    public void restore(EntityRiskProfile profile) {
+        int slot = findOrInsert(normalize(profile.entity()));
+        openCases[slot] = profile.openCases();
+        totalCases[slot] = profile.totalCases();
+        openRiskCount[slot] = profile.scoredOpenCases();
+        openRiskSum[slot] = profile.openRiskSum();
+        setTopRisks(slot, profile.topOpenRiskScores());
+        for (int t = 0; t < TYPOLOGY_SLOTS; t++) {
+            String name = t < TYPOLOGIES.size() ? TYPOLOGIES.get(t) : OTHER_TYPOLOGY;
+            typologyCounts[slot * TYPOLOGY_SLOTS + t] = profile.typologies().getOrDefault(name, 0);
+        }
+    }
+
+    public void clear() {
+        allocate(64);
+    }
+
+    private void apply(String entity, boolean open, Double riskScore, String typology, int sign) {
+        String name = normalize(entity);
+        if (name == null) {
+            return;
+        }
+        int slot = sign > 0 ? findOrInsert(name) : find(name);
+        if (slot < 0) {
+            return;
+        }
+        totalCases[slot] += sign;
+        typologyCounts[slot * TYPOLOGY_SLOTS + typologySlot(typology)] += sign;
+        if (open) {
+            openCases[slot] += sign;
+            if (riskScore != null) {
+                if (sign > 0) {
+                    insertRisk(slot, riskScore);
+                } else {
+                    removeRisk(slot, riskScore);
+                }
+            }
+        }
+    }
+
+    private void insertRisk(int slot, double risk) {
+        double[] risks = openRisks[slot];
+        int held = topRiskCount[slot];
+        boolean complete = held == openRiskCount[slot];
+        openRiskCount[slot]++;
+        openRiskSum[slot] += risk;
+        // Below the held scores, some not held may be higher; it stays unheld like them
+        if (!complete && (held == 0 || risk < risks[0])) {
+            return;
+        }
+        if (held == topRisks) {
+            if (risk <= risks[0]) {
+                return;
+            }
+            System.arraycopy(risks, 1, risks, 0, --held);
+        }
+        if (held == risks.length) {
+            risks = Arrays.copyOf(risks, Math.min(topRisks, Math.max(4, held * 2)));
+            openRisks[slot] = risks;
+        }
+        int at = Arrays.binarySearch(risks, 0, held, risk);
+        if (at < 0) at = -at - 1;
+        System.arraycopy(risks, at, risks, at + 1, held - at);
+        risks[at] = risk;
+        topRiskCount[slot] = held + 1;
+    }
+
+    private void removeRisk(int slot, double risk) {
+        double[] risks = openRisks[slot];
+        int held = topRiskCount[slot];
+        int at = Arrays.binarySearch(risks, 0, held, risk);
+        if (at >= 0) {
+            System.arraycopy(risks, at + 1, risks, at, held - at - 1);
+            topRiskCount[slot] = held - 1;
+        } else if (held == openRiskCount[slot] || (held > 0 && risk > risks[0])) {
+            // Would have been held: never recorded
+            return;
+        }
+        openRiskCount[slot]--;
+        openRiskSum[slot] -= risk;
+        if (openRiskCount[slot] == 0) {
+            // Avoid drift from repeated floating point add/subtract
+            openRiskSum[slot] = 0;
+        }
+    }
+
+    // Keeps the highest topRisks of the given scores
+    private void setTopRisks(int slot, double[] scores) {
+        double[] risks = scores.clone();
+        Arrays.sort(risks);
+        if (risks.length > topRisks) {
+            risks = Arrays.copyOfRange(risks, risks.length - topRisks, risks.length);
+        }
+        openRisks[slot] = risks;
+        topRiskCount[slot] = risks.length;
+    }
+
+    // The average is a lower bound of the max while the top scores are missing
+    private double maxAt(int slot) {
+        int held = topRiskCount[slot];
+        if (held > 0) {
+            return openRisks[slot][held - 1];
+        }
+        return openRiskCount[slot] == 0 ? 0.0 : openRiskSum[slot] / openRiskCount[slot];
+    }
+
+    private EntityRiskProfile profileAt(int slot) {
+        int count = openRiskCount[slot];
+        Map<String, Integer> typologies = new LinkedHashMap<>();
+        for (int t = 0; t < TYPOLOGY_SLOTS; t++) {
+            int n = typologyCounts[slot * TYPOLOGY_SLOTS + t];
+            if (n > 0) {
+                typologies.put(t < TYPOLOGIES.size() ? TYPOLOGIES.get(t) : OTHER_TYPOLOGY, n);
+            }
+        }
+        return new EntityRiskProfile(names[slot], openCases[slot], totalCases[slot],
+            count == 0 ? 0.0 : openRiskSum[slot] / count, maxAt(slot),
+            typologies, count, openRiskSum[slot], Arrays.copyOf(openRisks[slot], topRiskCount[slot]));
+    }
+
+    private static int typologySlot(String typology) {
+        int index = typology != null ? TYPOLOGIES.indexOf(typology) : -1;
+        return index >= 0 ? index : TYPOLOGIES.size();
+    }
+
+    private int find(String name) {
+        if (name == null) {
+            return -1;
+        }
+        long hash = hash(name);
+        int mask = hashes.length - 1;
+        for (int slot = (int) hash & mask; names[slot] != null; slot = (slot + 1) & mask) {
+            if (hashes[slot] == hash && names[slot].equals(name)) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    private int findOrInsert(String name) {
+        int existing = find(name);
+        if (existing >= 0) {
+            return existing;
+        }
+        if ((size + 1) * 2 > hashes.length) {
+            resize();
+        }
+        long hash = hash(name);
+        int mask = hashes.length - 1;
+        int slot = (int) hash & mask;
+        while (names[slot] != null) {
+            slot = (slot + 1) & mask;
+        }
+        hashes[slot] = hash;
+        names[slot] = name;
+        openRisks[slot] = NO_RISKS;
+        size++;
+        return slot;
+    }
+
+    private void resize() {
+        long[] oldHashes = hashes;
+        String[] oldNames = names;
+        int[] oldOpen = openCases, oldTotal = totalCases, oldRiskCount = openRiskCount, oldTopCount = topRiskCount;
+        int[] oldTypologies = typologyCounts;
+        double[] oldRiskSum = openRiskSum;
+        double[][] oldRisks = openRisks;
+        allocate(oldHashes.length * 2);
+        int mask = hashes.length - 1;
+        for (int old = 0; old < oldNames.length; old++) {
+            if (oldNames[old] == null) continue;
+            int slot = (int) oldHashes[old] & mask;
+            while (names[slot] != null) {
+                slot = (slot + 1) & mask;
+            }
+            hashes[slot] = oldHashes[old];
+            names[slot] = oldNames[old];
+            openCases[slot] = oldOpen[old];
+            totalCases[slot] = oldTotal[old];
+            openRiskSum[slot] = oldRiskSum[old];
+            openRisks[slot] = oldRisks[old];
+            openRiskCount[slot] = oldRiskCount[old];
+            topRiskCount[slot] = oldTopCount[old];
+            System.arraycopy(oldTypologies, old * TYPOLOGY_SLOTS, typologyCounts, slot * TYPOLOGY_SLOTS, TYPOLOGY_SLOTS);
+            size++;
+        }
+    }
+
+    private void allocate(int capacity) {
+        hashes = new long[capacity];
+        names = new String[capacity];
+        openCases = new int[capacity];
+        totalCases = new int[capacity];
+        openRiskSum = new double[capacity];
+        openRisks = new double[capacity][];
+        openRiskCount = new int[capacity];
+        topRiskCount = new int[capacity];
+        typologyCounts = new int[capacity * TYPOLOGY_SLOTS];
+        size = 0;
+    }
+
+    // 64-bit FNV-1a with a final avalanche so the low bits used for the slot are well mixed
+    private static long hash(String name) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < name.length(); i++) {
+            h ^= name.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        return h;
+    }
+}
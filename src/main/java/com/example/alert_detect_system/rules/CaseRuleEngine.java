@@ -0,0 +1,111 @@
+package com.example.alert_detect_system.rules;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.example.alert_detect_system.Model.CaseModel;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Approval routing and risk boosts driven by the rules file at {@code rules.location}.
+ *
+ * The file is compiled once into {@link CompiledRules} and swapped in atomically; readers never
+ * lock. It is re-checked every {@code rules.reload-interval-ms} and recompiled when it changes.
+ * A file that fails to compile is logged and ignored, keeping the previous rules in force.
+ */
+@Component
+public class CaseRuleEngine {
+
+    private static final Logger logger = LoggerFactory.getLogger(CaseRuleEngine.class);
+
+    @Autowired
+    private ResourceLoader resourceLoader;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    @Autowired(required = false)
+    private EntityRiskLookup entityRisk = EntityRiskLookup.NONE;
+
+    @Value("${rules.location:classpath:rules/case-rules.json}")
+    private String location;
+
+    private final AtomicReference<CompiledRules> current = new AtomicReference<>();
+    private volatile long loadedModified = -1;
+
+    @PostConstruct
+    public void load() throws IOException {
+        Resource resource = resourceLoader.getResource(location);
+        current.set(compile(resource));
+        loadedModified = lastModified(resource);
+        logger.info("Loaded {} case rules from {}", current.get().ruleCount(), location);
+    }
+
+    @Scheduled(fixedDelayString = "${rules.reload-interval-ms:5000}")
+    public void reloadIfChanged() {
+        Resource resource = resourceLoader.getResource(location);
+        long modified = lastModified(resource);
+        if (modified == loadedModified) {
+            return;
+        }
+        try {
+            CompiledRules rules = compile(resource);
+            current.set(rules);
+            loadedModified = modified;
+            logger.info("Reloaded {} case rules from {} (version {})", rules.ruleCount(), location, rules.version());
+            eventPublisher.publishEvent(new RulesReloadedEvent(rules.version()));
+        } catch (IOException | IllegalArgumentException e) {
+            // Do not retry the same broken file on every tick
+            loadedModified = modified;
+            logger.error("Rules file {} is invalid, keeping version {}: {}", location, current.get().version(), e.getMessage());
+        }
+    }
+
+    public CompiledRules rules() {
+        return current.get();
+    }
+
+    public boolean requiresApproval(CaseModel caseModel) {
+        return current.get().requiresApproval(caseModel, entityRisk);
+    }
+
+    public double riskScore(CaseModel caseModel) {
+        return current.get().riskScore(caseModel, entityRisk);
+    }
+
+    public RuleDecision decide(CaseModel caseModel) {
+        return current.get().decide(caseModel, entityRisk);
+    }
+
+    private CompiledRules compile(Resource resource) throws IOException {
+        try (InputStream in = resource.getInputStream()) {
+            RuleDefinition.RuleSet ruleSet = objectMapper.readValue(in, RuleDefinition.RuleSet.class);
+            if (ruleSet.rules() == null) {
+                throw new IllegalArgumentException("Rules file has no 'rules' array");
+            }
+            return CompiledRules.compile(ruleSet.rules(), Long.toString(lastModified(resource)));
+        }
+    }
+
+    private static long lastModified(Resource resource) {
+        try {
+            return resource.lastModified();
+        } catch (IOException e) {
+            // Resources inside a jar have no usable timestamp; they cannot change anyway
+            return 0;
+        }
+    }
+}
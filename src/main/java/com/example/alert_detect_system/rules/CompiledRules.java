@@ -0,0 +1,317 @@
+package com.example.alert_detect_system.rules;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.function.Function;
+
+import com.example.alert_detect_system.Model.CaseModel;
+
+/**
+ * Rules compiled into a decision table. Every rule is one bit of a {@code long}; each attribute
+ * is pre-indexed to the mask of rules it satisfies, so evaluating a case is one hash lookup per
+ * categorical attribute, one binary search over the sorted risk thresholds, and an AND of the
+ * resulting masks. Nothing is allocated on the evaluation path.
+ *
+ * Instances are immutable and safe to share between threads.
+ */
+public final class CompiledRules {
+
+    public static final int MAX_RULES = Long.SIZE;
+    private static final double MAX_RISK = 100.0;
+
+    private static final Map<String, Function<CaseModel, String>> CATEGORICAL = Map.of(
+        "caseType", CaseModel::getCaseType,
+        "priority", CaseModel::getPriority,
+        "typology", CaseModel::getTypology,
+        "status", c -> c.getStatus() != null ? c.getStatus().name() : null
+    );
+    private static final String RISK_SCORE = "riskScore";
+    private static final String ENTITY_OPEN_CASES = "entityOpenCases";
+    private static final String ENTITY_MAX_RISK = "entityMaxRiskScore";
+    private static final List<String> NUMERIC = List.of(RISK_SCORE, ENTITY_OPEN_CASES, ENTITY_MAX_RISK);
+
+    private final String version;
+    private final String[] ruleIds;
+    private final double[] boosts;
+    private final long allRules;
+    private final long approvalRules;
+    private final CategoricalIndex[] categorical;
+    private final NumericIndex risk;
+    private final NumericIndex entityOpenCases;
+    private final NumericIndex entityMaxRisk;
+    // Entity aggregates are only looked up when some rule tests them
+    private final boolean usesEntity;
+
+    private CompiledRules(String version, String[] ruleIds, double[] boosts, long approvalRules,
+                          CategoricalIndex[] categorical, NumericIndex risk,
+                          NumericIndex entityOpenCases, NumericIndex entityMaxRisk, boolean usesEntity) {
+        this.version = version;
+        this.ruleIds = ruleIds;
+        this.boosts = boosts;
+        this.allRules = ruleIds.length == MAX_RULES ? -1L : (1L << ruleIds.length) - 1;
+        this.approvalRules = approvalRules;
+        this.categorical = categorical;
+        this.risk = risk;
+        this.entityOpenCases = entityOpenCases;
+        this.entityMaxRisk = entityMaxRisk;
+        this.usesEntity = usesEntity;
+    }
+
+    /**
+     * Validates and compiles the rules; throws IllegalArgumentException describing the first problem.
+     */
+    public static CompiledRules compile(List<RuleDefinition> rules, String version) {
+        if (rules.size() > MAX_RULES) {
+            throw new IllegalArgumentException("At most " + MAX_RULES + " rules are supported, got " + rules.size());
+        }
+        String[] ids = new String[rules.size()];
+        double[] boosts = new double[rules.size()];
+        long approval = 0;
+        boolean usesEntity = false;
+        for (int i = 0; i < rules.size(); i++) {
+            RuleDefinition rule = rules.get(i);
+            ids[i] = rule.id() != null ? rule.id() : "rule-" + i;
+            boosts[i] = rule.riskBoost();
+            if (rule.requiresApproval()) {
+                approval |= 1L << i;
+            }
+            for (String attribute : rule.when().keySet()) {
+                if (!CATEGORICAL.containsKey(attribute) && !NUMERIC.contains(attribute)) {
+                    throw new IllegalArgumentException("Rule " + ids[i] + ": unknown attribute '" + attribute + "'");
+                }
+                usesEntity |= ENTITY_OPEN_CASES.equals(attribute) || ENTITY_MAX_RISK.equals(attribute);
+            }
+        }
+        List<CategoricalIndex> indexes = new ArrayList<>();
+        for (Map.Entry<String, Function<CaseModel, String>> attribute : CATEGORICAL.entrySet()) {
+            indexes.add(CategoricalIndex.build(attribute.getKey(), attribute.getValue(), rules, ids));
+        }
+        return new CompiledRules(version, ids, boosts, approval,
+            indexes.toArray(new CategoricalIndex[0]), NumericIndex.build(RISK_SCORE, rules, ids),
+            NumericIndex.build(ENTITY_OPEN_CASES, rules, ids), NumericIndex.build(ENTITY_MAX_RISK, rules, ids), usesEntity);
+    }
+
+    public String version() {
+        return version;
+    }
+
+    public int ruleCount() {
+        return ruleIds.length;
+    }
+
+    /**
+     * Bit i is set when rule i matches the case.
+     */
+    public long match(CaseModel caseModel, EntityRiskLookup entities) {
+        long mask = allRules;
+        for (CategoricalIndex index : categorical) {
+            mask &= index.mask(caseModel);
+            if (mask == 0) {
+                return 0;
+            }
+        }
+        mask &= risk.mask(caseModel.getRiskScore());
+        if (usesEntity && mask != 0) {
+            String entity = caseModel.getEntity();
+            mask &= entityOpenCases.mask(entities.openCases(entity)) & entityMaxRisk.mask(entities.maxOpenRiskScore(entity));
+        }
+        return mask;
+    }
+
+    public long match(CaseModel caseModel) {
+        return match(caseModel, EntityRiskLookup.NONE);
+    }
+
+    public boolean requiresApproval(CaseModel caseModel, EntityRiskLookup entities) {
+        return (match(caseModel, entities) & approvalRules) != 0;
+    }
+
+    public boolean requiresApproval(CaseModel caseModel) {
+        return requiresApproval(caseModel, EntityRiskLookup.NONE);
+    }
+
+    /**
+     * Stored risk score plus the boosts of every matching rule, capped at 100.
+     */
+    public double riskScore(CaseModel caseModel, EntityRiskLookup entities) {
+        double base = caseModel.getRiskScore() != null ? caseModel.getRiskScore() : 0.0;
+        return Math.min(MAX_RISK, base + boost(match(caseModel, entities)));
+    }
+
+    public double riskScore(CaseModel caseModel) {
+        return riskScore(caseModel, EntityRiskLookup.NONE);
+    }
+
+    public RuleDecision decide(CaseModel caseModel, EntityRiskLookup entities) {
+        long matched = match(caseModel, entities);
+        double base = caseModel.getRiskScore() != null ? caseModel.getRiskScore() : 0.0;
+        double boost = boost(matched);
+        List<String> names = new ArrayList<>(Long.bitCount(matched));
+        for (long bits = matched; bits != 0; bits &= bits - 1) {
+            names.add(ruleIds[Long.numberOfTrailingZeros(bits)]);
+        }
+        return new RuleDecision((matched & approvalRules) != 0, Math.min(MAX_RISK, base + boost), boost, names);
+    }
+
+    private double boost(long matched) {
+        double total = 0;
+        for (long bits = matched; bits != 0; bits &= bits - 1) {
+            total += boosts[Long.numberOfTrailingZeros(bits)];
+        }
+        return total;
+    }
+
+    private static long bit(int rule) {
+        return 1L << rule;
+    }
+
+    /**
+     * value -> rules satisfied by that value. Rules that do not mention the attribute are in every mask.
+     */
+    private static final class CategoricalIndex {
+        private final Function<CaseModel, String> getter;
+        private final Map<String, Long> masks;
+        private final long unconstrained;
+
+        private CategoricalIndex(Function<CaseModel, String> getter, Map<String, Long> masks, long unconstrained) {
+            this.getter = getter;
+            this.masks = masks;
+            this.unconstrained = unconstrained;
+        }
+
+        static CategoricalIndex build(String attribute, Function<CaseModel, String> getter,
+                                      List<RuleDefinition> rules, String[] ids) {
+            long unconstrained = 0;
+            Map<String, Long> constrainedBy = new HashMap<>();
+            for (int i = 0; i < rules.size(); i++) {
+                Object condition = rules.get(i).when().get(attribute);
+                if (condition == null) {
+                    unconstrained |= bit(i);
+                    continue;
+                }
+                if (!(condition instanceof List<?> values)) {
+                    throw new IllegalArgumentException("Rule " + ids[i] + ": '" + attribute + "' must be a list of values");
+                }
+                for (Object value : values) {
+                    constrainedBy.merge(String.valueOf(value), bit(i), (a, b) -> a | b);
+                }
+            }
+            Map<String, Long> masks = new HashMap<>();
+            for (Map.Entry<String, Long> entry : constrainedBy.entrySet()) {
+                masks.put(entry.getKey(), entry.getValue() | unconstrained);
+            }
+            return new CategoricalIndex(getter, Map.copyOf(masks), unconstrained);
+        }
+
+        long mask(CaseModel caseModel) {
+            String value = getter.apply(caseModel);
+            if (value == null) {
+                return unconstrained;
+            }
+            Long mask = masks.get(value);
+            return mask != null ? mask : unconstrained;
+        }
+    }
+
+    /**
+     * Sorted distinct thresholds t0 &lt; t1 &lt; ... split the line into 2n+1 segments:
+     * (-inf, t0), [t0], (t0, t1), [t1], ... (tn, inf). Each segment has a precomputed mask.
+     */
+    private static final class NumericIndex {
+        private final double[] thresholds;
+        private final long[] segmentMasks;
+        private final long unconstrained;
+
+        private NumericIndex(double[] thresholds, long[] segmentMasks, long unconstrained) {
+            this.thresholds = thresholds;
+            this.segmentMasks = segmentMasks;
+            this.unconstrained = unconstrained;
+        }
+
+        static NumericIndex build(String attribute, List<RuleDefinition> rules, String[] ids) {
+            long unconstrained = 0;
+            Range[] ranges = new Range[rules.size()];
+            TreeSet<Double> bounds = new TreeSet<>();
+            for (int i = 0; i < rules.size(); i++) {
+                Object condition = rules.get(i).when().get(attribute);
+                if (condition == null) {
+                    unconstrained |= bit(i);
+                    continue;
+                }
+                if (!(condition instanceof Map<?, ?> map)) {
+                    throw new IllegalArgumentException("Rule " + ids[i] + ": '" + attribute + "' must be an object like {\"gt\": 80}");
+                }
+                ranges[i] = Range.of(map, ids[i]);
+                if (ranges[i].lo != null) bounds.add(ranges[i].lo);
+                if (ranges[i].hi != null) bounds.add(ranges[i].hi);
+            }
+            double[] thresholds = bounds.stream().mapToDouble(Double::doubleValue).toArray();
+            long[] masks = new long[2 * thresholds.length + 1];
+            for (int segment = 0; segment < masks.length; segment++) {
+                double sample = sample(thresholds, segment);
+                long mask = unconstrained;
+                for (int i = 0; i < ranges.length; i++) {
+                    if (ranges[i] != null && ranges[i].contains(sample)) {
+                        mask |= bit(i);
+                    }
+                }
+                masks[segment] = mask;
+            }
+            return new NumericIndex(thresholds, masks, unconstrained);
+        }
+
+        long mask(Double value) {
+            return value == null ? unconstrained : mask(value.doubleValue());
+        }
+
+        long mask(double value) {
+            if (Double.isNaN(value)) {
+                return unconstrained;
+            }
+            int found = Arrays.binarySearch(thresholds, value);
+            return segmentMasks[found >= 0 ? 2 * found + 1 : 2 * (-found - 1)];
+        }
+
+        // A value inside the segment; odd segments are the thresholds themselves
+        private static double sample(double[] t, int segment) {
+            if (t.length == 0) return 0;
+            if (segment % 2 == 1) return t[segment / 2];
+            int p = segment / 2;
+            if (p == 0) return t[0] - 1;
+            if (p == t.length) return t[t.length - 1] + 1;
+            return (t[p - 1] + t[p]) / 2;
+        }
+    }
+
+    private record Range(Double lo, boolean loInclusive, Double hi, boolean hiInclusive) {
+
+        static Range of(Map<?, ?> condition, String ruleId) {
+            Double lo = null, hi = null;
+            boolean loInclusive = false, hiInclusive = false;
+            for (Map.Entry<?, ?> entry : condition.entrySet()) {
+                if (!(entry.getValue() instanceof Number number)) {
+                    throw new IllegalArgumentException("Rule " + ruleId + ": '" + entry.getKey() + "' must be a number");
+                }
+                double value = number.doubleValue();
+                switch (String.valueOf(entry.getKey())) {
+                    case "gt" -> { lo = value; loInclusive = false; }
+                    case "gte" -> { lo = value; loInclusive = true; }
+                    case "lt" -> { hi = value; hiInclusive = false; }
+                    case "lte" -> { hi = value; hiInclusive = true; }
+                    default -> throw new IllegalArgumentException("Rule " + ruleId + ": unknown comparison '" + entry.getKey() + "'");
+                }
+            }
+            return new Range(lo, loInclusive, hi, hiInclusive);
+        }
+
+        boolean contains(double value) {
+            if (lo != null && (loInclusive ? value < lo : value <= lo)) return false;
+            if (hi != null && (hiInclusive ? value > hi : value >= hi)) return false;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.alert_detect_system.rules;
+
+/**
+ * Entity-level aggregates the rules can test via {@code entityOpenCases} and {@code entityMaxRiskScore}.
+ * Implementations must answer in constant time; they are called on every rule evaluation.
+ */
+public interface EntityRiskLookup {
+
+    EntityRiskLookup NONE = new EntityRiskLookup() {
+        @Override
+        public int openCases(String entity) {
+            return 0;
+        }
+
+        @Override
+        public double maxOpenRiskScore(String entity) {
+            return 0.0;
+        }
+    };
+
+    int openCases(String entity);
+
+    double maxOpenRiskScore(String entity);
+}
@@ -0,0 +1,8 @@
+package com.example.alert_detect_system.rules;
+
+import java.util.List;
+
+/**
+ * Outcome of evaluating the rules against one case.
+ */
+public record RuleDecision(boolean requiresApproval, double riskScore, double riskBoost, List<String> matchedRules) {}
@@ -0,0 +1,21 @@
+package com.example.alert_detect_system.rules;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One rule as written in the rules file. {@code when} maps a case attribute to either a list of
+ * accepted values (caseType, priority, typology, status) or a numeric range with any of
+ * {@code gt}, {@code gte}, {@code lt}, {@code lte} (riskScore). All conditions must hold.
+ */
+public record RuleDefinition(String id, Map<String, Object> when, boolean requiresApproval, double riskBoost) {
+
+    public RuleDefinition {
+        when = when != null ? when : Map.of();
+    }
+
+    /**
+     * Root of the rules file.
+     */
+    public record RuleSet(List<RuleDefinition> rules) {}
+}
@@ -0,0 +1,6 @@
+package com.example.alert_detect_system.rules;
+
+/**
+ * Published by {@link CaseRuleEngine} after a changed rules file has been compiled and swapped in.
+ */
+public record RulesReloadedEvent(String version) {}
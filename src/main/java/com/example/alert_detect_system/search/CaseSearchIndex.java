@@ -0,0 +1,271 @@
+package com.example.alert_detect_system.search;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.queryparser.classic.MultiFieldQueryParser;
+import org.apache.lucene.queryparser.classic.ParseException;
+import org.apache.lucene.queryparser.classic.QueryParser;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.example.alert_detect_system.Model.AuditLogModel;
+import com.example.alert_detect_system.Model.CaseModel;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Embedded Lucene index over case text fields and audit log details.
+ * Documents are keyed by entity ID so create/update is a single updateDocument call.
+ */
+@Component
+public class CaseSearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(CaseSearchIndex.class);
+
+    public static final String TYPE_CASE = "case";
+    public static final String TYPE_AUDIT = "audit";
+
+    private static final String FIELD_ID = "id";
+    private static final String FIELD_TYPE = "type";
+    private static final String FIELD_CASE_ID = "caseId";
+    private static final String FIELD_CASE_NUMBER = "caseNumber";
+    private static final String FIELD_STATUS = "status";
+    private static final String FIELD_ENTITY = "entity";
+    private static final String FIELD_ALERT_ID = "alertId";
+    private static final String FIELD_DESCRIPTION = "description";
+    private static final String FIELD_ACTION = "action";
+    private static final String FIELD_DETAILS = "details";
+
+    private static final String[] SEARCH_FIELDS = {
+        FIELD_ENTITY, FIELD_ALERT_ID, FIELD_CASE_NUMBER, FIELD_DESCRIPTION, FIELD_DETAILS
+    };
+    // Identifiers are what analysts usually search for, so they outrank free text
+    private static final Map<String, Float> FIELD_BOOSTS = Map.of(
+        FIELD_ENTITY, 3.0f,
+        FIELD_ALERT_ID, 3.0f,
+        FIELD_CASE_NUMBER, 3.0f,
+        FIELD_DESCRIPTION, 1.0f,
+        FIELD_DETAILS, 1.0f
+    );
+
+    @Value("${search.index.dir:data/search-index}")
+    private String indexDir;
+
+    private final Analyzer analyzer = new StandardAnalyzer();
+    private final AtomicBoolean dirty = new AtomicBoolean(false);
+    private Directory directory;
+    private IndexWriter writer;
+    private SearcherManager searcherManager;
+
+    @PostConstruct
+    public void open() throws IOException {
+        Path path = Paths.get(indexDir);
+        directory = FSDirectory.open(path);
+        IndexWriterConfig config = new IndexWriterConfig(analyzer);
+        config.setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND);
+        writer = new IndexWriter(directory, config);
+        searcherManager = new SearcherManager(writer, null);
+        logger.info("Search index opened at {} with {} documents", path.toAbsolutePath(), writer.getDocStats().numDocs);
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        if (searcherManager != null) searcherManager.close();
+        if (writer != null) writer.close();
+        if (directory != null) directory.close();
+    }
+
+    public void indexCase(CaseModel caseModel) {
+        Document doc = new Document();
+        String id = caseModel.getId().toString();
+        doc.add(new StringField(FIELD_ID, id, Field.Store.YES));
+        doc.add(new StringField(FIELD_TYPE, TYPE_CASE, Field.Store.YES));
+        doc.add(new StringField(FIELD_CASE_ID, id, Field.Store.YES));
+        addText(doc, FIELD_CASE_NUMBER, caseModel.getCaseNumber(), Field.Store.YES);
+        addText(doc, FIELD_ENTITY, caseModel.getEntity(), Field.Store.YES);
+        addText(doc, FIELD_ALERT_ID, caseModel.getAlertId(), Field.Store.YES);
+        addText(doc, FIELD_DESCRIPTION, caseModel.getDescription(), Field.Store.NO);
+        if (caseModel.getStatus() != null) {
+            doc.add(new StringField(FIELD_STATUS, caseModel.getStatus().name(), Field.Store.YES));
+        }
+        update(new Term(FIELD_ID, id), doc);
+    }
+
+    public void indexAuditLog(AuditLogModel auditLog) {
+        if (auditLog.getId() == null || auditLog.getDetails() == null) {
+            return;
+        }
+        Document doc = new Document();
+        String id = auditLog.getId().toString();
+        doc.add(new StringField(FIELD_ID, id, Field.Store.YES));
+        doc.add(new StringField(FIELD_TYPE, TYPE_AUDIT, Field.Store.YES));
+        if (auditLog.getCaseId() != null) {
+            doc.add(new StringField(FIELD_CASE_ID, auditLog.getCaseId().toString(), Field.Store.YES));
+        }
+        doc.add(new StringField(FIELD_ACTION, auditLog.getAction(), Field.Store.YES));
+        addText(doc, FIELD_DETAILS, auditLog.getDetails(), Field.Store.NO);
+        update(new Term(FIELD_ID, id), doc);
+    }
+
+    /**
+     * Removes the case document and every audit document attached to it.
+     */
+    public void deleteCase(UUID caseId) {
+        try {
+            writer.deleteDocuments(new Term(FIELD_CASE_ID, caseId.toString()));
+            dirty.set(true);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to remove case " + caseId + " from search index", e);
+        }
+    }
+
+    public void deleteAll() {
+        try {
+            writer.deleteAll();
+            dirty.set(true);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to clear search index", e);
+        }
+    }
+
+    /**
+     * Ranked, paged search. {@code type} restricts hits to {@link #TYPE_CASE} or {@link #TYPE_AUDIT}.
+     */
+    public SearchPage search(String queryText, String type, int page, int size) {
+        Query query = parse(queryText, type);
+        refreshIfDirty();
+        IndexSearcher searcher = null;
+        try {
+            searcher = searcherManager.acquire();
+            int offset = page * size;
+            TopDocs topDocs = searcher.search(query, offset + size);
+            StoredFields storedFields = searcher.storedFields();
+            List<SearchHit> hits = new ArrayList<>(size);
+            ScoreDoc[] scoreDocs = topDocs.scoreDocs;
+            for (int i = offset; i < scoreDocs.length; i++) {
+                Document doc = storedFields.document(scoreDocs[i].doc);
+                hits.add(new SearchHit(
+                    doc.get(FIELD_TYPE),
+                    doc.get(FIELD_ID),
+                    doc.get(FIELD_CASE_ID),
+                    doc.get(FIELD_CASE_NUMBER),
+                    doc.get(FIELD_ENTITY),
+                    doc.get(FIELD_ALERT_ID),
+                    doc.get(FIELD_STATUS),
+                    doc.get(FIELD_ACTION),
+                    scoreDocs[i].score));
+            }
+            return new SearchPage(topDocs.totalHits.value, page, size, hits);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Search failed for query: " + queryText, e);
+        } finally {
+            if (searcher != null) {
+                try {
+                    searcherManager.release(searcher);
+                } catch (IOException e) {
+                    logger.warn("Failed to release index searcher", e);
+                }
+            }
+        }
+    }
+
+    public long documentCount() {
+        return writer.getDocStats().numDocs;
+    }
+
+    /**
+     * Commits buffered changes so a restart does not need a full rebuild.
+     * Individual writes are only made visible to searchers (NRT), not fsynced.
+     */
+    @Scheduled(fixedDelayString = "${search.index.commit-interval-ms:5000}")
+    public void commit() {
+        try {
+            if (writer.hasUncommittedChanges()) {
+                writer.commit();
+            }
+        } catch (IOException e) {
+            logger.error("Failed to commit search index", e);
+        }
+    }
+
+    private Query parse(String queryText, String type) {
+        QueryParser parser = new MultiFieldQueryParser(SEARCH_FIELDS, analyzer, FIELD_BOOSTS);
+        parser.setDefaultOperator(QueryParser.Operator.AND);
+        Query textQuery;
+        try {
+            textQuery = parser.parse(queryText);
+        } catch (ParseException e) {
+            throw new IllegalArgumentException("Invalid search query: " + e.getMessage());
+        }
+        if (type == null) {
+            return textQuery;
+        }
+        return new BooleanQuery.Builder()
+            .add(textQuery, BooleanClause.Occur.MUST)
+            .add(new TermQuery(new Term(FIELD_TYPE, type)), BooleanClause.Occur.FILTER)
+            .build();
+    }
+
+    private void update(Term idTerm, Document doc) {
+        try {
+            writer.updateDocument(idTerm, doc);
+            dirty.set(true);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to index document " + idTerm.text(), e);
+        }
+    }
+
+    private void refreshIfDirty() {
+        if (dirty.compareAndSet(true, false)) {
+            try {
+                searcherManager.maybeRefresh();
+            } catch (IOException e) {
+                dirty.set(true);
+                logger.warn("Failed to refresh index searcher", e);
+            }
+        }
+    }
+
+    private static void addText(Document doc, String field, String value, Field.Store store) {
+        if (value != null && !value.isBlank()) {
+            doc.add(new TextField(field, value, store));
+        }
+    }
+
+    public record SearchHit(String type, String id, String caseId, String caseNumber, String entity,
+                            String alertId, String status, String action, float score) {}
+
+    public record SearchPage(long total, int page, int size, List<SearchHit> hits) {}
+}
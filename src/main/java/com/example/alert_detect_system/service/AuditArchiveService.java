@@ -0,0 +1,106 @@
+package com.example.alert_detect_system.service;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.alert_detect_system.Model.AuditLogModel;
+import com.example.alert_detect_system.audit.AuditArchiveStore;
+import com.example.alert_detect_system.repo.AuditLogRepo;
+
+/**
+ * Applies the audit retention policy: rows older than {@code audit.retention-days} are moved
+ * from the Audit_log table into monthly archive segments and deleted from the database. Rows
+ * are only deleted once {@code audit.archive.shared} confirms that every node reads the same
+ * {@code audit.archive.dir}; otherwise the other nodes would lose that part of the history.
+ */
+@Service
+public class AuditArchiveService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuditArchiveService.class);
+
+    @Autowired
+    private AuditLogRepo auditLogRepository;
+    @Autowired
+    private AuditArchiveStore archiveStore;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private ClusterLockService clusterLockService;
+
+    @Value("${audit.archive.enabled:true}")
+    private boolean enabled;
+
+    @Value("${audit.retention-days:90}")
+    private int retentionDays;
+
+    @Value("${audit.archive.batch-size:5000}")
+    private int batchSize;
+
+    // Set once audit.archive.dir is on storage all nodes share, or there is only one node
+    @Value("${audit.archive.shared:false}")
+    private boolean shared;
+
+    @Scheduled(cron = "${audit.archive.cron:0 0 2 * * *}")
+    public void archiveOnSchedule() {
+        // Every node's cron fires; only the cluster leader does the work
+        if (enabled && clusterLockService.isLeader()) {
+            if (!shared) {
+                logger.warn("Audit archival skipped: set audit.archive.shared=true once audit.archive.dir is shared by all nodes");
+                return;
+            }
+            archiveExpired();
+        }
+    }
+
+    /**
+     * Archives everything older than the retention window, one batch per segment.
+     * A crash between writing a segment and deleting its rows leaves duplicates, which
+     * {@link AuditService#getCaseAuditLogs} drops by ID, so the job is safe to re-run.
+     */
+    public long archiveExpired() {
+        if (!shared) {
+            throw new IllegalStateException("audit.archive.dir is not declared shared (audit.archive.shared); "
+                + "archived rows would only be readable on this node");
+        }
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(retentionDays);
+        long archived = 0;
+        List<AuditLogModel> batch;
+        do {
+            batch = auditLogRepository.findByTimestampBeforeOrderByTimestampAsc(cutoff, PageRequest.of(0, batchSize));
+            if (batch.isEmpty()) {
+                break;
+            }
+            Map<YearMonth, List<AuditLogModel>> byPartition = batch.stream()
+                .collect(Collectors.groupingBy(log -> YearMonth.from(log.getTimestamp()), TreeMap::new, Collectors.toList()));
+            for (Map.Entry<YearMonth, List<AuditLogModel>> partition : byPartition.entrySet()) {
+                Map<UUID, List<AuditLogModel>> byCase = partition.getValue().stream()
+                    .collect(Collectors.groupingBy(log -> log.getCaseId() != null ? log.getCaseId() : AuditArchiveStore.NO_CASE,
+                        LinkedHashMap::new, Collectors.toList()));
+                archiveStore.writeSegment(partition.getKey(), byCase);
+            }
+            List<UUID> ids = batch.stream().map(AuditLogModel::getId).toList();
+            transactionTemplate.executeWithoutResult(status -> auditLogRepository.deleteAllByIdInBatch(ids));
+            archived += batch.size();
+        } while (batch.size() == batchSize);
+
+        if (archived > 0) {
+            logger.info("Archived {} audit rows older than {}", archived, cutoff);
+        }
+        return archived;
+    }
+}
@@ -0,0 +1,222 @@
+package com.example.alert_detect_system.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import com.example.alert_detect_system.Model.AuditChainHeadModel;
+import com.example.alert_detect_system.Model.AuditLogModel;
+import com.example.alert_detect_system.audit.AuditArchiveStore;
+import com.example.alert_detect_system.audit.AuditHashChain;
+import com.example.alert_detect_system.repo.AuditChainHeadRepo;
+import com.example.alert_detect_system.repo.AuditLogRepo;
+
+/**
+ * Verifies every audit hash chain, including any prefix of it that has been archived. Rows are
+ * streamed in (chainKey, sequence) order with keyset pagination; each completed chain is hashed on
+ * a worker pool sized to the available cores while the next page is being fetched.
+ *
+ * The links alone cannot show records missing from the end of a chain, so each chain must also end
+ * where its audit_chain_heads row says. Heads whose chain has no rows left must be matched by the
+ * archive; otherwise the whole chain was deleted.
+ */
+@Service
+public class AuditChainVerifier {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuditChainVerifier.class);
+    private static final int PAGE_SIZE = 10_000;
+    private static final int MAX_REPORTED_FAILURES = 100;
+    private static final String TASK_CHAIN_PREFIX = "task:";
+
+    @Autowired
+    private AuditLogRepo auditLogRepository;
+    @Autowired
+    private AuditChainHeadRepo chainHeadRepository;
+    @Autowired
+    private AuditArchiveStore archiveStore;
+
+    public VerificationReport verifyAll() {
+        long start = System.currentTimeMillis();
+        int threads = Runtime.getRuntime().availableProcessors();
+        ExecutorService workers = Executors.newFixedThreadPool(threads);
+        List<String> failures = Collections.synchronizedList(new ArrayList<>());
+        AtomicLong records = new AtomicLong();
+        List<Future<?>> pending = new ArrayList<>();
+        long chains = 0;
+        try {
+            String lastKey = "";
+            long lastSequence = Long.MAX_VALUE;
+            List<AuditLogModel> current = new ArrayList<>();
+            List<AuditLogModel> page;
+            Map<String, AuditChainHeadModel> heads = Map.of();
+            do {
+                page = auditLogRepository.findChainedAfter(lastKey, lastSequence, PageRequest.ofSize(PAGE_SIZE));
+                // The chain carried over from the previous page may end on this one
+                Set<String> keys = new HashSet<>();
+                page.forEach(record -> keys.add(record.getChainKey()));
+                if (!current.isEmpty()) {
+                    keys.add(current.get(0).getChainKey());
+                }
+                heads = new HashMap<>();
+                for (AuditChainHeadModel head : chainHeadRepository.findAllById(keys)) {
+                    heads.put(head.getChainKey(), head);
+                }
+                for (AuditLogModel record : page) {
+                    if (!current.isEmpty() && !current.get(0).getChainKey().equals(record.getChainKey())) {
+                        pending.add(submit(workers, current, heads.get(current.get(0).getChainKey()), failures, records));
+                        chains++;
+                        current = new ArrayList<>();
+                    }
+                    current.add(record);
+                }
+                if (!page.isEmpty()) {
+                    AuditLogModel last = page.get(page.size() - 1);
+                    lastKey = last.getChainKey();
+                    lastSequence = last.getSequence();
+                }
+            } while (page.size() == PAGE_SIZE);
+            if (!current.isEmpty()) {
+                pending.add(submit(workers, current, heads.get(current.get(0).getChainKey()), failures, records));
+                chains++;
+            }
+            chains += verifyChainsWithoutRecords(workers, pending, failures, records);
+            for (Future<?> future : pending) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Audit verification interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Audit verification failed", e.getCause());
+        } finally {
+            workers.shutdownNow();
+        }
+
+        long duration = System.currentTimeMillis() - start;
+        long unchained = auditLogRepository.countUnchained();
+        logger.info("Verified {} audit records in {} chains using {} threads in {} ms, {} broken",
+            records.get(), chains, threads, duration, failures.size());
+        List<String> reported = failures.size() > MAX_REPORTED_FAILURES ? failures.subList(0, MAX_REPORTED_FAILURES) : failures;
+        return new VerificationReport(failures.isEmpty(), chains, records.get(), unchained, failures.size(),
+            List.copyOf(reported), duration);
+    }
+
+    private Future<?> submit(ExecutorService workers, List<AuditLogModel> chain, AuditChainHeadModel head,
+                             List<String> failures, AtomicLong records) {
+        return workers.submit(() -> {
+            List<AuditLogModel> full = withArchivedPrefix(chain);
+            records.addAndGet(full.size());
+            String failure = AuditHashChain.verify(full);
+            if (failure == null) {
+                failure = checkHead(chain.get(0).getChainKey(), full, head);
+            }
+            if (failure != null) {
+                failures.add(failure);
+            }
+        });
+    }
+
+    // Heads left without rows: only the archive may hold their chain
+    private long verifyChainsWithoutRecords(ExecutorService workers, List<Future<?>> pending, List<String> failures,
+                                            AtomicLong records) {
+        long chains = 0;
+        String lastKey = "";
+        // Task chains without a case share one archive entry, read once
+        Map<String, List<AuditLogModel>> archivedTaskChains = null;
+        List<AuditChainHeadModel> page;
+        do {
+            page = chainHeadRepository.findWithoutRecordsAfter(lastKey, PageRequest.ofSize(PAGE_SIZE));
+            for (AuditChainHeadModel head : page) {
+                Map<String, List<AuditLogModel>> taskChains = null;
+                if (head.getChainKey().startsWith(TASK_CHAIN_PREFIX)) {
+                    if (archivedTaskChains == null) {
+                        archivedTaskChains = byChain(archiveStore.read(null));
+                    }
+                    taskChains = archivedTaskChains;
+                }
+                Map<String, List<AuditLogModel>> archivedChains = taskChains;
+                pending.add(workers.submit(() -> {
+                    List<AuditLogModel> archived = archivedChains != null
+                        ? archivedChains.getOrDefault(head.getChainKey(), List.of())
+                        : byChain(archiveStore.read(UUID.fromString(head.getChainKey()))).getOrDefault(head.getChainKey(), List.of());
+                    records.addAndGet(archived.size());
+                    String failure = AuditHashChain.verify(archived);
+                    if (failure == null) {
+                        failure = checkHead(head.getChainKey(), archived, head);
+                    }
+                    if (failure != null) {
+                        failures.add(failure);
+                    }
+                }));
+                chains++;
+            }
+            if (!page.isEmpty()) {
+                lastKey = page.get(page.size() - 1).getChainKey();
+            }
+        } while (page.size() == PAGE_SIZE);
+        return chains;
+    }
+
+    private static String checkHead(String chainKey, List<AuditLogModel> chain, AuditChainHeadModel head) {
+        if (head == null) {
+            return "chain " + chainKey + ": no head row";
+        }
+        if (chain.isEmpty()) {
+            return "chain " + chainKey + ": head at sequence " + head.getSequence() + " but no records, in the table or archived";
+        }
+        AuditLogModel last = chain.get(chain.size() - 1);
+        if (last.getSequence() != head.getSequence() || !last.getHash().equals(head.getHash())) {
+            return "chain " + chainKey + ": ends at sequence " + last.getSequence() + " but its head is at sequence "
+                + head.getSequence() + ", records are missing from the end";
+        }
+        return null;
+    }
+
+    // Archived records grouped by chain, each in sequence order
+    private static Map<String, List<AuditLogModel>> byChain(List<AuditLogModel> archived) {
+        Map<String, List<AuditLogModel>> chains = new HashMap<>();
+        archived.stream()
+            .filter(record -> record.getChainKey() != null)
+            .sorted(Comparator.comparing(AuditLogModel::getSequence))
+            .forEach(record -> chains.computeIfAbsent(record.getChainKey(), key -> new ArrayList<>()).add(record));
+        return chains;
+    }
+
+    // Older links may live in archive segments; task chains without a case are filed under NO_CASE
+    private List<AuditLogModel> withArchivedPrefix(List<AuditLogModel> chain) {
+        AuditLogModel first = chain.get(0);
+        if (first.getSequence() == 1 || !archiveStore.hasArchivedRecords(first.getCaseId())) {
+            return chain;
+        }
+        List<AuditLogModel> full = new ArrayList<>();
+        for (AuditLogModel archived : archiveStore.read(first.getCaseId())) {
+            if (first.getChainKey().equals(archived.getChainKey()) && archived.getSequence() < first.getSequence()) {
+                full.add(archived);
+            }
+        }
+        full.sort(Comparator.comparing(AuditLogModel::getSequence));
+        full.addAll(chain);
+        return full;
+    }
+
+    public record VerificationReport(boolean valid, long chainsVerified, long recordsVerified, long unchainedRecords,
+                                     long brokenChains, List<String> failures, long durationMs) {}
+
+}
@@ -0,0 +1,9 @@
+package com.example.alert_detect_system.service;
+
+import com.example.alert_detect_system.Model.AuditLogModel;
+
+/**
+ * Published by {@link AuditService} after an audit row has been saved.
+ */
+public record AuditLoggedEvent(AuditLogModel auditLog) {
+}
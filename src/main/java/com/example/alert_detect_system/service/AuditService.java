@@ -1,28 +1,73 @@
 package com.example.alert_detect_system.service;
 
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import com.example.alert_detect_system.Model.AuditChainHeadModel;
 import com.example.alert_detect_system.Model.AuditLogModel;
+import com.example.alert_detect_system.audit.AuditArchiveStore;
+import com.example.alert_detect_system.audit.AuditHashChain;
+import com.example.alert_detect_system.profiling.AuditWriteEvent;
+import com.example.alert_detect_system.repo.AuditChainHeadRepo;
 import com.example.alert_detect_system.repo.AuditLogRepo;
 
 @Service
 public class AuditService {
     
     private static final Logger logger = LoggerFactory.getLogger(AuditService.class);
+
+    private static final int MAX_APPEND_ATTEMPTS = 3;
+    private static final int LOCK_STRIPES = 64;
+    private static final long LOCAL_LOCK_WAIT_MS = 1000;
     
     @Autowired
     private AuditLogRepo auditLogRepository;
+    @Autowired
+    private AuditChainHeadRepo chainHeadRepository;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    @Autowired
+    private AuditArchiveStore archiveStore;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    // Fair, so local writers of a hot chain take turns in arrival order
+    private final ReentrantLock[] stripeLocks = new ReentrantLock[LOCK_STRIPES];
+
+    public AuditService() {
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            stripeLocks[i] = new ReentrantLock(true);
+        }
+    }
     
     public void logCaseAction(UUID caseId, String action, String performedBy, String details) {
         try {
             AuditLogModel auditLog = new AuditLogModel(caseId, action, performedBy, details);
-            auditLogRepository.save(auditLog);
+            append(auditLog);
+            eventPublisher.publishEvent(new AuditLoggedEvent(auditLog));
             logger.info("Audit log created - Case: {}, Action: {}, User: {}", caseId, action, performedBy);
         } catch (Exception e) {
             logger.error("Failed to create audit log for case: {}", caseId, e);
@@ -34,22 +79,230 @@ public class AuditService {
             String.format("Status changed from %s to %s", oldStatus, newStatus));
         auditLog.setOldValue(oldStatus);
         auditLog.setNewValue(newStatus);
-        auditLogRepository.save(auditLog);
+        append(auditLog);
+        eventPublisher.publishEvent(new AuditLoggedEvent(auditLog));
     }
     
+    /**
+     * STATUS_CHANGE rows for many cases moving to the same status, e.g. a bulk transition. The
+     * rows are chained like single appends but their chain heads are locked in one query and the
+     * rows saved in one batch.
+     */
+    public void logCaseStatusChanges(Map<UUID, String> oldStatuses, String performedBy, String newStatus) {
+        List<AuditLogModel> auditLogs = new ArrayList<>(oldStatuses.size());
+        oldStatuses.forEach((caseId, oldStatus) -> {
+            AuditLogModel auditLog = new AuditLogModel(caseId, "STATUS_CHANGE", performedBy,
+                String.format("Status changed from %s to %s", oldStatus, newStatus));
+            auditLog.setOldValue(oldStatus);
+            auditLog.setNewValue(newStatus);
+            auditLogs.add(auditLog);
+        });
+        appendAll(auditLogs);
+        auditLogs.forEach(auditLog -> eventPublisher.publishEvent(new AuditLoggedEvent(auditLog)));
+    }
+    
+    // Newest first; merges hot rows from the database with archived segments
+    @Transactional(readOnly = true)
     public List<AuditLogModel> getCaseAuditLogs(UUID caseId) {
-        return auditLogRepository.findByCaseIdOrderByTimestampDesc(caseId);
+        List<AuditLogModel> hot = auditLogRepository.findByCaseIdOrderByTimestampDesc(caseId);
+        if (!archiveStore.hasArchivedRecords(caseId)) {
+            return hot;
+        }
+        List<AuditLogModel> merged = new ArrayList<>(hot);
+        Set<UUID> seen = new HashSet<>();
+        hot.forEach(log -> seen.add(log.getId()));
+        for (AuditLogModel archived : archiveStore.read(caseId)) {
+            if (seen.add(archived.getId())) {
+                merged.add(archived);
+            }
+        }
+        merged.sort(Comparator.comparing(AuditLogModel::getTimestamp).reversed());
+        return merged;
     }
     
+    // Directory changes belong to no case; each group's changes form their own chain
+    public void logGroupAction(String groupId, String action, String performedBy, String details) {
+        logTaskAction("group:" + groupId, action, performedBy, details);
+    }
+
     // Log task-level actions (for assignment/reassignment)
     public void logTaskAction(String taskId, String action, String performedBy, String details) {
+        logTaskAction(taskId, null, action, performedBy, details);
+    }
+
+    // Task-level action on a task that belongs to a case; the row joins that case's audit trail
+    public void logTaskAction(String taskId, UUID caseId, String action, String performedBy, String details) {
         try {
-            AuditLogModel auditLog = new AuditLogModel(null, action, performedBy, details);
+            AuditLogModel auditLog = new AuditLogModel(caseId, action, performedBy, details);
             auditLog.setTaskId(taskId);
-            auditLogRepository.save(auditLog);
+            append(auditLog);
+            eventPublisher.publishEvent(new AuditLoggedEvent(auditLog));
             logger.info("Audit log created - Task: {}, Action: {}, User: {}", taskId, action, performedBy);
         } catch (Exception e) {
             logger.error("Failed to create audit log for task: {}", taskId, e);
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Links the record to the head of its chain and saves it. The chain's head row stays locked
+     * until the surrounding transaction ends, so sequence numbers are gapless per chain: a later
+     * writer only sees this record once it is committed, and chains onto the old head if it is
+     * rolled back.
+     */
+    private AuditLogModel append(AuditLogModel auditLog) {
+        // Match database column precision so the hash survives a round trip
+        auditLog.setTimestamp(auditLog.getTimestamp().truncatedTo(ChronoUnit.MICROS));
+        auditLog.setChainKey(AuditHashChain.chainKey(auditLog.getCaseId(), auditLog.getTaskId()));
+        return inTransaction(List.of(auditLog), () -> appendLocked(auditLog));
+    }
+
+    private AuditLogModel appendLocked(AuditLogModel auditLog) {
+        String chainKey = auditLog.getChainKey();
+        AuditWriteEvent event = new AuditWriteEvent();
+        event.begin();
+        long lockWait = 0;
+        try {
+            long waitStart = System.nanoTime();
+            lockLocally(Set.of(chainKey));
+            AuditChainHeadModel head = chainHeadRepository.findForUpdate(chainKey)
+                .orElseGet(() -> createHeads(Map.of(chainKey, Optional.ofNullable(auditLog.getCaseId()))).get(chainKey));
+            lockWait = System.nanoTime() - waitStart;
+            link(auditLog, head);
+            return auditLogRepository.save(auditLog);
+        } finally {
+            event.finish(auditLog.getCaseId(), auditLog.getTaskId(), auditLog.getAction(), lockWait);
+        }
+    }
+
+    /**
+     * {@link #append} for many records at once. The heads of all chains involved are locked in
+     * one query, in key order so that concurrent batches cannot deadlock, and the rows saved in
+     * one batch.
+     */
+    private void appendAll(List<AuditLogModel> auditLogs) {
+        if (auditLogs.isEmpty()) {
+            return;
+        }
+        Map<String, Optional<UUID>> chains = new HashMap<>();
+        for (AuditLogModel auditLog : auditLogs) {
+            auditLog.setTimestamp(auditLog.getTimestamp().truncatedTo(ChronoUnit.MICROS));
+            auditLog.setChainKey(AuditHashChain.chainKey(auditLog.getCaseId(), auditLog.getTaskId()));
+            chains.put(auditLog.getChainKey(), Optional.ofNullable(auditLog.getCaseId()));
+        }
+        inTransaction(auditLogs, () -> {
+            AuditWriteEvent event = new AuditWriteEvent();
+            event.begin();
+            long lockWait = 0;
+            try {
+                long waitStart = System.nanoTime();
+                lockLocally(chains.keySet());
+                Map<String, AuditChainHeadModel> heads = new HashMap<>();
+                chainHeadRepository.findAllForUpdate(chains.keySet()).forEach(head -> heads.put(head.getChainKey(), head));
+                lockWait = System.nanoTime() - waitStart;
+                if (heads.size() < chains.size()) {
+                    Map<String, Optional<UUID>> missing = new HashMap<>(chains);
+                    missing.keySet().removeAll(heads.keySet());
+                    heads.putAll(createHeads(missing));
+                }
+                for (AuditLogModel auditLog : auditLogs) {
+                    link(auditLog, heads.get(auditLog.getChainKey()));
+                }
+                return auditLogRepository.saveAll(auditLogs);
+            } finally {
+                event.finish(null, null, auditLogs.get(0).getAction(), lockWait);
+            }
+        });
+    }
+
+    // Joins the caller's transaction, or runs in a new one that is retried if it loses a race on
+    // a chain's sequence or on creating a chain's head row
+    private <T> T inTransaction(List<AuditLogModel> auditLogs, Supplier<T> append) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return append.get();
+        }
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> append.get());
+            } catch (DataIntegrityViolationException e) {
+                if (attempt == MAX_APPEND_ATTEMPTS) {
+                    throw e;
+                }
+                logger.warn("Audit append to chain {} conflicted, retrying: {}", auditLogs.get(0).getChainKey(), e.getMessage());
+                auditLogs.forEach(auditLog -> auditLog.setId(null));
+            }
+        }
+    }
+
+    /**
+     * Local writers of a chain queue on its stripe lock rather than on the head row, so the row
+     * lock only arbitrates between nodes. Held until the transaction ends, like the row lock.
+     * Stripes are taken in ascending order with a bounded wait: a writer that gives up (e.g. two
+     * transactions appending to the same chains in opposite order) goes on to the row lock,
+     * where the database detects real deadlocks.
+     */
+    private void lockLocally(Set<String> chainKeys) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TreeSet<Integer> stripes = new TreeSet<>();
+        chainKeys.forEach(chainKey -> stripes.add(Math.floorMod(chainKey.hashCode(), LOCK_STRIPES)));
+        for (int stripe : stripes) {
+            ReentrantLock lock = stripeLocks[stripe];
+            try {
+                if (!lock.tryLock(LOCAL_LOCK_WAIT_MS, TimeUnit.MILLISECONDS)) {
+                    logger.debug("Gave up waiting for audit stripe {}, relying on the chain head row lock", stripe);
+                    continue;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    lock.unlock();
+                }
+            });
+        }
+    }
+
+    // Chains the record onto the locked head and moves the head to it
+    private static void link(AuditLogModel auditLog, AuditChainHeadModel head) {
+        auditLog.setSequence(head.getSequence() + 1);
+        auditLog.setPrevHash(head.getHash());
+        auditLog.setHash(AuditHashChain.computeHash(auditLog));
+        head.setSequence(auditLog.getSequence());
+        head.setHash(auditLog.getHash());
+    }
+
+    /**
+     * Head rows for chains that have none yet, starting from the chain's last row in the table or
+     * the archive (chains written before head rows existed). Inserted in the caller's transaction,
+     * which holds them locked from here on; a writer racing to create the same head fails on the
+     * primary key and, when it owns its transaction, retries.
+     */
+    private Map<String, AuditChainHeadModel> createHeads(Map<String, Optional<UUID>> chains) {
+        Map<String, AuditChainHeadModel> heads = new HashMap<>();
+        for (AuditLogModel last : auditLogRepository.findChainHeads(chains.keySet())) {
+            heads.put(last.getChainKey(), new AuditChainHeadModel(last.getChainKey(), last.getSequence(), last.getHash()));
+        }
+        for (String chainKey : chains.keySet()) {
+            heads.computeIfAbsent(chainKey, key -> archivedHead(key, chains.get(key).orElse(null)));
+        }
+        chainHeadRepository.saveAllAndFlush(heads.values()).forEach(head -> heads.put(head.getChainKey(), head));
+        return heads;
+    }
+
+    // The whole chain may have aged out of the table
+    private AuditChainHeadModel archivedHead(String chainKey, UUID caseId) {
+        AuditChainHeadModel head = new AuditChainHeadModel(chainKey, 0L, AuditHashChain.GENESIS_HASH);
+        if (archiveStore.hasArchivedRecords(caseId)) {
+            for (AuditLogModel archived : archiveStore.read(caseId)) {
+                if (chainKey.equals(archived.getChainKey()) && archived.getSequence() > head.getSequence()) {
+                    head = new AuditChainHeadModel(chainKey, archived.getSequence(), archived.getHash());
+                }
+            }
+        }
+        return head;
+    }
+}
@@ -0,0 +1,177 @@
+package com.example.alert_detect_system.service;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.alert_detect_system.Model.CaseModel;
+import com.example.alert_detect_system.Model.CaseStatus;
+import com.example.alert_detect_system.repo.CaseRepository;
+import com.example.alert_detect_system.workflow.CaseStateMachine;
+import com.example.alert_detect_system.workflow.CaseTransitionException;
+
+/**
+ * Moves many cases to a terminal status (CLOSED, ABANDONED) at once. Cases are handled in chunks
+ * of {@code case.bulk-status.chunk-size}, one transaction each: the chunk's rows are locked and
+ * validated against the state machine per case, the valid ones change in one conditional UPDATE,
+ * their STATUS_CHANGE audit rows are written as one batch and their open tasks completed. A chunk
+ * that fails rolls back on its own; earlier chunks stay committed.
+ */
+@Service
+public class BulkCaseStatusService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BulkCaseStatusService.class);
+
+    @Autowired
+    private CaseRepository caseRepository;
+    @Autowired
+    private CaseStateMachine stateMachine;
+    @Autowired
+    private AuditService auditService;
+    @Autowired
+    private TaskService taskService;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${case.bulk-status.chunk-size:200}")
+    private int chunkSize;
+
+    @Value("${case.bulk-status.max-cases:10000}")
+    private int maxCases;
+
+    public enum Result {
+        UPDATED,
+        // Already in the requested status
+        UNCHANGED,
+        NOT_FOUND,
+        // The state machine does not allow the transition, or one of its guards refused it
+        REJECTED,
+        // The chunk's transaction failed; nothing in it was changed
+        FAILED
+    }
+
+    public record Outcome(UUID caseId, Result result, CaseStatus previousStatus, String error) {
+    }
+
+    public record BulkStatusResult(CaseStatus status, int requested, int updated, int tasksClosed, long millis,
+                                   List<Outcome> outcomes) {
+    }
+
+    public BulkStatusResult transition(List<UUID> caseIds, CaseStatus newStatus, String updatedBy) {
+        if (newStatus == null || !stateMachine.isTerminal(newStatus)) {
+            throw new IllegalArgumentException("Bulk transitions only move cases to a final status, not " + newStatus);
+        }
+        Set<UUID> unique = new LinkedHashSet<>(caseIds);
+        if (unique.isEmpty()) {
+            throw new IllegalArgumentException("No case IDs given");
+        }
+        if (unique.size() > maxCases) {
+            throw new IllegalArgumentException("At most " + maxCases + " cases per request, got " + unique.size());
+        }
+
+        long start = System.currentTimeMillis();
+        List<UUID> ids = new ArrayList<>(unique);
+        List<Outcome> outcomes = new ArrayList<>(ids.size());
+        int updated = 0;
+        int tasksClosed = 0;
+        for (int from = 0; from < ids.size(); from += chunkSize) {
+            List<UUID> chunk = ids.subList(from, Math.min(from + chunkSize, ids.size()));
+            ChunkResult result;
+            try {
+                result = transactionTemplate.execute(status -> transitionChunk(chunk, newStatus, updatedBy));
+            } catch (RuntimeException e) {
+                logger.warn("Bulk transition to {} failed for a chunk of {} cases", newStatus, chunk.size(), e);
+                chunk.forEach(caseId -> outcomes.add(new Outcome(caseId, Result.FAILED, null, e.getMessage())));
+                continue;
+            }
+            outcomes.addAll(result.outcomes());
+            updated += result.updated();
+            tasksClosed += result.tasksClosed();
+        }
+        BulkStatusResult result = new BulkStatusResult(newStatus, ids.size(), updated, tasksClosed,
+            System.currentTimeMillis() - start, outcomes);
+        logger.info("Bulk transition to {} by {}: {} of {} cases updated, {} tasks closed in {} ms",
+            newStatus, updatedBy, updated, ids.size(), tasksClosed, result.millis());
+        return result;
+    }
+
+    private record ChunkResult(List<Outcome> outcomes, int updated, int tasksClosed) {
+    }
+
+    private ChunkResult transitionChunk(List<UUID> caseIds, CaseStatus newStatus, String updatedBy) {
+        Map<UUID, CaseModel> rows = new HashMap<>();
+        for (CaseModel caseModel : caseRepository.findAllForUpdate(caseIds)) {
+            rows.put(caseModel.getId(), caseModel);
+        }
+
+        Map<UUID, Outcome> outcomes = new LinkedHashMap<>();
+        Map<UUID, CaseModel> valid = new LinkedHashMap<>();
+        for (UUID caseId : caseIds) {
+            CaseModel caseModel = rows.get(caseId);
+            if (caseModel == null) {
+                outcomes.put(caseId, new Outcome(caseId, Result.NOT_FOUND, null, "Case not found with ID: " + caseId));
+            } else if (caseModel.getStatus() == newStatus) {
+                outcomes.put(caseId, new Outcome(caseId, Result.UNCHANGED, newStatus, null));
+            } else {
+                try {
+                    stateMachine.validate(caseModel, caseModel.getStatus(), newStatus, updatedBy);
+                    valid.put(caseId, caseModel);
+                    outcomes.put(caseId, new Outcome(caseId, Result.UPDATED, caseModel.getStatus(), null));
+                } catch (CaseTransitionException e) {
+                    outcomes.put(caseId, new Outcome(caseId, Result.REJECTED, caseModel.getStatus(), e.getMessage()));
+                }
+            }
+        }
+        if (valid.isEmpty()) {
+            return new ChunkResult(new ArrayList<>(outcomes.values()), 0, 0);
+        }
+
+        Set<CaseStatus> sources = EnumSet.noneOf(CaseStatus.class);
+        Map<UUID, String> previousStatuses = new LinkedHashMap<>();
+        valid.values().forEach(caseModel -> {
+            sources.add(caseModel.getStatus());
+            previousStatuses.put(caseModel.getId(), caseModel.getStatus().toString());
+        });
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        int changed = caseRepository.transitionStatuses(valid.keySet(), sources, newStatus, updatedBy, now);
+        if (changed != valid.size()) {
+            // The rows are locked, so this only happens if something bypassed the lock
+            throw new OptimisticLockingFailureException("Expected to update " + valid.size() + " cases but updated " + changed);
+        }
+
+        auditService.logCaseStatusChanges(previousStatuses, updatedBy, newStatus.toString());
+        int tasksClosed = taskService.closeOpenTasksForCases(valid.keySet());
+        for (CaseModel caseModel : valid.values()) {
+            // Mirror the UPDATE on the detached row rather than reading every case back
+            CaseStatus previous = caseModel.getStatus();
+            CaseChangedEvent.Snapshot before = CaseChangedEvent.Snapshot.of(caseModel);
+            caseModel.setStatus(newStatus);
+            caseModel.setUpdatedBy(updatedBy);
+            caseModel.setUpdatedAt(now);
+            caseModel.setVersion(caseModel.getVersion() == null ? 1 : caseModel.getVersion() + 1);
+            stateMachine.fireHooks(caseModel, previous, newStatus, updatedBy);
+            eventPublisher.publishEvent(new CaseChangedEvent(caseModel.getId(), CaseChangedEvent.ChangeType.STATUS_CHANGED,
+                caseModel, before));
+        }
+        return new ChunkResult(new ArrayList<>(outcomes.values()), valid.size(), tasksClosed);
+    }
+}
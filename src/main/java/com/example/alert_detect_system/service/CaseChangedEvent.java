@@ -0,0 +1,39 @@
+package com.example.alert_detect_system.service;
+
+import java.util.UUID;
+
+import com.example.alert_detect_system.Model.CaseModel;
+import com.example.alert_detect_system.Model.CaseStatus;
+
+/**
+ * Published by {@link CaseService} whenever a case is created, changed or deleted.
+ * {@code current} is null for deletions; {@code previous} is null for creations and holds the
+ * aggregated fields as they were before the change, so listeners can apply deltas.
+ */
+public record CaseChangedEvent(UUID caseId, ChangeType type, CaseModel current, Snapshot previous) {
+
+    public CaseChangedEvent(UUID caseId, ChangeType type, CaseModel current) {
+        this(caseId, type, current, null);
+    }
+
+    public enum ChangeType {
+        CREATED,
+        UPDATED,
+        STATUS_CHANGED,
+        DELETED
+    }
+
+    /**
+     * Detached copy of the case fields that derived views aggregate on.
+     */
+    public record Snapshot(String entity, CaseStatus status, Double riskScore, String typology) {
+
+        public static Snapshot of(CaseModel caseModel) {
+            return new Snapshot(caseModel.getEntity(), caseModel.getStatus(), caseModel.getRiskScore(), caseModel.getTypology());
+        }
+
+        public Snapshot withStatus(CaseStatus newStatus) {
+            return new Snapshot(entity, newStatus, riskScore, typology);
+        }
+    }
+}
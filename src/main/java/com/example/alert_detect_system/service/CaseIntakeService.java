@@ -0,0 +1,235 @@
+package com.example.alert_detect_system.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.alert_detect_system.Model.IntakeTicketModel;
+import com.example.alert_detect_system.dto.CaseRequestDto;
+import com.example.alert_detect_system.intake.IntakeTicket;
+import com.example.alert_detect_system.intake.PipelineStage;
+import com.example.alert_detect_system.repo.CaseRepository;
+import com.example.alert_detect_system.repo.IntakeTicketRepository;
+import com.example.alert_detect_system.workflow.CaseWorkflowService;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Asynchronous case creation: validate, persist, audit and (optionally) workflow start run as
+ * separate stages with their own bounded queue and worker count. At most
+ * {@code case.intake.persist.threads} cases are being written at any time however many arrive,
+ * and once the queues are full {@link #submit} refuses new requests instead of letting them pile
+ * up. Tickets are held in memory by the node running them and copied to intake_tickets once
+ * accepted (a refused request never touches the database) and when finished, so a status poll may
+ * land on any node; both copies are forgotten {@code case.intake.ticket-ttl-ms} after the ticket
+ * finishes.
+ */
+@Service
+public class CaseIntakeService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CaseIntakeService.class);
+
+    @Autowired
+    private CaseService caseService;
+    @Autowired
+    private CaseWorkflowService caseWorkflowService;
+    @Autowired
+    private IntakeTicketRepository ticketRepository;
+    @Autowired
+    private CaseRepository caseRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private ObjectProvider<MeterRegistry> meterRegistry;
+
+    @Value("${case.intake.queue-capacity:1000}")
+    private int queueCapacity;
+
+    @Value("${case.intake.validate.threads:1}")
+    private int validateThreads;
+
+    @Value("${case.intake.persist.threads:4}")
+    private int persistThreads;
+
+    @Value("${case.intake.audit.threads:2}")
+    private int auditThreads;
+
+    @Value("${case.intake.workflow.threads:2}")
+    private int workflowThreads;
+
+    // Off by default: cases created through POST /api/cases do not start a process either
+    @Value("${case.intake.start-workflow:false}")
+    private boolean startWorkflow;
+
+    @Value("${case.intake.ticket-ttl-ms:600000}")
+    private long ticketTtlMillis;
+
+    @Value("${case.intake.shutdown-timeout-ms:30000}")
+    private long shutdownTimeoutMillis;
+
+    private final Map<UUID, IntakeTicket> tickets = new ConcurrentHashMap<>();
+    private final List<PipelineStage<IntakeTicket>> stages = new ArrayList<>();
+    private volatile boolean accepting;
+
+    @PostConstruct
+    void start() {
+        PipelineStage<IntakeTicket> last = stage("validate", validateThreads, ticket -> {
+            caseService.validateCaseRequest(ticket.getRequest());
+            ticket.advance(IntakeTicket.Status.VALIDATED);
+        });
+        last = last.then(stage("persist", persistThreads,
+            ticket -> ticket.persisted(caseService.insertCase(ticket.getRequest(), ticket.getCreatedBy()))));
+        last = last.then(stage("audit", auditThreads, ticket -> {
+            caseService.logCaseCreated(ticket.getCaseModel());
+            ticket.advance(startWorkflow ? IntakeTicket.Status.AUDITED : IntakeTicket.Status.COMPLETED);
+            if (ticket.isFinished()) {
+                share(ticket);
+            }
+        }));
+        if (startWorkflow) {
+            last.then(stage("workflow", workflowThreads, ticket -> {
+                String processInstanceId = caseWorkflowService.startCaseWorkflow(ticket.getCaseModel());
+                caseService.attachProcessInstance(ticket.getCaseModel().getId(), processInstanceId);
+                ticket.advance(IntakeTicket.Status.COMPLETED);
+                share(ticket);
+            }));
+        }
+        stages.forEach(PipelineStage::start);
+        meterRegistry.ifAvailable(registry -> stages.forEach(stage ->
+            Gauge.builder("case.intake.queue.depth", stage, PipelineStage::depth)
+                .tag("stage", stage.name())
+                .register(registry)));
+        accepting = true;
+    }
+
+    /**
+     * Queues a case for creation. Empty when the pipeline is full (or shutting down) and the
+     * caller should retry later.
+     */
+    public Optional<IntakeTicket> submit(CaseRequestDto request, String createdBy) {
+        if (!accepting) {
+            return Optional.empty();
+        }
+        IntakeTicket ticket = new IntakeTicket(request, createdBy);
+        tickets.put(ticket.getId(), ticket);
+        if (!stages.get(0).offer(ticket)) {
+            // Refused without touching the database
+            tickets.remove(ticket.getId());
+            return Optional.empty();
+        }
+        try {
+            ticketRepository.save(new IntakeTicketModel(ticket.getId(), IntakeTicket.Status.QUEUED.name(), createdBy,
+                ticket.getReceivedAt(), ticket.getReceivedAt().plus(Duration.ofMillis(ticketTtlMillis))));
+        } catch (DataIntegrityViolationException e) {
+            // The pipeline finished first and recorded the final status
+        } catch (RuntimeException e) {
+            logger.warn("Could not record intake ticket {}: {}", ticket.getId(), e.getMessage());
+        }
+        return Optional.of(ticket);
+    }
+
+    /**
+     * The ticket as this node sees it if it is running it, otherwise as last recorded by the node
+     * that is.
+     */
+    public Optional<IntakeTicket> ticket(UUID ticketId) {
+        IntakeTicket local = tickets.get(ticketId);
+        if (local != null) {
+            return Optional.of(local);
+        }
+        return ticketRepository.findById(ticketId)
+            .filter(stored -> stored.getExpiresAt().isAfter(LocalDateTime.now()))
+            .map(stored -> new IntakeTicket(stored,
+                stored.getCaseId() != null ? caseRepository.findById(stored.getCaseId()).orElse(null) : null));
+    }
+
+    public int inFlight() {
+        return stages.stream().mapToInt(PipelineStage::inFlight).sum();
+    }
+
+    @Scheduled(fixedDelay = 60_000)
+    public void forgetFinishedTickets() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(Duration.ofMillis(ticketTtlMillis));
+        tickets.values().removeIf(ticket -> ticket.isFinished() && ticket.getFinishedAt().isBefore(cutoff));
+        transactionTemplate.execute(status -> ticketRepository.deleteExpired(LocalDateTime.now()));
+    }
+
+    // Lets accepted requests finish before the database goes away
+    @PreDestroy
+    void stop() throws InterruptedException {
+        accepting = false;
+        long deadline = System.currentTimeMillis() + shutdownTimeoutMillis;
+        while (inFlight() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        if (inFlight() > 0) {
+            logger.warn("Stopping case intake with {} requests unfinished", inFlight());
+        }
+        stages.forEach(PipelineStage::stop);
+    }
+
+    // Final status for status polls answered by other nodes. The row is inserted here instead if
+    // submit has not written it yet; its own insert then fails on the key and leaves this one.
+    private void share(IntakeTicket ticket) {
+        UUID caseId = ticket.getCaseModel() != null ? ticket.getCaseModel().getId() : null;
+        LocalDateTime expiresAt = ticket.getFinishedAt().plus(Duration.ofMillis(ticketTtlMillis));
+        try {
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    if (finish(ticket, caseId, expiresAt) == 0) {
+                        IntakeTicketModel stored = new IntakeTicketModel(ticket.getId(), ticket.getStatus().name(),
+                            ticket.getCreatedBy(), ticket.getReceivedAt(), expiresAt);
+                        stored.setCaseId(caseId);
+                        stored.setFailedStage(ticket.getFailedStage());
+                        stored.setError(ticket.getError());
+                        stored.setFinishedAt(ticket.getFinishedAt());
+                        ticketRepository.saveAndFlush(stored);
+                    }
+                });
+            } catch (DataIntegrityViolationException e) {
+                // submit inserted the row in the meantime
+                transactionTemplate.executeWithoutResult(status -> finish(ticket, caseId, expiresAt));
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Could not record intake ticket {} as {}: {}", ticket.getId(), ticket.getStatus(), e.getMessage());
+        }
+    }
+
+    private int finish(IntakeTicket ticket, UUID caseId, LocalDateTime expiresAt) {
+        return ticketRepository.finish(ticket.getId(), ticket.getStatus().name(), caseId, ticket.getFailedStage(),
+            ticket.getError(), ticket.getFinishedAt(), expiresAt);
+    }
+
+    private PipelineStage<IntakeTicket> stage(String name, int threads, Consumer<IntakeTicket> handler) {
+        PipelineStage<IntakeTicket> stage = new PipelineStage<>(name, queueCapacity, threads, handler, (ticket, e) -> {
+            if (e instanceof IllegalArgumentException) {
+                logger.debug("Case intake {} rejected at {}: {}", ticket.getId(), name, e.getMessage());
+            } else {
+                logger.warn("Case intake {} failed at {}: {}", ticket.getId(), name, e.getMessage());
+            }
+            ticket.fail(name, e.getMessage());
+            share(ticket);
+        });
+        stages.add(stage);
+        return stage;
+    }
+}
@@ -4,18 +4,26 @@ import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.example.alert_detect_system.Model.CaseModel;
 import com.example.alert_detect_system.Model.CaseStatus;
 import com.example.alert_detect_system.dto.CaseRequestDto;
+import com.example.alert_detect_system.profiling.CaseActionEvent;
 import com.example.alert_detect_system.repo.CaseRepository;
+import com.example.alert_detect_system.workflow.CaseStateMachine;
+
+import jakarta.annotation.PostConstruct;
 
 @Service
 @Transactional
@@ -28,73 +36,168 @@ public class CaseService {
     private AuditService auditService;
     @Autowired
     private TaskService taskService;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    @Autowired
+    private CaseStateMachine stateMachine;
 
-    private static final List<String> VALID_CASE_TYPES = List.of(
+    // Concurrent status writers are resolved by conditional UPDATEs; losers re-read and retry this often
+    private static final int MAX_TRANSITION_ATTEMPTS = 3;
+
+    private static final Set<String> VALID_CASE_TYPES = Set.of(
         "FRAUD_DETECTION", "MONEY_LAUNDERING", "SUSPICIOUS_ACTIVITY", "COMPLIANCE_VIOLATION",
         "AML", "FRAUD", "COMPLIANCE", "SANCTIONS", "KYC"
     );
-    private static final List<String> VALID_PRIORITIES = List.of(
+    private static final Set<String> VALID_PRIORITIES = Set.of(
         "LOW", "MEDIUM", "HIGH", "CRITICAL"
     );
-    private static final List<String> VALID_TYPOLOGIES = List.of(
+    private static final Set<String> VALID_TYPOLOGIES = Set.of(
         "MONEY_LAUNDERING", "TERRORIST_FINANCING", "FRAUD", "SANCTIONS_VIOLATION"
     );
 
+    // Side effects of entering a status live here rather than at each call site
+    @PostConstruct
+    void registerTransitionHooks() {
+        stateMachine.onEnter(CaseStatus.PENDING_CASE_CREATION_APPROVAL,
+            (caseModel, from, to, actor) -> createApprovalTask(caseModel.getId(), actor));
+        stateMachine.onEnter(CaseStatus.ABANDONED,
+            (caseModel, from, to, actor) -> taskService.closeDraftTaskForCase(caseModel.getId()));
+    }
+
     public CaseModel createCase(CaseRequestDto caseRequest, String createdBy) {
         logger.info("Creating new case for user: {}", createdBy);
         validateCaseRequest(caseRequest);
+        CaseModel savedCase = caseRepository.save(newCase(caseRequest, createdBy));
+        logCaseCreated(savedCase);
+        eventPublisher.publishEvent(new CaseChangedEvent(savedCase.getId(), CaseChangedEvent.ChangeType.CREATED, savedCase));
+        logger.info("Case created successfully with ID: {}", savedCase.getId());
+        return savedCase;
+    }
+
+    // The steps of createCase, run as separate transactions by the intake pipeline (CaseIntakeService)
+
+    public CaseModel insertCase(CaseRequestDto caseRequest, String createdBy) {
+        CaseModel savedCase = caseRepository.save(newCase(caseRequest, createdBy));
+        eventPublisher.publishEvent(new CaseChangedEvent(savedCase.getId(), CaseChangedEvent.ChangeType.CREATED, savedCase));
+        return savedCase;
+    }
+
+    public void logCaseCreated(CaseModel createdCase) {
+        auditService.logCaseAction(createdCase.getId(), "CASE_CREATED", createdCase.getCreatedBy(),
+            "Case created with ID: " + createdCase.getId());
+    }
+
+    public CaseModel attachProcessInstance(UUID caseId, String processInstanceId) {
+        CaseModel existingCase = getCaseById(caseId)
+            .orElseThrow(() -> new IllegalArgumentException("Case not found with ID: " + caseId));
+        CaseChangedEvent.Snapshot before = CaseChangedEvent.Snapshot.of(existingCase);
+        existingCase.setProcessInstanceId(processInstanceId);
+        CaseModel savedCase = caseRepository.save(existingCase);
+        eventPublisher.publishEvent(new CaseChangedEvent(caseId, CaseChangedEvent.ChangeType.UPDATED, savedCase, before));
+        return savedCase;
+    }
+
+    private CaseModel newCase(CaseRequestDto caseRequest, String createdBy) {
         CaseModel newCase = new CaseModel();
         newCase.setCaseNumber(generateCaseNumber());
         updateCaseFields(newCase, caseRequest);
         newCase.setCreatedBy(createdBy);
         newCase.setStatus(CaseStatus.DRAFT);
-        CaseModel savedCase = caseRepository.save(newCase);
-        auditService.logCaseAction(savedCase.getId(), "CASE_CREATED", createdBy, 
-            "Case created with ID: " + savedCase.getId());
-        logger.info("Case created successfully with ID: {}", savedCase.getId());
-        return savedCase;
+        return newCase;
     }
 
     public CaseModel updateCase(UUID caseId, CaseRequestDto updateRequest, String updatedBy) {
         logger.info("Updating case: {} by user: {}", caseId, updatedBy);
         CaseModel existingCase = getCaseById(caseId)
             .orElseThrow(() -> new IllegalArgumentException("Case not found with ID: " + caseId));
+        if (updateRequest.getVersion() != null && !updateRequest.getVersion().equals(existingCase.getVersion())) {
+            throw new OptimisticLockingFailureException("Case " + caseId + " was modified by another user (expected version "
+                + updateRequest.getVersion() + ", current " + existingCase.getVersion() + ")");
+        }
         validateCaseRequest(updateRequest);
+        CaseChangedEvent.Snapshot before = CaseChangedEvent.Snapshot.of(existingCase);
         updateCaseFields(existingCase, updateRequest);
         existingCase.setUpdatedAt(LocalDateTime.now());
+        // @Version turns a concurrent edit into an OptimisticLockingFailureException on flush
         CaseModel savedCase = caseRepository.save(existingCase);
         auditService.logCaseAction(caseId, "CASE_UPDATED", updatedBy, "Case fields updated");
+        eventPublisher.publishEvent(new CaseChangedEvent(caseId, CaseChangedEvent.ChangeType.UPDATED, savedCase, before));
         return savedCase;
     }
 
+    /**
+     * Moves the case to newStatus from whatever status it is in now, if the state machine allows it.
+     * Lost races against other writers are re-validated and retried a bounded number of times.
+     */
     public CaseModel updateCaseStatus(UUID caseId, CaseStatus newStatus, String updatedBy) {
         logger.info("Updating case status: {} to {} by user: {}", caseId, newStatus, updatedBy);
-        CaseModel existingCase = getCaseById(caseId)
+        for (int attempt = 1; attempt <= MAX_TRANSITION_ATTEMPTS; attempt++) {
+            CaseModel existingCase = getCaseById(caseId)
+                .orElseThrow(() -> new IllegalArgumentException("Case not found with ID: " + caseId));
+            Optional<CaseModel> updated = applyTransition(caseId, existingCase, existingCase.getStatus(), newStatus, updatedBy);
+            if (updated.isPresent()) {
+                return updated.get();
+            }
+            logger.debug("Case {} changed status concurrently, retrying ({}/{})", caseId, attempt, MAX_TRANSITION_ATTEMPTS);
+        }
+        throw new OptimisticLockingFailureException("Case " + caseId + " is being updated concurrently, please retry");
+    }
+
+    /**
+     * Compare-and-set status change: a single conditional UPDATE that only succeeds if the case is
+     * still in expectedStatus. Returns empty when another writer got there first.
+     */
+    public Optional<CaseModel> transitionStatus(UUID caseId, CaseStatus expectedStatus, CaseStatus newStatus, String updatedBy) {
+        // Only guarded transitions need the case itself
+        CaseModel snapshot = stateMachine.hasGuards(expectedStatus, newStatus) ? getCaseById(caseId).orElse(null) : null;
+        return applyTransition(caseId, snapshot, expectedStatus, newStatus, updatedBy);
+    }
+
+    private Optional<CaseModel> applyTransition(UUID caseId, CaseModel snapshot, CaseStatus expectedStatus,
+                                                CaseStatus newStatus, String updatedBy) {
+        if (!stateMachine.apply(caseId, snapshot, expectedStatus, newStatus, updatedBy)) {
+            return Optional.empty();
+        }
+        CaseModel savedCase = getCaseById(caseId)
             .orElseThrow(() -> new IllegalArgumentException("Case not found with ID: " + caseId));
-        CaseStatus oldStatus = existingCase.getStatus();
-        existingCase.setStatus(newStatus);
-        existingCase.setUpdatedAt(LocalDateTime.now());
-        CaseModel savedCase = caseRepository.save(existingCase);
-        logger.info("Case status updated and saved. Case ID: {}, Old Status: {}, New Status: {}", caseId, oldStatus, newStatus);
-        auditService.logCaseStatusChange(caseId, updatedBy, oldStatus.toString(), newStatus.toString());
-        return savedCase;
+        logger.info("Case status updated and saved. Case ID: {}, Old Status: {}, New Status: {}", caseId, expectedStatus, newStatus);
+        auditService.logCaseStatusChange(caseId, updatedBy, expectedStatus.toString(), newStatus.toString());
+        stateMachine.fireHooks(savedCase, expectedStatus, newStatus, updatedBy);
+        eventPublisher.publishEvent(new CaseChangedEvent(caseId, CaseChangedEvent.ChangeType.STATUS_CHANGED, savedCase,
+            CaseChangedEvent.Snapshot.of(savedCase).withStatus(expectedStatus)));
+        return Optional.of(savedCase);
     }
 
     public CaseModel performCaseAction(UUID caseId, String action, CaseRequestDto updateRequest, 
                                      String performedBy, Map<String, Object> params) {
+        CaseActionEvent event = new CaseActionEvent();
+        event.begin();
+        boolean succeeded = false;
+        try {
+            CaseModel result = applyCaseAction(caseId, action, updateRequest, performedBy, params);
+            succeeded = true;
+            return result;
+        } finally {
+            event.finish(caseId, action, performedBy, succeeded);
+        }
+    }
+
+    private CaseModel applyCaseAction(UUID caseId, String action, CaseRequestDto updateRequest,
+                                      String performedBy, Map<String, Object> params) {
         switch (action.toLowerCase()) {
             case "update":
                 return updateCase(caseId, updateRequest, performedBy);
             case "complete":
                 logger.debug("[SERVICE] Performing COMPLETE action for caseId: {} by user: {}", caseId, performedBy);
+                // The approval task is created by the PENDING_CASE_CREATION_APPROVAL hook
                 CaseModel completedCase = updateCaseStatus(caseId, CaseStatus.PENDING_CASE_CREATION_APPROVAL, performedBy);
                 logger.debug("[SERVICE] Case after status update: {}", completedCase);
-                createApprovalTask(caseId, performedBy);
                 return completedCase;
             case "approve":
                 boolean approved = (Boolean) params.getOrDefault("approved", false);
                 CaseStatus newStatus = approved ? CaseStatus.READY_FOR_ASSIGNMENT : CaseStatus.REJECTED;
-                return updateCaseStatus(caseId, newStatus, performedBy);
+                return transitionStatus(caseId, CaseStatus.PENDING_CASE_CREATION_APPROVAL, newStatus, performedBy)
+                    .orElseThrow(() -> new OptimisticLockingFailureException("Case " + caseId + " is no longer pending approval"));
             case "status":
                 CaseStatus status = (CaseStatus) params.get("status");
                 return updateCaseStatus(caseId, status, performedBy);
@@ -103,22 +206,27 @@ public class CaseService {
         }
     }
 
+    @Transactional(readOnly = true)
     public Optional<CaseModel> getCaseById(UUID caseId) {
         return caseRepository.findById(caseId);
     }
 
+    @Transactional(readOnly = true)
     public List<CaseModel> getAllCases() {
         return caseRepository.findAll();
     }
 
+    @Transactional(readOnly = true)
     public List<CaseModel> getCasesByStatus(CaseStatus status) {
         return caseRepository.findByStatus(status);
     }
 
+    @Transactional(readOnly = true)
     public List<CaseModel> getCasesByCreatedBy(String createdBy) {
         return caseRepository.findByCreatedBy(createdBy);
     }
 
+    @Transactional(readOnly = true)
     public List<CaseModel> getRecentCases(int limit) {
         return caseRepository.findAllByOrderByCreatedAtDesc()
             .stream()
@@ -126,6 +234,7 @@ public class CaseService {
             .toList();
     }
 
+    @Transactional(readOnly = true)
     public List<CaseModel> getRecentCasesByUser(String createdBy, int limit) {
         return caseRepository.findByCreatedByOrderByCreatedAtDesc(createdBy)
             .stream()
@@ -140,6 +249,8 @@ public class CaseService {
         auditService.logCaseAction(caseId, "CASE_DELETED", deletedBy, 
             "Case deleted: " + existingCase.getCaseNumber());
         caseRepository.delete(existingCase);
+        eventPublisher.publishEvent(new CaseChangedEvent(caseId, CaseChangedEvent.ChangeType.DELETED, null,
+            CaseChangedEvent.Snapshot.of(existingCase)));
         logger.info("Case deleted successfully: {}", caseId);
     }
 
@@ -157,7 +268,9 @@ public class CaseService {
         if (updateRequest.getTypology() != null) caseModel.setTypology(updateRequest.getTypology());
     }
 
-    private void validateCaseRequest(CaseRequestDto caseRequest) {
+    // No database work: the intake pipeline validates without holding a connection
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public void validateCaseRequest(CaseRequestDto caseRequest) {
         if (caseRequest.getCaseType() != null && !VALID_CASE_TYPES.contains(caseRequest.getCaseType())) {
             throw new IllegalArgumentException("Invalid case type: " + caseRequest.getCaseType());
         }
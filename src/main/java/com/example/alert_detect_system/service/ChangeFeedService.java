@@ -0,0 +1,163 @@
+package com.example.alert_detect_system.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.example.alert_detect_system.Model.AuditLogModel;
+import com.example.alert_detect_system.Model.CaseModel;
+import com.example.alert_detect_system.Model.DomainEventModel;
+import com.example.alert_detect_system.Model.TaskModel;
+import com.example.alert_detect_system.eventstore.AggregateType;
+import com.example.alert_detect_system.repo.AuditLogRepo;
+import com.example.alert_detect_system.repo.CaseRepository;
+import com.example.alert_detect_system.repo.DomainEventRepository;
+import com.example.alert_detect_system.repo.TaskRepository;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Tells this node's in-memory views (search index, task inbox, list ETags) about writes committed
+ * by other nodes. Every write to a case or task appends to domain_events and every audit record
+ * is a row in Audit_log, so the feed polls both tables for rows stamped since its last poll, less
+ * {@code cluster.change-feed.overlap-ms}: a row is stamped before its transaction commits, and
+ * node clocks differ. Rows already seen, including this node's own writes, are skipped; for the
+ * rest the current case and task rows are read back and published as a {@link RemoteChangesEvent}.
+ *
+ * Flowable user tasks leave no domain event, so the feed also compares a fingerprint of
+ * ACT_RU_TASK, the way {@link DirectoryService} watches the IDM tables.
+ */
+@Service
+public class ChangeFeedService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChangeFeedService.class);
+    // A task created, changed (REV_) or removed moves at least one of the three
+    private static final String WORKFLOW_TASKS_FINGERPRINT_SQL =
+        "SELECT COUNT(*), COALESCE(SUM(REV_), 0), MAX(CREATE_TIME_) FROM ACT_RU_TASK";
+
+    @Autowired
+    private DomainEventRepository eventRepository;
+    @Autowired
+    private AuditLogRepo auditLogRepository;
+    @Autowired
+    private CaseRepository caseRepository;
+    @Autowired
+    private TaskRepository taskRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${cluster.change-feed.overlap-ms:10000}")
+    private long overlapMillis;
+
+    @Value("${cluster.change-feed.page-size:500}")
+    private int pageSize;
+
+    // Domain event and audit row ids within the overlap window that need no further work
+    private final Map<UUID, LocalDateTime> seen = new ConcurrentHashMap<>();
+    private LocalDateTime since;
+    private String workflowTasksFingerprint;
+
+    @PostConstruct
+    void init() {
+        since = LocalDateTime.now();
+    }
+
+    /**
+     * Records a row this node wrote itself; its local listeners have already applied it.
+     */
+    public void markSeen(UUID id, LocalDateTime stampedAt) {
+        seen.put(id, stampedAt);
+    }
+
+    @EventListener
+    public void onAuditLogged(AuditLoggedEvent event) {
+        markSeen(event.auditLog().getId(), event.auditLog().getTimestamp());
+    }
+
+    /**
+     * Reads what other nodes wrote since the previous poll and publishes it. Returns the number of
+     * new domain events and audit rows found.
+     */
+    @Scheduled(fixedDelayString = "${cluster.change-feed.poll-interval-ms:1000}")
+    public synchronized int poll() {
+        LocalDateTime startedAt = LocalDateTime.now();
+        LocalDateTime from = since.minusNanos(overlapMillis * 1_000_000);
+
+        // Only marked seen once published, so a failed poll is repeated in full
+        Map<UUID, LocalDateTime> found = new HashMap<>();
+        Set<UUID> caseIds = new LinkedHashSet<>();
+        Set<UUID> taskIds = new LinkedHashSet<>();
+        List<DomainEventModel> events;
+        int page = 0;
+        do {
+            events = eventRepository.findByOccurredAtGreaterThanEqualOrderByOccurredAtAscIdAsc(from, PageRequest.of(page++, pageSize));
+            for (DomainEventModel event : events) {
+                if (seen.containsKey(event.getId()) || found.putIfAbsent(event.getId(), event.getOccurredAt()) != null) {
+                    continue;
+                }
+                (AggregateType.CASE.name().equals(event.getAggregateType()) ? caseIds : taskIds).add(event.getAggregateId());
+            }
+        } while (events.size() == pageSize);
+
+        List<AuditLogModel> auditLogs = new ArrayList<>();
+        List<AuditLogModel> rows;
+        page = 0;
+        do {
+            rows = auditLogRepository.findByTimestampGreaterThanEqualOrderByTimestampAscIdAsc(from, PageRequest.of(page++, pageSize));
+            for (AuditLogModel row : rows) {
+                if (!seen.containsKey(row.getId()) && found.putIfAbsent(row.getId(), row.getTimestamp()) == null) {
+                    auditLogs.add(row);
+                }
+            }
+        } while (rows.size() == pageSize);
+
+        String fingerprint = workflowTasksFingerprint();
+        boolean workflowTasksChanged = workflowTasksFingerprint != null && !workflowTasksFingerprint.equals(fingerprint);
+
+        // The cases and tasks as they are now, which is at least as new as the events found
+        List<CaseModel> cases = caseRepository.findAllById(caseIds);
+        Set<UUID> deletedCases = new LinkedHashSet<>(caseIds);
+        cases.forEach(caseModel -> deletedCases.remove(caseModel.getId()));
+        List<TaskModel> tasks = taskRepository.findAllById(taskIds);
+        Set<UUID> deletedTasks = new LinkedHashSet<>(taskIds);
+        tasks.forEach(task -> deletedTasks.remove(task.getId()));
+
+        RemoteChangesEvent changes = new RemoteChangesEvent(cases, deletedCases, tasks, deletedTasks, auditLogs, workflowTasksChanged);
+        if (!changes.isEmpty()) {
+            logger.debug("Change feed: {} cases, {} tasks, {} audit rows changed elsewhere", caseIds.size(), taskIds.size(), auditLogs.size());
+            eventPublisher.publishEvent(changes);
+        }
+        workflowTasksFingerprint = fingerprint;
+        seen.putAll(found);
+        since = startedAt;
+        LocalDateTime forgetBefore = startedAt.minusNanos(overlapMillis * 1_000_000);
+        seen.values().removeIf(stampedAt -> stampedAt.isBefore(forgetBefore));
+        return found.size();
+    }
+
+    private String workflowTasksFingerprint() {
+        return jdbcTemplate.queryForList(WORKFLOW_TASKS_FINGERPRINT_SQL).get(0).values().stream()
+            .map(String::valueOf)
+            .collect(Collectors.joining(":"));
+    }
+}
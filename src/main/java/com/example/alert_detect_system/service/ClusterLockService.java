@@ -0,0 +1,169 @@
+package com.example.alert_detect_system.service;
+
+import java.net.InetAddress;
+import java.time.Duration;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.alert_detect_system.Model.ClusterLockModel;
+import com.example.alert_detect_system.repo.ClusterLockRepository;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Coordinates application nodes sharing one database through leases in the cluster_locks table:
+ * named locks for one-shot work (process deployment, rebuilds) and a "leader" lease, renewed in
+ * the background, for jobs that must run on exactly one node.
+ *
+ * Leases are compared against each node's wall clock, so clocks must be kept in sync (NTP) to
+ * well within the lease length. Lock operations commit in their own transaction, independent of
+ * the caller's.
+ */
+@Service
+public class ClusterLockService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ClusterLockService.class);
+    public static final String LEADER_LOCK = "leader";
+
+    @Autowired
+    private ClusterLockRepository clusterLockRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${cluster.node-id:}")
+    private String configuredNodeId;
+
+    @Value("${cluster.leader.lease-ms:15000}")
+    private long leaderLeaseMillis;
+
+    private final Set<String> runningLocally = ConcurrentHashMap.newKeySet();
+    private TransactionTemplate ownTransaction;
+    private String nodeId;
+    // Local deadline of the current leader lease; 0 when this node is not the leader
+    private volatile long leaderUntil;
+
+    @PostConstruct
+    void init() {
+        ownTransaction = new TransactionTemplate(transactionManager);
+        ownTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        nodeId = configuredNodeId.isBlank() ? defaultNodeId() : configuredNodeId;
+        logger.info("Cluster node id {}", nodeId);
+    }
+
+    public String nodeId() {
+        return nodeId;
+    }
+
+    /**
+     * Acquires the named lock, or extends it if this node already holds it. Returns false while
+     * another node holds an unexpired lease.
+     */
+    public boolean tryLock(String name, Duration lease) {
+        long now = System.currentTimeMillis();
+        long until = now + lease.toMillis();
+        ensureExists(name);
+        Boolean acquired = ownTransaction.execute(status ->
+            clusterLockRepository.renew(name, nodeId, now, until) > 0
+                || clusterLockRepository.takeOver(name, nodeId, now, until) > 0);
+        return Boolean.TRUE.equals(acquired);
+    }
+
+    public void release(String name) {
+        ownTransaction.executeWithoutResult(status -> clusterLockRepository.release(name, nodeId));
+    }
+
+    /**
+     * Runs the task if the named lock can be taken, releasing it afterwards. The lease must
+     * outlast the task; past it another node may start the same work. Other threads of this node
+     * are kept out too, although the lease would let them renew it.
+     */
+    public boolean runExclusively(String name, Duration lease, Runnable task) {
+        if (!runningLocally.add(name)) {
+            return false;
+        }
+        try {
+            if (!tryLock(name, lease)) {
+                return false;
+            }
+            try {
+                task.run();
+                return true;
+            } finally {
+                release(name);
+            }
+        } finally {
+            runningLocally.remove(name);
+        }
+    }
+
+    public boolean isLeader() {
+        return System.currentTimeMillis() < leaderUntil;
+    }
+
+    @Scheduled(fixedDelayString = "${cluster.leader.renew-interval-ms:5000}")
+    public void maintainLeadership() {
+        long start = System.currentTimeMillis();
+        boolean wasLeader = isLeader();
+        boolean held;
+        try {
+            held = tryLock(LEADER_LOCK, Duration.ofMillis(leaderLeaseMillis));
+        } catch (RuntimeException e) {
+            // Cannot prove we still hold the lease: step down now, others take over once it expires
+            logger.warn("Could not renew leader lease: {}", e.getMessage());
+            held = false;
+        }
+        leaderUntil = held ? start + leaderLeaseMillis : 0;
+        if (held != wasLeader) {
+            logger.info(held ? "Node {} became cluster leader" : "Node {} is no longer cluster leader", nodeId);
+        }
+    }
+
+    // Lets another node take over immediately instead of waiting out the lease
+    @PreDestroy
+    public void resign() {
+        if (leaderUntil == 0) {
+            return;
+        }
+        leaderUntil = 0;
+        try {
+            release(LEADER_LOCK);
+            logger.info("Node {} resigned cluster leadership", nodeId);
+        } catch (RuntimeException e) {
+            logger.warn("Could not release leader lease: {}", e.getMessage());
+        }
+    }
+
+    private void ensureExists(String name) {
+        if (clusterLockRepository.existsById(name)) {
+            return;
+        }
+        try {
+            ownTransaction.executeWithoutResult(status -> clusterLockRepository.saveAndFlush(new ClusterLockModel(name)));
+        } catch (DataIntegrityViolationException e) {
+            // Another node inserted it first
+        }
+    }
+
+    private static String defaultNodeId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            host = "node";
+        }
+        return host + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+}
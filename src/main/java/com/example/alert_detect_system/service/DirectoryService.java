@@ -0,0 +1,231 @@
+package com.example.alert_detect_system.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.flowable.engine.IdentityService;
+import org.flowable.idm.api.Group;
+import org.flowable.idm.api.User;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.alert_detect_system.directory.DirectorySnapshot;
+import com.example.alert_detect_system.directory.DirectorySnapshot.DirectoryGroup;
+import com.example.alert_detect_system.directory.DirectorySnapshot.DirectoryUser;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Users, groups and roles from Flowable IDM, held in memory so assignment validation and approval
+ * checks never query the database. Changes made through this service are applied to the snapshot
+ * right away; changes made elsewhere (other nodes, IDM tools) are picked up by a poll of a cheap
+ * fingerprint of the IDM tables, which reloads the directory only when it moved.
+ */
+@Service
+public class DirectoryService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DirectoryService.class);
+    private static final String SEED_LOCK = "directory-seed";
+    // Memberships carry no revision, so the count is the best the fingerprint can do for them;
+    // changes through this service also bump the user's revision
+    private static final String FINGERPRINT_SQL = "SELECT (SELECT COUNT(*) FROM ACT_ID_USER), "
+        + "(SELECT COALESCE(SUM(REV_), 0) FROM ACT_ID_USER), (SELECT COUNT(*) FROM ACT_ID_GROUP), "
+        + "(SELECT COALESCE(SUM(REV_), 0) FROM ACT_ID_GROUP), (SELECT COUNT(*) FROM ACT_ID_MEMBERSHIP)";
+
+    @Autowired
+    private IdentityService identityService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private ClusterLockService clusterLockService;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${directory.approver-group:admin}")
+    private String approverGroup;
+
+    @Value("${directory.admin-role:admin}")
+    private String adminRole;
+
+    // child:parent pairs
+    @Value("${directory.parent-groups:}")
+    private String parentGroups;
+
+    @Value("${directory.seed-groups:}")
+    private String seedGroups;
+
+    @Value("${directory.seed-users:}")
+    private String seedUsers;
+
+    private volatile DirectorySnapshot snapshot = DirectorySnapshot.empty();
+    private volatile String fingerprint;
+
+    @PostConstruct
+    void init() {
+        if (!seedUsers.isBlank() && identityService.createUserQuery().count() == 0) {
+            clusterLockService.runExclusively(SEED_LOCK, Duration.ofMinutes(1), () -> transactionTemplate.executeWithoutResult(status -> seed()));
+        }
+        reload();
+    }
+
+    public DirectorySnapshot snapshot() {
+        return snapshot;
+    }
+
+    public boolean isUser(String userId) {
+        return snapshot.hasUser(userId);
+    }
+
+    public boolean isMember(String userId, String groupId) {
+        return snapshot.isMember(userId, groupId);
+    }
+
+    public boolean hasRole(String userId, String role) {
+        return snapshot.hasRole(userId, role);
+    }
+
+    public boolean canApprove(String userId) {
+        return snapshot.isMember(userId, approverGroup);
+    }
+
+    /**
+     * Whether the user may change group memberships: holders of the admin role and approvers.
+     */
+    public boolean canManageMembership(String userId) {
+        return hasRole(userId, adminRole) || canApprove(userId);
+    }
+
+    public String approverGroup() {
+        return approverGroup;
+    }
+
+    public void addMembership(String userId, String groupId) {
+        changeMembership(userId, groupId, true);
+    }
+
+    public void removeMembership(String userId, String groupId) {
+        changeMembership(userId, groupId, false);
+    }
+
+    @Scheduled(fixedDelayString = "${directory.refresh-interval-ms:30000}")
+    public void refreshIfChanged() {
+        if (!currentFingerprint().equals(fingerprint)) {
+            reload();
+        }
+    }
+
+    /**
+     * Reads the whole directory from IDM: three queries, whatever its size.
+     */
+    public synchronized void reload() {
+        // Taken first, so a change made while loading shows up as a difference on the next poll
+        String loadedFingerprint = currentFingerprint();
+        List<DirectoryUser> users = identityService.createUserQuery().list().stream()
+            .map(user -> new DirectoryUser(user.getId(), user.getFirstName(), user.getLastName(), user.getEmail()))
+            .toList();
+        List<DirectoryGroup> groups = identityService.createGroupQuery().list().stream()
+            .map(group -> new DirectoryGroup(group.getId(), group.getName(), group.getType()))
+            .toList();
+        Map<String, List<String>> memberships = new HashMap<>();
+        jdbcTemplate.query("SELECT USER_ID_, GROUP_ID_ FROM ACT_ID_MEMBERSHIP",
+            row -> { memberships.computeIfAbsent(row.getString(1), k -> new ArrayList<>()).add(row.getString(2)); });
+        snapshot = DirectorySnapshot.of(users, groups, memberships, pairs(parentGroups));
+        fingerprint = loadedFingerprint;
+        logger.info("Loaded directory: {} users, {} groups", users.size(), groups.size());
+    }
+
+    private synchronized void changeMembership(String userId, String groupId, boolean member) {
+        User user = identityService.createUserQuery().userId(userId).singleResult();
+        if (user == null) {
+            throw new IllegalArgumentException("Unknown user: " + userId);
+        }
+        if (identityService.createGroupQuery().groupId(groupId).count() == 0) {
+            throw new IllegalArgumentException("Unknown group: " + groupId);
+        }
+        boolean isMember = identityService.createGroupQuery().groupMember(userId).groupId(groupId).count() > 0;
+        if (isMember == member) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            if (member) {
+                identityService.createMembership(userId, groupId);
+            } else {
+                identityService.deleteMembership(userId, groupId);
+            }
+            // Bumps the revision so other nodes' fingerprints change even if the membership count does not
+            identityService.saveUser(user);
+        });
+
+        if (!snapshot.hasUser(userId) || !snapshot.hasGroup(groupId)) {
+            // Created elsewhere since the last load
+            reload();
+        } else {
+            Set<String> groups = new LinkedHashSet<>(snapshot.directGroupsOf(userId));
+            if (member) {
+                groups.add(groupId);
+            } else {
+                groups.remove(groupId);
+            }
+            snapshot = snapshot.withMemberships(userId, groups);
+        }
+        logger.info("{} {} {} group {}", member ? "Added" : "Removed", userId, member ? "to" : "from", groupId);
+    }
+
+    private String currentFingerprint() {
+        return jdbcTemplate.queryForList(FINGERPRINT_SQL).get(0).values().stream()
+            .map(String::valueOf)
+            .collect(Collectors.joining(":"));
+    }
+
+    // "groupId:type,..." groups and "userId:First Last:group|group,..." users
+    private void seed() {
+        if (identityService.createUserQuery().count() > 0) {
+            return;
+        }
+        pairs(seedGroups).forEach((id, type) -> {
+            Group group = identityService.newGroup(id);
+            group.setName(id);
+            group.setType(type);
+            identityService.saveGroup(group);
+        });
+        for (String entry : seedUsers.split(",")) {
+            String[] parts = entry.trim().split(":");
+            User user = identityService.newUser(parts[0]);
+            if (parts.length > 1) {
+                String[] names = parts[1].trim().split(" ", 2);
+                user.setFirstName(names[0]);
+                user.setLastName(names.length > 1 ? names[1] : null);
+            }
+            identityService.saveUser(user);
+            if (parts.length > 2) {
+                for (String groupId : parts[2].split("\\|")) {
+                    identityService.createMembership(parts[0], groupId.trim());
+                }
+            }
+        }
+        logger.info("Seeded the empty IDM directory from directory.seed-users");
+    }
+
+    private static Map<String, String> pairs(String spec) {
+        Map<String, String> pairs = new HashMap<>();
+        for (String entry : spec.split(",")) {
+            String[] pair = entry.trim().split(":");
+            if (pair.length == 2) {
+                pairs.put(pair[0].trim(), pair[1].trim());
+            }
+        }
+        return pairs;
+    }
+}
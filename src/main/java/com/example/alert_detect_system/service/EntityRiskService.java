@@ -0,0 +1,338 @@
+package com.example.alert_detect_system.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.alert_detect_system.Model.CaseModel;
+import com.example.alert_detect_system.Model.CaseStatus;
+import com.example.alert_detect_system.Model.EntityRiskProfileModel;
+import com.example.alert_detect_system.repo.CaseRepository;
+import com.example.alert_detect_system.repo.EntityRiskProfileRepository;
+import com.example.alert_detect_system.risk.EntityRiskProfile;
+import com.example.alert_detect_system.risk.EntityRiskTable;
+import com.example.alert_detect_system.rules.EntityRiskLookup;
+
+/**
+ * Keeps per-entity risk aggregates current from case events. Every change is applied as a delta
+ * (remove the case's previous contribution, add the new one), so no update ever re-reads the
+ * entity's cases. The deltas are written behind to entity_risk_profiles: a flush locks the rows
+ * of the entities it touches and adds its deltas to what is stored there, so nodes flushing the
+ * same entity add up instead of overwriting each other. Each node picks up the rows others
+ * changed on a schedule, and a restart loads from the table. Only the highest open risk scores
+ * are kept; an entity whose kept scores have all been closed gets them re-read from its cases
+ * on the next flush.
+ */
+@Service
+public class EntityRiskService implements EntityRiskLookup {
+
+    private static final Logger logger = LoggerFactory.getLogger(EntityRiskService.class);
+    private static final int REBUILD_PAGE_SIZE = 500;
+    // Rows are re-read a while after their change, so a slow commit or clock skew does not hide one
+    private static final Duration REFRESH_OVERLAP = Duration.ofSeconds(30);
+    private static final Set<CaseStatus> CLOSED_STATUSES =
+        EnumSet.of(CaseStatus.COMPLETED, CaseStatus.CLOSED, CaseStatus.REJECTED, CaseStatus.ABANDONED);
+
+    @Autowired
+    private EntityRiskProfileRepository profileRepository;
+    @Autowired
+    private CaseRepository caseRepository;
+    @Autowired
+    private ClusterLockService clusterLockService;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final EntityRiskTable table = new EntityRiskTable();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    // Case contributions added or removed since the last flush, by normalized name; guarded by the write lock
+    private Map<String, List<Delta>> pending = new HashMap<>();
+    // Flushes and refreshes replace table entries from the database; they must not interleave
+    private final Object syncLock = new Object();
+    private LocalDateTime lastRefresh = LocalDateTime.now();
+
+    private record Delta(boolean open, Double riskScore, String typology, boolean added) {
+        void applyTo(EntityRiskTable target, String entity) {
+            if (added) {
+                target.add(entity, open, riskScore, typology);
+            } else {
+                target.remove(entity, open, riskScore, typology);
+            }
+        }
+    }
+
+    public static boolean isOpen(CaseStatus status) {
+        return status == null || !CLOSED_STATUSES.contains(status);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long start = System.currentTimeMillis();
+        if ((profileRepository.count() == 0 && caseRepository.count() > 0)
+                || profileRepository.existsByScoredOpenCasesAndMaxOpenRiskScoreGreaterThan(0, 0.0)) {
+            rebuild();
+            return;
+        }
+        List<EntityRiskProfile> profiles = profileRepository.findAll().stream().map(EntityRiskService::toProfile).toList();
+        lock.writeLock().lock();
+        try {
+            table.clear();
+            profiles.forEach(table::restore);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Entity risk profiles loaded for {} entities in {} ms", profiles.size(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Recomputes every profile from the cases table and replaces the persisted copy.
+     */
+    public int rebuild() {
+        long start = System.currentTimeMillis();
+        EntityRiskTable rebuilt = new EntityRiskTable();
+        Pageable page = PageRequest.of(0, REBUILD_PAGE_SIZE, Sort.by("id"));
+        Page<CaseModel> cases;
+        do {
+            cases = caseRepository.findAll(page);
+            for (CaseModel c : cases) {
+                rebuilt.add(c.getEntity(), isOpen(c.getStatus()), c.getRiskScore(), c.getTypology());
+            }
+            page = cases.nextPageable();
+        } while (cases.hasNext());
+
+        List<EntityRiskProfile> profiles = new ArrayList<>(rebuilt.size());
+        rebuilt.forEach(profiles::add);
+        lock.writeLock().lock();
+        try {
+            table.clear();
+            profiles.forEach(table::restore);
+            pending.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        // Nodes starting together each rebuild in memory; one of them writes the shared copy
+        boolean persisted = clusterLockService.runExclusively("entity-risk-rebuild", Duration.ofMinutes(5), () -> {
+            profileRepository.deleteAllInBatch();
+            profileRepository.saveAll(profiles.stream().map(EntityRiskService::toModel).toList());
+        });
+        if (!persisted) {
+            logger.info("Another node is writing the rebuilt entity risk profiles");
+        }
+        logger.info("Entity risk profiles rebuilt for {} entities in {} ms", profiles.size(), System.currentTimeMillis() - start);
+        return profiles.size();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCaseChanged(CaseChangedEvent event) {
+        CaseChangedEvent.Snapshot previous = event.previous();
+        CaseModel current = event.current();
+        if (previous == null && event.type() != CaseChangedEvent.ChangeType.CREATED) {
+            // Nothing to subtract from; applying only the new side would double count
+            logger.debug("Case change {} for {} carries no previous state, skipping", event.type(), event.caseId());
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (previous != null) {
+                apply(previous.entity(), new Delta(isOpen(previous.status()), previous.riskScore(), previous.typology(), false));
+            }
+            if (current != null) {
+                apply(current.getEntity(), new Delta(isOpen(current.getStatus()), current.getRiskScore(), current.getTypology(), true));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Adds the deltas since the last flush to the stored profiles, in one transaction that holds
+     * their rows locked, and takes the merged result (which includes other nodes' flushes) into
+     * the table. An entity whose last case is gone keeps a zero row, so other nodes see it too.
+     */
+    @Scheduled(fixedDelayString = "${entity-risk.flush-interval-ms:5000}")
+    public void flush() {
+        synchronized (syncLock) {
+            Map<String, List<Delta>> flushing;
+            lock.writeLock().lock();
+            try {
+                if (pending.isEmpty()) {
+                    return;
+                }
+                flushing = pending;
+                pending = new HashMap<>();
+            } finally {
+                lock.writeLock().unlock();
+            }
+            List<EntityRiskProfile> merged;
+            try {
+                merged = transactionTemplate.execute(status -> merge(flushing));
+            } catch (RuntimeException e) {
+                logger.error("Failed to persist entity risk profiles, will retry", e);
+                lock.writeLock().lock();
+                try {
+                    // Older deltas go first, ahead of any that arrived meanwhile
+                    flushing.forEach((entity, deltas) -> pending.merge(entity, deltas, (older, newer) -> {
+                        older.addAll(newer);
+                        return older;
+                    }));
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                return;
+            }
+            replace(merged);
+        }
+    }
+
+    private List<EntityRiskProfile> merge(Map<String, List<Delta>> deltas) {
+        EntityRiskTable scratch = new EntityRiskTable();
+        Map<String, EntityRiskProfileModel> rows = new HashMap<>();
+        for (EntityRiskProfileModel row : profileRepository.findAllForUpdate(deltas.keySet())) {
+            rows.put(row.getEntity(), row);
+            scratch.restore(toProfile(row));
+        }
+        List<EntityRiskProfile> merged = new ArrayList<>(deltas.size());
+        List<EntityRiskProfileModel> changed = new ArrayList<>(deltas.size());
+        deltas.forEach((entity, entityDeltas) -> {
+            entityDeltas.forEach(delta -> delta.applyTo(scratch, entity));
+            if (scratch.needsTopRisks(entity)) {
+                scratch.refillTopRisks(entity, caseRepository.findTopOpenRiskScores(entity, CLOSED_STATUSES,
+                    PageRequest.of(0, EntityRiskTable.DEFAULT_TOP_RISKS)).stream().mapToDouble(Double::doubleValue).toArray());
+            }
+            EntityRiskProfile profile = scratch.profile(entity);
+            if (profile == null) {
+                // Only removals for an entity nobody stored; nothing to write
+                return;
+            }
+            merged.add(profile);
+            EntityRiskProfileModel row = rows.get(entity);
+            changed.add(row != null ? copyInto(profile, row) : toModel(profile));
+        });
+        profileRepository.saveAll(changed);
+        return merged;
+    }
+
+    /**
+     * Takes in the profiles other nodes flushed since the last refresh.
+     */
+    @Scheduled(fixedDelayString = "${entity-risk.refresh-interval-ms:5000}")
+    public void refresh() {
+        synchronized (syncLock) {
+            LocalDateTime now = LocalDateTime.now();
+            List<EntityRiskProfile> changed = profileRepository.findByUpdatedAtGreaterThanEqual(lastRefresh.minus(REFRESH_OVERLAP))
+                .stream().map(EntityRiskService::toProfile).toList();
+            lastRefresh = now;
+            replace(changed);
+        }
+    }
+
+    // Stored profiles replace the table's entries; deltas not yet flushed are applied on top
+    private void replace(List<EntityRiskProfile> profiles) {
+        lock.writeLock().lock();
+        try {
+            for (EntityRiskProfile profile : profiles) {
+                table.restore(profile);
+                pending.getOrDefault(profile.entity(), List.of()).forEach(delta -> delta.applyTo(table, profile.entity()));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public EntityRiskProfile profile(String entity) {
+        lock.readLock().lock();
+        try {
+            return table.profile(entity);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public int openCases(String entity) {
+        lock.readLock().lock();
+        try {
+            return table.openCases(entity);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public double maxOpenRiskScore(String entity) {
+        lock.readLock().lock();
+        try {
+            return table.maxOpenRiskScore(entity);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Caller holds the write lock
+    private void apply(String entity, Delta delta) {
+        String name = EntityRiskTable.normalize(entity);
+        if (name != null) {
+            delta.applyTo(table, name);
+            pending.computeIfAbsent(name, n -> new ArrayList<>()).add(delta);
+        }
+    }
+
+    private static EntityRiskProfileModel toModel(EntityRiskProfile profile) {
+        EntityRiskProfileModel model = new EntityRiskProfileModel();
+        model.setEntity(profile.entity());
+        return copyInto(profile, model);
+    }
+
+    private static EntityRiskProfileModel copyInto(EntityRiskProfile profile, EntityRiskProfileModel model) {
+        model.setOpenCases(profile.openCases());
+        model.setTotalCases(profile.totalCases());
+        model.setAverageOpenRiskScore(profile.averageOpenRiskScore());
+        model.setMaxOpenRiskScore(profile.maxOpenRiskScore());
+        model.setTypologyCounts(profile.typologies().entrySet().stream()
+            .map(e -> e.getKey() + "=" + e.getValue()).collect(Collectors.joining(",")));
+        model.setScoredOpenCases(profile.scoredOpenCases());
+        model.setOpenRiskSum(profile.openRiskSum());
+        model.setTopOpenRiskScores(Arrays.stream(profile.topOpenRiskScores())
+            .mapToObj(Double::toString).collect(Collectors.joining(",")));
+        model.setUpdatedAt(LocalDateTime.now());
+        return model;
+    }
+
+    private static EntityRiskProfile toProfile(EntityRiskProfileModel model) {
+        Map<String, Integer> typologies = new LinkedHashMap<>();
+        if (model.getTypologyCounts() != null && !model.getTypologyCounts().isBlank()) {
+            for (String pair : model.getTypologyCounts().split(",")) {
+                int eq = pair.indexOf('=');
+                typologies.put(pair.substring(0, eq), Integer.parseInt(pair.substring(eq + 1)));
+            }
+        }
+        double[] risks = model.getTopOpenRiskScores() == null || model.getTopOpenRiskScores().isBlank()
+            ? new double[0]
+            : Arrays.stream(model.getTopOpenRiskScores().split(",")).mapToDouble(Double::parseDouble).toArray();
+        return new EntityRiskProfile(model.getEntity(), model.getOpenCases(), model.getTotalCases(),
+            model.getAverageOpenRiskScore(), model.getMaxOpenRiskScore(), typologies,
+            model.getScoredOpenCases(), model.getOpenRiskSum(), risks);
+    }
+}
@@ -0,0 +1,252 @@
+package com.example.alert_detect_system.service;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.alert_detect_system.Model.DomainEventModel;
+import com.example.alert_detect_system.Model.EventSnapshotModel;
+import com.example.alert_detect_system.Model.TaskModel;
+import com.example.alert_detect_system.eventstore.AggregateState;
+import com.example.alert_detect_system.eventstore.AggregateType;
+import com.example.alert_detect_system.eventstore.StateDiff;
+import com.example.alert_detect_system.repo.DomainEventRepository;
+import com.example.alert_detect_system.repo.EventSnapshotRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Append-only history of case and task changes. Every change published by CaseService and
+ * TaskService is recorded as an event holding the changed fields, in the transaction that made
+ * the change; every {@code eventstore.snapshot-every} events the full state is snapshotted, so
+ * reading an aggregate as of any point in time replays at most that many events. The cases and
+ * tasks tables are projections of this store and can be rebuilt from it (see ProjectionRebuildService).
+ */
+@Service
+public class EventStoreService {
+
+    private static final Logger logger = LoggerFactory.getLogger(EventStoreService.class);
+    private static final String DELETED = "DELETED";
+    private static final int CACHED_AGGREGATES = 10_000;
+
+    @Autowired
+    private DomainEventRepository eventRepository;
+    @Autowired
+    private EventSnapshotRepository snapshotRepository;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private ChangeFeedService changeFeedService;
+
+    @Value("${eventstore.snapshot-every:50}")
+    private int snapshotEvery;
+
+    @Value("${eventstore.shards:16}")
+    private int shards;
+
+    // Timestamps at the database's microsecond precision (rounded, as MySQL and H2 store them), so a
+    // state taken from an entity in memory equals the state of the same entity read back
+    private ObjectMapper stateMapper;
+
+    // Latest committed state per aggregate, so appending a delta does not replay the aggregate first.
+    // Entries are checked against the store's last sequence before use; other nodes' writes just miss.
+    private final Map<String, AggregateState> latest = Collections.synchronizedMap(
+        new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, AggregateState> eldest) {
+                return size() > CACHED_AGGREGATES;
+            }
+        });
+
+    @PostConstruct
+    void init() {
+        stateMapper = objectMapper.copy().registerModule(new SimpleModule().addSerializer(LocalDateTime.class,
+            new JsonSerializer<LocalDateTime>() {
+                @Override
+                public void serialize(LocalDateTime value, JsonGenerator generator, SerializerProvider provider) throws IOException {
+                    generator.writeString(value.plusNanos(500).truncatedTo(ChronoUnit.MICROS).format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
+                }
+            }));
+    }
+
+    // Same transaction as the change: the event and the projection row commit or roll back together
+    @EventListener
+    public void onCaseChanged(CaseChangedEvent event) {
+        ObjectNode state = event.type() == CaseChangedEvent.ChangeType.DELETED ? null : toState(event.current());
+        append(AggregateType.CASE, event.caseId(), event.type().name(), state);
+    }
+
+    @EventListener
+    public void onTaskChanged(TaskChangedEvent event) {
+        TaskModel task = event.task();
+        append(AggregateType.TASK, task.getId(), null, event.deleted() ? null : toState(task));
+    }
+
+    /**
+     * Records the new state of an aggregate (null when it was deleted) as a delta against its
+     * previous state. Nothing is written if no field changed.
+     */
+    public void append(AggregateType type, UUID id, String eventType, ObjectNode state) {
+        transactionTemplate.executeWithoutResult(status -> {
+            Optional<DomainEventModel> last = eventRepository.findFirstByAggregateTypeAndAggregateIdOrderBySequenceDesc(type.name(), id);
+            long lastSequence = last.map(DomainEventModel::getSequence).orElse(0L);
+            ObjectNode before = lastSequence == 0 ? null : latestState(type, id, lastSequence).state();
+            ObjectNode delta;
+            if (state == null) {
+                if (before == null) {
+                    return;
+                }
+                delta = objectMapper.createObjectNode();
+            } else {
+                delta = StateDiff.diff(before, state);
+                if (delta.isEmpty() && before != null) {
+                    return;
+                }
+            }
+
+            long sequence = lastSequence + 1;
+            String resolvedType = eventType != null ? eventType
+                : state == null ? DELETED : before == null ? "CREATED" : delta.has("status") ? "STATUS_CHANGED" : "UPDATED";
+            // Keep an aggregate's events in time order even if node clocks disagree
+            LocalDateTime now = LocalDateTime.now();
+            if (last.isPresent() && now.isBefore(last.get().getOccurredAt())) {
+                now = last.get().getOccurredAt();
+            }
+            DomainEventModel event = eventRepository.save(new DomainEventModel(type.name(), id, sequence, shardOf(id), resolvedType, write(delta), now));
+            // This node's listeners see the change itself; the feed is for the other nodes
+            changeFeedService.markSeen(event.getId(), now);
+            if (sequence % snapshotEvery == 0) {
+                snapshotRepository.save(new EventSnapshotModel(type.name(), id, sequence, state == null ? null : write(state), now));
+            }
+
+            cacheAfterCommit(new AggregateState(type, id, sequence, sequence, 0, now, state));
+        });
+    }
+
+    /**
+     * Current state, from the event store rather than the projection table.
+     */
+    @Transactional(readOnly = true)
+    public Optional<AggregateState> current(AggregateType type, UUID id) {
+        return eventRepository.findFirstByAggregateTypeAndAggregateIdOrderBySequenceDesc(type.name(), id)
+            .map(last -> latestState(type, id, last.getSequence()));
+    }
+
+    /**
+     * The aggregate as it was at the given time: the nearest snapshot plus the events after it.
+     * Empty if the aggregate had no recorded events yet.
+     */
+    @Transactional(readOnly = true)
+    public Optional<AggregateState> stateAt(AggregateType type, UUID id, LocalDateTime at) {
+        return eventRepository.findFirstByAggregateTypeAndAggregateIdAndOccurredAtLessThanEqualOrderBySequenceDesc(type.name(), id, at)
+            .map(last -> replay(type, id, last.getSequence()));
+    }
+
+    @Transactional(readOnly = true)
+    public List<DomainEventModel> history(AggregateType type, UUID id) {
+        return eventRepository.findByAggregateTypeAndAggregateIdOrderBySequence(type.name(), id);
+    }
+
+    public ObjectNode toState(Object entity) {
+        ObjectNode state = stateMapper.valueToTree(entity);
+        // Optimistic locking detail of the projection row, not part of the aggregate
+        state.remove("version");
+        return state;
+    }
+
+    public JsonNode read(String json) {
+        if (json == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readTree(json);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unreadable event store payload", e);
+        }
+    }
+
+    public int shardOf(UUID id) {
+        return Math.floorMod(id.hashCode(), shards);
+    }
+
+    private AggregateState latestState(AggregateType type, UUID id, long lastSequence) {
+        AggregateState cached = latest.get(cacheKey(type, id));
+        if (cached != null && cached.sequence() == lastSequence) {
+            return cached;
+        }
+        AggregateState replayed = replay(type, id, lastSequence);
+        cacheAfterCommit(replayed);
+        return replayed;
+    }
+
+    // The replay may include this transaction's own events, which must not be cached if it rolls back
+    private void cacheAfterCommit(AggregateState state) {
+        String key = cacheKey(state.type(), state.id());
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            latest.put(key, state);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                latest.put(key, state);
+            }
+        });
+    }
+
+    private AggregateState replay(AggregateType type, UUID id, long upToSequence) {
+        Optional<EventSnapshotModel> snapshot = snapshotRepository
+            .findFirstByAggregateTypeAndAggregateIdAndSequenceLessThanEqualOrderBySequenceDesc(type.name(), id, upToSequence);
+        long fromSequence = snapshot.map(EventSnapshotModel::getSequence).orElse(0L);
+        ObjectNode state = snapshot.map(s -> (ObjectNode) read(s.getState())).orElse(null);
+        LocalDateTime changedAt = snapshot.map(EventSnapshotModel::getTakenAt).orElse(null);
+
+        List<DomainEventModel> events = eventRepository.findRange(type.name(), id, fromSequence, upToSequence);
+        for (DomainEventModel event : events) {
+            state = DELETED.equals(event.getEventType()) ? null : StateDiff.apply(state, (ObjectNode) read(event.getData()));
+            changedAt = event.getOccurredAt();
+        }
+        logger.debug("Replayed {} {} from snapshot {} plus {} events", type, id, fromSequence, events.size());
+        return new AggregateState(type, id, upToSequence, fromSequence, events.size(), changedAt, state);
+    }
+
+    private String write(JsonNode node) {
+        try {
+            return objectMapper.writeValueAsString(node);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize event store payload", e);
+        }
+    }
+
+    private static String cacheKey(AggregateType type, UUID id) {
+        return type.name() + ":" + id;
+    }
+}
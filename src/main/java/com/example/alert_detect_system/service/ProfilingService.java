@@ -0,0 +1,152 @@
+package com.example.alert_detect_system.service;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Optional;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.example.alert_detect_system.profiling.AuditWriteEvent;
+import com.example.alert_detect_system.profiling.CaseActionEvent;
+import com.example.alert_detect_system.profiling.TaskCompleteEvent;
+import com.example.alert_detect_system.profiling.WorkflowStartEvent;
+
+import jakarta.annotation.PostConstruct;
+import jdk.jfr.Configuration;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+
+/**
+ * Java Flight Recorder recordings on demand. Recordings use one of the JDK's settings files:
+ * "default" is built for always-on use (around 1% overhead), "profile" samples more and costs
+ * more. The application's own events (case actions, workflow starts, task completions, audit
+ * writes) are enabled in every recording. With {@code profiling.continuous} a rolling recording
+ * runs from startup, so the minutes before a latency spike can be dumped after the fact.
+ */
+@Service
+public class ProfilingService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProfilingService.class);
+    private static final List<Class<? extends jdk.jfr.Event>> APPLICATION_EVENTS = List.of(
+        CaseActionEvent.class, WorkflowStartEvent.class, TaskCompleteEvent.class, AuditWriteEvent.class);
+
+    @Value("${profiling.dir:recordings}")
+    private String dir;
+
+    @Value("${profiling.continuous:false}")
+    private boolean continuous;
+
+    @Value("${profiling.max-age-minutes:30}")
+    private long maxAgeMinutes;
+
+    @Value("${profiling.max-size-mb:250}")
+    private long maxSizeMb;
+
+    @Value("${profiling.dump-ttl-minutes:10}")
+    private long dumpTtlMinutes;
+
+    @PostConstruct
+    void init() {
+        if (continuous) {
+            start("continuous", "default", Duration.ofMinutes(maxAgeMinutes));
+        }
+    }
+
+    public Recording start(String name, String settings, Duration maxAge) {
+        Configuration configuration;
+        try {
+            configuration = Configuration.getConfiguration(settings);
+        } catch (IOException | ParseException e) {
+            throw new IllegalArgumentException("Unknown recording settings: " + settings + " (use default or profile)");
+        }
+        Recording recording = new Recording(configuration);
+        for (Class<? extends jdk.jfr.Event> event : APPLICATION_EVENTS) {
+            recording.enable(event);
+        }
+        recording.setName(name);
+        recording.setToDisk(true);
+        recording.setMaxAge(maxAge);
+        recording.setMaxSize(maxSizeMb * 1024 * 1024);
+        recording.start();
+        logger.info("Started JFR recording {} ({}) with {} settings, keeping {} min", recording.getId(), name, settings,
+            maxAge.toMinutes());
+        return recording;
+    }
+
+    /** Every recording in this JVM, including ones started with -XX:StartFlightRecording. */
+    public List<Recording> recordings() {
+        return FlightRecorder.isAvailable() ? FlightRecorder.getFlightRecorder().getRecordings() : List.of();
+    }
+
+    public Optional<Recording> find(long id) {
+        return recordings().stream().filter(recording -> recording.getId() == id).findFirst();
+    }
+
+    /**
+     * Writes what the recording holds so far to a file in {@code profiling.dir}; the recording keeps
+     * running. The file belongs to the caller, who deletes it once it has been sent. Dumps older than
+     * {@code profiling.dump-ttl-minutes}, left behind by downloads that never completed, are removed
+     * first so repeated dumps cannot fill the disk.
+     */
+    public Path dump(long id) throws IOException {
+        Recording recording = require(id);
+        if (recording.getState() == RecordingState.NEW || recording.getState() == RecordingState.CLOSED) {
+            throw new IllegalStateException("Recording " + id + " is " + recording.getState() + " and has nothing to dump");
+        }
+        Path directory = Paths.get(dir);
+        Files.createDirectories(directory);
+        deleteStaleDumps(directory);
+        Path file = directory.resolve(String.format("%s-%d-%s.jfr", recording.getName().replaceAll("[^A-Za-z0-9_-]", "_"),
+            id, LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS"))));
+        recording.dump(file);
+        logger.info("Dumped JFR recording {} to {}", id, file.toAbsolutePath());
+        return file;
+    }
+
+    private void deleteStaleDumps(Path directory) throws IOException {
+        FileTime cutoff = FileTime.from(Instant.now().minus(Duration.ofMinutes(dumpTtlMinutes)));
+        try (DirectoryStream<Path> dumps = Files.newDirectoryStream(directory, "*.jfr")) {
+            for (Path dump : dumps) {
+                try {
+                    if (Files.getLastModifiedTime(dump).compareTo(cutoff) < 0) {
+                        Files.deleteIfExists(dump);
+                        logger.info("Deleted stale JFR dump {}", dump.getFileName());
+                    }
+                } catch (IOException e) {
+                    logger.warn("Could not delete stale JFR dump {}", dump, e);
+                }
+            }
+        }
+    }
+
+    public Recording stop(long id) {
+        Recording recording = require(id);
+        if (recording.getState() != RecordingState.RUNNING) {
+            throw new IllegalStateException("Recording " + id + " is not running");
+        }
+        recording.stop();
+        return recording;
+    }
+
+    public void close(long id) {
+        require(id).close();
+    }
+
+    private Recording require(long id) {
+        return find(id).orElseThrow(() -> new IllegalArgumentException("No recording with id " + id));
+    }
+}
@@ -0,0 +1,220 @@
+package com.example.alert_detect_system.service;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.alert_detect_system.Model.CaseModel;
+import com.example.alert_detect_system.Model.TaskModel;
+import com.example.alert_detect_system.eventstore.AggregateState;
+import com.example.alert_detect_system.eventstore.AggregateType;
+import com.example.alert_detect_system.eventstore.StateDiff;
+import com.example.alert_detect_system.repo.DomainEventRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * Rebuilds the cases and tasks tables from the event store, and seeds the store from rows that
+ * predate it. Rebuilds fan out over the shards the events were written to, one worker per shard
+ * up to {@code eventstore.rebuild.threads}, each working through its aggregates in chunks.
+ */
+@Service
+public class ProjectionRebuildService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProjectionRebuildService.class);
+    private static final Duration REBUILD_LEASE = Duration.ofMinutes(30);
+
+    @Autowired
+    private EventStoreService eventStore;
+    @Autowired
+    private DomainEventRepository eventRepository;
+    @Autowired
+    private ClusterLockService clusterLockService;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // 0: one worker per available processor
+    @Value("${eventstore.rebuild.threads:0}")
+    private int threads;
+
+    @Value("${eventstore.rebuild.chunk-size:200}")
+    private int chunkSize;
+
+    public record RebuildResult(AggregateType type, int shards, int aggregates, int written, int deleted, long millis) {
+    }
+
+    /**
+     * Brings every row of the type's table in line with the event store: rows that differ are
+     * overwritten, missing rows re-inserted and rows of deleted aggregates removed. Rows without
+     * any events are left alone.
+     */
+    public RebuildResult rebuild(AggregateType type) {
+        AtomicReference<RebuildResult> result = new AtomicReference<>();
+        if (!clusterLockService.runExclusively("projection-rebuild:" + type, REBUILD_LEASE, () -> result.set(rebuildShards(type)))) {
+            throw new IllegalStateException("A rebuild of the " + type + " projection is already running");
+        }
+        return result.get();
+    }
+
+    /**
+     * Records a BASELINE event with the current row for every case or task that has no events
+     * yet, i.e. rows created before the event store existed. Returns the number of rows seeded.
+     */
+    public int baseline(AggregateType type) {
+        String query = "SELECT e.id FROM " + entityName(type) + " e WHERE NOT EXISTS (SELECT 1 FROM DomainEventModel d "
+            + "WHERE d.aggregateType = :type AND d.aggregateId = e.id)";
+        int seeded = 0;
+        while (true) {
+            Integer count = transactionTemplate.execute(status -> {
+                List<UUID> ids = entityManager.createQuery(query, UUID.class)
+                    .setParameter("type", type.name())
+                    .setMaxResults(chunkSize)
+                    .getResultList();
+                for (UUID id : ids) {
+                    eventStore.append(type, id, "BASELINE", eventStore.toState(entityManager.find(type.entityClass(), id)));
+                }
+                return ids.size();
+            });
+            seeded += count;
+            if (count < chunkSize) {
+                break;
+            }
+        }
+        logger.info("Seeded the event store with {} existing {} rows", seeded, type);
+        return seeded;
+    }
+
+    private RebuildResult rebuildShards(AggregateType type) {
+        long start = System.currentTimeMillis();
+        List<Integer> shards = eventRepository.findShards(type.name());
+        int workers = Math.max(1, Math.min(shards.size(), threads > 0 ? threads : Runtime.getRuntime().availableProcessors()));
+        ExecutorService pool = Executors.newFixedThreadPool(workers);
+        int[] totals = new int[3];
+        try {
+            List<Future<int[]>> futures = new ArrayList<>();
+            for (int shard : shards) {
+                futures.add(pool.submit(() -> rebuildShard(type, shard)));
+            }
+            for (Future<int[]> future : futures) {
+                int[] counts = future.get();
+                for (int i = 0; i < totals.length; i++) {
+                    totals[i] += counts[i];
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while rebuilding the " + type + " projection", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Rebuilding the " + type + " projection failed", e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+        RebuildResult result = new RebuildResult(type, shards.size(), totals[0], totals[1], totals[2],
+            System.currentTimeMillis() - start);
+        logger.info("Rebuilt {} projection: {} aggregates in {} shards, {} rows written, {} deleted in {} ms",
+            type, result.aggregates(), result.shards(), result.written(), result.deleted(), result.millis());
+        return result;
+    }
+
+    // {aggregates, written, deleted}
+    private int[] rebuildShard(AggregateType type, int shard) {
+        List<UUID> ids = eventRepository.findAggregateIds(type.name(), shard);
+        int[] counts = new int[3];
+        for (int from = 0; from < ids.size(); from += chunkSize) {
+            List<UUID> chunk = ids.subList(from, Math.min(from + chunkSize, ids.size()));
+            transactionTemplate.executeWithoutResult(status -> rebuildChunk(type, chunk, counts));
+        }
+        return counts;
+    }
+
+    private void rebuildChunk(AggregateType type, List<UUID> ids, int[] counts) {
+        // Lock the rows before reading the events: a writer committing in between would otherwise
+        // have its change overwritten by the older state
+        Map<Object, ?> rows = entityManager
+            .createQuery("SELECT e FROM " + entityName(type) + " e WHERE e.id IN :ids", type.entityClass())
+            .setParameter("ids", ids)
+            .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+            .getResultList()
+            .stream()
+            .collect(Collectors.toMap(this::idOf, Function.identity()));
+
+        for (UUID id : ids) {
+            AggregateState aggregate = eventStore.current(type, id).orElseThrow();
+            Object row = rows.get(id);
+            counts[0]++;
+            if (aggregate.deleted()) {
+                if (row != null) {
+                    entityManager.remove(row);
+                    publishChange(type, id, row, true, snapshotOf(row));
+                    counts[2]++;
+                }
+            } else if (row == null) {
+                Object restored = objectMapper.convertValue(aggregate.state(), type.entityClass());
+                entityManager.persist(restored);
+                publishChange(type, id, restored, false, null);
+                counts[1]++;
+            } else if (!StateDiff.diff(eventStore.toState(row), aggregate.state()).isEmpty()) {
+                CaseChangedEvent.Snapshot before = snapshotOf(row);
+                try {
+                    objectMapper.readerForUpdating(row).readValue(aggregate.state());
+                } catch (IOException e) {
+                    throw new IllegalStateException("Cannot apply event store state to " + type + " " + id, e);
+                }
+                publishChange(type, id, row, false, before);
+                counts[1]++;
+            }
+        }
+    }
+
+    // The search index, entity risk table, inbox, SLA timers and ETag counters follow the rows the
+    // rebuild writes the same way they follow CaseService and TaskService
+    private void publishChange(AggregateType type, UUID id, Object row, boolean deleted, CaseChangedEvent.Snapshot before) {
+        if (type == AggregateType.CASE) {
+            CaseChangedEvent.ChangeType change = deleted ? CaseChangedEvent.ChangeType.DELETED
+                : before == null ? CaseChangedEvent.ChangeType.CREATED : CaseChangedEvent.ChangeType.UPDATED;
+            eventPublisher.publishEvent(new CaseChangedEvent(id, change, deleted ? null : (CaseModel) row, before));
+        } else {
+            eventPublisher.publishEvent(new TaskChangedEvent((TaskModel) row, deleted));
+        }
+    }
+
+    private static CaseChangedEvent.Snapshot snapshotOf(Object row) {
+        return row instanceof CaseModel caseModel ? CaseChangedEvent.Snapshot.of(caseModel) : null;
+    }
+
+    private Object idOf(Object entity) {
+        return entityManager.getEntityManagerFactory().getPersistenceUnitUtil().getIdentifier(entity);
+    }
+
+    private String entityName(AggregateType type) {
+        return entityManager.getMetamodel().entity(type.entityClass()).getName();
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.alert_detect_system.service;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import com.example.alert_detect_system.Model.AuditLogModel;
+import com.example.alert_detect_system.Model.CaseModel;
+import com.example.alert_detect_system.Model.TaskModel;
+
+/**
+ * Published by {@link ChangeFeedService} for changes committed by other nodes since its last poll.
+ * Cases and tasks are the rows as now stored; the deleted sets name those that no longer exist.
+ */
+public record RemoteChangesEvent(List<CaseModel> cases, Set<UUID> deletedCases, List<TaskModel> tasks,
+                                 Set<UUID> deletedTasks, List<AuditLogModel> auditLogs, boolean workflowTasksChanged) {
+
+    public boolean casesChanged() {
+        return !cases.isEmpty() || !deletedCases.isEmpty();
+    }
+
+    public boolean tasksChanged() {
+        return !tasks.isEmpty() || !deletedTasks.isEmpty();
+    }
+
+    public boolean isEmpty() {
+        return !casesChanged() && !tasksChanged() && auditLogs.isEmpty() && !workflowTasksChanged;
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.alert_detect_system.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.example.alert_detect_system.Model.AuditLogModel;
+import com.example.alert_detect_system.Model.CaseModel;
+import com.example.alert_detect_system.repo.AuditLogRepo;
+import com.example.alert_detect_system.repo.CaseRepository;
+import com.example.alert_detect_system.search.CaseSearchIndex;
+
+@Service
+public class SearchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SearchService.class);
+    private static final int REBUILD_PAGE_SIZE = 1000;
+
+    @Autowired
+    private CaseSearchIndex searchIndex;
+    @Autowired
+    private CaseRepository caseRepository;
+    @Autowired
+    private AuditLogRepo auditLogRepository;
+
+    @Value("${search.index.rebuild-on-startup:false}")
+    private boolean rebuildOnStartup;
+
+    public CaseSearchIndex.SearchPage search(String query, String type, int page, int size) {
+        return searchIndex.search(query, type, page, size);
+    }
+
+    // Index only after commit so searches never return rolled-back changes
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCaseChanged(CaseChangedEvent event) {
+        try {
+            if (event.type() == CaseChangedEvent.ChangeType.DELETED) {
+                searchIndex.deleteCase(event.caseId());
+            } else {
+                searchIndex.indexCase(event.current());
+            }
+        } catch (Exception e) {
+            logger.error("Failed to update search index for case: {}", event.caseId(), e);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAuditLogged(AuditLoggedEvent event) {
+        try {
+            searchIndex.indexAuditLog(event.auditLog());
+        } catch (Exception e) {
+            logger.error("Failed to index audit log: {}", event.auditLog().getId(), e);
+        }
+    }
+
+    // Written by another node; the rows are already committed
+    @EventListener
+    public void onRemoteChanges(RemoteChangesEvent event) {
+        try {
+            event.cases().forEach(searchIndex::indexCase);
+            event.deletedCases().forEach(searchIndex::deleteCase);
+            event.auditLogs().forEach(searchIndex::indexAuditLog);
+        } catch (Exception e) {
+            logger.error("Failed to apply changes from other nodes to the search index", e);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildIfRequested() {
+        if (rebuildOnStartup) {
+            rebuildIndex();
+        }
+    }
+
+    /**
+     * Drops the index and re-reads every case and audit row from the database page by page.
+     */
+    public long rebuildIndex() {
+        long start = System.currentTimeMillis();
+        searchIndex.deleteAll();
+        long indexed = 0;
+
+        Pageable casePage = PageRequest.of(0, REBUILD_PAGE_SIZE, Sort.by("id"));
+        Page<CaseModel> cases;
+        do {
+            cases = caseRepository.findAll(casePage);
+            cases.forEach(searchIndex::indexCase);
+            indexed += cases.getNumberOfElements();
+            casePage = cases.nextPageable();
+        } while (cases.hasNext());
+
+        Pageable auditPage = PageRequest.of(0, REBUILD_PAGE_SIZE, Sort.by("id"));
+        Page<AuditLogModel> auditLogs;
+        do {
+            auditLogs = auditLogRepository.findAll(auditPage);
+            auditLogs.forEach(searchIndex::indexAuditLog);
+            indexed += auditLogs.getNumberOfElements();
+            auditPage = auditLogs.nextPageable();
+        } while (auditLogs.hasNext());
+
+        searchIndex.commit();
+        logger.info("Search index rebuilt with {} records in {} ms", indexed, System.currentTimeMillis() - start);
+        return indexed;
+    }
+}
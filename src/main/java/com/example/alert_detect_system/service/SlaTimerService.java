@@ -0,0 +1,272 @@
+package com.example.alert_detect_system.service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.flowable.task.api.Task;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.alert_detect_system.Model.SlaTimerModel;
+import com.example.alert_detect_system.Model.TaskModel;
+import com.example.alert_detect_system.inbox.InboxEntry;
+import com.example.alert_detect_system.repo.SlaTimerRepository;
+import com.example.alert_detect_system.repo.TaskRepository;
+import com.example.alert_detect_system.sla.TimingWheel;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Enforces task due dates. Pending deadlines live in the sla_timers table and, in memory, in a
+ * {@link TimingWheel}; timers are armed and disarmed from task events, so the tasks table is never
+ * scanned. On a breach the task's priority is raised, an unclaimed task is moved to the escalation
+ * group, and an SLA_BREACHED audit row is written.
+ */
+@Service
+public class SlaTimerService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SlaTimerService.class);
+    private static final String TASK_PREFIX = "task:";
+    private static final String FLOWABLE_PREFIX = "flowable:";
+    private static final int RELOAD_PAGE_SIZE = 10_000;
+    private static final String[] PRIORITIES = {"LOW", "MEDIUM", "HIGH", "CRITICAL"};
+
+    @Autowired
+    private SlaTimerRepository slaTimerRepository;
+    @Autowired
+    private TaskRepository taskRepository;
+    @Autowired
+    private TaskService taskService;
+    @Autowired
+    private org.flowable.engine.TaskService flowableTaskService;
+    @Autowired
+    private AuditService auditService;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${sla.enabled:true}")
+    private boolean enabled;
+
+    @Value("${sla.tick-ms:1000}")
+    private long tickMillis;
+
+    @Value("${sla.escalation.group:admin}")
+    private String escalationGroup;
+
+    // Guarded by this
+    private TimingWheel<String> wheel;
+
+    @PostConstruct
+    void init() {
+        wheel = new TimingWheel<>(tickMillis, System.currentTimeMillis());
+    }
+
+    /**
+     * Rebuilds the wheel from the sla_timers table. Deadlines that passed while the application
+     * was down fire on the first tick.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void recover() {
+        long start = System.currentTimeMillis();
+        int loaded = 0;
+        String lastKey = "";
+        List<SlaTimerModel> page;
+        do {
+            page = slaTimerRepository.findPageAfter(lastKey, PageRequest.ofSize(RELOAD_PAGE_SIZE));
+            synchronized (this) {
+                for (SlaTimerModel timer : page) {
+                    wheel.schedule(timer.getTimerKey(), toMillis(timer.getDueAt()));
+                }
+            }
+            loaded += page.size();
+            if (!page.isEmpty()) {
+                lastKey = page.get(page.size() - 1).getTimerKey();
+            }
+        } while (page.size() == RELOAD_PAGE_SIZE);
+        logger.info("Recovered {} SLA timers in {} ms", loaded, System.currentTimeMillis() - start);
+    }
+
+    // Runs inside the writer's transaction so the timer row commits or rolls back with the task
+    @EventListener
+    public void onTaskChanged(TaskChangedEvent event) {
+        TaskModel task = event.task();
+        String key = TASK_PREFIX + task.getId();
+        boolean open = !event.deleted() && !"COMPLETED".equalsIgnoreCase(task.getStatus());
+        // Due dates are never cleared, so only a task with one not yet escalated can have a row
+        boolean pending = task.getDueDate() != null
+            && (task.getEscalatedAt() == null || task.getDueDate().isAfter(task.getEscalatedAt()));
+        if (open && pending) {
+            track(key, task.getId().toString(), SlaTimerModel.SOURCE_TASK, task.getDueDate());
+        } else if (pending || isScheduled(key)) {
+            untrack(key);
+        }
+    }
+
+    public void onFlowableTaskDue(String taskId, LocalDateTime dueAt) {
+        if (dueAt != null) {
+            track(FLOWABLE_PREFIX + taskId, taskId, SlaTimerModel.SOURCE_FLOWABLE, dueAt);
+        } else {
+            untrack(FLOWABLE_PREFIX + taskId);
+        }
+    }
+
+    public void onFlowableTaskEnded(String taskId) {
+        untrack(FLOWABLE_PREFIX + taskId);
+    }
+
+    public synchronized int pendingTimers() {
+        return wheel.size();
+    }
+
+    @Scheduled(fixedDelayString = "${sla.tick-ms:1000}")
+    public void tick() {
+        if (!enabled) {
+            return;
+        }
+        List<String> expired = new ArrayList<>();
+        synchronized (this) {
+            wheel.advanceTo(System.currentTimeMillis(), expired::add);
+        }
+        for (String key : expired) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> fire(key));
+            } catch (Exception e) {
+                // Leave the row in place and try again on a later tick
+                logger.error("Failed to escalate SLA timer {}", key, e);
+                schedule(key, System.currentTimeMillis() + tickMillis * 60);
+            }
+        }
+    }
+
+    private void track(String key, String taskId, String source, LocalDateTime dueAt) {
+        slaTimerRepository.save(new SlaTimerModel(key, taskId, source, dueAt));
+        long deadline = toMillis(dueAt);
+        afterCommit(() -> schedule(key, deadline));
+    }
+
+    // The timer may have been armed by another node, so the row goes regardless of this node's wheel
+    private void untrack(String key) {
+        slaTimerRepository.deleteByTimerKey(key);
+        if (isScheduled(key)) {
+            afterCommit(() -> cancel(key));
+        }
+    }
+
+    private synchronized boolean isScheduled(String key) {
+        return wheel.contains(key);
+    }
+
+    private void fire(String key) {
+        Optional<SlaTimerModel> row = slaTimerRepository.findById(key);
+        if (row.isEmpty()) {
+            return;
+        }
+        SlaTimerModel timer = row.get();
+        // The due date may have been moved by a writer whose commit we have not seen yet
+        if (toMillis(timer.getDueAt()) > System.currentTimeMillis()) {
+            afterCommit(() -> schedule(key, toMillis(timer.getDueAt())));
+            return;
+        }
+        // Every node recovers every timer; deleting the row decides which one escalates
+        if (slaTimerRepository.claim(key, timer.getDueAt()) == 0) {
+            return;
+        }
+        if (SlaTimerModel.SOURCE_FLOWABLE.equals(timer.getSource())) {
+            escalateFlowableTask(timer);
+        } else {
+            escalateTask(timer);
+        }
+    }
+
+    private void escalateTask(SlaTimerModel timer) {
+        TaskModel task = taskRepository.findById(UUID.fromString(timer.getTaskId())).orElse(null);
+        if (task == null || "COMPLETED".equalsIgnoreCase(task.getStatus())) {
+            return;
+        }
+        String oldPriority = task.getPriority();
+        task.setPriority(raise(oldPriority));
+        String oldGroup = task.getCandidateGroup();
+        boolean moved = task.getAssignee() == null && !escalationGroup.equals(oldGroup);
+        if (moved) {
+            task.setCandidateGroup(escalationGroup);
+        }
+        task.setEscalatedAt(LocalDateTime.now());
+        taskService.saveTask(task);
+        auditService.logTaskAction(timer.getTaskId(), task.getCaseId(), "SLA_BREACHED", "system",
+            "Task '" + task.getTaskName() + "' passed its due date " + timer.getDueAt()
+            + "; priority " + oldPriority + " -> " + task.getPriority()
+            + (moved ? "; moved from group " + oldGroup + " to " + escalationGroup : ""));
+        logger.warn("SLA breached for task {} (due {})", timer.getTaskId(), timer.getDueAt());
+    }
+
+    private void escalateFlowableTask(SlaTimerModel timer) {
+        Task task = flowableTaskService.createTaskQuery().taskId(timer.getTaskId()).singleResult();
+        if (task == null) {
+            return;
+        }
+        int oldPriority = task.getPriority();
+        int newPriority = Math.min(100, Math.max(oldPriority, 50) + 25);
+        flowableTaskService.setPriority(task.getId(), newPriority);
+        boolean moved = task.getAssignee() == null;
+        if (moved) {
+            flowableTaskService.addCandidateGroup(task.getId(), escalationGroup);
+        }
+        auditService.logTaskAction(task.getId(), caseIdOf(task), "SLA_BREACHED", "system",
+            "Workflow task '" + task.getName() + "' passed its due date " + timer.getDueAt()
+            + "; priority " + oldPriority + " -> " + newPriority
+            + (moved ? "; offered to group " + escalationGroup : ""));
+        logger.warn("SLA breached for workflow task {} (due {})", task.getId(), timer.getDueAt());
+    }
+
+    // Workflow tasks carry their case in the process variables; without one the row chains by task
+    private UUID caseIdOf(Task task) {
+        Object caseId = flowableTaskService.getVariable(task.getId(), "caseId");
+        return caseId != null ? UUID.fromString(caseId.toString()) : null;
+    }
+
+    static String raise(String priority) {
+        // Unset counts as LOW; CRITICAL stays CRITICAL
+        int rank = Math.max(InboxEntry.priorityRank(priority), 1);
+        return PRIORITIES[Math.min(rank, PRIORITIES.length - 1)];
+    }
+
+    private synchronized void schedule(String key, long deadlineMillis) {
+        wheel.schedule(key, deadlineMillis);
+    }
+
+    private synchronized void cancel(String key) {
+        wheel.cancel(key);
+    }
+
+    // The wheel must not run ahead of the database: apply in-memory changes once the row is committed
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.alert_detect_system.service;
+
+import com.example.alert_detect_system.Model.TaskModel;
+
+/**
+ * Published by {@link TaskService} whenever a task record is created or changed, and by the
+ * projection rebuild for rows it rewrites; {@code deleted} is set when the rebuild removed the row.
+ */
+public record TaskChangedEvent(TaskModel task, boolean deleted) {
+
+    public TaskChangedEvent(TaskModel task) {
+        this(task, false);
+    }
+}
@@ -0,0 +1,191 @@
+package com.example.alert_detect_system.service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.alert_detect_system.Model.CaseModel;
+import com.example.alert_detect_system.Model.TaskModel;
+import com.example.alert_detect_system.inbox.InboxEntry;
+import com.example.alert_detect_system.inbox.TaskInbox;
+import com.example.alert_detect_system.repo.CaseRepository;
+import com.example.alert_detect_system.repo.TaskRepository;
+import com.example.alert_detect_system.rules.CaseRuleEngine;
+import com.example.alert_detect_system.rules.RulesReloadedEvent;
+
+/**
+ * Server-side priority inbox per candidate group. Reads are served from {@link TaskInbox}, which
+ * follows local writes and, through the change feed, those of other nodes; claims are decided by
+ * a conditional UPDATE so two analysts never get the same task, even when the inbox is stale.
+ */
+@Service
+public class TaskInboxService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskInboxService.class);
+    // Entries skipped because the task was claimed or closed behind the inbox's back
+    private static final int MAX_STALE_SKIPS = 50;
+
+    @Autowired
+    private TaskInbox inbox;
+    @Autowired
+    private TaskRepository taskRepository;
+    @Autowired
+    private CaseRepository caseRepository;
+    @Autowired
+    private AuditService auditService;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    @Autowired
+    private CaseRuleEngine ruleEngine;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long start = System.currentTimeMillis();
+        inbox.clear();
+        List<TaskModel> queued = taskRepository.findActiveTasks().stream().filter(TaskInbox::isQueued).toList();
+        Set<UUID> caseIds = queued.stream().map(TaskModel::getCaseId).collect(Collectors.toSet());
+        Map<UUID, CaseModel> cases = caseRepository.findAllById(caseIds).stream()
+            .collect(Collectors.toMap(CaseModel::getId, Function.identity()));
+        for (TaskModel task : queued) {
+            CaseModel caseModel = cases.get(task.getCaseId());
+            inbox.update(task, caseModel, riskScore(caseModel));
+        }
+        logger.info("Task inbox loaded with {} queued tasks in {} ms", queued.size(), System.currentTimeMillis() - start);
+    }
+
+    // New rules can re-rank every queued task
+    @EventListener
+    public void onRulesReloaded(RulesReloadedEvent event) {
+        load();
+    }
+
+    public List<InboxEntry> next(String group, int limit) {
+        return inbox.peek(group, limit);
+    }
+
+    public int size(String group) {
+        return inbox.size(group);
+    }
+
+    /**
+     * Claims the given task, or the best queued task of the group when {@code taskId} is null.
+     * Returns empty if there is nothing left to claim, someone else claimed the task first or the
+     * task is not offered to {@code group}.
+     */
+    public Optional<TaskModel> claim(String group, UUID taskId, String assignee) {
+        if (taskId != null) {
+            InboxEntry reserved = inbox.remove(taskId);
+            if (reserved != null && !reserved.candidateGroup().equals(group)) {
+                // Someone else's queue: leave it there
+                inbox.add(reserved);
+                return Optional.empty();
+            }
+            return tryClaim(group, taskId, reserved, assignee);
+        }
+        for (int skipped = 0; skipped <= MAX_STALE_SKIPS; skipped++) {
+            // Taking the entry out of the heap first keeps local claimers off the same task
+            InboxEntry best = inbox.pollBest(group);
+            if (best == null) {
+                return Optional.empty();
+            }
+            Optional<TaskModel> claimed = tryClaim(group, best.taskId(), best, assignee);
+            if (claimed.isPresent()) {
+                return claimed;
+            }
+            logger.debug("Skipping stale inbox entry {} in group {}", best.taskId(), group);
+        }
+        return Optional.empty();
+    }
+
+    private Optional<TaskModel> tryClaim(String group, UUID taskId, InboxEntry reserved, String assignee) {
+        int updated;
+        try {
+            updated = transactionTemplate.execute(status -> taskRepository.claimIfUnassigned(taskId, group, assignee));
+        } catch (RuntimeException e) {
+            if (reserved != null) {
+                inbox.add(reserved);
+            }
+            throw e;
+        }
+        if (updated != 1) {
+            return Optional.empty();
+        }
+        TaskModel task = taskRepository.findById(taskId).orElseThrow();
+        auditService.logTaskAction(taskId.toString(), task.getCaseId(), "TASK_CLAIMED", assignee,
+            "Task claimed from " + task.getCandidateGroup() + " inbox");
+        eventPublisher.publishEvent(new TaskChangedEvent(task));
+        return Optional.of(task);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskChanged(TaskChangedEvent event) {
+        refresh(event.task(), event.deleted());
+    }
+
+    // Risk score or priority of a case changed: re-key its queued tasks
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCaseChanged(CaseChangedEvent event) {
+        rerank(event.caseId(), event.type() == CaseChangedEvent.ChangeType.DELETED ? null : event.current());
+    }
+
+    // Claims, new tasks and case changes made through another node
+    @EventListener
+    public void onRemoteChanges(RemoteChangesEvent event) {
+        event.tasks().forEach(task -> refresh(task, false));
+        event.deletedTasks().forEach(inbox::remove);
+        event.cases().forEach(caseModel -> rerank(caseModel.getId(), caseModel));
+        event.deletedCases().forEach(caseId -> rerank(caseId, null));
+    }
+
+    private void refresh(TaskModel task, boolean deleted) {
+        try {
+            if (deleted || !TaskInbox.isQueued(task)) {
+                inbox.remove(task.getId());
+                return;
+            }
+            CaseModel caseModel = task.getCaseId() != null ? caseRepository.findById(task.getCaseId()).orElse(null) : null;
+            inbox.update(task, caseModel, riskScore(caseModel));
+        } catch (Exception e) {
+            logger.error("Failed to update task inbox for task: {}", task.getId(), e);
+        }
+    }
+
+    // A null case has been deleted
+    private void rerank(UUID caseId, CaseModel caseModel) {
+        Set<UUID> queued = inbox.queuedTasksForCase(caseId);
+        if (queued.isEmpty()) {
+            return;
+        }
+        try {
+            if (caseModel == null) {
+                queued.forEach(inbox::remove);
+                return;
+            }
+            for (TaskModel task : taskRepository.findAllById(queued)) {
+                inbox.update(task, caseModel, riskScore(caseModel));
+            }
+        } catch (Exception e) {
+            logger.error("Failed to re-rank inbox tasks for case: {}", caseId, e);
+        }
+    }
+
+    private double riskScore(CaseModel caseModel) {
+        return caseModel != null ? ruleEngine.riskScore(caseModel) : 0.0;
+    }
+}
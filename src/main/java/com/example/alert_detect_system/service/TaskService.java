@@ -1,14 +1,19 @@
 package com.example.alert_detect_system.service;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
 import org.flowable.task.api.Task;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.example.alert_detect_system.Model.TaskModel;
+import com.example.alert_detect_system.profiling.TaskCompleteEvent;
 import com.example.alert_detect_system.repo.TaskRepository;
 
 @Service
@@ -18,6 +23,12 @@ public class TaskService {
     
     @Autowired
     private TaskRepository taskRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private DirectoryService directoryService;
       // Get my tasks from Flowable
     public List<Task> getMyTasks(String assignee) {
         return taskService.createTaskQuery()
@@ -36,7 +47,15 @@ public class TaskService {
     }
       // Complete task
     public void completeTask(String taskId, Map<String, Object> variables) {
-        taskService.complete(taskId, variables);
+        TaskCompleteEvent event = new TaskCompleteEvent();
+        event.begin();
+        boolean succeeded = false;
+        try {
+            taskService.complete(taskId, variables);
+            succeeded = true;
+        } finally {
+            event.finish(taskId, variables != null ? variables.get("caseId") : null, succeeded);
+        }
     }
       // Get task by ID from Flowable
     public Task getTaskById(String taskId) {
@@ -48,30 +67,33 @@ public class TaskService {
     // ===== TaskModel Database Operations =====
     
     // Get tasks by case ID from database
+    @Transactional(readOnly = true)
     public List<TaskModel> getTasksByCaseId(UUID caseId) {
         return taskRepository.findByCaseId(caseId);
     }
     
     // Get my tasks from database
+    @Transactional(readOnly = true)
     public List<TaskModel> getMyTasksFromDB(String assignee) {
         return taskRepository.findByAssignee(assignee);
     }
     
     // Get group tasks from database
+    @Transactional(readOnly = true)
     public List<TaskModel> getGroupTasksFromDB(String candidateGroup) {
         return taskRepository.findByCandidateGroup(candidateGroup);
     }
     
     // Save task to database
     public TaskModel saveTask(TaskModel task) {
-        return taskRepository.save(task);
+        return persist(task);
     }
     
     // Create task record in database when workflow task is created
     public TaskModel createTaskRecord(UUID caseId, String taskName, String candidateGroup, String processInstanceId) {
         TaskModel task = new TaskModel(caseId, taskName, candidateGroup);
         task.setProcessInstanceId(processInstanceId);
-        return taskRepository.save(task);
+        return persist(task);
     }    /**
      * Create a new task (for User Stories 1 & 2)
      */
@@ -85,7 +107,7 @@ public class TaskService {
         newTask.setPriority(priority);
         // status and createdAt are set by constructor
         
-        return taskRepository.save(newTask);
+        return persist(newTask);
     }
     
     /**
@@ -99,7 +121,7 @@ public class TaskService {
                 task.setStatus("COMPLETED");
                 task.setCompletedBy(completedBy);
                 task.setCompletedAt(java.time.LocalDateTime.now());
-                taskRepository.save(task);
+                persist(task);
                 break;
             }
         }
@@ -108,6 +130,7 @@ public class TaskService {
     /**
      * Get tasks by type/title
      */
+    @Transactional(readOnly = true)
     public List<TaskModel> getTasksByType(String taskTitle) {
         return taskRepository.findAll().stream()
             .filter(task -> taskTitle.equals(task.getTitle()))
@@ -117,6 +140,7 @@ public class TaskService {
     /**
      * Get tasks by assignee (alias for getMyTasksFromDB for consistency with API)
      */
+    @Transactional(readOnly = true)
     public List<TaskModel> getTasksByAssignee(String assignee) {
         return getMyTasksFromDB(assignee);
     }
@@ -124,6 +148,7 @@ public class TaskService {
     /**
      * Get all tasks (Admin function)
      */
+    @Transactional(readOnly = true)
     public List<TaskModel> getAllTasks() {
         return taskRepository.findAll();
     }
@@ -141,7 +166,7 @@ public class TaskService {
         investigateTask.setCreatedAt(java.time.LocalDateTime.now());
         investigateTask.setDescription("Investigate the approved case for potential violations");
         
-        taskRepository.save(investigateTask);
+        persist(investigateTask);
     }
     
     /**
@@ -157,12 +182,13 @@ public class TaskService {
         completeTask.setCreatedAt(java.time.LocalDateTime.now());
         completeTask.setDescription("Complete the case creation with required information");
         
-        taskRepository.save(completeTask);
+        persist(completeTask);
     }
     
     /**
      * Get pending approval tasks (for supervisors)
      */
+    @Transactional(readOnly = true)
     public List<TaskModel> getPendingApprovalTasks() {
         return taskRepository.findByTaskNameAndStatus("Approve Case Creation", "ACTIVE");
     }
@@ -175,17 +201,18 @@ public class TaskService {
         TaskModel approvalTask = new TaskModel();
         approvalTask.setCaseId(caseId);
         approvalTask.setTaskName("Approve Case Creation");
-        approvalTask.setCandidateGroup("admin"); // Admin group
+        approvalTask.setCandidateGroup(directoryService.approverGroup());
         approvalTask.setStatus("ACTIVE");
         approvalTask.setCreatedAt(java.time.LocalDateTime.now());
         approvalTask.setDescription("Review and approve or reject the case creation. Original creator: " + originalCreator);
         
-        taskRepository.save(approvalTask);
+        persist(approvalTask);
     }
     
     /**
      * Get approved approval tasks (for admin approvals view)
      */
+    @Transactional(readOnly = true)
     public List<TaskModel> getApprovedApprovalTasks() {
         return taskRepository.findByTaskNameAndStatus("Approve Case Creation", "COMPLETED");
     }
@@ -200,11 +227,23 @@ public class TaskService {
                 && "OPEN".equalsIgnoreCase(task.getStatus())) {
                 task.setStatus("COMPLETED");
                 task.setCompletedAt(java.time.LocalDateTime.now());
-                taskRepository.save(task);
+                persist(task);
             }
         }
     }
     
+    // Completes every open task of the given cases in one query and one batch of updates
+    public int closeOpenTasksForCases(Collection<UUID> caseIds) {
+        List<TaskModel> tasks = taskRepository.findOpenByCaseIdIn(caseIds);
+        LocalDateTime now = LocalDateTime.now();
+        for (TaskModel task : tasks) {
+            task.setStatus("COMPLETED");
+            task.setCompletedAt(now);
+        }
+        taskRepository.saveAll(tasks).forEach(saved -> eventPublisher.publishEvent(new TaskChangedEvent(saved)));
+        return tasks.size();
+    }
+    
     // Get TaskModel by string ID (UUID as string)
     public TaskModel getTaskModelById(String taskId) {
         try {
@@ -215,10 +254,9 @@ public class TaskService {
         }
     }
 
-    // Validate if the assignee is a valid user (stub, replace with real logic)
+    // Validate the assignee against the in-memory user directory
     public boolean isValidAssignee(String assignee) {
-        // TODO: Implement real user validation (e.g., check against user table or directory)
-        return assignee != null && !assignee.trim().isEmpty();
+        return directoryService.isUser(assignee);
     }
 
     // Update task status in the database
@@ -226,7 +264,14 @@ public class TaskService {
         TaskModel task = getTaskModelById(taskId);
         if (task != null) {
             task.setStatus(status);
-            taskRepository.save(task);
+            persist(task);
         }
     }
+
+    // Every task write goes through here so listeners (e.g. the priority inbox) see it
+    private TaskModel persist(TaskModel task) {
+        TaskModel saved = taskRepository.save(task);
+        eventPublisher.publishEvent(new TaskChangedEvent(saved));
+        return saved;
+    }
 }
\ No newline at end of file
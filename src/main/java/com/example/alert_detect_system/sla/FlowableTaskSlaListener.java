@@ -0,0 +1,60 @@
+package com.example.alert_detect_system.sla;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+import org.flowable.common.engine.api.delegate.event.FlowableEngineEventType;
+import org.flowable.common.engine.api.delegate.event.FlowableEntityEvent;
+import org.flowable.common.engine.api.delegate.event.FlowableEvent;
+import org.flowable.common.engine.api.delegate.event.FlowableEventListener;
+import org.flowable.task.api.Task;
+import org.springframework.beans.factory.ObjectProvider;
+
+import com.example.alert_detect_system.service.SlaTimerService;
+
+/**
+ * Arms and disarms SLA timers for Flowable user tasks as the engine creates, re-dates and ends them.
+ * The service is looked up lazily because it depends on beans the process engine creates.
+ */
+public class FlowableTaskSlaListener implements FlowableEventListener {
+
+    private final ObjectProvider<SlaTimerService> slaTimerService;
+
+    public FlowableTaskSlaListener(ObjectProvider<SlaTimerService> slaTimerService) {
+        this.slaTimerService = slaTimerService;
+    }
+
+    @Override
+    public void onEvent(FlowableEvent event) {
+        if (!(event instanceof FlowableEntityEvent entityEvent) || !(entityEvent.getEntity() instanceof Task task)) {
+            return;
+        }
+        if (event.getType() == FlowableEngineEventType.TASK_CREATED
+                || event.getType() == FlowableEngineEventType.TASK_DUEDATE_CHANGED) {
+            LocalDateTime dueAt = task.getDueDate() != null
+                ? LocalDateTime.ofInstant(task.getDueDate().toInstant(), ZoneId.systemDefault()) : null;
+            if (dueAt != null || event.getType() == FlowableEngineEventType.TASK_DUEDATE_CHANGED) {
+                slaTimerService.getObject().onFlowableTaskDue(task.getId(), dueAt);
+            }
+        } else if (event.getType() == FlowableEngineEventType.TASK_COMPLETED
+                || event.getType() == FlowableEngineEventType.ENTITY_DELETED) {
+            slaTimerService.getObject().onFlowableTaskEnded(task.getId());
+        }
+    }
+
+    // A failing timer must never roll back the workflow
+    @Override
+    public boolean isFailOnException() {
+        return false;
+    }
+
+    @Override
+    public boolean isFireOnTransactionLifecycleEvent() {
+        return false;
+    }
+
+    @Override
+    public String getOnTransaction() {
+        return null;
+    }
+}
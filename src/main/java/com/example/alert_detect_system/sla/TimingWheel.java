@@ -0,0 +1,176 @@
+package com.example.alert_detect_system.sla;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timing wheel (Varghese &amp; Lauck): {@value #LEVELS} levels of {@value #SLOTS} slots,
+ * each level {@value #SLOTS} times coarser than the one below. Scheduling and cancelling are O(1);
+ * each tick fires one level-0 slot and, every {@value #SLOTS} ticks, cascades one slot of the next
+ * level down, so the cost of a tick does not depend on how many timers are pending.
+ *
+ * With a one second tick the top level spans about 194 days; later deadlines are parked in the
+ * farthest top-level slot and re-placed each time it cascades. Not thread-safe.
+ */
+public final class TimingWheel<K> {
+
+    static final int LEVELS = 4;
+    static final int SLOTS = 64;
+    private static final int BITS = 6;
+    private static final int MASK = SLOTS - 1;
+    private static final long SPAN = 1L << (BITS * LEVELS);
+
+    private final long tickMillis;
+    private final Node<K>[][] wheel;
+    private final Map<K, Node<K>> nodes = new HashMap<>();
+    // Timers already due when scheduled; fired on the next advance
+    private Node<K> overdue;
+    private long currentTick;
+
+    public TimingWheel(long tickMillis, long startMillis) {
+        this.tickMillis = tickMillis;
+        this.currentTick = startMillis / tickMillis;
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        Node<K>[][] slots = new Node[LEVELS][SLOTS];
+        this.wheel = slots;
+    }
+
+    /**
+     * Schedules {@code key} to fire at {@code deadlineMillis}, replacing any earlier schedule.
+     */
+    public void schedule(K key, long deadlineMillis) {
+        cancel(key);
+        // Round up: a timer may fire late by up to one tick, never early
+        Node<K> node = new Node<>(key, -Math.floorDiv(-deadlineMillis, tickMillis));
+        nodes.put(key, node);
+        place(node);
+    }
+
+    public boolean cancel(K key) {
+        Node<K> node = nodes.remove(key);
+        if (node == null) {
+            return false;
+        }
+        unlink(node);
+        return true;
+    }
+
+    public boolean contains(K key) {
+        return nodes.containsKey(key);
+    }
+
+    public int size() {
+        return nodes.size();
+    }
+
+    /**
+     * Moves the wheel forward to {@code nowMillis}, handing every expired key to {@code expired}.
+     */
+    public int advanceTo(long nowMillis, Consumer<K> expired) {
+        long targetTick = nowMillis / tickMillis;
+        int fired = fireList(overdue, expired);
+        while (currentTick < targetTick) {
+            currentTick++;
+            cascade();
+            int slot = (int) (currentTick & MASK);
+            Node<K> head = wheel[0][slot];
+            wheel[0][slot] = null;
+            fired += fireList(head, expired);
+            // Cascading can land a timer exactly on the current tick
+            fired += fireList(overdue, expired);
+        }
+        return fired;
+    }
+
+    private void cascade() {
+        // A level-L slot is due when the lower L levels have all wrapped around
+        for (int level = 1; level < LEVELS; level++) {
+            if ((currentTick & ((1L << (BITS * level)) - 1)) != 0) {
+                return;
+            }
+            int slot = (int) ((currentTick >>> (BITS * level)) & MASK);
+            Node<K> node = wheel[level][slot];
+            wheel[level][slot] = null;
+            while (node != null) {
+                Node<K> next = node.next;
+                node.prev = node.next = null;
+                place(node);
+                node = next;
+            }
+        }
+    }
+
+    private int fireList(Node<K> head, Consumer<K> expired) {
+        if (head == overdue) {
+            overdue = null;
+        }
+        int fired = 0;
+        Node<K> node = head;
+        while (node != null) {
+            Node<K> next = node.next;
+            node.prev = node.next = null;
+            node.level = -1;
+            nodes.remove(node.key);
+            expired.accept(node.key);
+            fired++;
+            node = next;
+        }
+        return fired;
+    }
+
+    private void place(Node<K> node) {
+        long delta = node.deadlineTick - currentTick;
+        if (delta <= 0) {
+            node.level = LEVELS;
+            node.next = overdue;
+            if (overdue != null) overdue.prev = node;
+            overdue = node;
+            return;
+        }
+        long tick = delta >= SPAN ? currentTick + SPAN - 1 : node.deadlineTick;
+        delta = tick - currentTick;
+        int level = 0;
+        while (level < LEVELS - 1 && delta >= (1L << (BITS * (level + 1)))) {
+            level++;
+        }
+        int slot = (int) ((tick >>> (BITS * level)) & MASK);
+        node.level = level;
+        node.slot = slot;
+        node.next = wheel[level][slot];
+        if (node.next != null) node.next.prev = node;
+        wheel[level][slot] = node;
+    }
+
+    private void unlink(Node<K> node) {
+        if (node.level < 0) {
+            return;
+        }
+        if (node.prev != null) {
+            node.prev.next = node.next;
+        } else if (node.level == LEVELS) {
+            overdue = node.next;
+        } else {
+            wheel[node.level][node.slot] = node.next;
+        }
+        if (node.next != null) {
+            node.next.prev = node.prev;
+        }
+        node.prev = node.next = null;
+        node.level = -1;
+    }
+
+    private static final class Node<K> {
+        final K key;
+        final long deadlineTick;
+        int level;
+        int slot;
+        Node<K> prev;
+        Node<K> next;
+
+        Node(K key, long deadlineTick) {
+            this.key = key;
+            this.deadlineTick = deadlineTick;
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.alert_detect_system.tracing;
+
+import org.flowable.common.engine.impl.interceptor.AbstractCommandInterceptor;
+import org.flowable.common.engine.impl.interceptor.Command;
+import org.flowable.common.engine.impl.interceptor.CommandConfig;
+import org.flowable.common.engine.impl.interceptor.CommandExecutor;
+
+/**
+ * Adds the time spent in Flowable engine commands (including their SQL) to the current request trace.
+ */
+public class FlowableTracingInterceptor extends AbstractCommandInterceptor {
+
+    @Override
+    public <T> T execute(CommandConfig config, Command<T> command, CommandExecutor commandExecutor) {
+        RequestTrace trace = RequestTrace.current();
+        if (trace == null) {
+            return next.execute(config, command, commandExecutor);
+        }
+        trace.flowableEntered();
+        try {
+            return next.execute(config, command, commandExecutor);
+        } finally {
+            trace.flowableExited();
+        }
+    }
+}
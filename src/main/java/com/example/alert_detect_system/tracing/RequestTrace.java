@@ -0,0 +1,102 @@
+package com.example.alert_detect_system.tracing;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * What one request did in the database and the workflow engine: statements executed, time spent
+ * in JDBC and in Flowable commands, and how often each distinct statement ran. Bound to the
+ * request's thread; work handed to other threads is not included.
+ */
+public final class RequestTrace {
+
+    private static final ThreadLocal<RequestTrace> CURRENT = new ThreadLocal<>();
+
+    private int statements;
+    private long jdbcNanos;
+    private int flowableCommands;
+    private long flowableNanos;
+    private int flowableDepth;
+    private long flowableStart;
+    private final Map<String, Integer> executions = new HashMap<>();
+
+    private RequestTrace() {
+    }
+
+    public static RequestTrace start() {
+        RequestTrace trace = new RequestTrace();
+        CURRENT.set(trace);
+        return trace;
+    }
+
+    /** The trace of the request running on this thread, or null. */
+    public static RequestTrace current() {
+        return CURRENT.get();
+    }
+
+    public static void stop() {
+        CURRENT.remove();
+    }
+
+    void statementExecuted(String sql, long nanos) {
+        statements++;
+        jdbcNanos += nanos;
+        executions.merge(sql, 1, Integer::sum);
+    }
+
+    // Commands nest (a service call runs sub-commands); only the outermost one is timed
+    void flowableEntered() {
+        if (flowableDepth++ == 0) {
+            flowableStart = System.nanoTime();
+        }
+    }
+
+    void flowableExited() {
+        if (--flowableDepth == 0) {
+            flowableCommands++;
+            flowableNanos += System.nanoTime() - flowableStart;
+        }
+    }
+
+    public int statements() {
+        return statements;
+    }
+
+    public long jdbcNanos() {
+        return jdbcNanos;
+    }
+
+    public int flowableCommands() {
+        return flowableCommands;
+    }
+
+    public long flowableNanos() {
+        return flowableNanos;
+    }
+
+    /**
+     * The statement executed most often, or null if none ran.
+     */
+    public Map.Entry<String, Integer> mostRepeated() {
+        Map.Entry<String, Integer> most = null;
+        for (Map.Entry<String, Integer> entry : executions.entrySet()) {
+            if (most == null || entry.getValue() > most.getValue()) {
+                most = entry;
+            }
+        }
+        return most;
+    }
+
+    /**
+     * Statements executed at least {@code threshold} times, the usual sign of an N+1 pattern.
+     */
+    public Map<String, Integer> repeatedStatements(int threshold) {
+        Map<String, Integer> repeated = new HashMap<>();
+        executions.forEach((sql, count) -> {
+            if (count >= threshold) {
+                repeated.put(sql, count);
+            }
+        });
+        return repeated;
+    }
+}
@@ -0,0 +1,300 @@
+package com.example.alert_detect_system.tracing;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+/**
+ * Traces every /api/ request (see {@link RequestTrace}) and reports it per endpoint, the endpoint
+ * being the method plus the matched route pattern. Reports go to Micrometer
+ * (http.server.requests.queries, .jdbc, .flowable, .repeated) and, with {@code tracing.headers},
+ * to response headers; those need the body held back until the request is done, so they are
+ * meant for development and only added to JSON bodies of up to {@code tracing.headers-max-body}
+ * bytes. Larger bodies (long streamed lists) and other content (recording downloads) are passed
+ * straight through without them. Statements repeated {@code tracing.repeat-threshold} times in one
+ * request are logged as possible N+1 queries. Endpoints listed in {@code tracing.budgets} that
+ * run more statements than their budget are logged, or fail the request with
+ * {@code tracing.fail-on-budget}, which the test profile sets.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 50)
+public class RequestTraceFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(RequestTraceFilter.class);
+    private static final int MAX_REPORTED = 1000;
+
+    public static final String QUERY_COUNT_HEADER = "X-Query-Count";
+    public static final String QUERY_REPEATS_HEADER = "X-Query-Repeats";
+    public static final String SERVER_TIMING_HEADER = "Server-Timing";
+
+    @Autowired
+    private ObjectProvider<MeterRegistry> meterRegistry;
+
+    @Value("${tracing.enabled:true}")
+    private boolean enabled;
+
+    @Value("${tracing.headers:false}")
+    private boolean headers;
+
+    @Value("${tracing.headers-max-body:262144}")
+    private int headersMaxBody;
+
+    @Value("${tracing.repeat-threshold:5}")
+    private int repeatThreshold;
+
+    // "GET /api/cases=4,GET /api/cases/{caseId}=2"
+    @Value("${tracing.budgets:}")
+    private String budgetSpec;
+
+    @Value("${tracing.fail-on-budget:false}")
+    private boolean failOnBudget;
+
+    private final Map<String, Integer> budgets = new HashMap<>();
+    // Endpoint and statement pairs already warned about, so a hot endpoint does not flood the log
+    private final Set<String> reported = ConcurrentHashMap.newKeySet();
+
+    @PostConstruct
+    void init() {
+        for (String entry : budgetSpec.split(",")) {
+            int separator = entry.lastIndexOf('=');
+            if (separator > 0) {
+                budgets.put(entry.substring(0, separator).trim(), Integer.parseInt(entry.substring(separator + 1).trim()));
+            }
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RequestTrace trace = RequestTrace.start();
+        HeldBackResponse buffered = headers ? new HeldBackResponse(response, headersMaxBody) : null;
+        String overBudget;
+        try {
+            chain.doFilter(request, buffered != null ? buffered : response);
+        } finally {
+            RequestTrace.stop();
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            String uri = pattern != null ? pattern.toString() : "UNMAPPED";
+            String endpoint = request.getMethod() + " " + uri;
+            record(request.getMethod(), uri, trace);
+            reportRepeats(endpoint, trace);
+            overBudget = checkBudget(endpoint, trace);
+            if (buffered != null && buffered.isHeldBack()) {
+                Map.Entry<String, Integer> mostRepeated = trace.mostRepeated();
+                buffered.setHeader(QUERY_COUNT_HEADER, Integer.toString(trace.statements()));
+                buffered.setHeader(QUERY_REPEATS_HEADER, Integer.toString(mostRepeated != null ? mostRepeated.getValue() : 0));
+                buffered.setHeader(SERVER_TIMING_HEADER, String.format(Locale.ROOT, "db;dur=%.1f, flowable;dur=%.1f",
+                    trace.jdbcNanos() / 1e6, trace.flowableNanos() / 1e6));
+            }
+            if (buffered != null) {
+                buffered.release();
+            }
+        }
+        if (overBudget != null && failOnBudget) {
+            throw new IllegalStateException(overBudget);
+        }
+    }
+
+    private void record(String method, String uri, RequestTrace trace) {
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        if (registry == null) {
+            return;
+        }
+        DistributionSummary.builder("http.server.requests.queries")
+            .description("SQL statements executed per request")
+            .tags("method", method, "uri", uri)
+            .register(registry)
+            .record(trace.statements());
+        Timer.builder("http.server.requests.jdbc")
+            .tags("method", method, "uri", uri)
+            .register(registry)
+            .record(trace.jdbcNanos(), TimeUnit.NANOSECONDS);
+        Timer.builder("http.server.requests.flowable")
+            .tags("method", method, "uri", uri)
+            .register(registry)
+            .record(trace.flowableNanos(), TimeUnit.NANOSECONDS);
+        if (!trace.repeatedStatements(repeatThreshold).isEmpty()) {
+            registry.counter("http.server.requests.repeated", "method", method, "uri", uri).increment();
+        }
+    }
+
+    private void reportRepeats(String endpoint, RequestTrace trace) {
+        trace.repeatedStatements(repeatThreshold).forEach((sql, count) -> {
+            String key = endpoint + " " + sql;
+            if (reported.size() < MAX_REPORTED && reported.add(key)) {
+                logger.warn("Possible N+1 on {}: statement ran {} times in one request: {}", endpoint, count, sql);
+            } else {
+                logger.debug("Possible N+1 on {}: statement ran {} times in one request: {}", endpoint, count, sql);
+            }
+        });
+    }
+
+    private String checkBudget(String endpoint, RequestTrace trace) {
+        Integer budget = budgets.get(endpoint);
+        if (budget == null || trace.statements() <= budget) {
+            return null;
+        }
+        String message = endpoint + " ran " + trace.statements() + " statements, over its budget of " + budget;
+        logger.warn(message);
+        return message;
+    }
+
+    /**
+     * Holds back a JSON body of up to {@code limit} bytes so headers can still be set after the
+     * handler is done. The first write decides: other content types pass straight through, and a
+     * JSON body that outgrows the limit is flushed and passes through from then on.
+     */
+    private static final class HeldBackResponse extends HttpServletResponseWrapper {
+
+        private final int limit;
+        private final ByteArrayOutputStream held = new ByteArrayOutputStream();
+        private ServletOutputStream out;
+        private PrintWriter writer;
+        private Boolean passThrough;
+
+        HeldBackResponse(HttpServletResponse response, int limit) {
+            super(response);
+            this.limit = limit;
+        }
+
+        boolean isHeldBack() {
+            return passThrough != Boolean.TRUE && !getResponse().isCommitted();
+        }
+
+        // Sends whatever is still held back
+        void release() throws IOException {
+            if (writer != null) {
+                writer.flush();
+            }
+            sendHeld();
+        }
+
+        private void sendHeld() throws IOException {
+            if (held.size() > 0) {
+                getResponse().getOutputStream().write(held.toByteArray());
+                held.reset();
+            }
+        }
+
+        private void write(byte[] bytes, int offset, int length) throws IOException {
+            if (passThrough == null) {
+                String contentType = getContentType();
+                passThrough = contentType == null || !MediaType.APPLICATION_JSON.isCompatibleWith(MediaType.parseMediaType(contentType));
+            }
+            if (!passThrough && held.size() + length > limit) {
+                passThrough = true;
+                sendHeld();
+            }
+            if (passThrough) {
+                getResponse().getOutputStream().write(bytes, offset, length);
+            } else {
+                held.write(bytes, offset, length);
+            }
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() {
+            if (out == null) {
+                out = new ServletOutputStream() {
+                    @Override
+                    public void write(int b) throws IOException {
+                        HeldBackResponse.this.write(new byte[] {(byte) b}, 0, 1);
+                    }
+
+                    @Override
+                    public void write(byte[] bytes, int offset, int length) throws IOException {
+                        HeldBackResponse.this.write(bytes, offset, length);
+                    }
+
+                    // A flush would commit the response, so it only goes through once nothing is held
+                    @Override
+                    public void flush() throws IOException {
+                        if (passThrough == Boolean.TRUE) {
+                            getResponse().getOutputStream().flush();
+                        }
+                    }
+
+                    @Override
+                    public boolean isReady() {
+                        return true;
+                    }
+
+                    @Override
+                    public void setWriteListener(WriteListener listener) {
+                        throw new UnsupportedOperationException("Traced responses are written blocking");
+                    }
+                };
+            }
+            return out;
+        }
+
+        @Override
+        public PrintWriter getWriter() {
+            if (writer == null) {
+                String encoding = getCharacterEncoding();
+                writer = new PrintWriter(new OutputStreamWriter(getOutputStream(),
+                    encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8));
+            }
+            return writer;
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            if (writer != null) {
+                writer.flush();
+            }
+            getOutputStream().flush();
+        }
+
+        @Override
+        public void resetBuffer() {
+            held.reset();
+            super.resetBuffer();
+        }
+
+        @Override
+        public void reset() {
+            held.reset();
+            passThrough = null;
+            super.reset();
+        }
+    }
+}
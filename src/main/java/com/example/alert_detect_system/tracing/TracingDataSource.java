@@ -0,0 +1,97 @@
+package com.example.alert_detect_system.tracing;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+
+import javax.sql.DataSource;
+
+/**
+ * Wraps a DataSource so every statement executed through it is counted and timed in the current
+ * {@link RequestTrace}. Installed as the physical DataSource under the connection pool that JPA,
+ * Flowable's MyBatis mappings and JdbcTemplate all share, so it sees every query the application
+ * runs. Without a current trace the proxies only delegate.
+ */
+public final class TracingDataSource {
+
+    private TracingDataSource() {
+    }
+
+    public static DataSource wrap(DataSource dataSource) {
+        return proxy(DataSource.class, dataSource, (target, method, args) -> {
+            Object result = invoke(target, method, args);
+            return result instanceof Connection connection ? connection(connection) : result;
+        });
+    }
+
+    private static Connection connection(Connection connection) {
+        return proxy(Connection.class, connection, (target, method, args) -> {
+            Object result = invoke(target, method, args);
+            if (result instanceof CallableStatement statement) {
+                return statement(CallableStatement.class, statement, (String) args[0]);
+            } else if (result instanceof PreparedStatement statement) {
+                return statement(PreparedStatement.class, statement, (String) args[0]);
+            } else if (result instanceof Statement statement) {
+                return statement(Statement.class, statement, null);
+            }
+            return result;
+        });
+    }
+
+    private static <S extends Statement> S statement(Class<S> type, S statement, String preparedSql) {
+        return proxy(type, statement, (target, method, args) -> {
+            RequestTrace trace = RequestTrace.current();
+            if (trace == null || !method.getName().startsWith("execute")) {
+                return invoke(target, method, args);
+            }
+            String sql = preparedSql != null ? preparedSql
+                : args != null && args.length > 0 && args[0] instanceof String text ? text : "(batch)";
+            long start = System.nanoTime();
+            try {
+                return invoke(target, method, args);
+            } finally {
+                trace.statementExecuted(sql, System.nanoTime() - start);
+            }
+        });
+    }
+
+    private interface Handler<T> {
+        Object handle(T target, Method method, Object[] args) throws Throwable;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, T target, Handler<T> handler) {
+        InvocationHandler invocationHandler = (proxy, method, args) -> {
+            // Identity semantics, so transaction code comparing connections sees the same proxy as equal
+            if (method.getName().equals("equals") && method.getParameterCount() == 1) {
+                return proxy == args[0];
+            }
+            if (method.getName().equals("hashCode") && method.getParameterCount() == 0) {
+                return System.identityHashCode(proxy);
+            }
+            // Pools and drivers look through wrappers with unwrap(); hand them the real object
+            if (method.getName().equals("unwrap") || method.getName().equals("isWrapperFor")) {
+                Class<?> wanted = (Class<?>) args[0];
+                if (wanted.isInstance(target)) {
+                    return method.getName().equals("unwrap") ? target : true;
+                }
+                return invoke(target, method, args);
+            }
+            return handler.handle(target, method, args);
+        };
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, invocationHandler);
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.example.alert_detect_system.workflow;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.example.alert_detect_system.Model.CaseModel;
+import com.example.alert_detect_system.Model.CaseStatus;
+import com.example.alert_detect_system.repo.CaseRepository;
+
+/**
+ * Single source of truth for which {@link CaseStatus} changes are legal.
+ *
+ * The transition table is built once; checking a transition is an EnumMap lookup plus an array
+ * index and allocates nothing. Applying a transition is one conditional UPDATE
+ * ({@code WHERE status = from}), so validation and the write cannot be interleaved by another writer.
+ */
+@Component
+public class CaseStateMachine {
+
+    /**
+     * Extra condition on a transition that depends on the case itself or the acting user.
+     */
+    @FunctionalInterface
+    public interface TransitionGuard {
+        boolean permits(CaseModel caseModel, String actor);
+    }
+
+    /**
+     * Side effect run in the same transaction after a transition has been applied.
+     */
+    @FunctionalInterface
+    public interface TransitionHook {
+        void afterTransition(CaseModel caseModel, CaseStatus from, CaseStatus to, String actor);
+    }
+
+    private static final CaseStatus[] STATUSES = CaseStatus.values();
+
+    @Autowired
+    private CaseRepository caseRepository;
+
+    // from -> transitions indexed by target ordinal (null = not allowed)
+    private final Map<CaseStatus, Transition[]> table = new EnumMap<>(CaseStatus.class);
+    private final Map<CaseStatus, Set<CaseStatus>> targets = new EnumMap<>(CaseStatus.class);
+    private final Map<CaseStatus, Set<CaseStatus>> sources = new EnumMap<>(CaseStatus.class);
+    private final Map<CaseStatus, List<TransitionHook>> enterHooks = new EnumMap<>(CaseStatus.class);
+
+    public CaseStateMachine() {
+        for (CaseStatus status : STATUSES) {
+            table.put(status, new Transition[STATUSES.length]);
+            enterHooks.put(status, new CopyOnWriteArrayList<>());
+        }
+        allow(CaseStatus.DRAFT, CaseStatus.PENDING_CASE_CREATION_APPROVAL);
+        allow(CaseStatus.DRAFT, CaseStatus.ABANDONED,
+            guard((c, actor) -> actor != null && actor.equals(c.getCreatedBy()), "Only the creator can abandon this draft case."));
+        allow(CaseStatus.PENDING_CASE_CREATION_APPROVAL, CaseStatus.READY_FOR_ASSIGNMENT);
+        allow(CaseStatus.PENDING_CASE_CREATION_APPROVAL, CaseStatus.REJECTED);
+        allow(CaseStatus.PENDING_CASE_CREATION_APPROVAL, CaseStatus.DRAFT);
+        allow(CaseStatus.REJECTED, CaseStatus.DRAFT);
+        allow(CaseStatus.REJECTED, CaseStatus.PENDING_CASE_CREATION_APPROVAL);
+        allow(CaseStatus.REJECTED, CaseStatus.CLOSED);
+        allow(CaseStatus.READY_FOR_ASSIGNMENT, CaseStatus.IN_INVESTIGATION);
+        allow(CaseStatus.READY_FOR_ASSIGNMENT, CaseStatus.CLOSED);
+        allow(CaseStatus.IN_INVESTIGATION, CaseStatus.COMPLETED);
+        allow(CaseStatus.IN_INVESTIGATION, CaseStatus.CLOSED);
+        allow(CaseStatus.COMPLETED, CaseStatus.CLOSED);
+        // CLOSED and ABANDONED are terminal
+
+        for (CaseStatus from : STATUSES) {
+            EnumSet<CaseStatus> allowed = EnumSet.noneOf(CaseStatus.class);
+            EnumSet<CaseStatus> incoming = EnumSet.noneOf(CaseStatus.class);
+            for (CaseStatus other : STATUSES) {
+                if (table.get(from)[other.ordinal()] != null) allowed.add(other);
+                if (table.get(other)[from.ordinal()] != null) incoming.add(other);
+            }
+            targets.put(from, Collections.unmodifiableSet(allowed));
+            sources.put(from, Collections.unmodifiableSet(incoming));
+        }
+    }
+
+    public boolean canTransition(CaseStatus from, CaseStatus to) {
+        return from != null && to != null && table.get(from)[to.ordinal()] != null;
+    }
+
+    public Set<CaseStatus> allowedTargets(CaseStatus from) {
+        return targets.get(from);
+    }
+
+    public Set<CaseStatus> allowedSources(CaseStatus to) {
+        return sources.get(to);
+    }
+
+    public boolean isTerminal(CaseStatus status) {
+        return targets.get(status).isEmpty();
+    }
+
+    public boolean hasGuards(CaseStatus from, CaseStatus to) {
+        Transition transition = canTransition(from, to) ? table.get(from)[to.ordinal()] : null;
+        return transition != null && transition.guards.length > 0;
+    }
+
+    /**
+     * Throws {@link CaseTransitionException} unless the transition is in the table and every guard
+     * accepts it. {@code caseModel} may be null when {@link #hasGuards} is false.
+     */
+    public void validate(CaseModel caseModel, CaseStatus from, CaseStatus to, String actor) {
+        if (!canTransition(from, to)) {
+            throw new CaseTransitionException(from, to, "Cannot move case from " + from + " to " + to, false);
+        }
+        Transition transition = table.get(from)[to.ordinal()];
+        for (GuardEntry entry : transition.guards) {
+            if (caseModel == null || !entry.guard.permits(caseModel, actor)) {
+                throw new CaseTransitionException(from, to, entry.message, true);
+            }
+        }
+    }
+
+    /**
+     * Validates and applies in one conditional UPDATE. Returns false when the case is no longer
+     * in {@code from} (another writer won); the caller decides whether to re-read and retry.
+     */
+    public boolean apply(UUID caseId, CaseModel snapshot, CaseStatus from, CaseStatus to, String actor) {
+        validate(snapshot, from, to, actor);
+        return caseRepository.transitionStatus(caseId, from, to, actor, LocalDateTime.now()) == 1;
+    }
+
+    /**
+     * Registers a hook run after any successful transition into {@code to}. Intended for startup wiring.
+     */
+    public void onEnter(CaseStatus to, TransitionHook hook) {
+        enterHooks.get(to).add(hook);
+    }
+
+    public void fireHooks(CaseModel caseModel, CaseStatus from, CaseStatus to, String actor) {
+        List<TransitionHook> hooks = enterHooks.get(to);
+        for (int i = 0; i < hooks.size(); i++) {
+            hooks.get(i).afterTransition(caseModel, from, to, actor);
+        }
+    }
+
+    private void allow(CaseStatus from, CaseStatus to, GuardEntry... guards) {
+        table.get(from)[to.ordinal()] = new Transition(guards);
+    }
+
+    private static GuardEntry guard(TransitionGuard guard, String message) {
+        return new GuardEntry(guard, message);
+    }
+
+    private record GuardEntry(TransitionGuard guard, String message) {}
+
+    private record Transition(GuardEntry[] guards) {}
+}
@@ -0,0 +1,27 @@
+package com.example.alert_detect_system.workflow;
+
+import com.example.alert_detect_system.Model.CaseStatus;
+
+/**
+ * Raised by {@link CaseStateMachine} for a transition that is not in the table ({@code forbidden == false})
+ * or that a guard rejected for the acting user ({@code forbidden == true}).
+ */
+public class CaseTransitionException extends IllegalArgumentException {
+
+    private final CaseStatus from;
+    private final CaseStatus to;
+    private final boolean forbidden;
+
+    public CaseTransitionException(CaseStatus from, CaseStatus to, String message, boolean forbidden) {
+        super(message);
+        this.from = from;
+        this.to = to;
+        this.forbidden = forbidden;
+    }
+
+    public CaseStatus getFrom() { return from; }
+
+    public CaseStatus getTo() { return to; }
+
+    public boolean isForbidden() { return forbidden; }
+}
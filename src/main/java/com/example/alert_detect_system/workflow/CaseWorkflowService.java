@@ -10,6 +10,9 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import com.example.alert_detect_system.Model.CaseModel;
+import com.example.alert_detect_system.config.FlowableProcessDeployment;
+import com.example.alert_detect_system.profiling.WorkflowStartEvent;
+import com.example.alert_detect_system.rules.CaseRuleEngine;
 
 @Service
 public class CaseWorkflowService {
@@ -19,8 +22,16 @@ public class CaseWorkflowService {
     
     @Autowired
     private TaskService taskService;
+
+    @Autowired
+    private CaseRuleEngine ruleEngine;
+
+    @Autowired
+    private FlowableProcessDeployment processDeployment;
     
     public String startCaseWorkflow(CaseModel caseEntity) {
+        WorkflowStartEvent event = new WorkflowStartEvent();
+        event.begin();
         // Prepare workflow variables
         Map<String, Object> variables = new HashMap<>();
         variables.put("caseId", caseEntity.getId().toString());
@@ -29,21 +40,26 @@ public class CaseWorkflowService {
         variables.put("priority", caseEntity.getPriority());
         variables.put("createdBy", caseEntity.getCreatedBy());
         variables.put("requiresApproval", requiresApproval(caseEntity));
+        variables.put("riskScore", ruleEngine.riskScore(caseEntity));
         
         // Start the BPMN process
-        ProcessInstance processInstance = runtimeService.startProcessInstanceByKey(
-            "caseInvestigationProcess", // This matches your BPMN file process ID
-            caseEntity.getCaseNumber(),  // Business key
-            variables
-        );
-        
-        return processInstance.getId();
+        String processInstanceId = null;
+        try {
+            processDeployment.ensureDeployed();
+            ProcessInstance processInstance = runtimeService.startProcessInstanceByKey(
+                "caseInvestigationProcess", // This matches your BPMN file process ID
+                caseEntity.getCaseNumber(),  // Business key
+                variables
+            );
+            processInstanceId = processInstance.getId();
+            return processInstanceId;
+        } finally {
+            event.finish(caseEntity.getId(), caseEntity.getCaseNumber(), processInstanceId);
+        }
     }
     
     private boolean requiresApproval(CaseModel caseEntity) {
-        // Business logic to determine if caseModel needs approval
-        return "HIGH".equals(caseEntity.getPriority()) || 
-               "CRITICAL".equals(caseEntity.getPriority()) ||
-               (caseEntity.getRiskScore() != null && caseEntity.getRiskScore() > 80);
+        // Business logic to determine if caseModel needs approval (see rules/case-rules.json)
+        return ruleEngine.requiresApproval(caseEntity);
     }
-}
\ No newline at end of file
+}
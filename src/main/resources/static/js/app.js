@@ -226,6 +226,8 @@ async function apiRequest(endpoint, options = {}) {
         ...options,
         headers: {
             'Content-Type': 'application/json',
+            // Rate limits are kept per user
+            'X-User-Id': currentUser,
             ...options.headers,
         },
     };
@@ -0,0 +1,259 @@
+package com.example.alert_detect_system;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.flowable.engine.RepositoryService;
+import org.flowable.engine.repository.Deployment;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.example.alert_detect_system.Model.CaseModel;
+import com.example.alert_detect_system.Model.ClusterLockModel;
+import com.example.alert_detect_system.Model.TaskModel;
+import com.example.alert_detect_system.cache.CollectionVersions;
+import com.example.alert_detect_system.config.FlowableProcessDeployment;
+import com.example.alert_detect_system.dto.CaseRequestDto;
+import com.example.alert_detect_system.inbox.InboxEntry;
+import com.example.alert_detect_system.intake.IntakeTicket;
+import com.example.alert_detect_system.repo.ClusterLockRepository;
+import com.example.alert_detect_system.search.CaseSearchIndex;
+import com.example.alert_detect_system.search.CaseSearchIndex.SearchPage;
+import com.example.alert_detect_system.service.AuditService;
+import com.example.alert_detect_system.service.CaseIntakeService;
+import com.example.alert_detect_system.service.CaseService;
+import com.example.alert_detect_system.service.ChangeFeedService;
+import com.example.alert_detect_system.service.ClusterLockService;
+import com.example.alert_detect_system.service.SearchService;
+import com.example.alert_detect_system.service.TaskInboxService;
+import com.example.alert_detect_system.service.TaskService;
+
+/**
+ * Two application nodes in one JVM sharing an H2 file database, the way two instances behind a
+ * load balancer share MySQL.
+ */
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class ClusterCoordinationTest {
+
+    @TempDir
+    static Path dir;
+
+    private static ConfigurableApplicationContext nodeA;
+    private static ConfigurableApplicationContext nodeB;
+
+    @BeforeAll
+    public static void startNodes() {
+        nodeA = start("node-a");
+        nodeB = start("node-b");
+    }
+
+    @AfterAll
+    public static void stopNodes() {
+        if (nodeB != null) nodeB.close();
+        if (nodeA != null) nodeA.close();
+    }
+
+    @Test
+    @Order(1)
+    public void testConcurrentStartupDeploysTheProcessOnce() throws Exception {
+        RepositoryService repositoryService = nodeA.getBean(RepositoryService.class);
+        assertEquals(1, repositoryService.createProcessDefinitionQuery().processDefinitionKey("caseInvestigationProcess").count());
+
+        for (Deployment deployment : repositoryService.createDeploymentQuery().list()) {
+            repositoryService.deleteDeployment(deployment.getId(), true);
+        }
+        CountDownLatch startGate = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        List<Future<?>> runs = new ArrayList<>();
+        for (ConfigurableApplicationContext node : List.of(nodeA, nodeB)) {
+            FlowableProcessDeployment deployment = node.getBean(FlowableProcessDeployment.class);
+            runs.add(pool.submit(() -> {
+                startGate.await();
+                deployment.run();
+                return null;
+            }));
+        }
+        startGate.countDown();
+        for (Future<?> run : runs) {
+            run.get(60, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+        assertEquals(1, repositoryService.createDeploymentQuery().count());
+        assertTrue(nodeB.getBean(FlowableProcessDeployment.class).isDeployed());
+    }
+
+    @Test
+    @Order(2)
+    public void testLeaseIsExclusiveUntilReleasedOrExpired() throws Exception {
+        ClusterLockService a = nodeA.getBean(ClusterLockService.class);
+        ClusterLockService b = nodeB.getBean(ClusterLockService.class);
+        assertTrue(a.tryLock("test-lease", Duration.ofSeconds(30)));
+        assertTrue(a.tryLock("test-lease", Duration.ofSeconds(30)), "the holder may renew");
+        assertFalse(b.tryLock("test-lease", Duration.ofSeconds(30)));
+        a.release("test-lease");
+        assertTrue(b.tryLock("test-lease", Duration.ofMillis(300)));
+        long token = nodeA.getBean(ClusterLockRepository.class).findById("test-lease").map(ClusterLockModel::getToken).orElseThrow();
+
+        Thread.sleep(400);
+        assertTrue(a.tryLock("test-lease", Duration.ofSeconds(30)), "an expired lease can be taken over");
+        assertFalse(b.tryLock("test-lease", Duration.ofSeconds(30)), "the previous holder cannot renew");
+        ClusterLockModel row = nodeB.getBean(ClusterLockRepository.class).findById("test-lease").orElseThrow();
+        assertEquals("node-a", row.getOwner());
+        assertEquals(token + 1, row.getToken());
+    }
+
+    @Test
+    @Order(3)
+    public void testCriticalSectionNeverRunsOnTwoNodesAtOnce() throws Exception {
+        AtomicInteger inside = new AtomicInteger();
+        AtomicInteger overlaps = new AtomicInteger();
+        AtomicInteger runs = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        for (int t = 0; t < 8; t++) {
+            ClusterLockService locks = (t % 2 == 0 ? nodeA : nodeB).getBean(ClusterLockService.class);
+            pool.submit(() -> {
+                for (int i = 0; i < 25; i++) {
+                    locks.runExclusively("test-critical", Duration.ofSeconds(30), () -> {
+                        if (inside.incrementAndGet() > 1) {
+                            overlaps.incrementAndGet();
+                        }
+                        runs.incrementAndGet();
+                        Thread.onSpinWait();
+                        inside.decrementAndGet();
+                    });
+                }
+            });
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(60, TimeUnit.SECONDS));
+        assertEquals(0, overlaps.get());
+        assertTrue(runs.get() > 0);
+    }
+
+    @Test
+    @Order(4)
+    public void testWritesOnOneNodeReachTheOtherNodesViews() throws Exception {
+        ChangeFeedService feedB = nodeB.getBean(ChangeFeedService.class);
+        SearchService searchB = nodeB.getBean(SearchService.class);
+        TaskInboxService inboxB = nodeB.getBean(TaskInboxService.class);
+        CollectionVersions versionsB = nodeB.getBean(CollectionVersions.class);
+        feedB.poll();
+        long casesVersion = versionsB.version(CollectionVersions.Collection.CASES);
+        long tasksVersion = versionsB.version(CollectionVersions.Collection.TASKS);
+
+        String entity = "tok" + UUID.randomUUID().toString().replace("-", "");
+        String group = "cluster-" + UUID.randomUUID();
+        CaseModel created = nodeA.getBean(CaseService.class).createCase(request(entity), "analyst1");
+        nodeA.getBean(AuditService.class).logCaseAction(created.getId(), "NOTE_ADDED", "analyst1", "Noted " + entity);
+        TaskService tasksA = nodeA.getBean(TaskService.class);
+        tasksA.createInvestigateTask(created.getId(), group);
+        TaskModel task = tasksA.getTasksByCaseId(created.getId()).stream()
+            .filter(t -> group.equals(t.getCandidateGroup())).findFirst().orElseThrow();
+
+        // B's own schedule may get there first; polling here just saves waiting for it
+        feedB.poll();
+        SearchPage cases = searchB.search(entity, CaseSearchIndex.TYPE_CASE, 0, 10);
+        assertEquals(1, cases.total());
+        assertEquals(created.getId().toString(), cases.hits().get(0).caseId());
+        assertEquals(1, searchB.search(entity, CaseSearchIndex.TYPE_AUDIT, 0, 10).total());
+        assertEquals(List.of(task.getId()), inboxB.next(group, 10).stream().map(InboxEntry::taskId).toList());
+        assertTrue(versionsB.version(CollectionVersions.Collection.CASES) > casesVersion, "list ETags on B move");
+        assertTrue(versionsB.version(CollectionVersions.Collection.TASKS) > tasksVersion);
+        assertEquals(0, feedB.poll(), "nothing is applied twice");
+
+        // Claimed on A: B stops offering it
+        assertTrue(nodeA.getBean(TaskInboxService.class).claim(group, task.getId(), "analyst1").isPresent());
+        feedB.poll();
+        assertEquals(0, inboxB.size(group));
+
+        nodeA.getBean(CaseService.class).deleteCase(created.getId(), "admin1");
+        feedB.poll();
+        assertEquals(0, searchB.search(entity, CaseSearchIndex.TYPE_CASE, 0, 10).total());
+
+        // Intake status can be polled on the node that did not accept the request
+        IntakeTicket ticket = nodeA.getBean(CaseIntakeService.class).submit(request("Intake " + entity), "analyst1").orElseThrow();
+        CaseIntakeService intakeB = nodeB.getBean(CaseIntakeService.class);
+        assertTrue(intakeB.ticket(ticket.getId()).isPresent());
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!intakeB.ticket(ticket.getId()).orElseThrow().isFinished() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        IntakeTicket seenOnB = intakeB.ticket(ticket.getId()).orElseThrow();
+        assertEquals(IntakeTicket.Status.COMPLETED, seenOnB.getStatus());
+        assertEquals(ticket.getCaseModel().getId(), seenOnB.getCaseModel().getId());
+    }
+
+    @Test
+    @Order(5)
+    public void testOneLeaderAndFailoverWhenItStops() throws Exception {
+        ClusterLockService a = nodeA.getBean(ClusterLockService.class);
+        ClusterLockService b = nodeB.getBean(ClusterLockService.class);
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!(a.isLeader() || b.isLeader()) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        for (int i = 0; i < 20; i++) {
+            assertTrue(a.isLeader() ^ b.isLeader(), "exactly one leader");
+            Thread.sleep(50);
+        }
+
+        boolean aLed = a.isLeader();
+        ConfigurableApplicationContext survivor = aLed ? nodeB : nodeA;
+        if (aLed) {
+            nodeA.close();
+            nodeA = null;
+        } else {
+            nodeB.close();
+            nodeB = null;
+        }
+        ClusterLockService next = survivor.getBean(ClusterLockService.class);
+        deadline = System.currentTimeMillis() + 10_000;
+        while (!next.isLeader() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        assertTrue(next.isLeader(), "the surviving node takes over");
+    }
+
+    private static CaseRequestDto request(String entity) {
+        CaseRequestDto request = new CaseRequestDto();
+        request.setCaseType("AML");
+        request.setPriority("LOW");
+        request.setEntity(entity);
+        request.setRiskScore(20.0);
+        return request;
+    }
+
+    private static ConfigurableApplicationContext start(String nodeId) {
+        Path nodeDir = dir.resolve(nodeId);
+        return new SpringApplicationBuilder(AlertDetectSystemApplication.class)
+            .profiles("test")
+            .run(
+                "--spring.datasource.url=jdbc:h2:file:" + dir.resolve("shared").toAbsolutePath() + ";DB_CLOSE_DELAY=-1",
+                "--spring.jpa.hibernate.ddl-auto=update",
+                "--server.port=0",
+                "--cluster.node-id=" + nodeId,
+                "--cluster.leader.lease-ms=2000",
+                "--cluster.leader.renew-interval-ms=200",
+                "--search.index.dir=" + nodeDir.resolve("search-index"),
+                "--audit.archive.dir=" + nodeDir.resolve("audit-archive"));
+    }
+}
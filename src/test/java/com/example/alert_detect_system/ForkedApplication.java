@@ -0,0 +1,125 @@
+package com.example.alert_detect_system;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The application running in a separate process (a JVM on the test class path, or the native
+ * binary), for measurements that need a cold start.
+ */
+final class ForkedApplication implements AutoCloseable {
+
+    private static final Pattern STARTED = Pattern.compile("Started AlertDetectSystemApplication in ([0-9.]+) seconds");
+
+    private final Process process;
+    private final Path log;
+    private final int port;
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+    private double firstRequestSeconds;
+
+    private ForkedApplication(Process process, Path log, int port) {
+        this.process = process;
+        this.log = log;
+        this.port = port;
+    }
+
+    static List<String> jvm() {
+        return List.of(Paths.get(System.getProperty("java.home"), "bin", "java").toString(),
+            "-cp", System.getProperty("java.class.path"), AlertDetectSystemApplication.class.getName());
+    }
+
+    /**
+     * Starts the application and returns once GET /api/cases answers 200.
+     */
+    static ForkedApplication start(List<String> launcher, Path log, String... args) throws Exception {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        List<String> command = new ArrayList<>(launcher);
+        command.addAll(List.of(args));
+        command.add("--server.port=" + port);
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).redirectOutput(log.toFile()).start();
+        ForkedApplication app = new ForkedApplication(process, log, port);
+        long deadline = System.currentTimeMillis() + 300_000;
+        try {
+            while (System.currentTimeMillis() < deadline) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException("Exited during startup:\n" + Files.readString(log));
+                }
+                try {
+                    if (app.get("/api/cases").statusCode() == 200) {
+                        app.firstRequestSeconds = (System.nanoTime() - start) / 1e9;
+                        return app;
+                    }
+                } catch (IOException e) {
+                    // Not listening yet
+                }
+                Thread.sleep(50);
+            }
+            throw new IllegalStateException("No answer within 5 minutes:\n" + Files.readString(log));
+        } catch (Exception e) {
+            app.close();
+            throw e;
+        }
+    }
+
+    HttpResponse<String> get(String path) throws IOException, InterruptedException {
+        return client.send(HttpRequest.newBuilder(uri(path)).build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    HttpResponse<String> post(String path, String json) throws IOException, InterruptedException {
+        return client.send(HttpRequest.newBuilder(uri(path)).header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(json)).build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    double firstRequestSeconds() {
+        return firstRequestSeconds;
+    }
+
+    // As reported by Spring Boot; NaN if the line is missing
+    double contextSeconds() throws IOException {
+        Matcher started = STARTED.matcher(Files.readString(log));
+        return started.find() ? Double.parseDouble(started.group(1)) : Double.NaN;
+    }
+
+    // Resident set size from /proc; -1 where that is not available
+    long rssKilobytes() {
+        try {
+            for (String line : Files.readAllLines(Path.of("/proc", Long.toString(process.pid()), "status"))) {
+                if (line.startsWith("VmRSS:")) {
+                    return Long.parseLong(line.replaceAll("[^0-9]", ""));
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            // Not Linux
+        }
+        return -1;
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        process.destroy();
+        if (!process.waitFor(60, TimeUnit.SECONDS)) {
+            process.destroyForcibly();
+        }
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+}
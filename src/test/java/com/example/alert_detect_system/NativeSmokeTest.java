@@ -0,0 +1,78 @@
+package com.example.alert_detect_system;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Boots the native binary (mvn -Pnative native:compile) against in-memory H2, drives the case and
+ * task APIs, then does the same on the JVM and compares startup and resident memory. Skipped
+ * when the binary has not been built; pass -Dnative.binary=... for a different location.
+ */
+public class NativeSmokeTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @TempDir
+    Path dir;
+
+    @Test
+    public void testNativeBinaryServesCasesAndTasks() throws Exception {
+        Path binary = Path.of(System.getProperty("native.binary", "target/Alert_detect_system"));
+        assumeTrue(Files.isExecutable(binary), "native binary not built: " + binary);
+
+        double nativeStart, jvmStart;
+        long nativeRss, jvmRss;
+        try (ForkedApplication app = start(List.of(binary.toAbsolutePath().toString()), "native")) {
+            exercise(app);
+            nativeStart = app.firstRequestSeconds();
+            nativeRss = app.rssKilobytes();
+        }
+        try (ForkedApplication app = start(ForkedApplication.jvm(), "jvm")) {
+            exercise(app);
+            jvmStart = app.firstRequestSeconds();
+            jvmRss = app.rssKilobytes();
+        }
+        System.out.printf("Native image: first request %.2f s, RSS %d MB; JVM: first request %.2f s, RSS %d MB%n",
+            nativeStart, nativeRss / 1024, jvmStart, jvmRss / 1024);
+        assertTrue(nativeStart < jvmStart);
+    }
+
+    private ForkedApplication start(List<String> launcher, String name) throws Exception {
+        return ForkedApplication.start(launcher, dir.resolve(name + ".log"),
+            "--spring.profiles.active=test",
+            "--search.index.dir=" + dir.resolve(name + "/search-index"),
+            "--audit.archive.dir=" + dir.resolve(name + "/audit-archive"));
+    }
+
+    private void exercise(ForkedApplication app) throws Exception {
+        var created = app.post("/api/cases", """
+            {"caseType": "AML", "priority": "HIGH", "entity": "Native Smoke Ltd", "riskScore": 42,
+             "typology": "FRAUD", "description": "native smoke test", "createdBy": "analyst1"}""");
+        assertEquals(2, created.statusCode() / 100, created.body());
+        String caseId = objectMapper.readTree(created.body()).get("id").asText();
+
+        var cases = app.get("/api/cases");
+        assertEquals(200, cases.statusCode());
+        boolean listed = false;
+        for (JsonNode entry : objectMapper.readTree(cases.body())) {
+            listed |= caseId.equals(entry.path("case").path("id").asText());
+        }
+        assertTrue(listed, "created case is listed");
+        assertEquals(200, app.get("/api/cases/" + caseId).statusCode());
+
+        var tasks = app.get("/api/tasks/by-case/" + caseId);
+        assertEquals(200, tasks.statusCode(), tasks.body());
+        assertTrue(objectMapper.readTree(tasks.body()).isArray());
+        assertEquals(200, app.get("/api/tasks/group/admin").statusCode());
+    }
+}
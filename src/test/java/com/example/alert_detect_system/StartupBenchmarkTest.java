@@ -0,0 +1,52 @@
+package com.example.alert_detect_system;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Cold start and time to first request of the default configuration against the fast profile,
+ * each in a fresh JVM on the test class path with a shared H2 file database. Forks three JVMs, so
+ * it only runs on request: mvn test -Dtest=StartupBenchmarkTest -Dstartup.bench=true
+ */
+public class StartupBenchmarkTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    public void testFastProfileStartsSooner() throws Exception {
+        assumeTrue(Boolean.getBoolean("startup.bench"), "set -Dstartup.bench=true to run");
+        // First start creates the schema and deploys the process, as an upgrade would
+        start("prime", "test").close();
+        double normalContext, normalFirstRequest, fastContext, fastFirstRequest;
+        try (ForkedApplication normal = start("default", "test")) {
+            normalContext = normal.contextSeconds();
+            normalFirstRequest = normal.firstRequestSeconds();
+        }
+        try (ForkedApplication fast = start("fast", "test,fast")) {
+            fastContext = fast.contextSeconds();
+            fastFirstRequest = fast.firstRequestSeconds();
+        }
+        System.out.printf("Startup: default context %.1f s, first request %.1f s; fast context %.1f s, first request %.1f s%n",
+            normalContext, normalFirstRequest, fastContext, fastFirstRequest);
+        assertTrue(fastFirstRequest < normalFirstRequest * 1.1, "fast profile must not start slower");
+    }
+
+    private ForkedApplication start(String name, String profiles) throws Exception {
+        List<String> args = new ArrayList<>(List.of(
+            "--spring.profiles.active=" + profiles,
+            "--spring.datasource.url=jdbc:h2:file:" + dir.resolve("db").toAbsolutePath(),
+            "--search.index.dir=" + dir.resolve("search-index"),
+            "--audit.archive.dir=" + dir.resolve("audit-archive")));
+        if (!profiles.contains("fast")) {
+            args.add("--spring.jpa.hibernate.ddl-auto=update");
+        }
+        return ForkedApplication.start(ForkedApplication.jvm(), dir.resolve(name + ".log"), args.toArray(String[]::new));
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.alert_detect_system.audit;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.alert_detect_system.Model.AuditLogModel;
+
+public class AuditArchiveStoreTest {
+
+    @TempDir
+    Path archiveDir;
+
+    @Test
+    public void testSegmentsSurviveReload() throws Exception {
+        UUID caseA = UUID.randomUUID();
+        UUID caseB = UUID.randomUUID();
+        Map<UUID, List<AuditLogModel>> byCase = new LinkedHashMap<>();
+        byCase.put(caseA, List.of(log(caseA, "CASE_CREATED"), log(caseA, "STATUS_CHANGE")));
+        byCase.put(caseB, List.of(log(caseB, "CASE_CREATED")));
+
+        AuditArchiveStore store = open();
+        store.writeSegment(YearMonth.of(2024, 1), byCase);
+        store.writeSegment(YearMonth.of(2024, 2), Map.of(caseA, List.of(log(caseA, "CASE_DELETED"))));
+
+        AuditArchiveStore reopened = open();
+        List<AuditLogModel> history = reopened.read(caseA);
+        assertEquals(3, history.size());
+        assertEquals(1, reopened.read(caseB).size());
+        assertTrue(reopened.read(UUID.randomUUID()).isEmpty());
+        AuditLogModel first = history.stream().filter(l -> "STATUS_CHANGE".equals(l.getAction())).findFirst().orElseThrow();
+        assertEquals("DRAFT", first.getOldValue());
+        assertEquals(caseA, first.getCaseId());
+    }
+
+    @Test
+    public void testSegmentsWrittenByAnotherNodeArePickedUp() throws Exception {
+        UUID caseId = UUID.randomUUID();
+        AuditArchiveStore leader = open();
+        AuditArchiveStore follower = open();
+
+        leader.writeSegment(YearMonth.of(2024, 3), Map.of(caseId, List.of(log(caseId, "CASE_CREATED"))));
+        assertFalse(follower.hasArchivedRecords(caseId));
+        follower.refresh();
+        assertEquals(1, follower.read(caseId).size());
+        // Segments are loaded once, including the writer's own
+        follower.refresh();
+        leader.refresh();
+        assertEquals(1, follower.read(caseId).size());
+        assertEquals(1, leader.read(caseId).size());
+    }
+
+    private AuditArchiveStore open() throws Exception {
+        AuditArchiveStore store = new AuditArchiveStore();
+        ReflectionTestUtils.setField(store, "archiveDir", archiveDir.toString());
+        store.load();
+        return store;
+    }
+
+    private static AuditLogModel log(UUID caseId, String action) {
+        AuditLogModel log = new AuditLogModel(caseId, action, "analyst1", "details for " + action);
+        log.setId(UUID.randomUUID());
+        log.setTimestamp(LocalDateTime.of(2024, 1, 15, 10, 30));
+        log.setOldValue("DRAFT");
+        return log;
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.alert_detect_system.audit;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+import com.example.alert_detect_system.Model.AuditLogModel;
+
+public class AuditHashChainTest {
+
+    private final UUID caseId = UUID.randomUUID();
+
+    @Test
+    public void testIntactChainVerifies() {
+        assertNull(AuditHashChain.verify(chain(5)));
+    }
+
+    @Test
+    public void testEditedDetailsAreDetected() {
+        List<AuditLogModel> chain = chain(5);
+        chain.get(2).setDetails("Status changed from DRAFT to CLOSED");
+        String failure = AuditHashChain.verify(chain);
+        assertNotNull(failure);
+        assertTrue(failure.contains("sequence 3"), failure);
+    }
+
+    @Test
+    public void testDeletedRecordIsDetected() {
+        List<AuditLogModel> chain = chain(5);
+        chain.remove(1);
+        assertNotNull(AuditHashChain.verify(chain));
+    }
+
+    @Test
+    public void testRehashedRecordBreaksNextLink() {
+        List<AuditLogModel> chain = chain(5);
+        AuditLogModel forged = chain.get(1);
+        forged.setPerformedBy("someone-else");
+        forged.setHash(AuditHashChain.computeHash(forged));
+        String failure = AuditHashChain.verify(chain);
+        assertNotNull(failure);
+        assertTrue(failure.contains("sequence 3"), failure);
+    }
+
+    private List<AuditLogModel> chain(int length) {
+        List<AuditLogModel> chain = new ArrayList<>();
+        String prev = AuditHashChain.GENESIS_HASH;
+        for (long seq = 1; seq <= length; seq++) {
+            AuditLogModel log = new AuditLogModel(caseId, "STATUS_CHANGE", "analyst1", "Status changed from DRAFT to PENDING");
+            log.setId(UUID.randomUUID());
+            log.setTimestamp(LocalDateTime.of(2025, 3, 1, 9, 0).plusMinutes(seq));
+            log.setChainKey(AuditHashChain.chainKey(caseId, null));
+            log.setSequence(seq);
+            log.setPrevHash(prev);
+            log.setHash(AuditHashChain.computeHash(log));
+            prev = log.getHash();
+            chain.add(log);
+        }
+        return chain;
+    }
+}
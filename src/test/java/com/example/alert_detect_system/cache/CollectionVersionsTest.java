@@ -0,0 +1,61 @@
+package com.example.alert_detect_system.cache;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import org.flowable.task.api.Task;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.example.alert_detect_system.Model.CaseModel;
+import com.example.alert_detect_system.cache.CollectionVersions.Collection;
+import com.example.alert_detect_system.dto.CaseRequestDto;
+import com.example.alert_detect_system.service.CaseService;
+import com.example.alert_detect_system.service.TaskService;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class CollectionVersionsTest {
+
+    @Autowired
+    private CollectionVersions collectionVersions;
+
+    @Autowired
+    private CaseService caseService;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private org.flowable.engine.TaskService workflowTaskService;
+
+    @Test
+    public void testWritesChangeOnlyTheirCollectionsStamp() {
+        String key = "/api/cases?status=DRAFT";
+        long cases = collectionVersions.stamp(key, Collection.CASES);
+        long tasks = collectionVersions.stamp("/api/tasks/by-assignee/a1", Collection.TASKS);
+        long workflow = collectionVersions.stamp("/api/tasks/group/g", Collection.WORKFLOW_TASKS);
+        assertEquals(cases, collectionVersions.stamp(key, Collection.CASES), "no write, same tag");
+        assertNotEquals(cases, collectionVersions.stamp("/api/cases?status=CLOSED", Collection.CASES));
+
+        CaseRequestDto request = new CaseRequestDto();
+        request.setCaseType("AML");
+        request.setPriority("LOW");
+        CaseModel created = caseService.createCase(request, "analyst1");
+        assertNotEquals(cases, collectionVersions.stamp(key, Collection.CASES));
+        assertEquals(tasks, collectionVersions.stamp("/api/tasks/by-assignee/a1", Collection.TASKS));
+
+        taskService.createInvestigateTask(created.getId(), "investigations");
+        assertNotEquals(tasks, collectionVersions.stamp("/api/tasks/by-assignee/a1", Collection.TASKS));
+        assertEquals(workflow, collectionVersions.stamp("/api/tasks/group/g", Collection.WORKFLOW_TASKS));
+
+        Task task = workflowTaskService.newTask(UUID.randomUUID().toString());
+        task.setName("Standalone review");
+        workflowTaskService.saveTask(task);
+        assertNotEquals(workflow, collectionVersions.stamp("/api/tasks/group/g", Collection.WORKFLOW_TASKS));
+        workflowTaskService.deleteTask(task.getId(), true);
+    }
+}
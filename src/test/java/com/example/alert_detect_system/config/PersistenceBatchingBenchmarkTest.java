@@ -0,0 +1,126 @@
+package com.example.alert_detect_system.config;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import org.hibernate.Session;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.alert_detect_system.Model.AuditLogModel;
+import com.example.alert_detect_system.Model.CaseModel;
+import com.example.alert_detect_system.Model.CaseStatus;
+import com.zaxxer.hikari.HikariDataSource;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * Case and audit insert throughput with JDBC batching off (the default profile) and at the prod
+ * profile's batch size, set per session so both runs share the test context. Every run rolls
+ * back, leaving nothing behind for other tests. H2 in memory has no network round trip, so the
+ * gap here is a floor; on MySQL with rewriteBatchedStatements it is several times wider. Takes
+ * tens of seconds and compares wall-clock times, so it only runs on request:
+ * mvn test -Dtest=PersistenceBatchingBenchmarkTest -Dpersistence.bench=true
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+public class PersistenceBatchingBenchmarkTest {
+
+    private static final int ROWS = 4000;
+    private static final int PROD_BATCH_SIZE = 50;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private HikariDataSource dataSource;
+
+    @Test
+    public void testBatchedInsertThroughput() {
+        assumeTrue(Boolean.getBoolean("persistence.bench"), "set -Dpersistence.bench=true to run");
+        // Warm up statement preparation and JIT for both paths
+        for (int i = 0; i < 3; i++) {
+            insert(1, PersistenceBatchingBenchmarkTest::newCase);
+            insert(PROD_BATCH_SIZE, PersistenceBatchingBenchmarkTest::newCase);
+            insert(1, PersistenceBatchingBenchmarkTest::newAuditLog);
+            insert(PROD_BATCH_SIZE, PersistenceBatchingBenchmarkTest::newAuditLog);
+        }
+        long casesUnbatched = insert(1, PersistenceBatchingBenchmarkTest::newCase);
+        long casesBatched = insert(PROD_BATCH_SIZE, PersistenceBatchingBenchmarkTest::newCase);
+        long auditUnbatched = insert(1, PersistenceBatchingBenchmarkTest::newAuditLog);
+        long auditBatched = insert(PROD_BATCH_SIZE, PersistenceBatchingBenchmarkTest::newAuditLog);
+
+        System.out.printf("Persistence batching: %d case inserts %.1f ms unbatched, %.1f ms at batch %d (%.0f vs %.0f rows/s)%n",
+            ROWS, casesUnbatched / 1e6, casesBatched / 1e6, PROD_BATCH_SIZE, rate(casesUnbatched), rate(casesBatched));
+        System.out.printf("Persistence batching: %d audit inserts %.1f ms unbatched, %.1f ms at batch %d (%.0f vs %.0f rows/s)%n",
+            ROWS, auditUnbatched / 1e6, auditBatched / 1e6, PROD_BATCH_SIZE, rate(auditUnbatched), rate(auditBatched));
+        System.out.printf("Persistence batching: pool %s active=%d idle=%d waiting=%d%n", dataSource.getPoolName(),
+            dataSource.getHikariPoolMXBean().getActiveConnections(), dataSource.getHikariPoolMXBean().getIdleConnections(),
+            dataSource.getHikariPoolMXBean().getThreadsAwaitingConnection());
+        assertTrue(casesBatched < casesUnbatched * 2 && auditBatched < auditUnbatched * 2, "batching must not regress inserts");
+    }
+
+    private long insert(int batchSize, IntFunction<Object> factory) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        long[] elapsed = new long[1];
+        template.executeWithoutResult(status -> {
+            entityManager.unwrap(Session.class).setJdbcBatchSize(batchSize);
+            long start = System.nanoTime();
+            for (int i = 0; i < ROWS; i++) {
+                entityManager.persist(factory.apply(i));
+                if ((i + 1) % PROD_BATCH_SIZE == 0) {
+                    entityManager.flush();
+                    entityManager.clear();
+                }
+            }
+            entityManager.flush();
+            elapsed[0] = System.nanoTime() - start;
+            entityManager.clear();
+            status.setRollbackOnly();
+        });
+        return elapsed[0];
+    }
+
+    private static double rate(long nanos) {
+        return ROWS * 1e9 / nanos;
+    }
+
+    private static CaseModel newCase(int i) {
+        CaseModel caseModel = new CaseModel();
+        caseModel.setCaseNumber("BENCH-" + i);
+        caseModel.setCaseType("AML");
+        caseModel.setPriority("MEDIUM");
+        caseModel.setEntity("BENCH ENTITY " + (i % 97));
+        caseModel.setStatus(CaseStatus.DRAFT);
+        caseModel.setRiskScore((double) (i % 100));
+        caseModel.setTypology("FRAUD");
+        caseModel.setDescription("Batching benchmark case " + i);
+        caseModel.setCreatedBy("bench");
+        caseModel.setCreatedAt(LocalDateTime.now());
+        return caseModel;
+    }
+
+    private static AuditLogModel newAuditLog(int i) {
+        AuditLogModel auditLog = new AuditLogModel();
+        auditLog.setCaseId(UUID.randomUUID());
+        auditLog.setAction("BENCHMARK");
+        auditLog.setPerformedBy("bench");
+        auditLog.setDetails("Batching benchmark entry " + i);
+        auditLog.setTimestamp(LocalDateTime.now());
+        auditLog.setChainKey("bench");
+        auditLog.setSequence((long) i);
+        auditLog.setHash("0".repeat(64));
+        return auditLog;
+    }
+}
@@ -0,0 +1,180 @@
+package com.example.alert_detect_system.db;
+
+import java.util.UUID;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import com.example.alert_detect_system.cache.CollectionVersions;
+
+/**
+ * Two in-memory H2 databases stand in for primary and replica; "replication" is copying the
+ * heartbeat row by hand, so staleness is fully under the test's control.
+ */
+public class ReplicaRoutingDataSourceTest {
+
+    private static final long MAX_LAG_MS = 500;
+
+    private JdbcTemplate primary;
+    private JdbcTemplate replica;
+    private ReplicaLagMonitor monitor;
+    private JdbcTemplate routed;
+    private DataSourceTransactionManager transactionManager;
+
+    @BeforeEach
+    public void setUp() {
+        String suffix = UUID.randomUUID().toString();
+        DataSource primaryDataSource = new DriverManagerDataSource("jdbc:h2:mem:primary-" + suffix + ";DB_CLOSE_DELAY=-1");
+        DataSource replicaDataSource = new DriverManagerDataSource("jdbc:h2:mem:replica-" + suffix + ";DB_CLOSE_DELAY=-1");
+        primary = new JdbcTemplate(primaryDataSource);
+        replica = new JdbcTemplate(replicaDataSource);
+        for (JdbcTemplate db : new JdbcTemplate[] {primary, replica}) {
+            db.execute("CREATE TABLE whoami (name VARCHAR(16))");
+            db.execute("CREATE TABLE replica_heartbeat (id INT PRIMARY KEY, beat_at BIGINT NOT NULL)");
+        }
+        primary.update("INSERT INTO whoami VALUES ('primary')");
+        replica.update("INSERT INTO whoami VALUES ('replica')");
+
+        monitor = new ReplicaLagMonitor(primaryDataSource, replicaDataSource, MAX_LAG_MS, 100);
+        DataSource routing = new LazyConnectionDataSourceProxy(
+            new ReplicaRoutingDataSource(primaryDataSource, replicaDataSource, monitor));
+        routed = new JdbcTemplate(routing);
+        transactionManager = new DataSourceTransactionManager(routing);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+        primary.execute("SHUTDOWN");
+        replica.execute("SHUTDOWN");
+    }
+
+    @Test
+    public void testReadOnlyServiceTransactionsReadFromFreshReplica() {
+        replicate();
+        assertTrue(monitor.isWithinTolerance());
+        assertEquals("replica", read("CaseService.getAllCases"));
+        assertEquals("primary", write(), "writes always go to the primary");
+        assertEquals("primary", routed.queryForObject("SELECT name FROM whoami", String.class),
+            "no transaction, no routing");
+    }
+
+    @Test
+    public void testRepositoryDefaultReadOnlyTransactionsStayOnPrimary() {
+        replicate();
+        assertEquals("primary", read("org.springframework.data.jpa.repository.support.SimpleJpaRepository.findById"));
+        assertEquals("primary", read(null));
+    }
+
+    @Test
+    public void testStaleOrUnreachableReplicaFallsBackToPrimary() throws Exception {
+        monitor.probe();
+        assertFalse(monitor.isWithinTolerance(), "replica never saw a heartbeat");
+        assertEquals("primary", read("CaseService.getAllCases"));
+
+        replicate();
+        assertEquals("replica", read("CaseService.getAllCases"));
+
+        // Replication stops: the replica's heartbeat ages past the tolerance
+        Thread.sleep(MAX_LAG_MS + 50);
+        monitor.probe();
+        assertFalse(monitor.isWithinTolerance());
+        assertTrue(monitor.lagMillis() > MAX_LAG_MS);
+        assertEquals("primary", read("CaseService.getAllCases"));
+
+        replica.execute("DROP TABLE replica_heartbeat");
+        monitor.probe();
+        assertEquals(Long.MAX_VALUE, monitor.lagMillis());
+        assertEquals("primary", read("CaseService.getAllCases"));
+    }
+
+    @Test
+    public void testReadsAfterAWriteStickToPrimaryForTheRequest() throws Exception {
+        replicate();
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        assertEquals("replica", read("CaseService.getAllCases"));
+        write();
+        assertEquals("primary", read("CaseService.getAllCases"));
+
+        // Another thread, another request: not affected by this request's write
+        String[] other = new String[1];
+        Thread thread = new Thread(() -> other[0] = read("CaseService.getAllCases"));
+        thread.start();
+        thread.join();
+        assertEquals("replica", other[0]);
+    }
+
+    @Test
+    public void testThreadStickinessExpiresOnceTheReplicaMustHaveCaughtUp() throws Exception {
+        replicate();
+        write();
+        assertEquals("primary", read("SlaTimerService.recover"), "read-your-writes without a request");
+        Thread.sleep(MAX_LAG_MS + 150);
+        replicate();
+        assertEquals("replica", read("SlaTimerService.recover"));
+    }
+
+    @Test
+    public void testConditionalListReadsNeverPairANewTagWithLaggingRows() throws Exception {
+        replicate();
+        CollectionVersions versions = new CollectionVersions();
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        long before = versions.stamp("/api/cases", CollectionVersions.Collection.CASES);
+        assertEquals("primary", read("CaseService.getAllCases"));
+
+        // Another client writes; the primary commits and bumps the counter, the replica is still within tolerance
+        Thread writer = new Thread(() -> {
+            write();
+            versions.bump(CollectionVersions.Collection.CASES);
+        });
+        writer.start();
+        writer.join();
+        assertTrue(monitor.isWithinTolerance());
+
+        // The next poll gets a new tag, so its body must come from the primary or later polls 304 on stale rows
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        long after = versions.stamp("/api/cases", CollectionVersions.Collection.CASES);
+        assertNotEquals(before, after);
+        assertEquals("primary", read("CaseService.getAllCases"));
+
+        // Requests without a tag still use the replica
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        assertEquals("replica", read("CaseService.getAllCases"));
+    }
+
+    private String read(String transactionName) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(true);
+        template.setName(transactionName);
+        return template.execute(status -> routed.queryForObject("SELECT name FROM whoami", String.class));
+    }
+
+    private String write() {
+        return new TransactionTemplate(transactionManager).execute(status -> {
+            routed.update("UPDATE whoami SET name = name");
+            return routed.queryForObject("SELECT name FROM whoami", String.class);
+        });
+    }
+
+    private void replicate() {
+        monitor.probe();
+        Long beatAt = primary.queryForObject("SELECT beat_at FROM replica_heartbeat WHERE id = 1", Long.class);
+        replica.update("MERGE INTO replica_heartbeat (id, beat_at) KEY (id) VALUES (1, ?)", beatAt);
+        monitor.probe();
+    }
+}
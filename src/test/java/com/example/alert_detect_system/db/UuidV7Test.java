@@ -0,0 +1,124 @@
+package com.example.alert_detect_system.db;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class UuidV7Test {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testLayoutAndTimestamp() {
+        long before = System.currentTimeMillis();
+        UUID id = UuidV7.next();
+        long after = System.currentTimeMillis();
+        assertEquals(7, id.version());
+        assertEquals(2, id.variant());
+        long timestamp = UuidV7.timestamp(id);
+        assertTrue(timestamp >= before && timestamp <= after + 1, "counter may run the clock ahead by a millisecond");
+        assertEquals(UUID.fromString("01890a5d-ac96-7abc-8def-0123456789ab").getMostSignificantBits(),
+            UuidV7.of(0x01890a5dac96L, 0xabc, 0x0def0123456789abL).getMostSignificantBits());
+        assertThrows(IllegalArgumentException.class, () -> UuidV7.timestamp(UUID.randomUUID()));
+    }
+
+    @Test
+    public void testIdsIncreaseInByteOrderAcrossThreads() throws Exception {
+        ConcurrentLinkedQueue<UUID> ids = new ConcurrentLinkedQueue<>();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        for (int t = 0; t < 8; t++) {
+            pool.submit(() -> {
+                UUID previous = UuidV7.next();
+                for (int i = 0; i < 50_000; i++) {
+                    UUID id = UuidV7.next();
+                    // Unsigned comparison of the most significant half is the BINARY(16) index order
+                    assertTrue(Long.compareUnsigned(id.getMostSignificantBits(), previous.getMostSignificantBits()) > 0);
+                    ids.add(id);
+                    previous = id;
+                }
+            });
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(60, TimeUnit.SECONDS));
+        Set<UUID> unique = new HashSet<>(ids);
+        assertEquals(400_000, unique.size());
+    }
+
+    /**
+     * Insert throughput and primary key size for random v4 against v7 keys in an H2 file database.
+     * Compares wall-clock times, so it only runs on request: mvn test -Dtest=UuidV7Test -Duuid.bench=true
+     * (100k rows; add -Duuid.bench.rows=10000000 for the full-size comparison).
+     */
+    @Test
+    public void testInsertThroughputAndIndexSize() throws Exception {
+        assumeTrue(Boolean.getBoolean("uuid.bench"), "set -Duuid.bench=true to run");
+        int rows = Integer.getInteger("uuid.bench.rows", 100_000);
+        Result random = insert("random_keys", rows, UUID::randomUUID);
+        Result ordered = insert("ordered_keys", rows, UuidV7::next);
+        System.out.printf("UUID keys: %d rows, v4 %.0f ms (%.0f rows/s) %d KB, v7 %.0f ms (%.0f rows/s) %d KB%n", rows,
+            random.millis, rows * 1000 / random.millis, random.kilobytes,
+            ordered.millis, rows * 1000 / ordered.millis, ordered.kilobytes);
+        assertTrue(ordered.millis < random.millis, "appending at the right edge beats inserting on random pages");
+    }
+
+    private record Result(double millis, long kilobytes) {
+    }
+
+    private Result insert(String table, int rows, Supplier<UUID> keys) throws Exception {
+        String url = "jdbc:h2:file:" + tempDir.resolve(table).toAbsolutePath();
+        try (Connection connection = DriverManager.getConnection(url, "sa", "")) {
+            connection.setAutoCommit(false);
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("CREATE TABLE " + table + " (id UUID PRIMARY KEY, case_id UUID, action VARCHAR(50))");
+            }
+            List<UUID> batch = new ArrayList<>(1000);
+            long start = System.nanoTime();
+            try (PreparedStatement insert = connection.prepareStatement(
+                    "INSERT INTO " + table + " (id, case_id, action) VALUES (?, ?, 'CASE_UPDATED')")) {
+                for (int i = 0; i < rows; i++) {
+                    UUID id = keys.get();
+                    batch.add(id);
+                    insert.setObject(1, id);
+                    insert.setObject(2, id);
+                    insert.addBatch();
+                    if (batch.size() == 1000) {
+                        insert.executeBatch();
+                        connection.commit();
+                        batch.clear();
+                    }
+                }
+                insert.executeBatch();
+                connection.commit();
+            }
+            double millis = (System.nanoTime() - start) / 1e6;
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("CHECKPOINT SYNC");
+                try (ResultSet size = statement.executeQuery("CALL DISK_SPACE_USED('" + table.toUpperCase() + "')")) {
+                    size.next();
+                    return new Result(millis, size.getLong(1) / 1024);
+                }
+            }
+        }
+    }
+}
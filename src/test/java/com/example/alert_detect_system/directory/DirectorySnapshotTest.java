@@ -0,0 +1,82 @@
+package com.example.alert_detect_system.directory;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+import com.example.alert_detect_system.directory.DirectorySnapshot.DirectoryGroup;
+import com.example.alert_detect_system.directory.DirectorySnapshot.DirectoryUser;
+
+public class DirectorySnapshotTest {
+
+    private static final List<DirectoryUser> USERS = List.of(
+        new DirectoryUser("admin1", "Sarah", "Admin", null),
+        new DirectoryUser("analyst1", "Jane", "Analyst", null),
+        new DirectoryUser("lead1", "Lee", "Lead", null));
+
+    private static final List<DirectoryGroup> GROUPS = List.of(
+        new DirectoryGroup("admin", "Admins", DirectorySnapshot.ROLE_TYPE),
+        new DirectoryGroup("investigations", "Investigations", "assignment"),
+        new DirectoryGroup("senior-investigations", "Senior investigations", "assignment"),
+        new DirectoryGroup("analysts", "Analysts", "assignment"));
+
+    private static final Map<String, String> PARENTS = Map.of(
+        "admin", "senior-investigations", "senior-investigations", "investigations");
+
+    private final DirectorySnapshot directory = DirectorySnapshot.of(USERS, GROUPS, Map.of(
+        "admin1", List.of("admin"),
+        "analyst1", List.of("analysts"),
+        "lead1", List.of("senior-investigations", "no-such-group")), PARENTS);
+
+    @Test
+    public void testNestedMembershipAndRoles() {
+        assertEquals(List.of("admin", "investigations", "senior-investigations"), directory.groupsOf("admin1"));
+        assertEquals(List.of("admin"), directory.directGroupsOf("admin1"));
+        assertEquals(List.of("admin"), directory.rolesOf("admin1"));
+        assertTrue(directory.hasRole("admin1", "admin"));
+        assertFalse(directory.hasRole("lead1", "senior-investigations"), "work groups are not roles");
+
+        assertTrue(directory.isMember("lead1", "investigations"));
+        assertFalse(directory.isMember("lead1", "admin"));
+        assertFalse(directory.isMember("analyst1", "investigations"));
+        assertFalse(directory.isMember("nobody", "analysts"));
+        assertFalse(directory.isMember(null, "analysts"));
+        assertEquals(List.of("admin1", "lead1"), directory.membersOf("investigations"));
+    }
+
+    @Test
+    public void testGroupMask() {
+        var candidateGroups = directory.groupMask(List.of("senior-investigations", "analysts", "unknown"));
+        assertTrue(directory.isMemberOfAny("analyst1", candidateGroups));
+        assertTrue(directory.isMemberOfAny("admin1", candidateGroups));
+        assertFalse(directory.isMemberOfAny("nobody", candidateGroups));
+        assertFalse(directory.isMemberOfAny("lead1", directory.groupMask(List.of("admin"))));
+    }
+
+    @Test
+    public void testWithMembershipsLeavesTheOriginalUntouched() {
+        DirectorySnapshot changed = directory.withMemberships("analyst1", Set.of("analysts", "senior-investigations"));
+        assertTrue(changed.isMember("analyst1", "investigations"));
+        assertEquals(List.of("admin1", "analyst1", "lead1"), changed.membersOf("investigations"));
+        assertFalse(directory.isMember("analyst1", "investigations"));
+        assertEquals(List.of("admin1", "lead1"), directory.membersOf("investigations"));
+
+        DirectorySnapshot removed = changed.withMemberships("admin1", Set.of());
+        assertEquals(List.of(), removed.groupsOf("admin1"));
+        assertEquals(List.of("analyst1", "lead1"), removed.membersOf("investigations"));
+        assertThrows(IllegalArgumentException.class, () -> directory.withMemberships("nobody", Set.of()));
+        assertThrows(IllegalArgumentException.class, () -> directory.withMemberships("admin1", Set.of("unknown")));
+    }
+
+    @Test
+    public void testNestingCycleIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> DirectorySnapshot.of(USERS, GROUPS, Map.of(),
+            Map.of("investigations", "analysts", "analysts", "investigations")));
+    }
+}
@@ -0,0 +1,141 @@
+package com.example.alert_detect_system.dto;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+import com.example.alert_detect_system.Model.CaseModel;
+import com.example.alert_detect_system.Model.CaseStatus;
+import com.example.alert_detect_system.Model.TaskModel;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+
+public class JsonProjectionTest {
+
+    // Configured like Spring Boot's auto-configured mapper
+    private final ObjectMapper objectMapper = JsonMapper.builder()
+        .findAndAddModules()
+        .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+        .build();
+
+    @Test
+    public void testAllFieldsMatchEntitySerialization() throws Exception {
+        Random random = new Random(3);
+        for (int i = 0; i < 200; i++) {
+            CaseModel caseModel = randomCase(random);
+            assertEquals(objectMapper.readTree(objectMapper.writeValueAsString(caseModel)),
+                objectMapper.readTree(write(gen -> CaseJson.FIELDS.write(gen, caseModel, CaseJson.FIELDS.select(null)))));
+        }
+        TaskModel task = new TaskModel(UUID.randomUUID(), "Investigate Case", "investigations");
+        task.setId(UUID.randomUUID());
+        task.setDueDate(LocalDateTime.of(2025, 1, 2, 3, 4));
+        task.setVersion(2L);
+        assertEquals(objectMapper.readTree(objectMapper.writeValueAsString(task)),
+            objectMapper.readTree(write(gen -> TaskJson.FIELDS.write(gen, task, TaskJson.FIELDS.select("")))));
+    }
+
+    @Test
+    public void testSparseFieldsets() throws Exception {
+        CaseModel caseModel = randomCase(new Random(1));
+        String json = write(gen -> CaseJson.FIELDS.write(gen, caseModel, CaseJson.FIELDS.select("status, id")));
+        // Declaration order, not request order
+        assertEquals("{\"id\":\"" + caseModel.getId() + "\",\"status\":\"" + caseModel.getStatus() + "\"}", json);
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> CaseJson.FIELDS.select("id,password"));
+        assertTrue(e.getMessage().contains("password"));
+    }
+
+    @Test
+    public void testListPayloadAndSerializationCost() throws Exception {
+        Random random = new Random(7);
+        List<CaseModel> cases = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            cases.add(randomCase(random));
+        }
+        long allFields = CaseJson.FIELDS.select(null);
+        long listFields = CaseJson.FIELDS.select("id,caseNumber,status,priority,riskScore,updatedAt");
+
+        int rounds = 200;
+        int mapBytes = 0, fullBytes = 0, sparseBytes = 0;
+        long mapNanos = 0, fullNanos = 0, sparseNanos = 0;
+        for (int round = 0; round < rounds; round++) {
+            boolean measure = round >= rounds / 2;
+            long start = System.nanoTime();
+            // Previous implementation: a HashMap per case, serialized by reflection
+            List<Map<String, Object>> wrapped = new ArrayList<>();
+            for (CaseModel c : cases) {
+                Map<String, Object> map = new HashMap<>();
+                map.put("case", c);
+                wrapped.add(map);
+            }
+            mapBytes = objectMapper.writeValueAsBytes(wrapped).length;
+            long t1 = System.nanoTime();
+            fullBytes = writeList(cases, allFields);
+            long t2 = System.nanoTime();
+            sparseBytes = writeList(cases, listFields);
+            long t3 = System.nanoTime();
+            if (measure) {
+                mapNanos += t1 - start;
+                fullNanos += t2 - t1;
+                sparseNanos += t3 - t2;
+            }
+        }
+        int measured = rounds / 2;
+        System.out.printf("Case list of %d: maps %d bytes %.2f ms, projection %d bytes %.2f ms, sparse %d bytes %.2f ms%n",
+            cases.size(), mapBytes, mapNanos / 1e6 / measured, fullBytes, fullNanos / 1e6 / measured,
+            sparseBytes, sparseNanos / 1e6 / measured);
+        assertEquals(mapBytes, fullBytes, "full projection keeps the payload byte for byte");
+        assertTrue(sparseBytes * 2 < fullBytes);
+    }
+
+    private int writeList(List<CaseModel> cases, long selected) throws IOException {
+        return write(gen -> {
+            gen.writeStartArray();
+            for (CaseModel c : cases) {
+                gen.writeStartObject();
+                gen.writeFieldName("case");
+                CaseJson.FIELDS.write(gen, c, selected);
+                gen.writeEndObject();
+            }
+            gen.writeEndArray();
+        }).length();
+    }
+
+    private String write(JsonBody body) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (JsonGenerator gen = objectMapper.getFactory().createGenerator(out)) {
+            body.writeTo(gen);
+        }
+        return out.toString(java.nio.charset.StandardCharsets.UTF_8);
+    }
+
+    private static CaseModel randomCase(Random random) {
+        CaseModel caseModel = new CaseModel();
+        caseModel.setId(new UUID(random.nextLong(), random.nextLong()));
+        caseModel.setCaseNumber("CASE-" + random.nextInt(1_000_000));
+        caseModel.setCaseType("AML");
+        caseModel.setPriority(random.nextBoolean() ? "HIGH" : "LOW");
+        caseModel.setEntity(random.nextInt(4) == 0 ? null : "Customer " + random.nextInt(1000));
+        caseModel.setStatus(CaseStatus.values()[random.nextInt(CaseStatus.values().length)]);
+        caseModel.setDescription("Suspicious transfers \"flagged\" by rule " + random.nextInt(50) + "\n");
+        caseModel.setRiskScore(random.nextInt(5) == 0 ? null : random.nextInt(10000) / 100.0);
+        caseModel.setTypology("MONEY_LAUNDERING");
+        caseModel.setCreatedBy("analyst1");
+        caseModel.setCreatedAt(LocalDateTime.of(2025, 1, 1, 0, 0).plusSeconds(random.nextInt(10_000_000)).plusNanos(random.nextInt(1000) * 1000L));
+        caseModel.setUpdatedAt(random.nextBoolean() ? null : LocalDateTime.of(2025, 6, 1, 12, 0));
+        caseModel.setVersion((long) random.nextInt(5));
+        return caseModel;
+    }
+}
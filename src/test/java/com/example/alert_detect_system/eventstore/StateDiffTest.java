@@ -0,0 +1,41 @@
+package com.example.alert_detect_system.eventstore;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+public class StateDiffTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    public void testDiffHoldsOnlyChangedFields() throws Exception {
+        ObjectNode before = json("{\"status\":\"DRAFT\",\"riskScore\":40.0,\"entity\":\"Acme\",\"assignee\":\"analyst1\"}");
+        ObjectNode after = json("{\"status\":\"READY_FOR_ASSIGNMENT\",\"riskScore\":40.0,\"entity\":\"Acme\",\"assignee\":null}");
+
+        ObjectNode delta = StateDiff.diff(before, after);
+
+        assertEquals(json("{\"status\":\"READY_FOR_ASSIGNMENT\",\"assignee\":null}"), delta);
+        assertEquals(after, StateDiff.apply(before, delta));
+        assertEquals("DRAFT", before.get("status").asText(), "apply must not modify its input");
+    }
+
+    @Test
+    public void testMissingFieldsAreClearedAndCreationCarriesEverything() throws Exception {
+        ObjectNode before = json("{\"status\":\"OPEN\",\"dueDate\":\"2025-01-31T17:00:00\"}");
+        ObjectNode after = json("{\"status\":\"OPEN\"}");
+
+        assertEquals(json("{\"dueDate\":null}"), StateDiff.diff(before, after));
+        assertEquals(after, StateDiff.diff(null, after));
+        assertTrue(StateDiff.diff(after, after.deepCopy()).isEmpty());
+        assertTrue(StateDiff.diff(json("{\"a\":null}"), json("{}")).isEmpty(), "null and absent are the same");
+    }
+
+    private ObjectNode json(String json) throws Exception {
+        return (ObjectNode) objectMapper.readTree(json);
+    }
+}
@@ -0,0 +1,242 @@
+package com.example.alert_detect_system.idempotency;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletResponse;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+import com.example.alert_detect_system.ratelimit.RateLimitFilter;
+import com.example.alert_detect_system.service.CaseService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class IdempotencyFilterTest {
+
+    @Autowired
+    private WebApplicationContext context;
+
+    @Autowired
+    private IdempotencyFilter idempotencyFilter;
+
+    @Autowired
+    private IdempotencyStore idempotencyStore;
+
+    @Autowired
+    private CaseService caseService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    public void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).addFilters(idempotencyFilter).build();
+    }
+
+    @Test
+    public void testRetryReturnsStoredResponseWithoutCreatingAgain() throws Exception {
+        String entity = "Retry Corp " + UUID.randomUUID();
+        String key = UUID.randomUUID().toString();
+
+        MockHttpServletResponse first = createCase(key, entity);
+        MockHttpServletResponse retry = createCase(key, entity);
+
+        assertEquals(200, first.getStatus());
+        assertNull(first.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+        assertEquals(200, retry.getStatus());
+        assertEquals("true", retry.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+        assertEquals(caseId(first), caseId(retry));
+        assertEquals(1, casesOf(entity));
+
+        // Same key after this node forgot it, as on another node or after a restart: answered from the table
+        ((Map<?, ?>) ReflectionTestUtils.getField(idempotencyStore, "entries")).clear();
+        MockHttpServletResponse fromTable = createCase(key, entity);
+        assertEquals("true", fromTable.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+        assertEquals(caseId(first), caseId(fromTable));
+        assertEquals(1, casesOf(entity));
+
+        // A different case is not a retry
+        assertEquals(422, createCase(key, entity + " Ltd").getStatus());
+    }
+
+    @Test
+    public void testConcurrentDuplicatesRunOnce() throws Exception {
+        String entity = "Storm Corp " + UUID.randomUUID();
+        String key = UUID.randomUUID().toString();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Callable<MockHttpServletResponse>> calls = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                calls.add(() -> createCase(key, entity));
+            }
+            Set<String> caseIds = new HashSet<>();
+            for (Future<MockHttpServletResponse> result : pool.invokeAll(calls)) {
+                assertEquals(200, result.get().getStatus());
+                caseIds.add(caseId(result.get()));
+            }
+            assertEquals(1, caseIds.size());
+            assertEquals(1, casesOf(entity));
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testSameKeyFromDifferentCallersIsNotAReplay() throws Exception {
+        String entity = "Shared Key Corp " + UUID.randomUUID();
+        String key = "order-1";
+
+        MockHttpServletResponse first = createCase(key, entity, "analyst1");
+        MockHttpServletResponse second = createCase(key, entity, "analyst2");
+
+        assertEquals(200, first.getStatus());
+        assertEquals(200, second.getStatus());
+        assertNull(second.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+        assertNotEquals(caseId(first), caseId(second));
+        assertEquals(2, casesOf(entity));
+        assertEquals("true", createCase(key, entity, "analyst2").getHeader(IdempotencyFilter.REPLAYED_HEADER));
+
+        // Claiming to be analyst2 from another address does not reach analyst2's stored response
+        MockHttpServletResponse forged = createCase(key, entity, "analyst2", "10.0.0.99");
+        assertNull(forged.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+        assertNotEquals(caseId(second), caseId(forged));
+    }
+
+    @Test
+    public void testOversizedBodyIsRefused() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/cases");
+        request.addHeader(IdempotencyFilter.HEADER, UUID.randomUUID().toString());
+        request.setContent(new byte[64]);
+        ReflectionTestUtils.setField(idempotencyFilter, "maxBodyBytes", 32);
+        try {
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            idempotencyFilter.doFilter(request, response, (req, res) -> {
+                throw new AssertionError("must not run");
+            });
+            assertEquals(413, response.getStatus());
+        } finally {
+            ReflectionTestUtils.setField(idempotencyFilter, "maxBodyBytes", 1048576);
+        }
+    }
+
+    @Test
+    public void testFinishedKeysStayInMemoryWithoutPersistence() {
+        IdempotencyStore store = new IdempotencyStore();
+        ReflectionTestUtils.setField(store, "ttlMillis", 60_000L);
+        ReflectionTestUtils.setField(store, "persistent", false);
+        ReflectionTestUtils.setField(store, "maxEntries", 2);
+        StoredResponse ok = new StoredResponse(200, null, null, new byte[0]);
+        for (int i = 0; i < 5; i++) {
+            assertTrue(store.claim("key-" + i, "hash").owner());
+            store.complete("key-" + i, ok);
+        }
+        // Evicting key-0 would let its retry run again: there is no table to find it in
+        IdempotencyStore.Claim retry = store.claim("key-0", "hash");
+        assertFalse(retry.owner());
+        assertEquals(200, retry.response().join().status());
+    }
+
+    @Test
+    public void testBufferedBodySupportsNonBlockingReads() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/cases");
+        request.addHeader(IdempotencyFilter.HEADER, UUID.randomUUID().toString());
+        request.setContent("{\"entity\":\"Async Corp\"}".getBytes(StandardCharsets.UTF_8));
+        ByteArrayOutputStream received = new ByteArrayOutputStream();
+        AtomicBoolean allRead = new AtomicBoolean();
+
+        idempotencyFilter.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+            ServletInputStream in = req.getInputStream();
+            in.setReadListener(new ReadListener() {
+                @Override
+                public void onDataAvailable() throws IOException {
+                    byte[] buffer = new byte[4];
+                    while (in.isReady() && !in.isFinished()) {
+                        received.write(buffer, 0, in.read(buffer));
+                    }
+                }
+
+                @Override
+                public void onAllDataRead() {
+                    allRead.set(true);
+                }
+
+                @Override
+                public void onError(Throwable t) {
+                    throw new AssertionError(t);
+                }
+            });
+            ((HttpServletResponse) res).setStatus(204);
+        });
+
+        assertEquals("{\"entity\":\"Async Corp\"}", received.toString(StandardCharsets.UTF_8));
+        assertTrue(allRead.get());
+    }
+
+    private MockHttpServletResponse createCase(String key, String entity) throws Exception {
+        return createCase(key, entity, "analyst1");
+    }
+
+    private MockHttpServletResponse createCase(String key, String entity, String user) throws Exception {
+        return createCase(key, entity, user, "127.0.0.1");
+    }
+
+    private MockHttpServletResponse createCase(String key, String entity, String user, String address) throws Exception {
+        String body = objectMapper.writeValueAsString(Map.of(
+            "caseType", "AML", "priority", "LOW", "entity", entity, "riskScore", 20, "createdBy", user));
+        return mockMvc.perform(post("/api/cases")
+                .header(IdempotencyFilter.HEADER, key)
+                .header(RateLimitFilter.USER_HEADER, user)
+                .with(request -> {
+                    request.setRemoteAddr(address);
+                    return request;
+                })
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body))
+            .andReturn()
+            .getResponse();
+    }
+
+    private String caseId(MockHttpServletResponse response) throws Exception {
+        return objectMapper.readTree(response.getContentAsByteArray()).get("id").asText();
+    }
+
+    private long casesOf(String entity) {
+        return caseService.getAllCases().stream().filter(c -> entity.equals(c.getEntity())).count();
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.alert_detect_system.inbox;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import org.junit.jupiter.api.Test;
+
+public class TaskPriorityHeapTest {
+
+    private final Random random = new Random(7);
+
+    @Test
+    public void testRandomOperationsMatchSortedReference() {
+        TaskPriorityHeap heap = new TaskPriorityHeap();
+        Map<UUID, InboxEntry> reference = new HashMap<>();
+        List<UUID> ids = new ArrayList<>();
+        for (int op = 0; op < 20_000; op++) {
+            int choice = random.nextInt(10);
+            if (choice < 5 || ids.isEmpty()) {
+                InboxEntry entry = randomEntry(UUID.randomUUID());
+                heap.upsert(entry);
+                reference.put(entry.taskId(), entry);
+                ids.add(entry.taskId());
+            } else if (choice < 7) {
+                // re-key an existing task
+                UUID id = ids.get(random.nextInt(ids.size()));
+                InboxEntry entry = randomEntry(id);
+                heap.upsert(entry);
+                reference.put(id, entry);
+            } else if (choice < 9) {
+                UUID id = ids.remove(random.nextInt(ids.size()));
+                assertEquals(reference.remove(id), heap.remove(id));
+            } else {
+                List<InboxEntry> expected = reference.values().stream().sorted(InboxEntry.ORDER).limit(10).toList();
+                assertEquals(expected, heap.peek(10));
+            }
+            assertEquals(reference.size(), heap.size());
+        }
+        List<InboxEntry> drained = new ArrayList<>();
+        InboxEntry next;
+        while ((next = heap.poll()) != null) {
+            drained.add(next);
+        }
+        assertEquals(reference.values().stream().sorted(InboxEntry.ORDER).toList(), drained);
+        assertNull(heap.remove(UUID.randomUUID()));
+    }
+
+    @Test
+    public void testOrderingPrefersRiskThenPriorityThenDueDateThenAge() {
+        UUID caseId = UUID.randomUUID();
+        InboxEntry risky = new InboxEntry(UUID.randomUUID(), caseId, "t", "g", 90, 1, Long.MAX_VALUE, 5);
+        InboxEntry critical = new InboxEntry(UUID.randomUUID(), caseId, "t", "g", 50, 4, Long.MAX_VALUE, 5);
+        InboxEntry dueSoon = new InboxEntry(UUID.randomUUID(), caseId, "t", "g", 50, 2, 1_000, 5);
+        InboxEntry older = new InboxEntry(UUID.randomUUID(), caseId, "t", "g", 50, 2, Long.MAX_VALUE, 1);
+        InboxEntry newer = new InboxEntry(UUID.randomUUID(), caseId, "t", "g", 50, 2, Long.MAX_VALUE, 9);
+
+        TaskPriorityHeap heap = new TaskPriorityHeap();
+        for (InboxEntry entry : List.of(newer, dueSoon, older, critical, risky)) {
+            heap.upsert(entry);
+        }
+        assertEquals(List.of(risky, critical, dueSoon, older, newer), heap.peek(5));
+    }
+
+    private InboxEntry randomEntry(UUID id) {
+        return new InboxEntry(id, null, "Investigate Case", "investigations",
+            random.nextInt(5) * 25.0, random.nextInt(5), random.nextBoolean() ? Long.MAX_VALUE : random.nextInt(1000),
+            random.nextInt(1000));
+    }
+}
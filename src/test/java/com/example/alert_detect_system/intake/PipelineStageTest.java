@@ -0,0 +1,88 @@
+package com.example.alert_detect_system.intake;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+public class PipelineStageTest {
+
+    @Test
+    public void testItemsPassEveryStageAndFailuresLeaveThePipeline() throws Exception {
+        List<String> done = new CopyOnWriteArrayList<>();
+        List<String> failed = new CopyOnWriteArrayList<>();
+        CountDownLatch finished = new CountDownLatch(5);
+        PipelineStage<String> parse = new PipelineStage<>("parse", 10, 2, item -> {
+            if (item.startsWith("bad")) {
+                throw new IllegalArgumentException(item);
+            }
+        }, (item, e) -> {
+            failed.add(e.getMessage());
+            finished.countDown();
+        });
+        PipelineStage<String> store = new PipelineStage<>("store", 10, 1, item -> {
+            done.add(item);
+            finished.countDown();
+        }, (item, e) -> { });
+        parse.then(store);
+        parse.start();
+        store.start();
+        try {
+            for (String item : List.of("a", "bad-1", "b", "c", "bad-2")) {
+                assertTrue(parse.offer(item));
+            }
+            assertTrue(finished.await(5, TimeUnit.SECONDS));
+            assertEquals(3, done.size());
+            assertTrue(done.containsAll(List.of("a", "b", "c")));
+            assertEquals(2, failed.size());
+        } finally {
+            parse.stop();
+            store.stop();
+        }
+    }
+
+    @Test
+    public void testSlowStageFillsQueuesUpstreamUntilOfferIsRefused() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch stored = new CountDownLatch(5);
+        PipelineStage<Integer> head = new PipelineStage<>("head", 2, 1, item -> { }, (item, e) -> { });
+        PipelineStage<Integer> slow = new PipelineStage<>("slow", 1, 1, item -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            stored.countDown();
+        }, (item, e) -> { });
+        head.then(slow);
+        head.start();
+        slow.start();
+        try {
+            // One item in the slow worker, one in its queue, one blocked in head's worker, two in head's queue
+            int accepted = 0;
+            long deadline = System.currentTimeMillis() + 5000;
+            while (System.currentTimeMillis() < deadline) {
+                if (head.offer(accepted)) {
+                    accepted++;
+                } else if (head.inFlight() + slow.inFlight() == accepted) {
+                    break;
+                }
+                Thread.sleep(10);
+            }
+            assertEquals(5, accepted);
+            assertFalse(head.offer(99), "full pipeline must refuse new work");
+
+            release.countDown();
+            assertTrue(stored.await(5, TimeUnit.SECONDS));
+            assertTrue(head.offer(100), "drained pipeline accepts again");
+        } finally {
+            head.stop();
+            slow.stop();
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package com.example.alert_detect_system.ratelimit;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+public class TokenBucketLimiterTest {
+
+    private static final String COSTS = "GET /api/cases=10,POST /api/events/{type}/rebuild=100";
+
+    private final AtomicLong clock = new AtomicLong();
+
+    // 100 tokens, 50 per second: one token every 20 ms
+    private TokenBucketLimiter limiter() {
+        return new TokenBucketLimiter(100, 50, TokenBucketLimiter.parseRules(COSTS), clock::get);
+    }
+
+    @Test
+    public void testBurstThenRefill() {
+        TokenBucketLimiter limiter = limiter();
+        for (int i = 0; i < 100; i++) {
+            assertEquals(0, limiter.tryAcquire("admin1", "GET", "/api/tasks/my/admin1"));
+        }
+        long wait = limiter.tryAcquire("admin1", "GET", "/api/tasks/my/admin1");
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(20), wait);
+
+        clock.addAndGet(wait);
+        assertEquals(0, limiter.tryAcquire("admin1", "GET", "/api/tasks/my/admin1"));
+        assertTrue(limiter.tryAcquire("admin1", "GET", "/api/tasks/my/admin1") > 0);
+    }
+
+    @Test
+    public void testEndpointCostsAndSeparateBuckets() {
+        TokenBucketLimiter limiter = limiter();
+        for (int i = 0; i < 10; i++) {
+            assertEquals(0, limiter.tryAcquire("admin1", "GET", "/api/cases"));
+        }
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(200), limiter.tryAcquire("admin1", "GET", "/api/cases"));
+
+        // Other endpoints, methods and users are not affected by the exhausted list bucket
+        assertEquals(0, limiter.tryAcquire("admin1", "GET", "/api/cases/recent"));
+        assertEquals(0, limiter.tryAcquire("admin1", "POST", "/api/cases"));
+        assertEquals(0, limiter.tryAcquire("analyst1", "GET", "/api/cases"));
+
+        assertEquals(0, limiter.tryAcquire("admin1", "POST", "/api/events/case/rebuild"));
+        assertTrue(limiter.tryAcquire("admin1", "POST", "/api/events/task/rebuild") > 0);
+    }
+
+    @Test
+    public void testRejectsBadConfiguration() {
+        assertThrows(IllegalArgumentException.class, () -> TokenBucketLimiter.parseRules("/api/cases=10"));
+        assertThrows(IllegalArgumentException.class,
+            () -> new TokenBucketLimiter(5, 1, TokenBucketLimiter.parseRules("GET /api/cases=10"), clock::get));
+    }
+
+    @Test
+    public void testSweepDropsFullBuckets() {
+        TokenBucketLimiter limiter = limiter();
+        limiter.tryAcquire("admin1", "GET", "/api/cases");
+        limiter.tryAcquire("analyst1", "GET", "/api/tasks");
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(20));
+        assertEquals(1, limiter.sweep());
+        assertEquals(1, limiter.trackedUsers());
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(200));
+        assertEquals(1, limiter.sweep());
+        assertEquals(0, limiter.trackedUsers());
+    }
+
+    @Test
+    public void testConcurrentCallersNeverOverdrawABucket() throws Exception {
+        TokenBucketLimiter limiter = limiter();
+        AtomicInteger allowed = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        for (int t = 0; t < 8; t++) {
+            pool.submit(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    if (limiter.tryAcquire("admin1", "GET", "/api/tasks") == 0) {
+                        allowed.incrementAndGet();
+                    }
+                }
+            });
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(60, TimeUnit.SECONDS));
+        assertEquals(100, allowed.get());
+    }
+
+    @Test
+    public void testFilterAnswers429WithRetryAfter() throws Exception {
+        RateLimitFilter filter = new RateLimitFilter();
+        ReflectionTestUtils.setField(filter, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(filter, "enabled", true);
+        ReflectionTestUtils.setField(filter, "capacity", 20);
+        ReflectionTestUtils.setField(filter, "refillPerSecond", 0.5);
+        ReflectionTestUtils.setField(filter, "costs", "GET /api/cases=10");
+        ReflectionTestUtils.setField(filter, "addressCapacity", 40);
+        ReflectionTestUtils.setField(filter, "addressRefillPerSecond", 0.5);
+        ReflectionTestUtils.setField(filter, "maxTracked", 1000);
+        filter.init();
+
+        int[] statuses = new int[3];
+        MockHttpServletResponse response = null;
+        for (int i = 0; i < 3; i++) {
+            MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/cases");
+            request.addHeader(RateLimitFilter.USER_HEADER, "admin1");
+            response = new MockHttpServletResponse();
+            filter.doFilter(request, response, new MockFilterChain());
+            statuses[i] = response.getStatus();
+        }
+        assertEquals(List.of(200, 200, 429), List.of(statuses[0], statuses[1], statuses[2]));
+        assertEquals("20", response.getHeader("Retry-After"));
+        assertTrue(response.getContentAsString().contains("Rate limit exceeded"));
+
+        // Without the header the client address is the identity; static files are not limited
+        MockHttpServletRequest anonymous = new MockHttpServletRequest("GET", "/api/cases");
+        MockHttpServletResponse anonymousResponse = new MockHttpServletResponse();
+        filter.doFilter(anonymous, anonymousResponse, new MockFilterChain());
+        assertEquals(200, anonymousResponse.getStatus());
+        MockHttpServletResponse page = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/index.html"), page, new MockFilterChain());
+        assertEquals(200, page.getStatus());
+
+        // A new X-User-Id per request still draws on the address bucket, which has 10 tokens left
+        int[] spoofed = new int[2];
+        for (int i = 0; i < 2; i++) {
+            MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/cases");
+            request.addHeader(RateLimitFilter.USER_HEADER, "someone-" + i);
+            MockHttpServletResponse spoofedResponse = new MockHttpServletResponse();
+            filter.doFilter(request, spoofedResponse, new MockFilterChain());
+            spoofed[i] = spoofedResponse.getStatus();
+        }
+        assertEquals(List.of(200, 429), List.of(spoofed[0], spoofed[1]));
+    }
+
+    @Test
+    public void testUsersBeyondTheLimitShareABucket() {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(100, 50, TokenBucketLimiter.parseRules(COSTS), 2, clock::get);
+        limiter.tryAcquire("admin1", "GET", "/api/tasks");
+        limiter.tryAcquire("analyst1", "GET", "/api/tasks");
+        for (int i = 0; i < 10; i++) {
+            assertEquals(0, limiter.tryAcquire("user-" + i, "GET", "/api/cases"));
+        }
+        assertEquals(3, limiter.trackedUsers());
+        assertTrue(limiter.tryAcquire("user-10", "GET", "/api/cases") > 0);
+        // A tracked user keeps a bucket of their own
+        assertEquals(0, limiter.tryAcquire("admin1", "GET", "/api/cases"));
+    }
+
+    /**
+     * Cost of a rate limit decision with the default endpoint rules, spread over 1000 users and a
+     * mix of matched and unmatched paths. Must stay under a microsecond. Timing-dependent, so it
+     * only runs on request: mvn test -Dtest=TokenBucketLimiterTest -Dratelimit.bench=true
+     */
+    @Test
+    public void testDecisionCostsLessThanAMicrosecond() {
+        assumeTrue(Boolean.getBoolean("ratelimit.bench"), "set -Dratelimit.bench=true to run");
+        TokenBucketLimiter limiter = new TokenBucketLimiter(100, 50, TokenBucketLimiter.parseRules(
+            "GET /api/cases=10,GET /api/cases/recent=5,GET /api/search=5,POST /api/search/rebuild=100,"
+                + "POST /api/entities/risk/rebuild=100,POST /api/events/{type}/rebuild=100,POST /api/events/{type}/baseline=100"),
+            System::nanoTime);
+        String[] users = new String[1000];
+        for (int i = 0; i < users.length; i++) {
+            users[i] = "user" + i;
+        }
+        String[][] requests = {
+            {"GET", "/api/cases"}, {"GET", "/api/cases/0190c4a2-7d4e-7c3a-9f1e-2b3c4d5e6f70"},
+            {"GET", "/api/tasks/my/admin1"}, {"POST", "/api/events/case/rebuild"}, {"GET", "/api/search"},
+        };
+
+        int iterations = 2_000_000;
+        long sink = 0;
+        for (int i = 0; i < iterations; i++) {
+            String[] request = requests[i % requests.length];
+            sink += limiter.tryAcquire(users[i % users.length], request[0], request[1]);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            String[] request = requests[i % requests.length];
+            sink += limiter.tryAcquire(users[i % users.length], request[0], request[1]);
+        }
+        double nanosPerDecision = (System.nanoTime() - start) / (double) iterations;
+        System.out.printf("Rate limit decision: %.0f ns (%d)%n", nanosPerDecision, sink & 1);
+        assertTrue(nanosPerDecision < 1000, "rate limiting should cost under 1 µs per request, was " + nanosPerDecision + " ns");
+    }
+}
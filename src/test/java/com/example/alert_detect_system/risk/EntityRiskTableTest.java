@@ -0,0 +1,108 @@
+package com.example.alert_detect_system.risk;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+public class EntityRiskTableTest {
+
+    private static final String[] TYPOLOGIES = {"MONEY_LAUNDERING", "TERRORIST_FINANCING", "FRAUD", "SANCTIONS_VIOLATION", "PHISHING", null};
+
+    private record Contribution(String entity, boolean open, Double riskScore, String typology) {}
+
+    @Test
+    public void testDeltasMatchRecomputationFromScratch() {
+        // Few kept scores, so removals regularly run through all of them
+        EntityRiskTable table = new EntityRiskTable(4);
+        List<Contribution> live = new ArrayList<>();
+        Random random = new Random(17);
+        for (int step = 0; step < 20_000; step++) {
+            if (live.isEmpty() || random.nextInt(3) > 0) {
+                Contribution c = new Contribution(
+                    (random.nextBoolean() ? " customer-" : "CUSTOMER-") + random.nextInt(300),
+                    random.nextInt(4) > 0,
+                    random.nextInt(8) == 0 ? null : (double) random.nextInt(101),
+                    TYPOLOGIES[random.nextInt(TYPOLOGIES.length)]);
+                table.add(c.entity(), c.open(), c.riskScore(), c.typology());
+                live.add(c);
+            } else {
+                Contribution c = live.remove(random.nextInt(live.size()));
+                table.remove(c.entity(), c.open(), c.riskScore(), c.typology());
+            }
+        }
+
+        Map<String, List<Contribution>> byEntity = new HashMap<>();
+        for (Contribution c : live) {
+            byEntity.computeIfAbsent(EntityRiskTable.normalize(c.entity()), e -> new ArrayList<>()).add(c);
+        }
+        for (Map.Entry<String, List<Contribution>> entry : byEntity.entrySet()) {
+            List<Contribution> cases = entry.getValue();
+            double[] risks = cases.stream().filter(Contribution::open).filter(c -> c.riskScore() != null)
+                .mapToDouble(Contribution::riskScore).sorted().toArray();
+            EntityRiskProfile profile = table.profile(entry.getKey().toLowerCase());
+            assertEquals(cases.size(), profile.totalCases());
+            assertEquals(cases.stream().filter(Contribution::open).count(), profile.openCases());
+            assertEquals(risks.length, profile.scoredOpenCases());
+            assertEquals(Arrays.stream(risks).sum(), profile.openRiskSum(), 1e-6);
+            // The kept scores are always the highest ones
+            double[] top = profile.topOpenRiskScores();
+            assertTrue(top.length <= 4);
+            assertArrayEquals(Arrays.copyOfRange(risks, risks.length - top.length, risks.length), top);
+            if (table.needsTopRisks(entry.getKey())) {
+                assertEquals(0, top.length);
+                table.refillTopRisks(entry.getKey(), risks);
+            }
+            assertEquals(risks.length == 0 ? 0.0 : risks[risks.length - 1], table.maxOpenRiskScore(entry.getKey()));
+            assertEquals(cases.stream().filter(c -> "FRAUD".equals(c.typology())).count(),
+                (long) profile.typologies().getOrDefault("FRAUD", 0));
+            assertEquals(cases.stream().filter(c -> c.typology() == null || "PHISHING".equals(c.typology())).count(),
+                (long) profile.typologies().getOrDefault(EntityRiskTable.OTHER_TYPOLOGY, 0));
+        }
+
+        // A restored copy answers the same
+        EntityRiskTable restored = new EntityRiskTable(4);
+        table.forEach(restored::restore);
+        for (String entity : byEntity.keySet()) {
+            assertEquals(table.openCases(entity), restored.openCases(entity));
+            assertEquals(table.profile(entity).averageOpenRiskScore(), restored.profile(entity).averageOpenRiskScore(), 1e-9);
+        }
+        assertNull(table.profile("nobody"));
+        assertEquals(0, table.openCases(null));
+    }
+
+    @Test
+    public void testLookupThroughput() {
+        EntityRiskTable table = new EntityRiskTable();
+        int entities = 200_000;
+        String[] names = new String[entities];
+        for (int i = 0; i < entities; i++) {
+            names[i] = "ENTITY-" + i;
+            table.add(names[i], true, (double) (i % 100), "FRAUD");
+        }
+        assertEquals(entities, table.size());
+
+        int iterations = 5_000_000;
+        long sink = 0;
+        for (int i = 0; i < iterations; i++) {
+            sink += table.openCases(names[i % entities]);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            String name = names[(int) ((i * 2654435761L) % entities)];
+            sink += table.openCases(name) + (long) table.maxOpenRiskScore(name);
+        }
+        long elapsed = System.nanoTime() - start;
+        System.out.printf("EntityRiskTable: %d lookups over %d entities in %.1f ms (%.0f ns each) [%d]%n",
+            iterations * 2, entities, elapsed / 1e6, elapsed / (iterations * 2.0), sink);
+        assertTrue(sink > 0);
+    }
+}
@@ -0,0 +1,170 @@
+package com.example.alert_detect_system.rules;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.alert_detect_system.Model.CaseModel;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+public class CaseRuleEngineTest {
+
+    private static final String[] PRIORITIES = {"LOW", "MEDIUM", "HIGH", "CRITICAL", null};
+    private static final String[] TYPOLOGIES = {"MONEY_LAUNDERING", "TERRORIST_FINANCING", "FRAUD", "SANCTIONS_VIOLATION", null};
+    private static final String[] CASE_TYPES = {"AML", "FRAUD", "SANCTIONS", "KYC", null};
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testDefaultRulesMatchPreviousHardCodedApproval() throws Exception {
+        CaseRuleEngine engine = engine("classpath:rules/case-rules.json");
+        Random random = new Random(5);
+        for (int i = 0; i < 50_000; i++) {
+            CaseModel caseModel = randomCase(random);
+            boolean expected = "HIGH".equals(caseModel.getPriority()) || "CRITICAL".equals(caseModel.getPriority())
+                || (caseModel.getRiskScore() != null && caseModel.getRiskScore() > 80);
+            assertEquals(expected, engine.requiresApproval(caseModel), "case " + i);
+        }
+    }
+
+    @Test
+    public void testRiskBoostsAndThresholdBoundaries() throws Exception {
+        CaseRuleEngine engine = engine("classpath:rules/case-rules.json");
+        CaseModel caseModel = new CaseModel();
+        caseModel.setRiskScore(80.0);
+        assertFalse(engine.requiresApproval(caseModel), "gt 80 excludes 80");
+        caseModel.setRiskScore(80.0001);
+        assertTrue(engine.requiresApproval(caseModel));
+
+        caseModel.setRiskScore(50.0);
+        caseModel.setTypology("TERRORIST_FINANCING");
+        caseModel.setCaseType("SANCTIONS");
+        caseModel.setPriority("CRITICAL");
+        RuleDecision decision = engine.decide(caseModel);
+        assertEquals(80.0, decision.riskScore());
+        assertEquals(List.of("approval-high-priority", "boost-terrorist-financing", "boost-critical-sanctions"),
+            decision.matchedRules());
+
+        caseModel.setRiskScore(95.0);
+        assertEquals(100.0, engine.riskScore(caseModel), "capped at 100");
+    }
+
+    @Test
+    public void testChangedFileIsReloadedAndInvalidFileIsIgnored() throws Exception {
+        Path file = tempDir.resolve("rules.json");
+        Files.writeString(file, "{\"rules\": [{\"id\": \"all-fraud\", \"when\": {\"caseType\": [\"FRAUD\"]}, \"requiresApproval\": true}]}");
+        CaseRuleEngine engine = engine("file:" + file);
+        CaseModel fraud = new CaseModel();
+        fraud.setCaseType("FRAUD");
+        assertTrue(engine.requiresApproval(fraud));
+
+        Files.writeString(file, "{\"rules\": [{\"id\": \"all-kyc\", \"when\": {\"caseType\": [\"KYC\"]}, \"requiresApproval\": true}]}");
+        file.toFile().setLastModified(System.currentTimeMillis() + 2000);
+        engine.reloadIfChanged();
+        assertFalse(engine.requiresApproval(fraud));
+
+        Files.writeString(file, "{\"rules\": [{\"id\": \"broken\", \"when\": {\"colour\": [\"red\"]}}]}");
+        file.toFile().setLastModified(System.currentTimeMillis() + 4000);
+        engine.reloadIfChanged();
+        assertEquals(1, engine.rules().ruleCount());
+        fraud.setCaseType("KYC");
+        assertTrue(engine.requiresApproval(fraud), "previous rules stay in force");
+    }
+
+    @Test
+    public void testEntityAggregatesComeFromTheLookup() {
+        CompiledRules rules = CompiledRules.compile(List.of(
+            new RuleDefinition("repeat", Map.of("entityOpenCases", Map.of("gte", 3)), true, 0),
+            new RuleDefinition("hot-entity", Map.of("entityMaxRiskScore", Map.of("gt", 70)), false, 10)), "v");
+        EntityRiskLookup lookup = new EntityRiskLookup() {
+            @Override
+            public int openCases(String entity) {
+                return "REPEAT".equals(entity) ? 3 : 1;
+            }
+
+            @Override
+            public double maxOpenRiskScore(String entity) {
+                return "HOT".equals(entity) ? 75.0 : 20.0;
+            }
+        };
+        CaseModel caseModel = new CaseModel();
+        caseModel.setRiskScore(10.0);
+        caseModel.setEntity("REPEAT");
+        assertTrue(rules.requiresApproval(caseModel, lookup));
+        assertEquals(10.0, rules.riskScore(caseModel, lookup));
+        caseModel.setEntity("HOT");
+        assertFalse(rules.requiresApproval(caseModel, lookup));
+        assertEquals(20.0, rules.riskScore(caseModel, lookup));
+        assertFalse(rules.requiresApproval(caseModel), "no lookup means no entity history");
+    }
+
+    @Test
+    public void testInvalidRulesAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> CompiledRules.compile(
+            List.of(new RuleDefinition("bad", Map.of("riskScore", Map.of("between", 5)), true, 0)), "v"));
+        List<RuleDefinition> tooMany = new ArrayList<>();
+        for (int i = 0; i <= CompiledRules.MAX_RULES; i++) {
+            tooMany.add(new RuleDefinition("r" + i, null, false, 1));
+        }
+        assertThrows(IllegalArgumentException.class, () -> CompiledRules.compile(tooMany, "v"));
+    }
+
+    @Test
+    public void testEvaluationThroughput() throws Exception {
+        CompiledRules rules = engine("classpath:rules/case-rules.json").rules();
+        Random random = new Random(9);
+        CaseModel[] cases = new CaseModel[4096];
+        for (int i = 0; i < cases.length; i++) {
+            cases[i] = randomCase(random);
+        }
+        int iterations = 5_000_000;
+        double sink = 0;
+        for (int i = 0; i < iterations; i++) {
+            sink += rules.riskScore(cases[i & 4095]);
+        }
+        long start = System.nanoTime();
+        int approvals = 0;
+        for (int i = 0; i < iterations; i++) {
+            CaseModel caseModel = cases[i & 4095];
+            if (rules.requiresApproval(caseModel)) approvals++;
+            sink += rules.riskScore(caseModel);
+        }
+        long elapsed = System.nanoTime() - start;
+        System.out.printf("CaseRuleEngine: %d approval + risk evaluations in %.1f ms (%.2f M/s, %.0f ns each), %d approvals [%.0f]%n",
+            iterations, elapsed / 1e6, iterations * 1e3 / elapsed, (double) elapsed / iterations, approvals, sink);
+        assertTrue(approvals > 0);
+    }
+
+    private CaseRuleEngine engine(String location) throws Exception {
+        CaseRuleEngine engine = new CaseRuleEngine();
+        ReflectionTestUtils.setField(engine, "resourceLoader", new DefaultResourceLoader());
+        ReflectionTestUtils.setField(engine, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(engine, "eventPublisher", (ApplicationEventPublisher) event -> { });
+        ReflectionTestUtils.setField(engine, "location", location);
+        engine.load();
+        return engine;
+    }
+
+    private static CaseModel randomCase(Random random) {
+        CaseModel caseModel = new CaseModel();
+        caseModel.setPriority(PRIORITIES[random.nextInt(PRIORITIES.length)]);
+        caseModel.setTypology(TYPOLOGIES[random.nextInt(TYPOLOGIES.length)]);
+        caseModel.setCaseType(CASE_TYPES[random.nextInt(CASE_TYPES.length)]);
+        caseModel.setRiskScore(random.nextInt(10) == 0 ? null : (double) random.nextInt(101));
+        return caseModel;
+    }
+}
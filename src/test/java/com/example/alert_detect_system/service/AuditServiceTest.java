@@ -0,0 +1,269 @@
+package com.example.alert_detect_system.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.alert_detect_system.Model.AuditLogModel;
+import com.example.alert_detect_system.audit.AuditArchiveStore;
+import com.example.alert_detect_system.audit.AuditHashChain;
+import com.example.alert_detect_system.repo.AuditChainHeadRepo;
+import com.example.alert_detect_system.repo.AuditLogRepo;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class AuditServiceTest {
+
+    private static final int WRITERS = 8;
+    private static final int APPENDS_PER_WRITER = 25;
+
+    @Autowired
+    private AuditService auditService;
+
+    @Autowired
+    private AuditArchiveService auditArchiveService;
+
+    @Autowired
+    private AuditChainVerifier auditChainVerifier;
+
+    @Autowired
+    private AuditArchiveStore archiveStore;
+
+    @Autowired
+    private AuditLogRepo auditLogRepository;
+
+    @Autowired
+    private AuditChainHeadRepo chainHeadRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    public void testConcurrentAppendsToOneChainStayGapless() throws Exception {
+        UUID caseId = UUID.randomUUID();
+        ExecutorService pool = Executors.newFixedThreadPool(WRITERS);
+        try {
+            List<Future<?>> writers = new ArrayList<>();
+            for (int w = 0; w < WRITERS; w++) {
+                String analyst = "analyst" + w;
+                writers.add(pool.submit(() -> {
+                    for (int i = 0; i < APPENDS_PER_WRITER; i++) {
+                        auditService.logCaseAction(caseId, "NOTE_ADDED", analyst, "Note " + i);
+                    }
+                }));
+            }
+            for (Future<?> writer : writers) {
+                writer.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        List<AuditLogModel> chain = chainOf(caseId);
+        assertEquals(WRITERS * APPENDS_PER_WRITER, chain.size());
+        assertNull(AuditHashChain.verify(chain));
+        assertEquals(chain.size(), chainHeadRepository.findById(caseId.toString()).orElseThrow().getSequence());
+    }
+
+    @Test
+    public void testWriterWaitsForUncommittedAppendAndSurvivesItsRollback() throws Exception {
+        UUID caseId = UUID.randomUUID();
+        auditService.logCaseAction(caseId, "CASE_CREATED", "analyst1", "Created");
+
+        CountDownLatch appended = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> rolledBack = pool.submit(() -> transactionTemplate.executeWithoutResult(status -> {
+                auditService.logCaseAction(caseId, "NOTE_ADDED", "analyst1", "Never committed");
+                appended.countDown();
+                await(release);
+                status.setRollbackOnly();
+            }));
+            assertTrue(appended.await(10, TimeUnit.SECONDS));
+            Future<?> next = pool.submit(() -> auditService.logCaseAction(caseId, "NOTE_ADDED", "analyst2", "Committed"));
+            // Blocked on the head row instead of chaining onto the uncommitted record
+            assertThrows(TimeoutException.class, () -> next.get(200, TimeUnit.MILLISECONDS));
+            release.countDown();
+            rolledBack.get(10, TimeUnit.SECONDS);
+            next.get(10, TimeUnit.SECONDS);
+        } finally {
+            pool.shutdownNow();
+        }
+
+        List<AuditLogModel> chain = chainOf(caseId);
+        assertEquals(List.of("Created", "Committed"), chain.stream().map(AuditLogModel::getDetails).toList());
+        assertNull(AuditHashChain.verify(chain));
+    }
+
+    @Test
+    public void testPartlyArchivedTaskChainVerifiesAndKeepsGrowing() {
+        String taskId = UUID.randomUUID().toString();
+        // Old enough to fall out of the retention window below
+        for (int i = 0; i < 3; i++) {
+            AuditLogModel old = new AuditLogModel(null, "TASK_REASSIGNED", "admin1", "Reassigned " + i);
+            old.setTaskId(taskId);
+            old.setTimestamp(LocalDateTime.now().minusDays(400).plusMinutes(i));
+            ReflectionTestUtils.invokeMethod(auditService, "append", old);
+        }
+        auditService.logTaskAction(taskId, "TASK_UNASSIGNED", "admin1", "Returned to queue");
+
+        Object retentionDays = ReflectionTestUtils.getField(auditArchiveService, "retentionDays");
+        ReflectionTestUtils.setField(auditArchiveService, "retentionDays", 365);
+        try {
+            // Not on shared storage: nothing may leave the table
+            ReflectionTestUtils.setField(auditArchiveService, "shared", false);
+            assertThrows(IllegalStateException.class, () -> auditArchiveService.archiveExpired());
+            assertEquals(4, hotChain(AuditHashChain.chainKey(null, taskId)).size());
+            ReflectionTestUtils.setField(auditArchiveService, "shared", true);
+            assertTrue(auditArchiveService.archiveExpired() >= 3);
+        } finally {
+            ReflectionTestUtils.setField(auditArchiveService, "retentionDays", retentionDays);
+        }
+
+        String chainKey = AuditHashChain.chainKey(null, taskId);
+        List<AuditLogModel> hot = hotChain(chainKey);
+        assertEquals(1, hot.size());
+        assertEquals(4L, hot.get(0).getSequence());
+        assertEquals(3, archiveStore.read(null).stream().filter(log -> chainKey.equals(log.getChainKey())).count());
+
+        AuditChainVerifier.VerificationReport report = auditChainVerifier.verifyAll();
+        assertTrue(report.valid(), String.join("; ", report.failures()));
+
+        // The head row, not the remaining rows, decides where the chain continues
+        auditService.logTaskAction(taskId, "TASK_REASSIGNED", "admin1", "Reassigned again");
+        assertEquals(List.of(4L, 5L), hotChain(chainKey).stream().map(AuditLogModel::getSequence).toList());
+        assertTrue(auditChainVerifier.verifyAll().valid());
+    }
+
+    @Test
+    public void testRecordsDeletedFromTheEndOfAChainAreReported() {
+        UUID caseId = UUID.randomUUID();
+        for (int i = 0; i < 5; i++) {
+            auditService.logCaseAction(caseId, "NOTE_ADDED", "analyst1", "Note " + i);
+        }
+        List<AuditLogModel> chain = chainOf(caseId);
+        // What is left still links up on its own
+        auditLogRepository.deleteAll(chain.subList(3, 5));
+        assertNull(AuditHashChain.verify(chainOf(caseId)));
+
+        try {
+            AuditChainVerifier.VerificationReport report = auditChainVerifier.verifyAll();
+            assertFalse(report.valid());
+            assertTrue(report.failures().stream().anyMatch(f -> f.contains(caseId + ": ends at sequence 3")), report.failures().toString());
+        } finally {
+            discardChain(caseId);
+        }
+        assertTrue(auditChainVerifier.verifyAll().valid());
+    }
+
+    @Test
+    public void testDeletedChainIsReported() {
+        UUID caseId = UUID.randomUUID();
+        auditService.logCaseAction(caseId, "CASE_CREATED", "analyst1", "Created");
+        auditService.logCaseAction(caseId, "NOTE_ADDED", "analyst1", "Note");
+        auditLogRepository.deleteAll(chainOf(caseId));
+
+        try {
+            AuditChainVerifier.VerificationReport report = auditChainVerifier.verifyAll();
+            assertFalse(report.valid());
+            assertTrue(report.failures().stream().anyMatch(f -> f.contains(caseId + ": head at sequence 2 but no records")),
+                report.failures().toString());
+        } finally {
+            discardChain(caseId);
+        }
+    }
+
+    /**
+     * What an audited action pays for its record: waiting for the chain's head row plus the
+     * insert, each append in its own transaction. Reports one hot chain shared by every writer
+     * and one chain per writer. Only runs on request:
+     * mvn test -Dtest=AuditServiceTest -Daudit.bench=true
+     */
+    @Test
+    public void testAppendCost() throws Exception {
+        assumeTrue(Boolean.getBoolean("audit.bench"), "set -Daudit.bench=true to run");
+        int appends = Integer.getInteger("audit.bench.appends", 500);
+        UUID hotCase = UUID.randomUUID();
+        measure("warm-up", () -> UUID.randomUUID(), appends);
+        double hot = measure("one chain", () -> hotCase, appends);
+        double spread = measure("chain per writer", UUID::randomUUID, appends);
+        assertFalse(Double.isNaN(hot) || Double.isNaN(spread));
+    }
+
+    private double measure(String label, Supplier<UUID> caseOfWriter, int appendsPerWriter) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(WRITERS);
+        try {
+            List<Future<?>> writers = new ArrayList<>();
+            long start = System.nanoTime();
+            for (int w = 0; w < WRITERS; w++) {
+                UUID caseId = caseOfWriter.get();
+                writers.add(pool.submit(() -> {
+                    for (int i = 0; i < appendsPerWriter; i++) {
+                        auditService.logCaseAction(caseId, "NOTE_ADDED", "bench", "Note " + i);
+                    }
+                }));
+            }
+            for (Future<?> writer : writers) {
+                writer.get();
+            }
+            long elapsed = System.nanoTime() - start;
+            int total = WRITERS * appendsPerWriter;
+            double micros = elapsed / 1_000.0 / appendsPerWriter;
+            System.out.printf("Audit append, %s: %,d appends by %d writers, %.0f us per append, %.0f appends/s%n",
+                label, total, WRITERS, micros, total / (elapsed / 1e9));
+            return micros;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private List<AuditLogModel> chainOf(UUID caseId) {
+        return auditLogRepository.findByCaseIdOrderByTimestampDesc(caseId).stream()
+            .sorted(Comparator.comparing(AuditLogModel::getSequence))
+            .toList();
+    }
+
+    // Removes a tampered chain completely so later verifications in the shared database pass
+    private void discardChain(UUID caseId) {
+        auditLogRepository.deleteAll(chainOf(caseId));
+        chainHeadRepository.deleteById(caseId.toString());
+    }
+
+    private List<AuditLogModel> hotChain(String chainKey) {
+        return auditLogRepository.findAll().stream()
+            .filter(log -> chainKey.equals(log.getChainKey()))
+            .sorted(Comparator.comparing(AuditLogModel::getSequence))
+            .toList();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
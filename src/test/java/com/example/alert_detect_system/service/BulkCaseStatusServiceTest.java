@@ -0,0 +1,156 @@
+package com.example.alert_detect_system.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.alert_detect_system.Model.AuditLogModel;
+import com.example.alert_detect_system.Model.CaseModel;
+import com.example.alert_detect_system.Model.CaseStatus;
+import com.example.alert_detect_system.Model.DomainEventModel;
+import com.example.alert_detect_system.audit.AuditHashChain;
+import com.example.alert_detect_system.dto.CaseRequestDto;
+import com.example.alert_detect_system.eventstore.AggregateType;
+import com.example.alert_detect_system.repo.CaseRepository;
+import com.example.alert_detect_system.service.BulkCaseStatusService.BulkStatusResult;
+import com.example.alert_detect_system.service.BulkCaseStatusService.Outcome;
+import com.example.alert_detect_system.service.BulkCaseStatusService.Result;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class BulkCaseStatusServiceTest {
+
+    @Autowired
+    private BulkCaseStatusService bulkCaseStatusService;
+
+    @Autowired
+    private CaseService caseService;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private AuditService auditService;
+
+    @Autowired
+    private EventStoreService eventStoreService;
+
+    @Autowired
+    private CaseRepository caseRepository;
+
+    @Test
+    public void testCloseReportsOutcomePerCaseAcrossChunks() {
+        List<CaseModel> rejected = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            rejected.add(rejectedCase());
+        }
+        CaseModel draft = caseService.createCase(request(), "analyst1");
+        CaseModel alreadyClosed = rejectedCase();
+        caseService.updateCaseStatus(alreadyClosed.getId(), CaseStatus.CLOSED, "admin1");
+        UUID missing = UUID.randomUUID();
+
+        List<UUID> ids = new ArrayList<>(rejected.stream().map(CaseModel::getId).toList());
+        ids.add(draft.getId());
+        ids.add(alreadyClosed.getId());
+        ids.add(missing);
+        ids.add(rejected.get(0).getId());
+
+        Object chunkSize = ReflectionTestUtils.getField(bulkCaseStatusService, "chunkSize");
+        ReflectionTestUtils.setField(bulkCaseStatusService, "chunkSize", 3);
+        BulkStatusResult result;
+        try {
+            result = bulkCaseStatusService.transition(ids, CaseStatus.CLOSED, "admin1");
+        } finally {
+            ReflectionTestUtils.setField(bulkCaseStatusService, "chunkSize", chunkSize);
+        }
+
+        assertEquals(8, result.requested());
+        assertEquals(5, result.updated());
+        assertEquals(5, result.tasksClosed());
+        Map<UUID, Outcome> outcomes = result.outcomes().stream().collect(Collectors.toMap(Outcome::caseId, Function.identity()));
+        assertEquals(8, outcomes.size());
+        assertEquals(Result.REJECTED, outcomes.get(draft.getId()).result());
+        assertEquals(CaseStatus.DRAFT, outcomes.get(draft.getId()).previousStatus());
+        assertEquals(Result.UNCHANGED, outcomes.get(alreadyClosed.getId()).result());
+        assertEquals(Result.NOT_FOUND, outcomes.get(missing).result());
+        assertEquals(CaseStatus.DRAFT, caseRepository.findById(draft.getId()).orElseThrow().getStatus());
+
+        for (CaseModel caseModel : rejected) {
+            Outcome outcome = outcomes.get(caseModel.getId());
+            assertEquals(Result.UPDATED, outcome.result());
+            assertEquals(CaseStatus.REJECTED, outcome.previousStatus());
+            CaseModel stored = caseRepository.findById(caseModel.getId()).orElseThrow();
+            assertEquals(CaseStatus.CLOSED, stored.getStatus());
+            assertEquals("admin1", stored.getUpdatedBy());
+            assertTrue(taskService.getTasksByCaseId(caseModel.getId()).stream().allMatch(t -> "COMPLETED".equals(t.getStatus())));
+
+            List<AuditLogModel> chain = auditService.getCaseAuditLogs(caseModel.getId()).stream()
+                .sorted(Comparator.comparing(AuditLogModel::getSequence))
+                .toList();
+            AuditLogModel last = chain.get(chain.size() - 1);
+            assertEquals("STATUS_CHANGE", last.getAction());
+            assertEquals("REJECTED", last.getOldValue());
+            assertEquals("CLOSED", last.getNewValue());
+            assertNull(AuditHashChain.verify(chain));
+
+            List<DomainEventModel> history = eventStoreService.history(AggregateType.CASE, caseModel.getId());
+            assertEquals("CLOSED", eventStoreService.read(history.get(history.size() - 1).getData()).get("status").asText());
+        }
+    }
+
+    @Test
+    public void testAbandonAppliesTransitionGuardsPerCase() {
+        CaseModel own = caseService.createCase(request(), "analyst1");
+        CaseModel other = caseService.createCase(request(), "analyst2");
+
+        BulkStatusResult result = bulkCaseStatusService.transition(List.of(own.getId(), other.getId()), CaseStatus.ABANDONED, "analyst1");
+
+        assertEquals(1, result.updated());
+        assertEquals(Result.UPDATED, result.outcomes().get(0).result());
+        assertEquals(Result.REJECTED, result.outcomes().get(1).result());
+        assertEquals("Only the creator can abandon this draft case.", result.outcomes().get(1).error());
+        assertEquals(CaseStatus.ABANDONED, caseRepository.findById(own.getId()).orElseThrow().getStatus());
+        assertEquals(CaseStatus.DRAFT, caseRepository.findById(other.getId()).orElseThrow().getStatus());
+    }
+
+    @Test
+    public void testOnlyFinalStatusesAreAccepted() {
+        UUID caseId = caseService.createCase(request(), "analyst1").getId();
+        assertThrows(IllegalArgumentException.class,
+            () -> bulkCaseStatusService.transition(List.of(caseId), CaseStatus.PENDING_CASE_CREATION_APPROVAL, "analyst1"));
+        assertThrows(IllegalArgumentException.class,
+            () -> bulkCaseStatusService.transition(List.of(), CaseStatus.CLOSED, "admin1"));
+    }
+
+    // Rejected after submission: has an open approval task and may be closed
+    private CaseModel rejectedCase() {
+        CaseModel created = caseService.createCase(request(), "analyst1");
+        caseService.updateCaseStatus(created.getId(), CaseStatus.PENDING_CASE_CREATION_APPROVAL, "analyst1");
+        caseService.updateCaseStatus(created.getId(), CaseStatus.REJECTED, "admin1");
+        return created;
+    }
+
+    private static CaseRequestDto request() {
+        CaseRequestDto request = new CaseRequestDto();
+        request.setCaseType("AML");
+        request.setPriority("LOW");
+        request.setEntity("Bulk Holdings");
+        request.setTypology("FRAUD");
+        request.setRiskScore(30.0);
+        return request;
+    }
+}
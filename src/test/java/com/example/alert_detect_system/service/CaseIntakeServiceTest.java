@@ -0,0 +1,72 @@
+package com.example.alert_detect_system.service;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.example.alert_detect_system.Model.CaseModel;
+import com.example.alert_detect_system.Model.CaseStatus;
+import com.example.alert_detect_system.dto.CaseRequestDto;
+import com.example.alert_detect_system.intake.IntakeTicket;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class CaseIntakeServiceTest {
+
+    @Autowired
+    private CaseIntakeService caseIntakeService;
+
+    @Autowired
+    private CaseService caseService;
+
+    @Autowired
+    private AuditService auditService;
+
+    @Test
+    public void testQueuedCaseIsPersistedAndAudited() throws Exception {
+        IntakeTicket ticket = caseIntakeService.submit(request(70.0), "analyst1").orElseThrow();
+
+        IntakeTicket finished = awaitFinished(ticket.getId());
+        assertEquals(IntakeTicket.Status.COMPLETED, finished.getStatus());
+        UUID caseId = finished.getCaseModel().getId();
+        CaseModel stored = caseService.getCaseById(caseId).orElseThrow();
+        assertEquals(CaseStatus.DRAFT, stored.getStatus());
+        assertEquals("analyst1", stored.getCreatedBy());
+        assertTrue(auditService.getCaseAuditLogs(caseId).stream().anyMatch(log -> "CASE_CREATED".equals(log.getAction())));
+    }
+
+    @Test
+    public void testInvalidRequestFailsAtValidation() throws Exception {
+        IntakeTicket ticket = caseIntakeService.submit(request(150.0), "analyst1").orElseThrow();
+
+        IntakeTicket finished = awaitFinished(ticket.getId());
+        assertEquals(IntakeTicket.Status.FAILED, finished.getStatus());
+        assertEquals("validate", finished.getFailedStage());
+        assertEquals("Risk score must be between 0 and 100", finished.getError());
+    }
+
+    private IntakeTicket awaitFinished(UUID ticketId) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        IntakeTicket ticket = caseIntakeService.ticket(ticketId).orElseThrow();
+        while (!ticket.isFinished() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertTrue(ticket.isFinished(), "ticket still " + ticket.getStatus());
+        return ticket;
+    }
+
+    private CaseRequestDto request(double riskScore) {
+        CaseRequestDto request = new CaseRequestDto();
+        request.setCaseType("AML");
+        request.setPriority("HIGH");
+        request.setEntity("Storm Holdings");
+        request.setTypology("FRAUD");
+        request.setRiskScore(riskScore);
+        return request;
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.alert_detect_system.service;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.example.alert_detect_system.Model.CaseModel;
+import com.example.alert_detect_system.Model.CaseStatus;
+import com.example.alert_detect_system.dto.CaseRequestDto;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class CaseServiceConcurrencyTest {
+
+    private static final int APPROVERS = 200;
+
+    @Autowired
+    private CaseService caseService;
+
+    @Autowired
+    private AuditService auditService;
+
+    @Test
+    public void testConcurrentApproversHaveExactlyOneWinner() throws Exception {
+        CaseRequestDto request = new CaseRequestDto();
+        request.setCaseType("AML");
+        request.setPriority("HIGH");
+        CaseModel created = caseService.createCase(request, "analyst1");
+        UUID caseId = created.getId();
+        caseService.performCaseAction(caseId, "complete", request, "analyst1", Map.of());
+
+        AtomicInteger winners = new AtomicInteger();
+        AtomicInteger conflicts = new AtomicInteger();
+        AtomicInteger otherErrors = new AtomicInteger();
+        CountDownLatch startGate = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(32);
+        for (int i = 0; i < APPROVERS; i++) {
+            String approver = "admin" + i;
+            pool.submit(() -> {
+                try {
+                    startGate.await();
+                    caseService.performCaseAction(caseId, "approve", null, approver, Map.of("approved", true));
+                    winners.incrementAndGet();
+                } catch (OptimisticLockingFailureException e) {
+                    conflicts.incrementAndGet();
+                } catch (Exception e) {
+                    otherErrors.incrementAndGet();
+                }
+                return null;
+            });
+        }
+        startGate.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(60, TimeUnit.SECONDS));
+
+        assertEquals(1, winners.get());
+        assertEquals(APPROVERS - 1, conflicts.get());
+        assertEquals(0, otherErrors.get());
+        assertEquals(CaseStatus.READY_FOR_ASSIGNMENT, caseService.getCaseById(caseId).orElseThrow().getStatus());
+        long approvals = auditService.getCaseAuditLogs(caseId).stream()
+            .filter(log -> CaseStatus.READY_FOR_ASSIGNMENT.name().equals(log.getNewValue()))
+            .count();
+        assertEquals(1, approvals);
+    }
+
+    @Test
+    public void testStaleVersionIsRejected() {
+        CaseRequestDto request = new CaseRequestDto();
+        request.setDescription("first");
+        CaseModel created = caseService.createCase(request, "analyst1");
+        Long readVersion = created.getVersion();
+
+        CaseRequestDto firstEdit = new CaseRequestDto();
+        firstEdit.setDescription("edited by analyst1");
+        firstEdit.setVersion(readVersion);
+        caseService.updateCase(created.getId(), firstEdit, "analyst1");
+
+        CaseRequestDto staleEdit = new CaseRequestDto();
+        staleEdit.setDescription("edited by analyst2");
+        staleEdit.setVersion(readVersion);
+        try {
+            caseService.updateCase(created.getId(), staleEdit, "analyst2");
+            throw new AssertionError("stale update should have been rejected");
+        } catch (OptimisticLockingFailureException expected) {
+            assertEquals("edited by analyst1", caseService.getCaseById(created.getId()).orElseThrow().getDescription());
+        }
+    }
+}
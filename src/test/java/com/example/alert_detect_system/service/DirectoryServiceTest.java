@@ -0,0 +1,112 @@
+package com.example.alert_detect_system.service;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.flowable.engine.IdentityService;
+import org.flowable.idm.api.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.WebApplicationContext;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.example.alert_detect_system.Model.AuditLogModel;
+import com.example.alert_detect_system.repo.AuditLogRepo;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class DirectoryServiceTest {
+
+    @Autowired
+    private DirectoryService directoryService;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private IdentityService identityService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private WebApplicationContext context;
+
+    @Autowired
+    private AuditLogRepo auditLogRepository;
+
+    @Test
+    public void testSeededUsersBackValidationAndApproval() {
+        assertTrue(taskService.isValidAssignee("admin1"));
+        assertTrue(taskService.isValidAssignee("analyst1"));
+        assertFalse(taskService.isValidAssignee("someone"));
+        assertFalse(taskService.isValidAssignee(null));
+
+        assertTrue(directoryService.canApprove("admin1"));
+        assertFalse(directoryService.canApprove("analyst1"));
+        assertTrue(directoryService.hasRole("admin1", "admin"));
+        // admin is nested in investigations
+        assertTrue(directoryService.isMember("admin1", "investigations"));
+    }
+
+    @Test
+    public void testOnlyAdminsChangeMembershipsThroughTheApi() throws Exception {
+        MockMvc mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+        String path = "/api/directory/groups/investigations/members/analyst1";
+
+        mockMvc.perform(put(path)).andExpect(status().isBadRequest());
+        mockMvc.perform(put(path).header("X-User-Id", "analyst1")).andExpect(status().isForbidden());
+        assertFalse(directoryService.isMember("analyst1", "investigations"));
+
+        mockMvc.perform(put(path).param("performedBy", "admin1")).andExpect(status().isOk());
+        assertTrue(directoryService.isMember("analyst1", "investigations"));
+        mockMvc.perform(delete(path).header("X-User-Id", "admin1")).andExpect(status().isOk());
+        assertFalse(directoryService.isMember("analyst1", "investigations"));
+
+        List<String> actions = auditLogRepository.findByPerformedBy("admin1").stream()
+            .filter(log -> "group:investigations".equals(log.getTaskId()))
+            .map(AuditLogModel::getAction)
+            .toList();
+        assertTrue(actions.containsAll(List.of("GROUP_MEMBER_ADDED", "GROUP_MEMBER_REMOVED")), actions.toString());
+        assertTrue(auditLogRepository.findByPerformedBy("analyst1").stream()
+            .anyMatch(log -> "UNAUTHORIZED_MEMBERSHIP_CHANGE".equals(log.getAction())));
+    }
+
+    @Test
+    public void testLocalAndExternalChanges() {
+        directoryService.addMembership("analyst1", "investigations");
+        assertTrue(directoryService.isMember("analyst1", "investigations"));
+        directoryService.removeMembership("analyst1", "investigations");
+        assertFalse(directoryService.isMember("analyst1", "investigations"));
+        assertThrows(IllegalArgumentException.class, () -> directoryService.addMembership("someone", "investigations"));
+
+        // Written straight to IDM, as another node or an admin tool would
+        transactionTemplate.executeWithoutResult(status -> {
+            User user = identityService.newUser("investigator-test");
+            user.setFirstName("Ivy");
+            identityService.saveUser(user);
+            identityService.createMembership("investigator-test", "investigations");
+        });
+        try {
+            assertFalse(directoryService.isUser("investigator-test"));
+            directoryService.refreshIfChanged();
+            assertTrue(directoryService.isUser("investigator-test"));
+            assertTrue(directoryService.snapshot().membersOf("investigations").containsAll(List.of("admin1", "investigator-test")));
+        } finally {
+            transactionTemplate.executeWithoutResult(status -> identityService.deleteUser("investigator-test"));
+            directoryService.refreshIfChanged();
+        }
+        assertFalse(directoryService.isUser("investigator-test"));
+        assertEquals(2, directoryService.snapshot().userCount());
+    }
+}
@@ -0,0 +1,156 @@
+package com.example.alert_detect_system.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.example.alert_detect_system.Model.CaseModel;
+import com.example.alert_detect_system.Model.CaseStatus;
+import com.example.alert_detect_system.Model.EntityRiskProfileModel;
+import com.example.alert_detect_system.dto.CaseRequestDto;
+import com.example.alert_detect_system.repo.EntityRiskProfileRepository;
+import com.example.alert_detect_system.risk.EntityRiskProfile;
+import com.example.alert_detect_system.risk.EntityRiskTable;
+import com.example.alert_detect_system.rules.CaseRuleEngine;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class EntityRiskServiceTest {
+
+    @Autowired
+    private EntityRiskService entityRiskService;
+
+    @Autowired
+    private EntityRiskProfileRepository profileRepository;
+
+    @Autowired
+    private CaseService caseService;
+
+    @Autowired
+    private CaseRuleEngine ruleEngine;
+
+    @Test
+    public void testCaseChangesAreAggregatedPerEntity() {
+        String entity = "Acme Trading " + UUID.randomUUID();
+        CaseModel first = createCase(entity, 30.0, "FRAUD");
+        CaseModel second = createCase(entity.toUpperCase(), 60.0, "FRAUD");
+        assertFalse(ruleEngine.requiresApproval(second), "two open cases are below the repeat-entity threshold");
+        CaseModel third = createCase(" " + entity, 45.0, "SANCTIONS_VIOLATION");
+        assertTrue(ruleEngine.requiresApproval(third), "third open case of the entity needs approval");
+
+        EntityRiskProfile profile = entityRiskService.profile(entity);
+        assertEquals(3, profile.openCases());
+        assertEquals(60.0, profile.maxOpenRiskScore());
+        assertEquals(45.0, profile.averageOpenRiskScore(), 1e-9);
+
+        CaseRequestDto raise = new CaseRequestDto();
+        raise.setRiskScore(90.0);
+        caseService.updateCase(first.getId(), raise, "analyst1");
+        caseService.updateCaseStatus(second.getId(), CaseStatus.ABANDONED, "analyst1");
+        caseService.deleteCase(third.getId(), "analyst1");
+
+        profile = entityRiskService.profile(entity);
+        assertEquals(1, profile.openCases());
+        assertEquals(2, profile.totalCases());
+        assertEquals(90.0, entityRiskService.maxOpenRiskScore(entity));
+        assertEquals(2, profile.typologies().get("FRAUD"));
+        assertFalse(profile.typologies().containsKey("SANCTIONS_VIOLATION"));
+
+        // Write-behind copy round-trips, and a rebuild from the cases table agrees with the deltas
+        entityRiskService.flush();
+        EntityRiskProfileModel stored = profileRepository.findById(profile.entity()).orElseThrow();
+        assertEquals(1, stored.getOpenCases());
+        assertEquals("90.0", stored.getTopOpenRiskScores());
+        entityRiskService.rebuild();
+        EntityRiskProfile rebuilt = entityRiskService.profile(entity);
+        assertEquals(profile.openCases(), rebuilt.openCases());
+        assertEquals(profile.totalCases(), rebuilt.totalCases());
+        assertEquals(profile.typologies(), rebuilt.typologies());
+        assertArrayEquals(profile.topOpenRiskScores(), rebuilt.topOpenRiskScores());
+    }
+
+    @Test
+    public void testFlushAddsToOtherNodesProfilesAndRefreshPicksThemUp() {
+        String entity = "Shared Holdings " + UUID.randomUUID();
+        createCase(entity, 30.0, "FRAUD");
+        entityRiskService.flush();
+        String name = entityRiskService.profile(entity).entity();
+
+        // Another node flushes a case of the same entity
+        otherNodeWrites(name, 2, 100.0, "30.0,70.0", "FRAUD=2");
+
+        // This node's next flush adds to the stored row instead of overwriting it
+        createCase(entity, 50.0, "SANCTIONS_VIOLATION");
+        entityRiskService.flush();
+        EntityRiskProfileModel stored = profileRepository.findById(name).orElseThrow();
+        assertEquals(3, stored.getOpenCases());
+        assertEquals("30.0,50.0,70.0", stored.getTopOpenRiskScores());
+        assertEquals(150.0, stored.getOpenRiskSum());
+        assertEquals("FRAUD=2,SANCTIONS_VIOLATION=1", stored.getTypologyCounts());
+        assertEquals(70.0, entityRiskService.maxOpenRiskScore(entity));
+
+        // A change flushed elsewhere reaches this node's table without any local event
+        otherNodeWrites(name, 4, 245.0, "30.0,50.0,70.0,95.0", "FRAUD=3,SANCTIONS_VIOLATION=1");
+        entityRiskService.refresh();
+        assertEquals(4, entityRiskService.openCases(entity));
+        assertEquals(95.0, entityRiskService.maxOpenRiskScore(entity));
+    }
+
+    @Test
+    public void testClosingTheHighestCasesRereadsTheTopScores() {
+        String entity = "Top Heavy Ltd " + UUID.randomUUID();
+        int cases = EntityRiskTable.DEFAULT_TOP_RISKS + 3;
+        List<CaseModel> created = new ArrayList<>();
+        for (int i = 0; i < cases; i++) {
+            created.add(createCase(entity, (double) i, "FRAUD"));
+        }
+        entityRiskService.flush();
+        String name = entityRiskService.profile(entity).entity();
+        assertEquals(EntityRiskTable.DEFAULT_TOP_RISKS, profileRepository.findById(name).orElseThrow()
+            .getTopOpenRiskScores().split(",").length);
+
+        // Close every kept score: 0, 1 and 2 remain open but none of them is held
+        for (int i = cases - 1; i >= 3; i--) {
+            caseService.deleteCase(created.get(i).getId(), "analyst1");
+        }
+        assertEquals(1.0, entityRiskService.maxOpenRiskScore(entity));
+        entityRiskService.flush();
+        EntityRiskProfile profile = entityRiskService.profile(entity);
+        assertEquals(3, profile.openCases());
+        assertEquals(2.0, profile.maxOpenRiskScore());
+        assertArrayEquals(new double[] {0.0, 1.0, 2.0}, profile.topOpenRiskScores());
+    }
+
+    // The shared row as another node's flush of open cases leaves it
+    private void otherNodeWrites(String name, int openCases, double openRiskSum, String topOpenRiskScores, String typologyCounts) {
+        EntityRiskProfileModel row = profileRepository.findById(name).orElseThrow();
+        row.setOpenCases(openCases);
+        row.setTotalCases(openCases);
+        row.setScoredOpenCases(openCases);
+        row.setOpenRiskSum(openRiskSum);
+        row.setTopOpenRiskScores(topOpenRiskScores);
+        row.setTypologyCounts(typologyCounts);
+        row.setUpdatedAt(LocalDateTime.now());
+        profileRepository.save(row);
+    }
+
+    private CaseModel createCase(String entity, double riskScore, String typology) {
+        CaseRequestDto request = new CaseRequestDto();
+        request.setCaseType("AML");
+        request.setPriority("LOW");
+        request.setEntity(entity);
+        request.setTypology(typology);
+        request.setRiskScore(riskScore);
+        return caseService.createCase(request, "analyst1");
+    }
+}
@@ -0,0 +1,173 @@
+package com.example.alert_detect_system.service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.example.alert_detect_system.Model.CaseModel;
+import com.example.alert_detect_system.Model.CaseStatus;
+import com.example.alert_detect_system.Model.DomainEventModel;
+import com.example.alert_detect_system.Model.TaskModel;
+import com.example.alert_detect_system.cache.CollectionVersions;
+import com.example.alert_detect_system.dto.CaseRequestDto;
+import com.example.alert_detect_system.eventstore.AggregateState;
+import com.example.alert_detect_system.eventstore.AggregateType;
+import com.example.alert_detect_system.repo.CaseRepository;
+import com.example.alert_detect_system.repo.TaskRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class EventStoreServiceTest {
+
+    @Autowired
+    private EventStoreService eventStoreService;
+
+    @Autowired
+    private ProjectionRebuildService projectionRebuildService;
+
+    @Autowired
+    private CaseService caseService;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private CaseRepository caseRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CollectionVersions collectionVersions;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Test
+    public void testEventsRecordChangedFieldsAndSupportTimeTravel() throws Exception {
+        CaseModel created = createCase(40.0);
+        LocalDateTime afterCreate = pause();
+        caseService.updateCase(created.getId(), riskScore(75.0), "analyst1");
+        LocalDateTime afterUpdate = pause();
+        caseService.updateCaseStatus(created.getId(), CaseStatus.ABANDONED, "analyst1");
+
+        List<DomainEventModel> events = eventStoreService.history(AggregateType.CASE, created.getId());
+        assertEquals(List.of("CREATED", "UPDATED", "STATUS_CHANGED"), events.stream().map(DomainEventModel::getEventType).toList());
+        JsonNode changes = eventStoreService.read(events.get(1).getData());
+        assertEquals(Set.of("riskScore", "updatedAt"),
+            StreamSupport.stream(((Iterable<String>) changes::fieldNames).spliterator(), false).collect(Collectors.toSet()));
+        assertEquals(75.0, changes.get("riskScore").asDouble());
+
+        AggregateState atCreate = eventStoreService.stateAt(AggregateType.CASE, created.getId(), afterCreate).orElseThrow();
+        assertEquals(40.0, atCreate.state().get("riskScore").asDouble());
+        assertEquals("DRAFT", atCreate.state().get("status").asText());
+        AggregateState atUpdate = eventStoreService.stateAt(AggregateType.CASE, created.getId(), afterUpdate).orElseThrow();
+        assertEquals(75.0, atUpdate.state().get("riskScore").asDouble());
+        assertEquals("DRAFT", atUpdate.state().get("status").asText());
+        AggregateState now = eventStoreService.stateAt(AggregateType.CASE, created.getId(), LocalDateTime.now()).orElseThrow();
+        assertEquals("ABANDONED", now.state().get("status").asText());
+        assertTrue(eventStoreService.stateAt(AggregateType.CASE, created.getId(), afterCreate.minusMinutes(5)).isEmpty());
+    }
+
+    @Test
+    public void testReplayStartsFromNearestSnapshot() {
+        CaseModel created = createCase(0.0);
+        for (int i = 1; i <= 120; i++) {
+            caseService.updateCase(created.getId(), riskScore(i / 2.0), "analyst1");
+        }
+
+        AggregateState state = eventStoreService.stateAt(AggregateType.CASE, created.getId(), LocalDateTime.now()).orElseThrow();
+        assertEquals(121, state.sequence());
+        assertEquals(100, state.snapshotSequence());
+        assertEquals(21, state.eventsReplayed());
+        assertEquals(60.0, state.state().get("riskScore").asDouble());
+    }
+
+    @Test
+    public void testRebuildRestoresProjectionRowsFromEvents() {
+        CaseModel drifted = createCase(55.0);
+        CaseModel deleted = createCase(65.0);
+        caseService.deleteCase(deleted.getId(), "analyst1");
+        TaskModel task = taskService.createTask("Review", "Check the documents", drifted.getId(), "analyst1", "HIGH");
+
+        // Changes behind the event store's back: a stray UPDATE and a lost row
+        jdbcTemplate.update("UPDATE cases SET risk_score = 1, entity = 'wrong' WHERE id = ?", drifted.getId());
+        taskRepository.deleteById(task.getId());
+        long casesVersion = collectionVersions.version(CollectionVersions.Collection.CASES);
+        long tasksVersion = collectionVersions.version(CollectionVersions.Collection.TASKS);
+
+        ProjectionRebuildService.RebuildResult cases = projectionRebuildService.rebuild(AggregateType.CASE);
+        ProjectionRebuildService.RebuildResult tasks = projectionRebuildService.rebuild(AggregateType.TASK);
+
+        assertTrue(cases.written() >= 1);
+        assertTrue(tasks.written() >= 1);
+        CaseModel restored = caseRepository.findById(drifted.getId()).orElseThrow();
+        assertEquals(55.0, restored.getRiskScore());
+        assertEquals("Acme Trading", restored.getEntity());
+        assertFalse(caseRepository.existsById(deleted.getId()));
+        TaskModel reinserted = taskRepository.findById(task.getId()).orElseThrow();
+        assertEquals("Review", reinserted.getTitle());
+        assertEquals("analyst1", reinserted.getAssignee());
+        // Rewritten rows reach the derived views like any other change
+        assertTrue(collectionVersions.version(CollectionVersions.Collection.CASES) > casesVersion);
+        assertTrue(collectionVersions.version(CollectionVersions.Collection.TASKS) > tasksVersion);
+
+        // A second pass finds nothing to do
+        assertEquals(0, projectionRebuildService.rebuild(AggregateType.CASE).written());
+    }
+
+    @Test
+    public void testDeletedTaskStaysDeletedAfterRebuild() {
+        CaseModel parent = createCase(30.0);
+        TaskModel task = taskService.createTask("Review", "Check the documents", parent.getId(), "analyst1", "HIGH");
+        taskRepository.deleteById(task.getId());
+        eventPublisher.publishEvent(new TaskChangedEvent(task, true));
+
+        List<DomainEventModel> events = eventStoreService.history(AggregateType.TASK, task.getId());
+        assertEquals("DELETED", events.get(events.size() - 1).getEventType());
+        assertNull(eventStoreService.current(AggregateType.TASK, task.getId()).orElseThrow().state());
+
+        projectionRebuildService.rebuild(AggregateType.TASK);
+        assertFalse(taskRepository.existsById(task.getId()));
+    }
+
+    private CaseModel createCase(double riskScore) {
+        CaseRequestDto request = new CaseRequestDto();
+        request.setCaseType("AML");
+        request.setPriority("LOW");
+        request.setEntity("Acme Trading");
+        request.setTypology("FRAUD");
+        request.setRiskScore(riskScore);
+        return caseService.createCase(request, "analyst1");
+    }
+
+    private CaseRequestDto riskScore(double riskScore) {
+        CaseRequestDto request = new CaseRequestDto();
+        request.setRiskScore(riskScore);
+        return request;
+    }
+
+    private LocalDateTime pause() throws InterruptedException {
+        Thread.sleep(5);
+        LocalDateTime now = LocalDateTime.now();
+        Thread.sleep(5);
+        return now;
+    }
+}
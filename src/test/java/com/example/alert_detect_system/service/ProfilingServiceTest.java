@@ -0,0 +1,152 @@
+package com.example.alert_detect_system.service;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.flowable.task.api.Task;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.example.alert_detect_system.Model.CaseModel;
+import com.example.alert_detect_system.controller.ProfilingController;
+import com.example.alert_detect_system.dto.CaseRequestDto;
+import com.example.alert_detect_system.workflow.CaseWorkflowService;
+
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class ProfilingServiceTest {
+
+    @Autowired
+    private ProfilingService profilingService;
+
+    @Autowired
+    private ProfilingController profilingController;
+
+    @Autowired
+    private CaseService caseService;
+
+    @Autowired
+    private CaseWorkflowService caseWorkflowService;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private org.flowable.engine.TaskService flowableTaskService;
+
+    @Test
+    public void testRecordingCapturesApplicationEvents() throws Exception {
+        Recording recording = profilingService.start("profiling-test", "default", Duration.ofMinutes(5));
+        try {
+            CaseModel created = caseService.createCase(request(), "analyst1");
+            caseService.performCaseAction(created.getId(), "complete", null, "analyst1", Map.of());
+            String processInstanceId = caseWorkflowService.startCaseWorkflow(created);
+            Task task = flowableTaskService.createTaskQuery().processInstanceId(processInstanceId).list().get(0);
+            taskService.completeTask(task.getId(), Map.of("caseId", created.getId().toString(), "approved", true));
+
+            Path dump = profilingService.dump(recording.getId());
+            assertTrue(dump.startsWith(Path.of("target/recordings")));
+            List<RecordedEvent> events = RecordingFile.readAllEvents(dump);
+            String caseId = created.getId().toString();
+
+            RecordedEvent action = only(events, "alertdetect.CaseAction", caseId);
+            assertEquals("complete", action.getString("action"));
+            assertEquals("analyst1", action.getString("performedBy"));
+            assertTrue(action.getBoolean("succeeded"));
+            assertFalse(action.getDuration().isNegative());
+
+            RecordedEvent start = only(events, "alertdetect.WorkflowStart", caseId);
+            assertEquals(processInstanceId, start.getString("processInstanceId"));
+            assertEquals(created.getCaseNumber(), start.getString("caseNumber"));
+
+            RecordedEvent completion = only(events, "alertdetect.TaskComplete", caseId);
+            assertEquals(task.getId(), completion.getString("taskId"));
+            assertTrue(completion.getBoolean("succeeded"));
+
+            List<String> audited = events.stream()
+                .filter(event -> event.getEventType().getName().equals("alertdetect.AuditWrite"))
+                .filter(event -> caseId.equals(event.getString("caseId")))
+                .map(event -> event.getString("action"))
+                .toList();
+            assertTrue(audited.contains("CASE_CREATED"), "audit writes: " + audited);
+            Files.deleteIfExists(dump);
+        } finally {
+            profilingService.close(recording.getId());
+        }
+        assertTrue(profilingService.find(recording.getId()).isEmpty());
+    }
+
+    @Test
+    public void testRecordingLifecycleErrors() {
+        assertThrows(IllegalArgumentException.class, () -> profilingService.start("bad", "no-such-settings", Duration.ofMinutes(1)));
+        assertThrows(IllegalArgumentException.class, () -> profilingService.stop(Long.MAX_VALUE));
+
+        Recording recording = profilingService.start("lifecycle-test", "default", Duration.ofMinutes(1));
+        profilingService.stop(recording.getId());
+        assertEquals(RecordingState.STOPPED, recording.getState());
+        assertThrows(IllegalStateException.class, () -> profilingService.stop(recording.getId()));
+        profilingService.close(recording.getId());
+    }
+
+    @Test
+    public void testDumpsAreDeletedOnceSentAndStaleOnesSwept() throws Exception {
+        Path stale = Files.createDirectories(Path.of("target/recordings")).resolve("aborted-download.jfr");
+        Files.writeString(stale, "partial");
+        Files.setLastModifiedTime(stale, FileTime.from(Instant.now().minus(Duration.ofHours(1))));
+
+        Recording recording = profilingService.start("download-test", "default", Duration.ofMinutes(1));
+        try {
+            ResponseEntity<?> response = profilingController.dumpRecording(recording.getId());
+            assertEquals(200, response.getStatusCode().value());
+            Resource body = (Resource) response.getBody();
+            Path file = body.getFile().toPath();
+            assertTrue(Files.exists(file));
+            assertFalse(Files.exists(stale));
+
+            try (InputStream in = body.getInputStream()) {
+                assertTrue(in.readAllBytes().length > 0);
+            }
+            assertFalse(Files.exists(file));
+        } finally {
+            profilingService.close(recording.getId());
+        }
+    }
+
+    private static RecordedEvent only(List<RecordedEvent> events, String type, String caseId) {
+        List<RecordedEvent> matching = events.stream()
+            .filter(event -> event.getEventType().getName().equals(type))
+            .filter(event -> caseId.equals(event.getString("caseId")))
+            .toList();
+        assertEquals(1, matching.size(), type);
+        return matching.get(0);
+    }
+
+    private static CaseRequestDto request() {
+        CaseRequestDto request = new CaseRequestDto();
+        request.setCaseType("AML");
+        request.setPriority("LOW");
+        request.setEntity("Acme Trading");
+        request.setTypology("FRAUD");
+        request.setRiskScore(40.0);
+        return request;
+    }
+}
@@ -0,0 +1,195 @@
+package com.example.alert_detect_system.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.example.alert_detect_system.Model.CaseModel;
+import com.example.alert_detect_system.Model.CaseStatus;
+import com.example.alert_detect_system.dto.CaseRequestDto;
+import com.example.alert_detect_system.search.CaseSearchIndex;
+import com.example.alert_detect_system.search.CaseSearchIndex.SearchHit;
+import com.example.alert_detect_system.search.CaseSearchIndex.SearchPage;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class SearchServiceTest {
+
+    private static final String[] WORDS = {
+        "wire", "transfer", "offshore", "shell", "company", "cash", "deposit", "structuring",
+        "crypto", "exchange", "invoice", "trade", "sanctions", "match", "account", "takeover"
+    };
+
+    @Autowired
+    private SearchService searchService;
+
+    @Autowired
+    private CaseService caseService;
+
+    @Autowired
+    private AuditService auditService;
+
+    @Autowired
+    private CaseSearchIndex searchIndex;
+
+    @Test
+    public void testIndexFollowsCaseCreateUpdateAndDelete() {
+        String entity = token();
+        CaseModel created = caseService.createCase(request(entity, "Initial review"), "analyst1");
+
+        SearchPage page = searchService.search(entity, CaseSearchIndex.TYPE_CASE, 0, 10);
+        assertEquals(1, page.total());
+        assertEquals(created.getId().toString(), page.hits().get(0).caseId());
+        assertEquals(created.getCaseNumber(), page.hits().get(0).caseNumber());
+
+        String renamed = token();
+        CaseRequestDto update = new CaseRequestDto();
+        update.setEntity(renamed);
+        caseService.updateCase(created.getId(), update, "analyst1");
+        assertEquals(0, searchService.search(entity, CaseSearchIndex.TYPE_CASE, 0, 10).total());
+        assertEquals(1, searchService.search(renamed, CaseSearchIndex.TYPE_CASE, 0, 10).total());
+
+        caseService.updateCaseStatus(created.getId(), CaseStatus.PENDING_CASE_CREATION_APPROVAL, "analyst1");
+        assertEquals(CaseStatus.PENDING_CASE_CREATION_APPROVAL.name(),
+            searchService.search(renamed, CaseSearchIndex.TYPE_CASE, 0, 10).hits().get(0).status());
+
+        caseService.deleteCase(created.getId(), "admin1");
+        assertEquals(0, searchService.search(renamed, null, 0, 10).total());
+    }
+
+    @Test
+    public void testAuditDetailsAreSearchable() {
+        CaseModel created = caseService.createCase(request("Audit Trail Ltd", null), "analyst1");
+        String remark = token();
+
+        auditService.logCaseAction(created.getId(), "NOTE_ADDED", "analyst1", "Called the bank about " + remark);
+
+        SearchPage audits = searchService.search(remark, CaseSearchIndex.TYPE_AUDIT, 0, 10);
+        assertEquals(1, audits.total());
+        SearchHit hit = audits.hits().get(0);
+        assertEquals(CaseSearchIndex.TYPE_AUDIT, hit.type());
+        assertEquals("NOTE_ADDED", hit.action());
+        assertEquals(created.getId().toString(), hit.caseId());
+        assertEquals(0, searchService.search(remark, CaseSearchIndex.TYPE_CASE, 0, 10).total());
+    }
+
+    @Test
+    public void testIdentifierMatchesOutrankDescriptionMatchesAndPagesDoNotOverlap() {
+        String term = token();
+        CaseModel byEntity = caseService.createCase(request(term, "Routine review"), "analyst1");
+        List<UUID> byDescription = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            byDescription.add(caseService.createCase(request("Other Corp " + i, "Payments mention " + term), "analyst1").getId());
+        }
+
+        SearchPage first = searchService.search(term, CaseSearchIndex.TYPE_CASE, 0, 2);
+        assertEquals(5, first.total());
+        assertEquals(byEntity.getId().toString(), first.hits().get(0).caseId());
+
+        Set<String> seen = new HashSet<>();
+        for (int page = 0; page < 3; page++) {
+            List<SearchHit> hits = searchService.search(term, CaseSearchIndex.TYPE_CASE, page, 2).hits();
+            assertEquals(page < 2 ? 2 : 1, hits.size());
+            hits.forEach(hit -> assertTrue(seen.add(hit.caseId()), "Hit repeated across pages: " + hit.caseId()));
+        }
+        assertTrue(seen.containsAll(byDescription.stream().map(UUID::toString).toList()));
+        assertTrue(searchService.search(term, CaseSearchIndex.TYPE_CASE, 3, 2).hits().isEmpty());
+    }
+
+    @Test
+    public void testInvalidQueryIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> searchService.search("entity:(", null, 0, 10));
+    }
+
+    @Test
+    public void testRebuildRestoresTheIndexFromTheDatabase() {
+        String entity = token();
+        String remark = token();
+        CaseModel created = caseService.createCase(request(entity, null), "analyst1");
+        auditService.logCaseAction(created.getId(), "NOTE_ADDED", "analyst1", "Follow up on " + remark);
+
+        searchIndex.deleteAll();
+        assertEquals(0, searchService.search(entity, null, 0, 10).total());
+
+        long indexed = searchService.rebuildIndex();
+
+        assertTrue(indexed >= 2);
+        assertEquals(indexed, searchIndex.documentCount());
+        assertEquals(created.getId().toString(), searchService.search(entity, CaseSearchIndex.TYPE_CASE, 0, 10).hits().get(0).caseId());
+        assertEquals(1, searchService.search(remark, CaseSearchIndex.TYPE_AUDIT, 0, 10).total());
+    }
+
+    /**
+     * Queries should stay under 50 ms. Indexes synthetic cases straight into the index and checks
+     * the p95 of a mix of single-term, multi-term and identifier queries. The corpus defaults to
+     * 20,000 cases; raise it with -Dsearch.bench.cases=1000000 for the full-size measurement.
+     */
+    @Test
+    public void testQueryLatencyStaysUnderTarget() {
+        int cases = Integer.getInteger("search.bench.cases", 20_000);
+        String corpus = token();
+        List<UUID> ids = new ArrayList<>(cases);
+        Random random = new Random(42);
+        for (int i = 0; i < cases; i++) {
+            CaseModel caseModel = new CaseModel();
+            caseModel.setId(UUID.randomUUID());
+            caseModel.setCaseNumber(corpus + "-" + i);
+            caseModel.setEntity("Entity " + random.nextInt(cases / 10 + 1) + " " + corpus);
+            caseModel.setAlertId("ALERT-" + i);
+            caseModel.setDescription(WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)]
+                + " " + WORDS[random.nextInt(WORDS.length)] + " " + corpus);
+            caseModel.setStatus(CaseStatus.DRAFT);
+            searchIndex.indexCase(caseModel);
+            ids.add(caseModel.getId());
+        }
+        try {
+            String[] queries = {
+                corpus, "wire AND transfer", "offshore shell", "\"cash deposit\"", "ALERT-" + (cases / 2),
+                "Entity AND " + corpus, "crypto OR sanctions", corpus + "-" + (cases - 1)
+            };
+            // Warm up the searcher and JIT
+            for (int i = 0; i < 50; i++) {
+                searchService.search(queries[i % queries.length], CaseSearchIndex.TYPE_CASE, 0, 20);
+            }
+            long[] nanos = new long[400];
+            for (int i = 0; i < nanos.length; i++) {
+                long start = System.nanoTime();
+                searchService.search(queries[i % queries.length], CaseSearchIndex.TYPE_CASE, i % 5, 20);
+                nanos[i] = System.nanoTime() - start;
+            }
+            Arrays.sort(nanos);
+            double p50 = nanos[nanos.length / 2] / 1_000_000.0;
+            double p95 = nanos[nanos.length * 95 / 100] / 1_000_000.0;
+            System.out.printf("Search over %,d cases: p50 %.2f ms, p95 %.2f ms%n", cases, p50, p95);
+            assertTrue(p95 < 50.0, "p95 search latency " + p95 + " ms exceeds 50 ms");
+        } finally {
+            ids.forEach(searchIndex::deleteCase);
+        }
+    }
+
+    private static String token() {
+        return "tok" + UUID.randomUUID().toString().replace("-", "");
+    }
+
+    private static CaseRequestDto request(String entity, String description) {
+        CaseRequestDto request = new CaseRequestDto();
+        request.setCaseType("AML");
+        request.setPriority("LOW");
+        request.setEntity(entity);
+        request.setDescription(description);
+        request.setRiskScore(20.0);
+        return request;
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.alert_detect_system.service;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.example.alert_detect_system.Model.SlaTimerModel;
+import com.example.alert_detect_system.Model.TaskModel;
+import com.example.alert_detect_system.repo.AuditLogRepo;
+import com.example.alert_detect_system.repo.SlaTimerRepository;
+import com.example.alert_detect_system.repo.TaskRepository;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class SlaTimerServiceTest {
+
+    @Autowired
+    private SlaTimerService slaTimerService;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private SlaTimerRepository slaTimerRepository;
+
+    @Autowired
+    private AuditLogRepo auditLogRepository;
+
+    @Test
+    public void testBreachedTaskIsEscalatedOnce() throws Exception {
+        TaskModel task = new TaskModel(UUID.randomUUID(), "Investigate Case", "investigations");
+        task.setPriority("MEDIUM");
+        task.setDueDate(LocalDateTime.now().plusSeconds(1));
+        task = taskService.saveTask(task);
+        String key = "task:" + task.getId();
+        assertTrue(slaTimerRepository.existsById(key));
+
+        tickAfter(2100);
+
+        TaskModel escalated = awaitEscalation(task.getId());
+        assertEquals("HIGH", escalated.getPriority());
+        assertEquals("admin", escalated.getCandidateGroup());
+        assertNotNull(escalated.getEscalatedAt());
+        assertFalse(slaTimerRepository.existsById(key));
+        assertEquals(1, countBreaches(task.getId()));
+
+        // Saving the escalated task again must not re-arm the timer
+        taskService.saveTask(escalated);
+        tickAfter(1000);
+        assertEquals(1, countBreaches(task.getId()));
+    }
+
+    @Test
+    public void testCompletedTaskDisarmsItsTimer() throws Exception {
+        TaskModel task = new TaskModel(UUID.randomUUID(), "Investigate Case", "investigations");
+        task.setDueDate(LocalDateTime.now().plusSeconds(1));
+        task = taskService.saveTask(task);
+        assertTrue(slaTimerRepository.existsById("task:" + task.getId()));
+
+        taskService.updateTaskStatus(task.getId().toString(), "COMPLETED");
+        assertFalse(slaTimerRepository.existsById("task:" + task.getId()));
+
+        tickAfter(2100);
+        assertEquals(0, countBreaches(task.getId()));
+    }
+
+    @Test
+    public void testCompletingATaskRemovesATimerArmedElsewhere() {
+        TaskModel task = new TaskModel(UUID.randomUUID(), "Investigate Case", "investigations");
+        task.setDueDate(LocalDateTime.now().plusHours(1));
+        // Written by another node: the row exists but this node's wheel has never seen the key
+        task = taskRepository.save(task);
+        String key = "task:" + task.getId();
+        slaTimerRepository.save(new SlaTimerModel(key, task.getId().toString(), SlaTimerModel.SOURCE_TASK,
+            task.getDueDate()));
+
+        taskService.updateTaskStatus(task.getId().toString(), "COMPLETED");
+        assertFalse(slaTimerRepository.existsById(key));
+    }
+
+    // The scheduler ticks in the background too; an extra tick just makes the test independent of it
+    private void tickAfter(long millis) throws InterruptedException {
+        Thread.sleep(millis);
+        slaTimerService.tick();
+    }
+
+    // A background tick may have taken the timer first and still be committing the escalation
+    private TaskModel awaitEscalation(UUID taskId) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        TaskModel task = taskRepository.findById(taskId).orElseThrow();
+        while (task.getEscalatedAt() == null && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+            task = taskRepository.findById(taskId).orElseThrow();
+        }
+        return task;
+    }
+
+    private long countBreaches(UUID taskId) {
+        return auditLogRepository.findAll().stream()
+            .filter(log -> taskId.toString().equals(log.getTaskId()) && "SLA_BREACHED".equals(log.getAction()))
+            .count();
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.alert_detect_system.service;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.example.alert_detect_system.Model.CaseModel;
+import com.example.alert_detect_system.Model.TaskModel;
+import com.example.alert_detect_system.dto.CaseRequestDto;
+import com.example.alert_detect_system.inbox.InboxEntry;
+import com.example.alert_detect_system.repo.TaskRepository;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class TaskInboxServiceTest {
+
+    private static final int TASKS = 40;
+    private static final int ANALYSTS = 16;
+
+    @Autowired
+    private TaskInboxService taskInboxService;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private CaseService caseService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Test
+    public void testInboxIsOrderedByRiskScore() {
+        String group = "inbox-order-" + UUID.randomUUID();
+        UUID low = createCaseWithRisk(10.0);
+        UUID high = createCaseWithRisk(95.0);
+        UUID medium = createCaseWithRisk(50.0);
+        for (UUID caseId : List.of(low, high, medium)) {
+            taskService.createInvestigateTask(caseId, group);
+        }
+
+        List<InboxEntry> inbox = taskInboxService.next(group, 10);
+        assertEquals(List.of(high, medium, low), inbox.stream().map(InboxEntry::caseId).toList());
+
+        // Raising a case's risk re-ranks its queued task
+        CaseRequestDto raise = new CaseRequestDto();
+        raise.setRiskScore(99.0);
+        caseService.updateCase(low, raise, "analyst1");
+        assertEquals(low, taskInboxService.next(group, 1).get(0).caseId());
+    }
+
+    @Test
+    public void testConcurrentClaimsNeverHandOutATaskTwice() throws Exception {
+        String group = "inbox-claim-" + UUID.randomUUID();
+        UUID caseId = createCaseWithRisk(40.0);
+        for (int i = 0; i < TASKS; i++) {
+            taskService.createInvestigateTask(caseId, group);
+        }
+        assertEquals(TASKS, taskInboxService.size(group));
+
+        Set<UUID> claimed = ConcurrentHashMap.newKeySet();
+        ConcurrentHashMap<UUID, Integer> claimCounts = new ConcurrentHashMap<>();
+        CountDownLatch startGate = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(ANALYSTS);
+        for (int i = 0; i < ANALYSTS; i++) {
+            String analyst = "analyst" + i;
+            pool.submit(() -> {
+                startGate.await();
+                Optional<TaskModel> task;
+                while ((task = taskInboxService.claim(group, null, analyst)).isPresent()) {
+                    claimed.add(task.get().getId());
+                    claimCounts.merge(task.get().getId(), 1, Integer::sum);
+                }
+                return null;
+            });
+        }
+        startGate.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(60, TimeUnit.SECONDS));
+
+        assertEquals(TASKS, claimed.size());
+        assertTrue(claimCounts.values().stream().allMatch(count -> count == 1));
+        assertEquals(0, taskInboxService.size(group));
+        // Claiming an already claimed task by ID is rejected
+        assertTrue(taskInboxService.claim(group, claimed.iterator().next(), "late-analyst").isEmpty());
+    }
+
+    @Test
+    public void testTaskCannotBeClaimedThroughAnotherGroup() {
+        String group = "inbox-own-" + UUID.randomUUID();
+        String otherGroup = "inbox-other-" + UUID.randomUUID();
+        taskService.createInvestigateTask(createCaseWithRisk(30.0), group);
+        TaskModel task = taskService.getGroupTasksFromDB(group).get(0);
+
+        assertTrue(taskInboxService.claim(otherGroup, task.getId(), "outsider").isEmpty());
+        TaskModel stored = taskRepository.findById(task.getId()).orElseThrow();
+        assertNull(stored.getAssignee());
+        assertEquals(1, taskInboxService.size(group));
+
+        // Not in this node's inbox (claimed from another node's view): the database still refuses
+        taskInboxService.onTaskChanged(new TaskChangedEvent(stored, true));
+        assertTrue(taskInboxService.claim(otherGroup, task.getId(), "outsider").isEmpty());
+        assertNull(taskRepository.findById(task.getId()).orElseThrow().getAssignee());
+
+        assertEquals("analyst1", taskInboxService.claim(group, task.getId(), "analyst1").orElseThrow().getAssignee());
+    }
+
+    private UUID createCaseWithRisk(double riskScore) {
+        CaseRequestDto request = new CaseRequestDto();
+        request.setCaseType("AML");
+        request.setPriority("MEDIUM");
+        request.setRiskScore(riskScore);
+        CaseModel created = caseService.createCase(request, "analyst1");
+        return created.getId();
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.alert_detect_system.sla;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+public class TimingWheelTest {
+
+    @Test
+    public void testTimersFireOnTheirTickAcrossAllLevels() {
+        long start = 1_000_000L;
+        TimingWheel<Integer> wheel = new TimingWheel<>(1, start);
+        Random random = new Random(3);
+        Map<Integer, Long> deadlines = new HashMap<>();
+        for (int i = 0; i < 20_000; i++) {
+            // Spread over every level, including a few past the top level's span
+            long offset = switch (i % 5) {
+                case 0 -> random.nextInt(64);
+                case 1 -> random.nextInt(4096);
+                case 2 -> random.nextInt(262_144);
+                case 3 -> random.nextInt(16_777_216);
+                default -> 16_777_216L + random.nextInt(1_000_000);
+            };
+            deadlines.put(i, start + offset);
+            wheel.schedule(i, start + offset);
+        }
+        // Cancelled timers never fire
+        for (int i = 0; i < 1_000; i++) {
+            assertTrue(wheel.cancel(i));
+            deadlines.remove(i);
+        }
+
+        Map<Integer, Long> firedAt = new HashMap<>();
+        long now = start;
+        long end = start + 16_777_216L + 1_000_000L + 1;
+        while (now < end) {
+            // Uneven steps exercise catch-up of several ticks at once
+            now = Math.min(end, now + 1 + random.nextInt(50_000));
+            long at = now;
+            wheel.advanceTo(now, key -> firedAt.put(key, at));
+        }
+
+        assertEquals(deadlines.size(), firedAt.size());
+        assertEquals(0, wheel.size());
+        for (Map.Entry<Integer, Long> entry : firedAt.entrySet()) {
+            long deadline = deadlines.get(entry.getKey());
+            assertTrue(entry.getValue() >= deadline, "fired early: " + entry.getKey());
+        }
+    }
+
+    @Test
+    public void testOverdueAndRescheduledTimers() {
+        TimingWheel<String> wheel = new TimingWheel<>(1000, 10_000);
+        List<String> fired = new ArrayList<>();
+        wheel.schedule("overdue", 5_000);
+        wheel.schedule("moved", 12_000);
+        wheel.schedule("moved", 90_000);
+        wheel.advanceTo(10_000, fired::add);
+        assertEquals(List.of("overdue"), fired);
+        wheel.advanceTo(60_000, fired::add);
+        assertEquals(List.of("overdue"), fired);
+        assertTrue(wheel.contains("moved"));
+        wheel.advanceTo(90_000, fired::add);
+        assertEquals(List.of("overdue", "moved"), fired);
+        assertFalse(wheel.contains("moved"));
+    }
+
+    @Test
+    public void testTickCostDoesNotGrowWithPendingTimers() {
+        long start = 0;
+        TimingWheel<Integer> wheel = new TimingWheel<>(1000, start);
+        int pending = 2_000_000;
+        Random random = new Random(11);
+        long scheduleStart = System.nanoTime();
+        for (int i = 0; i < pending; i++) {
+            // Due dates between one hour and thirty days out
+            wheel.schedule(i, 3_600_000L + (long) (random.nextDouble() * 30L * 86_400_000L));
+        }
+        long scheduleNanos = System.nanoTime() - scheduleStart;
+
+        long tickStart = System.nanoTime();
+        int ticks = 3_000;
+        for (int t = 1; t <= ticks; t++) {
+            wheel.advanceTo(t * 1000L, key -> { });
+        }
+        long tickNanos = System.nanoTime() - tickStart;
+        System.out.printf("TimingWheel: scheduled %d timers in %d ms, %d idle ticks in %.2f ms (%.0f ns/tick)%n",
+            pending, scheduleNanos / 1_000_000, ticks, tickNanos / 1e6, (double) tickNanos / ticks);
+        assertEquals(pending, wheel.size());
+    }
+}
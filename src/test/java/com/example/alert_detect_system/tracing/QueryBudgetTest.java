@@ -0,0 +1,142 @@
+package com.example.alert_detect_system.tracing;
+
+import java.util.Map;
+import java.util.UUID;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+import com.example.alert_detect_system.Model.CaseModel;
+import com.example.alert_detect_system.dto.CaseRequestDto;
+import com.example.alert_detect_system.service.CaseService;
+
+/**
+ * Calls the endpoints listed in tracing.budgets; the test profile sets tracing.fail-on-budget, so
+ * an endpoint running more statements than its budget fails the request and this test.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+public class QueryBudgetTest {
+
+    @Autowired
+    private WebApplicationContext context;
+
+    @Autowired
+    private RequestTraceFilter requestTraceFilter;
+
+    @Autowired
+    private CaseService caseService;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    public void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).addFilters(requestTraceFilter).build();
+    }
+
+    @Test
+    public void testEndpointsStayWithinBudget() throws Exception {
+        CaseModel created = createCase();
+        String[] paths = {
+            "/api/cases", "/api/cases/" + created.getId(), "/api/cases/recent", "/api/tasks/by-case/" + created.getId(),
+            "/api/tasks/my/admin1", "/api/tasks/group/admin",
+        };
+        for (String path : paths) {
+            MockHttpServletResponse response = mockMvc.perform(get(path)).andReturn().getResponse();
+            assertEquals(200, response.getStatus(), path);
+            assertTrue(response.getHeader(RequestTraceFilter.SERVER_TIMING_HEADER).startsWith("db;dur="), path);
+        }
+    }
+
+    @Test
+    public void testCaseListQueriesDoNotGrowWithCases() throws Exception {
+        createCase();
+        int before = queryCount("/api/cases");
+        for (int i = 0; i < 10; i++) {
+            createCase();
+        }
+        assertEquals(before, queryCount("/api/cases"));
+        assertEquals("1", mockMvc.perform(get("/api/cases/" + UUID.randomUUID())).andReturn().getResponse()
+            .getHeader(RequestTraceFilter.QUERY_REPEATS_HEADER));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testRequestOverBudgetFails() {
+        Map<String, Integer> budgets = (Map<String, Integer>) ReflectionTestUtils.getField(requestTraceFilter, "budgets");
+        budgets.put("GET /api/cases/recent", 0);
+        try {
+            Exception e = assertThrows(Exception.class, () -> mockMvc.perform(get("/api/cases/recent")));
+            assertTrue(e.getMessage().contains("over its budget of 0"), e.getMessage());
+        } finally {
+            budgets.put("GET /api/cases/recent", 1);
+        }
+    }
+
+    @Test
+    public void testBodiesOverTheLimitAreNotHeldBack() throws Exception {
+        CaseModel created = createCase();
+        String path = "/api/cases/" + created.getId();
+        MockHttpServletResponse held = mockMvc.perform(get(path)).andReturn().getResponse();
+        ReflectionTestUtils.setField(requestTraceFilter, "headersMaxBody", 16);
+        try {
+            MockHttpServletResponse passed = mockMvc.perform(get(path)).andReturn().getResponse();
+            assertEquals(200, passed.getStatus());
+            assertNull(passed.getHeader(RequestTraceFilter.QUERY_COUNT_HEADER));
+            assertEquals(held.getContentAsString(), passed.getContentAsString());
+        } finally {
+            ReflectionTestUtils.setField(requestTraceFilter, "headersMaxBody", 262144);
+        }
+    }
+
+    @Test
+    public void testRepeatedStatementsAreFlagged() {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        RequestTrace trace = RequestTrace.start();
+        try {
+            for (int i = 0; i < 6; i++) {
+                jdbcTemplate.queryForObject("SELECT COUNT(*) FROM cases WHERE created_by = ?", Long.class, "analyst1");
+            }
+            jdbcTemplate.queryForObject("SELECT COUNT(*) FROM tasks", Long.class);
+        } finally {
+            RequestTrace.stop();
+        }
+        assertEquals(7, trace.statements());
+        assertTrue(trace.jdbcNanos() > 0);
+        assertEquals(Map.of("SELECT COUNT(*) FROM cases WHERE created_by = ?", 6), trace.repeatedStatements(5));
+    }
+
+    private int queryCount(String path) throws Exception {
+        return Integer.parseInt(mockMvc.perform(get(path)).andReturn().getResponse()
+            .getHeader(RequestTraceFilter.QUERY_COUNT_HEADER));
+    }
+
+    private CaseModel createCase() {
+        CaseRequestDto request = new CaseRequestDto();
+        request.setCaseType("AML");
+        request.setPriority("LOW");
+        request.setEntity("Acme Trading");
+        request.setTypology("FRAUD");
+        request.setRiskScore(20.0);
+        return caseService.createCase(request, "analyst1");
+    }
+}
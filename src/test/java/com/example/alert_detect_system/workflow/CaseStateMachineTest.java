@@ -0,0 +1,106 @@
+package com.example.alert_detect_system.workflow;
+
+import java.util.EnumSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import org.junit.jupiter.api.Test;
+
+import com.example.alert_detect_system.Model.CaseModel;
+import com.example.alert_detect_system.Model.CaseStatus;
+
+public class CaseStateMachineTest {
+
+    private final CaseStateMachine machine = new CaseStateMachine();
+
+    @Test
+    public void testTerminalStatusesHaveNoExits() {
+        assertTrue(machine.isTerminal(CaseStatus.CLOSED));
+        assertTrue(machine.isTerminal(CaseStatus.ABANDONED));
+        assertFalse(machine.isTerminal(CaseStatus.DRAFT));
+        for (CaseStatus to : CaseStatus.values()) {
+            assertFalse(machine.canTransition(CaseStatus.CLOSED, to));
+            assertFalse(machine.canTransition(CaseStatus.ABANDONED, to));
+        }
+    }
+
+    @Test
+    public void testTargetsAndSourcesAgreeWithTable() {
+        for (CaseStatus from : CaseStatus.values()) {
+            for (CaseStatus to : CaseStatus.values()) {
+                boolean allowed = machine.canTransition(from, to);
+                assertEquals(allowed, machine.allowedTargets(from).contains(to), from + " -> " + to);
+                assertEquals(allowed, machine.allowedSources(to).contains(from), from + " -> " + to);
+            }
+            assertFalse(machine.canTransition(from, from), "self transition on " + from);
+        }
+        assertEquals(EnumSet.of(CaseStatus.DRAFT, CaseStatus.REJECTED),
+            machine.allowedSources(CaseStatus.PENDING_CASE_CREATION_APPROVAL));
+    }
+
+    @Test
+    public void testAbandonGuardOnlyAllowsCreator() {
+        CaseModel draft = new CaseModel();
+        draft.setCreatedBy("analyst1");
+        draft.setStatus(CaseStatus.DRAFT);
+
+        assertTrue(machine.hasGuards(CaseStatus.DRAFT, CaseStatus.ABANDONED));
+        machine.validate(draft, CaseStatus.DRAFT, CaseStatus.ABANDONED, "analyst1");
+        CaseTransitionException forbidden = assertThrows(CaseTransitionException.class,
+            () -> machine.validate(draft, CaseStatus.DRAFT, CaseStatus.ABANDONED, "someone-else"));
+        assertTrue(forbidden.isForbidden());
+
+        CaseTransitionException illegal = assertThrows(CaseTransitionException.class,
+            () -> machine.validate(draft, CaseStatus.COMPLETED, CaseStatus.ABANDONED, "analyst1"));
+        assertFalse(illegal.isForbidden());
+    }
+
+    @Test
+    public void testRandomWalksNeverLeaveTheTable() {
+        Random random = new Random(42);
+        CaseStatus[] statuses = CaseStatus.values();
+        CaseModel caseModel = new CaseModel();
+        caseModel.setCreatedBy("analyst1");
+        for (int walk = 0; walk < 1_000; walk++) {
+            CaseStatus current = CaseStatus.DRAFT;
+            for (int step = 0; step < 20 && !machine.isTerminal(current); step++) {
+                CaseStatus next = statuses[random.nextInt(statuses.length)];
+                Set<CaseStatus> allowed = machine.allowedTargets(current);
+                if (allowed.contains(next)) {
+                    machine.validate(caseModel, current, next, "analyst1");
+                    current = next;
+                } else {
+                    CaseStatus from = current;
+                    assertThrows(CaseTransitionException.class, () -> machine.validate(caseModel, from, next, "analyst1"));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testLookupThroughput() {
+        assumeTrue(Boolean.getBoolean("statemachine.bench"), "set -Dstatemachine.bench=true to run");
+        CaseStatus[] statuses = CaseStatus.values();
+        int n = statuses.length;
+        int iterations = 10_000_000;
+        int allowed = 0;
+        // warm up
+        for (int i = 0; i < iterations; i++) {
+            if (machine.canTransition(statuses[i % n], statuses[(i / n) % n])) allowed++;
+        }
+        allowed = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            if (machine.canTransition(statuses[i % n], statuses[(i / n) % n])) allowed++;
+        }
+        long elapsed = System.nanoTime() - start;
+        System.out.printf("CaseStateMachine: %d lookups in %.1f ms (%.0f M/s), %d allowed%n",
+            iterations, elapsed / 1e6, iterations * 1e3 / elapsed, allowed);
+        assertTrue(allowed > 0);
+    }
+}